@@ -0,0 +1,311 @@
+package cmu.detector;
+
+import cmu.detector.ast.ParserEnvironment;
+import cmu.detector.console.ToolParameters;
+import cmu.detector.history.ChangeHistory;
+import cmu.detector.history.CoChangeIndex;
+import cmu.detector.metrics.CallGraphMetricValueCollector;
+import cmu.detector.metrics.HierarchyMetricValueCollector;
+import cmu.detector.metrics.MethodHistoryMetricValueCollector;
+import cmu.detector.metrics.MethodMetricValueCollector;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.TypeHistoryMetricValueCollector;
+import cmu.detector.metrics.TypeMetricValueCollector;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
+import cmu.detector.resources.AnalysisContext;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.resources.loader.JavaFilesFinder;
+import cmu.detector.resources.loader.PackageFilter;
+import cmu.detector.resources.loader.SourceFile;
+import cmu.detector.resources.loader.SourceFilesLoader;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.detectors.ClassLevelSmellDetector;
+import cmu.detector.smells.detectors.MethodLevelSmellDetector;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The loaded model of an analysis: source files, their types and methods, metric
+ * values and smells. A session is analysed once and can then be updated file by
+ * file: only the changed files are parsed and measured again, while aggregates,
+ * thresholds and smells are refreshed from the stored metric values, and call graph
+ * and hierarchy metrics from the updated graphs.
+ *
+ * <p>
+ * Settings (source folders, filters, classpath, modes) are read from
+ * {@link ToolParameters} when the session is created.
+ * </p>
+ */
+public class AnalysisSession {
+
+    private final List<String> sourcePaths;
+
+    private final JavaFilesFinder finder;
+
+    private final String[] classpath;
+
+    private final boolean resolveBindings;
+
+    private final boolean tokenLOC;
+
+    private final int shardSize;
+
+    private final PackageFilter packageFilter;
+
+    /**
+     * Co-changes mined from the git history, or null if history metrics are disabled.
+     * Kept across analyses, so each one only reads the new commits
+     */
+    private final ChangeHistory history;
+
+    /**
+     * Loaded files by absolute path, sorted so types keep a stable order
+     */
+    private final Map<String, SourceFile> sourceFiles;
+
+    /**
+     * Call graph and type hierarchy of the loaded files, replaced by each full analysis
+     */
+    private AnalysisContext context;
+
+    public AnalysisSession(ToolParameters parameters) {
+        this.sourcePaths = List.of(parameters.getValues(ToolParameters.SOURCE_FOLDER));
+        this.finder = new JavaFilesFinder(sourcePaths);
+        this.finder.setIncludes(List.of(parameters.getValues(ToolParameters.INCLUDE)));
+        List<String> excludes = List.of(parameters.getValues(ToolParameters.EXCLUDE));
+        if (parameters.hasOption(ToolParameters.NO_DEFAULT_EXCLUDES)) {
+            this.finder.setExcludes(excludes);
+        } else {
+            this.finder.addExcludes(excludes);
+        }
+        this.finder.setIgnoreTests(parameters.hasOption(ToolParameters.IGNORE_TESTS));
+        this.finder.setRespectGitignore(parameters.hasOption(ToolParameters.GITIGNORE));
+        this.classpath = parameters.getValues(ToolParameters.CLASSPATH);
+        this.resolveBindings = !parameters.hasOption(ToolParameters.FAST_SCAN);
+        this.tokenLOC = parameters.hasOption(ToolParameters.TOKEN_LOC);
+        String shardSize = parameters.getValue(ToolParameters.SHARD_SIZE);
+        this.shardSize = shardSize == null ? 0 : Integer.parseInt(shardSize);
+        this.packageFilter = new PackageFilter(List.of(parameters.getValues(ToolParameters.INCLUDE_PACKAGES)));
+        if (parameters.hasOption(ToolParameters.HISTORY)) {
+            String window = parameters.getValue(ToolParameters.HISTORY);
+            String cacheFile = parameters.getValue(ToolParameters.HISTORY_CACHE);
+            this.history = new ChangeHistory(new File(sourcePaths.get(0)),
+                    window == null ? ChangeHistory.DEFAULT_WINDOW : Integer.parseInt(window),
+                    cacheFile == null ? null : new File(cacheFile));
+        } else {
+            this.history = null;
+        }
+        this.sourceFiles = new TreeMap<>();
+        this.context = new AnalysisContext(packageFilter);
+    }
+
+    /**
+     * Loads and analyses every file of the source folders, discarding any previous state
+     */
+    public void analyze() throws IOException {
+        this.sourceFiles.clear();
+        this.context = new AnalysisContext(packageFilter);
+        AggregateMetricValues.getInstance().reset();
+        // jars may have been added to a wildcard folder, or missing entries created, since the last analysis
+        ParserEnvironment.clearCache();
+
+        SourceFilesLoader loader = new SourceFilesLoader(finder, classpath, resolveBindings, shardSize, context);
+        for (SourceFile sourceFile : loader.getLoadedSourceFiles()) {
+            this.sourceFiles.put(sourceFile.getFile().getAbsolutePath(), sourceFile);
+        }
+
+        // first pass: every metric value must be known before thresholds are derived
+        this.collectMetrics(this.getTypes());
+        this.collectGlobalMetrics();
+        ThresholdSnapshot thresholds = ThresholdSnapshot.freeze(AggregateMetricValues.getInstance());
+
+        // second pass: detectors only read the frozen thresholds, so they can run in parallel
+        this.detectSmells(this.getTypes(), thresholds);
+    }
+
+    /**
+     * Parses and measures again the given files (deleted files are dropped from the
+     * model), then refreshes call graph and hierarchy metrics, thresholds and smells of the whole model
+     *
+     * @return the types declared in the updated files
+     */
+    public List<Type> update(Collection<File> files) throws IOException {
+        List<File> existing = new ArrayList<>();
+        for (File file : files) {
+            String path = file.getAbsolutePath();
+            SourceFile previous = this.sourceFiles.remove(path);
+            if (previous != null) {
+                this.context.unregister(previous);
+            }
+            if (file.isFile() && path.endsWith(".java")) {
+                existing.add(file.getAbsoluteFile());
+            }
+        }
+
+        List<Type> updated = new ArrayList<>();
+        if (!existing.isEmpty()) {
+            SourceFilesLoader loader = new SourceFilesLoader(finder, existing, classpath, resolveBindings, context);
+            for (SourceFile sourceFile : loader.getLoadedSourceFiles()) {
+                this.sourceFiles.put(sourceFile.getFile().getAbsolutePath(), sourceFile);
+                updated.addAll(sourceFile.getTypes());
+            }
+            this.collectMetrics(updated);
+        }
+        // calls and supertypes of the updated files change the global metrics of any type or method
+        this.collectGlobalMetrics();
+
+        this.rebuildAggregates();
+        ThresholdSnapshot thresholds = ThresholdSnapshot.freeze(AggregateMetricValues.getInstance());
+        List<Type> types = this.getTypes();
+        for (Type type : types) {
+            type.clearSmells();
+            type.getMethods().forEach(Resource::clearSmells);
+        }
+        this.detectSmells(types, thresholds);
+        return updated;
+    }
+
+    /**
+     * Aggregates cannot forget values, so after an update they are rebuilt from the
+     * metric values stored in the model, without computing any metric again
+     */
+    private void rebuildAggregates() {
+        AggregateMetricValues aggregate = AggregateMetricValues.getInstance();
+        Set<MetricName> aggregated = aggregate.getAggregatedMetrics();
+        aggregate.reset();
+
+        for (Type type : this.getTypes()) {
+            this.addToAggregates(aggregate, aggregated, type);
+            for (Method method : type.getMethods()) {
+                this.addToAggregates(aggregate, aggregated, method);
+            }
+        }
+    }
+
+    private void addToAggregates(AggregateMetricValues aggregate, Set<MetricName> aggregated, Resource resource) {
+        for (MetricName metric : aggregated) {
+            if (resource.hasMetricValue(metric)) {
+                aggregate.addValue(metric, resource.getMetricValue(metric));
+            }
+        }
+    }
+
+    private void collectMetrics(List<Type> types) {
+        for (Type type : types) {
+            // methods first: type metrics such as WMC reuse their values
+            for (Method method : type.getMethods()) {
+                MethodMetricValueCollector methodCollector = new MethodMetricValueCollector(tokenLOC);
+                methodCollector.collect(method);
+            }
+
+            TypeMetricValueCollector typeCollector = new TypeMetricValueCollector(tokenLOC);
+            typeCollector.collect(type);
+        }
+    }
+
+    /**
+     * Metrics computed from the whole call graph and type hierarchy, and from the git history
+     */
+    private void collectGlobalMetrics() throws IOException {
+        HierarchyMetricValueCollector typeCollector = new HierarchyMetricValueCollector();
+        CallGraphMetricValueCollector methodCollector = new CallGraphMetricValueCollector();
+        for (Type type : this.getTypes()) {
+            typeCollector.collect(type);
+            for (Method method : type.getMethods()) {
+                methodCollector.collect(method);
+            }
+        }
+
+        if (this.history != null) {
+            this.collectHistoryMetrics();
+        }
+    }
+
+    private void collectHistoryMetrics() throws IOException {
+        CoChangeIndex coChanges = this.history.mine();
+        if (coChanges == null) {
+            System.out.println("No git repository found for " + sourcePaths.get(0) + ": history metrics are not computed");
+            return;
+        }
+        this.context.setCoChanges(coChanges);
+
+        TypeHistoryMetricValueCollector typeCollector = new TypeHistoryMetricValueCollector();
+        MethodHistoryMetricValueCollector methodCollector = new MethodHistoryMetricValueCollector();
+        for (Type type : this.getTypes()) {
+            typeCollector.collect(type);
+            for (Method method : type.getMethods()) {
+                methodCollector.collect(method);
+            }
+        }
+    }
+
+    private void detectSmells(List<Type> types, ThresholdSnapshot thresholds) {
+        ClassLevelSmellDetector classDetector = new ClassLevelSmellDetector(thresholds);
+        MethodLevelSmellDetector methodDetector = new MethodLevelSmellDetector(thresholds);
+
+        List<Resource> resources = new ArrayList<>();
+        for (Type type : types) {
+            resources.add(type);
+            resources.addAll(type.getMethods());
+        }
+
+        resources.parallelStream().forEach(resource -> {
+            List<Smell> smells;
+            if (resource instanceof Type) {
+                smells = classDetector.detect(resource);
+            } else {
+                smells = methodDetector.detect(resource);
+            }
+            resource.addAllSmells(smells);
+        });
+    }
+
+    public List<String> getSourcePaths() {
+        return sourcePaths;
+    }
+
+    public AnalysisContext getContext() {
+        return context;
+    }
+
+    public JavaFilesFinder getFinder() {
+        return finder;
+    }
+
+    public Collection<SourceFile> getSourceFiles() {
+        return sourceFiles.values();
+    }
+
+    public SourceFile getSourceFile(File file) {
+        return sourceFiles.get(file.getAbsolutePath());
+    }
+
+    public List<Type> getTypes() {
+        List<Type> types = new ArrayList<>();
+        for (SourceFile sourceFile : this.sourceFiles.values()) {
+            types.addAll(sourceFile.getTypes());
+        }
+        return types;
+    }
+
+    public Type findType(String fullyQualifiedName) {
+        for (SourceFile sourceFile : this.sourceFiles.values()) {
+            for (Type type : sourceFile.getTypes()) {
+                if (fullyQualifiedName.equals(type.getFullyQualifiedName())) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+}
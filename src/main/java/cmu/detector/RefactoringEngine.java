@@ -1,26 +1,21 @@
 package cmu.detector;
 
 import cmu.detector.console.ToolParameters;
-import cmu.detector.console.output.ObservableExclusionStrategy;
-import cmu.detector.metrics.MethodMetricValueCollector;
-import cmu.detector.metrics.TypeMetricValueCollector;
-import cmu.detector.smells.detectors.ClassLevelSmellDetector;
-import cmu.detector.smells.detectors.MethodLevelSmellDetector;
-import cmu.detector.smells.Smell;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import cmu.detector.resources.Method;
+import cmu.detector.console.output.CsvOutput;
+import cmu.detector.console.output.JsonFragmentWriter;
+import cmu.detector.console.output.JsonOutput;
+import cmu.detector.daemon.AnalysisDaemon;
+import cmu.detector.daemon.SourceWatcher;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
 import cmu.detector.resources.Type;
-import cmu.detector.resources.loader.JavaFilesFinder;
-import cmu.detector.resources.loader.SourceFile;
-import cmu.detector.resources.loader.SourceFilesLoader;
+import cmu.detector.snapshot.SnapshotWriter;
+import com.google.gson.Gson;
 import org.apache.commons.cli.ParseException;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -45,63 +40,66 @@ public class RefactoringEngine {
             System.exit(-1);
         }
 
-        System.out.println(new Date());
-
-        List<String> sourcePaths = List.of(parameters.getValue(ToolParameters.SOURCE_FOLDER));
-        List<Type> allTypes = this.loadAllTypes(sourcePaths);
+        if (parameters.hasOption(ToolParameters.BOUNDED_STATISTICS)) {
+            AggregateMetricValues.getInstance().useBoundedMemory(parameters.getSketchAccuracy());
+        }
 
-        collectTypeMetrics(allTypes);
+        AnalysisSession session = new AnalysisSession(parameters);
+        if (parameters.hasOption(ToolParameters.DAEMON)) {
+            new AnalysisDaemon(session).run();
+            return;
+        }
 
-        saveInfoFile(allTypes);
+        if (parameters.hasOption(ToolParameters.WATCH)) {
+            this.watch(session);
+            return;
+        }
 
         System.out.println(new Date());
+        session.analyze();
+        List<Type> allTypes = session.getTypes();
 
-    }
-
-    private List<Type> loadAllTypes(List<String> sourcePaths) throws IOException {
-        List<Type> allTypes = new ArrayList<>();
-
-        JavaFilesFinder javaFilesFinder = new JavaFilesFinder(sourcePaths);
-        SourceFilesLoader sourceFilesLoader = new SourceFilesLoader(javaFilesFinder);
-        List<SourceFile> sourceFiles = sourceFilesLoader.getLoadedSourceFiles();
-
-        for (SourceFile sourceFile : sourceFiles) {
-            allTypes.addAll(sourceFile.getTypes());
+        // --only-smelly filters the JSON output; the model, snapshot and CSV stay complete
+        saveInfoFile(allTypes, parameters.shouldFilterSmelly());
+        if (parameters.hasOption(ToolParameters.SNAPSHOT)) {
+            SnapshotWriter.write(new File(parameters.getValue(ToolParameters.SNAPSHOT)), allTypes, session.getContext());
+        }
+        if (parameters.hasOption(ToolParameters.CSV)) {
+            CsvOutput.write(new File(parameters.getValue(ToolParameters.CSV)), allTypes);
         }
 
-        return allTypes;
-    }
-
-    private void collectTypeMetrics(List<Type> types) {
-        for (Type type : types) {
-            TypeMetricValueCollector typeCollector = new TypeMetricValueCollector();
-            typeCollector.collect(type);
+        System.out.println(new Date());
 
-            this.collectMethodMetrics(type);
-        }
     }
 
-    private void collectMethodMetrics(Type type) {
-        for (Method method: type.getMethods()) {
-            MethodMetricValueCollector methodCollector = new MethodMetricValueCollector();
-            methodCollector.collect(method);
+    /**
+     * Analyses once, then keeps the output file up to date until the process is stopped
+     */
+    private void watch(AnalysisSession session) throws IOException {
+        ToolParameters parameters = ToolParameters.getInstance();
+        String quietMillis = parameters.getValue(ToolParameters.WATCH);
+        File outputFile = new File(parameters.getValue(ToolParameters.OUTPUT_FILE));
+
+        session.analyze();
+        JsonFragmentWriter writer = new JsonFragmentWriter(outputFile, parameters.shouldFilterSmelly());
+        writer.write(session.getSourceFiles(), List.of());
+        System.out.println("Watching " + String.join(File.pathSeparator, session.getSourcePaths())
+                + " for changes...");
+
+        try (SourceWatcher watcher = new SourceWatcher(session, writer,
+                quietMillis == null ? SourceWatcher.DEFAULT_QUIET_MILLIS : Long.parseLong(quietMillis))) {
+            watcher.run();
         }
     }
 
-    private void saveInfoFile(List<Type> smellyTypes) throws IOException {
+    private void saveInfoFile(List<Type> types, boolean onlySmelly) throws IOException {
         ToolParameters parameters = ToolParameters.getInstance();
         File smellsFile = new File(parameters.getValue(ToolParameters.OUTPUT_FILE));
         BufferedWriter writer = new BufferedWriter(new FileWriter(smellsFile));
         System.out.println("\nSaving info in file...");
 
-        GsonBuilder builder = new GsonBuilder();
-        builder.addSerializationExclusionStrategy(new ObservableExclusionStrategy());
-        builder.disableHtmlEscaping();
-        builder.setPrettyPrinting();
-        builder.serializeNulls();
-
-        Gson gson = builder.create();
-        gson.toJson(smellyTypes, writer);
+        Gson gson = JsonOutput.create(true);
+        JsonOutput.write(gson, types, onlySmelly, writer);
         writer.close();
     }
 }
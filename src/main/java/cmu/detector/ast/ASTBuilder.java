@@ -4,27 +4,39 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 
-import java.util.Arrays;
 import java.util.Map;
 
 public class ASTBuilder {
 
     private Map<String, String> options;
 
-    private String[] sourcePaths;
+    private ParserEnvironment environment;
 
-    private String[] encoding;
+    private boolean resolveBindings;
 
     public String[] getEncoding() {
-        return encoding;
+        return environment.getEncodings();
     }
 
-    @SuppressWarnings("unchecked")
     public ASTBuilder(String[] sourcePaths) {
-        this.sourcePaths = sourcePaths;
-        this.encoding = new String[this.sourcePaths.length];
-        Arrays.fill(this.encoding, "UTF-8");
-        this.sourcePaths.clone();
+        this(sourcePaths, true);
+    }
+
+    /**
+     * @param resolveBindings when false, units are parsed without bindings (fast-scan mode):
+     *                        much cheaper, but names must be resolved syntactically
+     */
+    public ASTBuilder(String[] sourcePaths, boolean resolveBindings) {
+        this(sourcePaths, new String[0], resolveBindings);
+    }
+
+    /**
+     * @param classpath jars and class folders the sources depend on ({@code dir/*} for all jars of a folder)
+     */
+    @SuppressWarnings("unchecked")
+    public ASTBuilder(String[] sourcePaths, String[] classpath, boolean resolveBindings) {
+        this.environment = ParserEnvironment.of(sourcePaths, classpath);
+        this.resolveBindings = resolveBindings;
 
         options = JavaCore.getOptions();
         options.put(JavaCore.COMPILER_COMPLIANCE, JavaCore.latestSupportedJavaVersion());
@@ -34,15 +46,20 @@ public class ASTBuilder {
         JavaCore.setComplianceOptions(JavaCore.latestSupportedJavaVersion(), options);
     }
 
+    public ParserEnvironment getEnvironment() {
+        return environment;
+    }
+
     public ASTParser create() {
         ASTParser parser = ASTParser.newParser(AST.getJLSLatest());
 
         parser.setCompilerOptions(this.options);
-        parser.setResolveBindings(true);
-        parser.setBindingsRecovery(true);
+        parser.setResolveBindings(this.resolveBindings);
+        parser.setBindingsRecovery(this.resolveBindings);
         parser.setStatementsRecovery(true);
         parser.setKind(ASTParser.K_COMPILATION_UNIT);
-        parser.setEnvironment(null, sourcePaths, this.encoding, true);
+        parser.setEnvironment(environment.getClasspath(), environment.getSourcePaths(),
+                environment.getEncodings(), true);
         parser.setUnitName("any_name");
 
         return parser;
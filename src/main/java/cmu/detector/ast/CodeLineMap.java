@@ -0,0 +1,116 @@
+package cmu.detector.ast;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.compiler.IScanner;
+import org.eclipse.jdt.core.compiler.ITerminalSymbols;
+import org.eclipse.jdt.core.compiler.InvalidInputException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Marks the lines of a source file that hold at least one token other than a
+ * comment. It is built by running the JDT scanner over the raw characters, so
+ * neither an AST nor bindings are needed; lines of code of any offset range
+ * (a method, a type, the whole file) are then a cardinality over the marked
+ * lines.
+ */
+public final class CodeLineMap {
+
+    /**
+     * lineStarts[i] is the offset of the first character of line i + 1
+     */
+    private final int[] lineStarts;
+
+    /**
+     * Bit i is set when line i (1-based) holds code
+     */
+    private final BitSet codeLines;
+
+    private CodeLineMap(int[] lineStarts, BitSet codeLines) {
+        this.lineStarts = lineStarts;
+        this.codeLines = codeLines;
+    }
+
+    public static CodeLineMap scan(char[] source) {
+        int[] lineStarts = computeLineStarts(source);
+        BitSet codeLines = new BitSet(lineStarts.length + 1);
+
+        IScanner scanner = ToolFactory.createScanner(false, false, false, JavaCore.latestSupportedJavaVersion());
+        scanner.setSource(source);
+
+        int token = ITerminalSymbols.TokenNameEOF;
+        do {
+            try {
+                token = scanner.getNextToken();
+            } catch (InvalidInputException exception) {
+                // unterminated literal or invalid character: count its line and keep going
+                int position = Math.max(scanner.getCurrentTokenStartPosition(), 0);
+                codeLines.set(getLineNumber(lineStarts, position));
+                int resume = Math.max(scanner.getCurrentTokenEndPosition() + 1, position + 1);
+                if (resume >= source.length) {
+                    break;
+                }
+                scanner.resetTo(resume, source.length - 1);
+                continue;
+            }
+
+            if (token != ITerminalSymbols.TokenNameEOF) {
+                int startLine = getLineNumber(lineStarts, scanner.getCurrentTokenStartPosition());
+                int endLine = getLineNumber(lineStarts, scanner.getCurrentTokenEndPosition());
+                // text blocks and other multi-line tokens hold code in all their lines
+                codeLines.set(startLine, endLine + 1);
+            }
+        } while (token != ITerminalSymbols.TokenNameEOF);
+
+        return new CodeLineMap(lineStarts, codeLines);
+    }
+
+    private static int[] computeLineStarts(char[] source) {
+        int[] starts = new int[Math.max(16, source.length / 32)];
+        int lines = 0;
+        starts[lines++] = 0;
+        for (int i = 0; i < source.length; i++) {
+            char current = source[i];
+            if (current == '\r' && i + 1 < source.length && source[i + 1] == '\n') {
+                i++;
+            } else if (current != '\r' && current != '\n') {
+                continue;
+            }
+            if (lines == starts.length) {
+                starts = Arrays.copyOf(starts, lines * 2);
+            }
+            starts[lines++] = i + 1;
+        }
+        return Arrays.copyOf(starts, lines);
+    }
+
+    private static int getLineNumber(int[] lineStarts, int position) {
+        int index = Arrays.binarySearch(lineStarts, position);
+        if (index >= 0) {
+            return index + 1;
+        }
+        return -(index + 1);
+    }
+
+    public int getLineNumber(int position) {
+        return getLineNumber(lineStarts, position);
+    }
+
+    /**
+     * @return lines of code between the lines of both offsets (inclusive)
+     */
+    public int countLines(int startPosition, int endPosition) {
+        int startLine = getLineNumber(startPosition);
+        int endLine = getLineNumber(endPosition);
+        return codeLines.get(startLine, endLine + 1).cardinality();
+    }
+
+    /**
+     * @return lines of code of the whole file
+     */
+    public int countLines() {
+        return codeLines.cardinality();
+    }
+}
@@ -0,0 +1,88 @@
+package cmu.detector.ast;
+
+import org.eclipse.jdt.core.dom.Comment;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import java.util.List;
+
+/**
+ * Sorted start/end offsets of all comments of a compilation unit. Comments do
+ * not overlap, so finding the comment that covers an offset is a binary search
+ * over the start offsets, O(log c) instead of a scan of the comment list.
+ *
+ * <p>
+ * Like {@link LineIndex}, the index is built once and cached as a property of
+ * the compilation unit.
+ * </p>
+ */
+public final class CommentIndex {
+
+    private static final String PROPERTY = CommentIndex.class.getName();
+
+    private final int[] starts;
+
+    private final int[] ends;
+
+    private CommentIndex(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static CommentIndex of(CompilationUnit compilationUnit) {
+        Object cached = compilationUnit.getProperty(PROPERTY);
+        if (cached instanceof CommentIndex) {
+            return (CommentIndex) cached;
+        }
+
+        synchronized (compilationUnit) {
+            cached = compilationUnit.getProperty(PROPERTY);
+            if (cached instanceof CommentIndex) {
+                return (CommentIndex) cached;
+            }
+            CommentIndex index = build(compilationUnit);
+            compilationUnit.setProperty(PROPERTY, index);
+            return index;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CommentIndex build(CompilationUnit compilationUnit) {
+        List<Comment> comments = (List<Comment>) compilationUnit.getCommentList();
+        if (comments == null) {
+            return new CommentIndex(new int[0], new int[0]);
+        }
+
+        // the comment list is already sorted by position
+        int[] starts = new int[comments.size()];
+        int[] ends = new int[comments.size()];
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            starts[i] = comment.getStartPosition();
+            ends[i] = comment.getStartPosition() + comment.getLength();
+        }
+        return new CommentIndex(starts, ends);
+    }
+
+    /**
+     * @return true if the offset lies inside a comment
+     */
+    public boolean isInsideComment(int position) {
+        int low = 0;
+        int high = starts.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= position) {
+                candidate = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return candidate >= 0 && ends[candidate] > position;
+    }
+
+    public int getCommentCount() {
+        return starts.length;
+    }
+}
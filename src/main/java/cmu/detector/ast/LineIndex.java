@@ -0,0 +1,112 @@
+package cmu.detector.ast;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import java.util.Arrays;
+
+/**
+ * Offsets where each line of a compilation unit starts. Line lookups are a
+ * binary search over a primitive array and give the same answers as
+ * {@link CompilationUnit#getLineNumber(int)} and
+ * {@link CompilationUnit#getPosition(int, int)} (column 0).
+ *
+ * <p>
+ * The index is built once per compilation unit and stored as a property of
+ * its root node, so every visitor or calculator that holds the unit shares it.
+ * </p>
+ */
+public final class LineIndex {
+
+    private static final String PROPERTY = LineIndex.class.getName();
+
+    /**
+     * lineStarts[i] is the offset of the first character of line i + 1
+     */
+    private final int[] lineStarts;
+
+    /**
+     * Offset right after the last character of the compilation unit
+     */
+    private final int end;
+
+    private LineIndex(int[] lineStarts, int end) {
+        this.lineStarts = lineStarts;
+        this.end = end;
+    }
+
+    /**
+     * Retrieves the index of the compilation unit, building it on the first call
+     */
+    public static LineIndex of(CompilationUnit compilationUnit) {
+        Object cached = compilationUnit.getProperty(PROPERTY);
+        if (cached instanceof LineIndex) {
+            return (LineIndex) cached;
+        }
+
+        synchronized (compilationUnit) {
+            cached = compilationUnit.getProperty(PROPERTY);
+            if (cached instanceof LineIndex) {
+                return (LineIndex) cached;
+            }
+            LineIndex index = build(compilationUnit);
+            compilationUnit.setProperty(PROPERTY, index);
+            return index;
+        }
+    }
+
+    private static LineIndex build(CompilationUnit compilationUnit) {
+        int[] starts = new int[64];
+        int lines = 0;
+        int position;
+        while ((position = compilationUnit.getPosition(lines + 1, 0)) >= 0) {
+            if (lines == starts.length) {
+                starts = Arrays.copyOf(starts, lines * 2);
+            }
+            starts[lines++] = position;
+        }
+        if (lines == 0) {
+            starts[lines++] = 0;
+        }
+        int end = compilationUnit.getStartPosition() + compilationUnit.getLength();
+        return new LineIndex(Arrays.copyOf(starts, lines), end);
+    }
+
+    /**
+     * @return the line (1-based) of the given offset, or -1 if it is outside the unit
+     */
+    public int getLineNumber(int position) {
+        if (position < 0) {
+            return -1;
+        }
+        int last = lineStarts.length - 1;
+        if (position >= lineStarts[last]) {
+            return position >= end ? -1 : last + 1;
+        }
+
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (lineStarts[middle] <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low + 1;
+    }
+
+    /**
+     * @return offset of the first character of the line (1-based), or -1 if the line does not exist
+     */
+    public int getLineStart(int line) {
+        if (line < 1 || line > lineStarts.length) {
+            return -1;
+        }
+        return lineStarts[line - 1];
+    }
+
+    public int getLineCount() {
+        return lineStarts.length;
+    }
+}
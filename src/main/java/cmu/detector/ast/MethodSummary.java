@@ -0,0 +1,97 @@
+package cmu.detector.ast;
+
+import cmu.detector.ast.visitors.MethodSummaryVisitor;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What a method declaration does, collected while the model is built so that
+ * calculators and the call graph do not walk its body again: the methods it
+ * calls, the fields it reads or writes and its longest call chain.
+ *
+ * <p>
+ * Like the visitors it replaces, a summary covers the whole body, including
+ * anonymous and local classes declared in it. It is attached to the declaration
+ * node; declarations that were not part of a model pass are summarised on the
+ * first request.
+ * </p>
+ */
+public final class MethodSummary {
+
+    private static final String PROPERTY = MethodSummary.class.getName();
+
+    private final Set<IMethodBinding> invocations;
+
+    private final Set<String> accessedFields;
+
+    private final int maxCallChain;
+
+    public MethodSummary(Set<IMethodBinding> invocations, Set<String> accessedFields, int maxCallChain) {
+        this.invocations = Collections.unmodifiableSet(invocations);
+        this.accessedFields = Collections.unmodifiableSet(accessedFields);
+        this.maxCallChain = maxCallChain;
+    }
+
+    /**
+     * @return the summary of a declaration, computed now if no model pass attached one
+     */
+    public static MethodSummary of(MethodDeclaration declaration) {
+        MethodSummary summary = (MethodSummary) declaration.getProperty(PROPERTY);
+        if (summary == null) {
+            declaration.accept(new MethodSummaryVisitor());
+            summary = (MethodSummary) declaration.getProperty(PROPERTY);
+        }
+        return summary;
+    }
+
+    public static void attach(MethodDeclaration declaration, MethodSummary summary) {
+        declaration.setProperty(PROPERTY, summary);
+    }
+
+    /**
+     * Maps each method to the given fields it accesses, from the summaries
+     *
+     * @param fields keys of the fields of interest, as in {@link NameResolver#getVariableKey(org.eclipse.jdt.core.dom.VariableDeclaration)}
+     */
+    public static Map<MethodDeclaration, Set<String>> getFieldAccess(Collection<MethodDeclaration> methods,
+                                                                     Set<String> fields) {
+        Map<MethodDeclaration, Set<String>> access = new HashMap<>();
+        for (MethodDeclaration method : methods) {
+            Set<String> accessed = new HashSet<>(of(method).getAccessedFields());
+            accessed.retainAll(fields);
+            access.put(method, accessed);
+        }
+        return access;
+    }
+
+    /**
+     * Distinct methods called, excluding methods of library types (JDK or jars): only
+     * methods declared in the analysed sources can be part of the call graph
+     */
+    public Set<IMethodBinding> getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * Keys of the fields accessed, in the format of {@link NameResolver#getVariableKey(org.eclipse.jdt.core.dom.SimpleName)}.
+     * Without bindings, every unshadowed name in a variable position is included:
+     * callers intersect it with the fields they know about
+     */
+    public Set<String> getAccessedFields() {
+        return accessedFields;
+    }
+
+    /**
+     * Length of the longest chain of calls, e.g. 3 for {@code a().b().c()}
+     */
+    public int getMaxCallChain() {
+        return maxCallChain;
+    }
+}
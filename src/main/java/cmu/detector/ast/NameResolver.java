@@ -0,0 +1,137 @@
+package cmu.detector.ast;
+
+import org.eclipse.jdt.core.dom.*;
+
+/**
+ * Identifies types, fields and variables either through their bindings or, when
+ * the AST was parsed without bindings (fast-scan mode), through their names.
+ *
+ * <p>
+ * Name-based results are approximate: a name is matched against the
+ * declarations of the enclosing type only, so inherited fields, shadowing by
+ * nested scopes and overloaded methods are not told apart.
+ * </p>
+ */
+public final class NameResolver {
+
+    private NameResolver() {
+    }
+
+    /**
+     * @return true if the AST of the node was parsed with bindings
+     */
+    public static boolean hasBindings(ASTNode node) {
+        return node.getAST().hasResolvedBindings();
+    }
+
+    /**
+     * Qualified name of a type built from the package and the enclosing type
+     * declarations, in the same format as {@link ITypeBinding#getQualifiedName()}
+     * for top-level and member types
+     */
+    public static String getQualifiedName(AbstractTypeDeclaration declaration) {
+        StringBuilder name = new StringBuilder(declaration.getName().getIdentifier());
+        ASTNode current = declaration.getParent();
+        while (current != null) {
+            if (current instanceof AbstractTypeDeclaration) {
+                name.insert(0, '.').insert(0, ((AbstractTypeDeclaration) current).getName().getIdentifier());
+            } else if (current instanceof CompilationUnit) {
+                PackageDeclaration packageDeclaration = ((CompilationUnit) current).getPackage();
+                if (packageDeclaration != null) {
+                    name.insert(0, '.').insert(0, packageDeclaration.getName().getFullyQualifiedName());
+                }
+            }
+            current = current.getParent();
+        }
+        return name.toString();
+    }
+
+    /**
+     * Name of a type without type arguments. Local and anonymous types have no
+     * qualified name: they are named by their binding key, so they stay distinct
+     */
+    public static String getQualifiedName(ITypeBinding type) {
+        ITypeBinding erasure = type.getErasure();
+        String fqn = erasure.getQualifiedName();
+        return fqn.isEmpty() ? erasure.getKey() : fqn;
+    }
+
+    /**
+     * Key identifying a declared variable: the binding key when bindings are
+     * available, the simple name otherwise. Returns null if the AST has
+     * bindings but this one could not be resolved
+     */
+    public static String getVariableKey(VariableDeclaration declaration) {
+        if (!hasBindings(declaration)) {
+            return declaration.getName().getIdentifier();
+        }
+        IVariableBinding binding = declaration.resolveBinding();
+        return binding == null ? null : binding.getKey();
+    }
+
+    /**
+     * Key of the variable a name refers to, consistent with
+     * {@link #getVariableKey(VariableDeclaration)}. Without bindings, every name in
+     * a variable position is keyed by its identifier. Returns null if the name
+     * does not refer to a variable
+     */
+    public static String getVariableKey(SimpleName name) {
+        if (!hasBindings(name)) {
+            return isVariablePosition(name) ? name.getIdentifier() : null;
+        }
+        IBinding binding = name.resolveBinding();
+        if (binding instanceof IVariableBinding) {
+            return ((IVariableBinding) binding).getVariableDeclaration().getKey();
+        }
+        return null;
+    }
+
+    /**
+     * Syntactic check used when there are no bindings: rules out names of
+     * methods, types, labels, annotations, packages and imports, and names
+     * selected from another expression ({@code a.b}, {@code foo().b}), except
+     * {@code this.b}
+     */
+    public static boolean isVariablePosition(SimpleName name) {
+        StructuralPropertyDescriptor location = name.getLocationInParent();
+        ASTNode parent = name.getParent();
+
+        if (location == MethodInvocation.NAME_PROPERTY
+                || location == SuperMethodInvocation.NAME_PROPERTY
+                || location == MethodDeclaration.NAME_PROPERTY
+                || location == SuperFieldAccess.NAME_PROPERTY
+                || location == QualifiedName.NAME_PROPERTY
+                || location == LabeledStatement.LABEL_PROPERTY
+                || location == BreakStatement.LABEL_PROPERTY
+                || location == ContinueStatement.LABEL_PROPERTY
+                || location == MemberValuePair.NAME_PROPERTY
+                || location == ExpressionMethodReference.NAME_PROPERTY
+                || location == SuperMethodReference.NAME_PROPERTY
+                || location == TypeMethodReference.NAME_PROPERTY) {
+            return false;
+        }
+        if (location == FieldAccess.NAME_PROPERTY) {
+            return ((FieldAccess) parent).getExpression() instanceof ThisExpression;
+        }
+        if (parent instanceof Type || parent instanceof AbstractTypeDeclaration
+                || parent instanceof Annotation || parent instanceof EnumConstantDeclaration
+                || parent instanceof ImportDeclaration || parent instanceof PackageDeclaration
+                || parent instanceof ModuleDeclaration) {
+            return false;
+        }
+
+        // the left-most part of a qualified name in an import or package declaration
+        ASTNode current = parent;
+        while (current instanceof Name) {
+            current = current.getParent();
+        }
+        if (current instanceof ImportDeclaration || current instanceof PackageDeclaration
+                || current instanceof Annotation || current instanceof Type) {
+            return false;
+        }
+
+        // a qualifier starting with an upper case letter is most likely a type (Math.PI)
+        return location != QualifiedName.QUALIFIER_PROPERTY
+                || !Character.isUpperCase(name.getIdentifier().charAt(0));
+    }
+}
@@ -0,0 +1,122 @@
+package cmu.detector.ast;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolved classpath and source path handed to the JDT parser. Entries are made
+ * absolute, deduplicated and checked once; a {@code dir/*} classpath entry expands
+ * to the jars of the directory, like the java launcher does.
+ *
+ * <p>
+ * Environments are cached by their raw entries, so every shard of an analysis
+ * (and every {@link ASTBuilder} created for it) reuses the same resolved arrays
+ * instead of listing directories and probing jars again. The cache is cleared by
+ * every full analysis, so a long-running session sees the jars added since.
+ * </p>
+ */
+public final class ParserEnvironment {
+
+    private static final Map<List<String>, ParserEnvironment> CACHE = new ConcurrentHashMap<>();
+
+    private final String[] classpath;
+
+    private final String[] sourcePaths;
+
+    private final String[] encodings;
+
+    private final List<String> missingEntries;
+
+    private ParserEnvironment(String[] classpath, String[] sourcePaths, List<String> missingEntries) {
+        this.classpath = classpath;
+        this.sourcePaths = sourcePaths;
+        this.encodings = new String[sourcePaths.length];
+        Arrays.fill(this.encodings, "UTF-8");
+        this.missingEntries = missingEntries;
+    }
+
+    public static ParserEnvironment of(String[] sourcePaths, String[] classpath) {
+        List<String> key = new ArrayList<>();
+        key.addAll(Arrays.asList(sourcePaths));
+        // keeps "a" + "" apart from "" + "a"
+        key.add(File.pathSeparator);
+        key.addAll(Arrays.asList(classpath));
+        return CACHE.computeIfAbsent(key, ignored -> resolve(sourcePaths, classpath));
+    }
+
+    private static ParserEnvironment resolve(String[] sourcePaths, String[] classpath) {
+        List<String> missing = new ArrayList<>();
+        String[] resolvedSources = resolveEntries(sourcePaths, missing);
+        String[] resolvedClasspath = resolveEntries(expandWildcards(classpath), missing);
+        return new ParserEnvironment(resolvedClasspath, resolvedSources, missing);
+    }
+
+    private static String[] expandWildcards(String[] entries) {
+        List<String> expanded = new ArrayList<>();
+        for (String entry : entries) {
+            if (!entry.endsWith("*")) {
+                expanded.add(entry);
+                continue;
+            }
+            File directory = new File(entry.substring(0, entry.length() - 1));
+            File[] jars = directory.listFiles((dir, name) -> name.endsWith(".jar") || name.endsWith(".JAR"));
+            if (jars == null) {
+                expanded.add(directory.getPath());
+                continue;
+            }
+            Arrays.sort(jars);
+            for (File jar : jars) {
+                expanded.add(jar.getPath());
+            }
+        }
+        return expanded.toArray(new String[0]);
+    }
+
+    private static String[] resolveEntries(String[] entries, List<String> missing) {
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String entry : entries) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            File file = new File(entry).getAbsoluteFile();
+            if (!file.exists()) {
+                missing.add(entry);
+                continue;
+            }
+            resolved.add(file.getPath());
+        }
+        return resolved.toArray(new String[0]);
+    }
+
+    /**
+     * Forgets the resolved environments, so the entries are listed and checked again
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    public String[] getClasspath() {
+        return classpath;
+    }
+
+    public String[] getSourcePaths() {
+        return sourcePaths;
+    }
+
+    public String[] getEncodings() {
+        return encodings;
+    }
+
+    /**
+     * @return entries that were dropped because they do not exist
+     */
+    public List<String> getMissingEntries() {
+        return missingEntries;
+    }
+}
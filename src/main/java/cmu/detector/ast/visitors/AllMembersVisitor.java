@@ -1,5 +1,6 @@
 package cmu.detector.ast.visitors;
 
+import cmu.detector.ast.NameResolver;
 import org.eclipse.jdt.core.dom.*;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -8,7 +9,7 @@ import java.util.Set;
 
 public class AllMembersVisitor extends ASTVisitor {
     
-    private Set<IVariableBinding> allFields;
+    private Set<String> allFields;
     private List<MethodDeclaration> allMethods;
     private boolean visitingTypeDeclaration;
     
@@ -38,9 +39,9 @@ public class AllMembersVisitor extends ASTVisitor {
     public boolean visit(FieldDeclaration node) {
         for (Object fragment : node.fragments()) {
             VariableDeclarationFragment vdf = (VariableDeclarationFragment) fragment;
-            IVariableBinding binding = vdf.resolveBinding();
-            if (binding != null) {
-                allFields.add(binding);
+            String key = NameResolver.getVariableKey(vdf);
+            if (key != null) {
+                allFields.add(key);
             }
         }
         return false;
@@ -52,7 +53,7 @@ public class AllMembersVisitor extends ASTVisitor {
         return false;
     }
     
-    public Set<IVariableBinding> getAllFields() {
+    public Set<String> getAllFields() {
         return allFields;
     }
     
@@ -1,16 +1,17 @@
 package cmu.detector.ast.visitors;
 
+import cmu.detector.ast.MethodSummary;
 import org.eclipse.jdt.core.dom.*;
 import java.util.*;
 
 public class CallTreeFieldAccessVisitor {
     
-    private Set<IVariableBinding> instanceFields;
+    private Set<String> instanceFields;
     private List<MethodDeclaration> methods;
-    private Map<MethodDeclaration, Set<IVariableBinding>> directFieldAccess;
+    private Map<MethodDeclaration, Set<String>> directFieldAccess;
     private Map<MethodDeclaration, Set<SimpleName>> methodCalls;
     
-    public CallTreeFieldAccessVisitor(Set<IVariableBinding> instanceFields, List<MethodDeclaration> methods) {
+    public CallTreeFieldAccessVisitor(Set<String> instanceFields, List<MethodDeclaration> methods) {
         this.instanceFields = instanceFields;
         this.methods = methods;
         this.directFieldAccess = new HashMap<>();
@@ -21,12 +22,10 @@ public class CallTreeFieldAccessVisitor {
      * Analyze the type declaration and build field access and call information
      */
     public void analyze(TypeDeclaration typeDecl) {
-        // First pass: collect direct field access
-        FieldAccessVisitor fieldVisitor = new FieldAccessVisitor(instanceFields);
-        typeDecl.accept(fieldVisitor);
-        this.directFieldAccess = fieldVisitor.getMethodFieldAccess();
+        // Direct field access, from the method summaries
+        this.directFieldAccess = MethodSummary.getFieldAccess(methods, instanceFields);
         
-        // Second pass: collect method calls
+        // Collect method calls
         MethodCallGraphVisitor callVisitor = new MethodCallGraphVisitor();
         typeDecl.accept(callVisitor);
         this.methodCalls = callVisitor.getMethodCalls();
@@ -35,21 +34,21 @@ public class CallTreeFieldAccessVisitor {
     /**
      * Get all fields accessed by a method including through its call tree
      */
-    public Set<IVariableBinding> getFieldsAccessedByCallTree(MethodDeclaration method) {
+    public Set<String> getFieldsAccessedByCallTree(MethodDeclaration method) {
         Set<MethodDeclaration> visited = new HashSet<>();
         return getFieldsRecursive(method, visited);
     }
     
-    private Set<IVariableBinding> getFieldsRecursive(MethodDeclaration method, Set<MethodDeclaration> visited) {
+    private Set<String> getFieldsRecursive(MethodDeclaration method, Set<MethodDeclaration> visited) {
         if (visited.contains(method)) {
             return new HashSet<>();
         }
         visited.add(method);
         
-        Set<IVariableBinding> allFields = new HashSet<>();
+        Set<String> allFields = new HashSet<>();
         
         // Add directly accessed fields
-        Set<IVariableBinding> directFields = directFieldAccess.get(method);
+        Set<String> directFields = directFieldAccess.get(method);
         if (directFields != null) {
             allFields.addAll(directFields);
         }
@@ -60,7 +59,7 @@ public class CallTreeFieldAccessVisitor {
             for (SimpleName calledName : calledNames) {
                 for (MethodDeclaration calledMethod : methods) {
                     if (calledMethod.getName().getIdentifier().equals(calledName.getIdentifier())) {
-                        Set<IVariableBinding> calledFields = getFieldsRecursive(calledMethod, visited);
+                        Set<String> calledFields = getFieldsRecursive(calledMethod, visited);
                         allFields.addAll(calledFields);
                     }
                 }
@@ -73,8 +72,8 @@ public class CallTreeFieldAccessVisitor {
     /**
      * Get mapping of all methods to fields they access (including call tree)
      */
-    public Map<MethodDeclaration, Set<IVariableBinding>> getMethodFieldAccessWithCallTree() {
-        Map<MethodDeclaration, Set<IVariableBinding>> result = new HashMap<>();
+    public Map<MethodDeclaration, Set<String>> getMethodFieldAccessWithCallTree() {
+        Map<MethodDeclaration, Set<String>> result = new HashMap<>();
         for (MethodDeclaration method : methods) {
             result.put(method, getFieldsAccessedByCallTree(method));
         }
@@ -0,0 +1,135 @@
+package cmu.detector.ast.visitors;
+
+import cmu.detector.ast.NameResolver;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects the attributes a method (or, from a type declaration, all the methods
+ * of a class) reads, split between the ones declared by its own class
+ * hierarchy (local) and the ones declared by other classes (foreign). Calls to
+ * accessor methods (get/is/set) of other classes count as foreign attribute
+ * accesses. Attributes of Java classes and static constants are ignored.
+ *
+ * <p>
+ * The results feed the ATFD (Access To Foreign Data), LAA (Locality of
+ * Attribute Accesses) and FDP (Foreign Data Providers) values used by the
+ * Feature Envy and God Class detections.
+ * </p>
+ */
+public class ForeignDataAccessVisitor extends ASTVisitor {
+
+	private static final String[] ACCESSOR_PREFIXES = {"get", "is", "set"};
+
+	private final ITypeBinding ownType;
+
+	private final Set<String> localAttributes;
+
+	private final Set<String> foreignAttributes;
+
+	private final Set<String> foreignProviders;
+
+	public ForeignDataAccessVisitor(ITypeBinding ownType) {
+		this.ownType = ownType == null ? null : ownType.getErasure();
+		this.localAttributes = new HashSet<>();
+		this.foreignAttributes = new HashSet<>();
+		this.foreignProviders = new HashSet<>();
+	}
+
+	@Override
+	public boolean visit(SimpleName node) {
+		IBinding binding = node.resolveBinding();
+		if (!(binding instanceof IVariableBinding)) {
+			return true;
+		}
+
+		IVariableBinding variable = (IVariableBinding) binding;
+		if (!variable.isField() || isConstant(variable)) {
+			return true;
+		}
+
+		ITypeBinding declaringClass = variable.getDeclaringClass();
+		if (declaringClass == null || isJavaType(declaringClass)) {
+			return true;
+		}
+
+		register(declaringClass, variable.getName());
+		return true;
+	}
+
+	@Override
+	public boolean visit(MethodInvocation node) {
+		IMethodBinding method = node.resolveMethodBinding();
+		if (method == null || !isAccessorName(method.getName())) {
+			return true;
+		}
+
+		ITypeBinding declaringClass = method.getDeclaringClass();
+		if (declaringClass == null || isJavaType(declaringClass) || isLocal(declaringClass)) {
+			return true;
+		}
+
+		register(declaringClass, method.getName());
+		return true;
+	}
+
+	private void register(ITypeBinding declaringClass, String attribute) {
+		String provider = NameResolver.getQualifiedName(declaringClass);
+		if (isLocal(declaringClass)) {
+			localAttributes.add(provider + "." + attribute);
+		} else {
+			foreignAttributes.add(provider + "." + attribute);
+			foreignProviders.add(provider);
+		}
+	}
+
+	private boolean isLocal(ITypeBinding declaringClass) {
+		return ownType != null && ownType.isSubTypeCompatible(declaringClass.getErasure());
+	}
+
+	private boolean isConstant(IVariableBinding variable) {
+		int modifiers = variable.getModifiers();
+		return Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers);
+	}
+
+	private boolean isJavaType(ITypeBinding type) {
+		return type.getErasure().getQualifiedName().startsWith("java");
+	}
+
+	private boolean isAccessorName(String name) {
+		for (String prefix : ACCESSOR_PREFIXES) {
+			if (name.length() > prefix.length() && name.startsWith(prefix)
+					&& Character.isUpperCase(name.charAt(prefix.length()))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of distinct attributes of other classes accessed (ATFD)
+	 */
+	public int getForeignAttributeCount() {
+		return foreignAttributes.size();
+	}
+
+	/**
+	 * @return ratio between local and all accessed attributes (LAA), 1 when nothing is accessed
+	 */
+	public double getLocalityOfAttributeAccesses() {
+		int total = localAttributes.size() + foreignAttributes.size();
+		if (total == 0) {
+			return 1.0;
+		}
+		return (double) localAttributes.size() / total;
+	}
+
+	/**
+	 * @return number of distinct classes providing the foreign attributes (FDP)
+	 */
+	public int getForeignDataProviderCount() {
+		return foreignProviders.size();
+	}
+}
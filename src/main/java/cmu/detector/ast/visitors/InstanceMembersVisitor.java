@@ -1,5 +1,6 @@
 package cmu.detector.ast.visitors;
 
+import cmu.detector.ast.NameResolver;
 import org.eclipse.jdt.core.dom.*;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -8,7 +9,7 @@ import java.util.Set;
 
 public class InstanceMembersVisitor extends ASTVisitor {
     
-    private Set<IVariableBinding> instanceFields;
+    private Set<String> instanceFields;
     private List<MethodDeclaration> instanceMethods;
     private boolean visitingTypeDeclaration;
     
@@ -39,9 +40,9 @@ public class InstanceMembersVisitor extends ASTVisitor {
         if (!Modifier.isStatic(node.getModifiers())) {
             for (Object fragment : node.fragments()) {
                 VariableDeclarationFragment vdf = (VariableDeclarationFragment) fragment;
-                IVariableBinding binding = vdf.resolveBinding();
-                if (binding != null) {
-                    instanceFields.add(binding);
+                String key = NameResolver.getVariableKey(vdf);
+                if (key != null) {
+                    instanceFields.add(key);
                 }
             }
         }
@@ -56,7 +57,7 @@ public class InstanceMembersVisitor extends ASTVisitor {
         return false;
     }
     
-    public Set<IVariableBinding> getInstanceFields() {
+    public Set<String> getInstanceFields() {
         return instanceFields;
     }
     
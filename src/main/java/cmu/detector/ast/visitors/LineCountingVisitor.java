@@ -1,108 +1,86 @@
 package cmu.detector.ast.visitors;
 
+import cmu.detector.ast.CommentIndex;
+import cmu.detector.ast.LineIndex;
 import org.eclipse.jdt.core.dom.*;
 
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Visits a type or method body in order to count the lines of code
  *
+ * <p>
+ * Line and comment lookups go through the {@link LineIndex} and
+ * {@link CommentIndex} of the compilation unit, which are built once and shared
+ * by every visitor of the same unit, so counting is linear in the number of
+ * visited nodes (times log of the number of comments).
+ * </p>
+ *
  * @author Leonardo
  */
 public class LineCountingVisitor extends ASTVisitor {
-    private CompilationUnit compilationUnit;
-    private Set<Integer> lineNumbers;
-    int lineCount = 0;
+    private LineIndex lineIndex;
+    private CommentIndex commentIndex;
+    private BitSet lineNumbers;
 
     public LineCountingVisitor(CompilationUnit compilationUnit) {
-        this.compilationUnit = compilationUnit;
-        this.lineNumbers = new HashSet<>();
+        this.lineIndex = LineIndex.of(compilationUnit);
+        this.commentIndex = CommentIndex.of(compilationUnit);
+        this.lineNumbers = new BitSet();
     }
 
     @Override
     public void preVisit(ASTNode node) {
         int nodeStartPosition = node.getStartPosition();
-        int startLine = compilationUnit.getLineNumber(nodeStartPosition);
-
-        lineNumbers.add(startLine);
+        int startLine = lineIndex.getLineNumber(nodeStartPosition);
 
         if(checkIfNodeStartsWithComment(nodeStartPosition)){
-            lineNumbers.remove(startLine);
+            removeLine(startLine);
         } else {
+            addLine(startLine);
             addClosingBraceLineNumber(node);
         }
 
     }
 
     private boolean checkIfNodeStartsWithComment(int nodeStartPosition) {
-        List<Comment> comments = (List<Comment>) compilationUnit.getCommentList();
-
-        for (Comment comment : comments) {
-            if (comment instanceof LineComment || comment instanceof BlockComment || comment instanceof Javadoc) {
-                int commentStartPosition = comment.getStartPosition();
-                int commentEndPosition = commentStartPosition + comment.getLength();
-
-                // Check if the comment is before or at the same position as the node
-                if (commentStartPosition <= nodeStartPosition && commentEndPosition > nodeStartPosition) {
-                    // This means the node starts with a comment
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    @Override
-    public void endVisit(TypeDeclaration node) {
-        addClosingBraceLineNumber(node);
-    }
-
-    @Override
-    public void endVisit(MethodDeclaration node) {
-        addClosingBraceLineNumber(node);
-    }
-
-    @Override
-    public void endVisit(Block node) {
-        addClosingBraceLineNumber(node);
-    }
-
-    @Override
-    public void endVisit(ForStatement node) {
-        addClosingBraceLineNumber(node);
-    }
-
-    @Override
-    public void endVisit(WhileStatement node) {
-        addClosingBraceLineNumber(node);
-    }
-
-    @Override
-    public void endVisit(DoStatement node) {
-        addClosingBraceLineNumber(node);
-    }
-
-    @Override
-    public void endVisit(SwitchStatement node) {
-        addClosingBraceLineNumber(node);
+        return commentIndex.isInsideComment(nodeStartPosition);
     }
 
-    @Override
-    public void endVisit(TryStatement node) {
-        addClosingBraceLineNumber(node);
+    private void addLine(int line) {
+        if (line > 0) {
+            lineNumbers.set(line);
+        }
     }
 
-    @Override
-    public void endVisit(CatchClause node) {
-        addClosingBraceLineNumber(node);
+    private void removeLine(int line) {
+        if (line > 0) {
+            lineNumbers.clear(line);
+        }
     }
 
+    /**
+     * Nodes whose closing brace is counted once their content was visited
+     */
     @Override
-    public void endVisit(SynchronizedStatement node) {
-        addClosingBraceLineNumber(node);
+    public void postVisit(ASTNode node) {
+        switch (node.getNodeType()) {
+            case ASTNode.TYPE_DECLARATION:
+            case ASTNode.METHOD_DECLARATION:
+            case ASTNode.BLOCK:
+            case ASTNode.FOR_STATEMENT:
+            case ASTNode.WHILE_STATEMENT:
+            case ASTNode.DO_STATEMENT:
+            case ASTNode.SWITCH_STATEMENT:
+            case ASTNode.TRY_STATEMENT:
+            case ASTNode.CATCH_CLAUSE:
+            case ASTNode.SYNCHRONIZED_STATEMENT:
+                addClosingBraceLineNumber(node);
+                break;
+            default:
+                break;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -115,18 +93,18 @@ public class LineCountingVisitor extends ASTVisitor {
         // will return the node's own end line; then +1 would overshoot.
         // We correct by not going past the node's own end line.
         int nodeEndPos = node.getStartPosition() + node.getLength() - 1;
-        int nodeEndLine = compilationUnit.getLineNumber(nodeEndPos);
+        int nodeEndLine = lineIndex.getLineNumber(nodeEndPos);
 
         if (closingBraceLineNumber > nodeEndLine) {
             closingBraceLineNumber = nodeEndLine;
         }
 
         // 3. Preserve your filtering logic
-        int closingBraceApproxPos = compilationUnit.getPosition(closingBraceLineNumber, 0);
+        int closingBraceApproxPos = lineIndex.getLineStart(closingBraceLineNumber);
         // column 0 of that line; this gives us *a* position on that line
         // (we just need something stable to pass into the check)
         if (!checkIfNodeStartsWithComment(closingBraceApproxPos)) {
-            lineNumbers.add(closingBraceLineNumber);
+            addLine(closingBraceLineNumber);
         }
     }
 
@@ -145,7 +123,7 @@ public class LineCountingVisitor extends ASTVisitor {
             if (prop.isChildProperty()) {
                 Object child = node.getStructuralProperty(prop);
                 if (child instanceof ASTNode) {
-                    maxLine = Math.max(maxLine, getNodeEndLine((ASTNode) child, compilationUnit));
+                    maxLine = Math.max(maxLine, getNodeEndLine((ASTNode) child));
                 }
 
             } else if (prop.isChildListProperty()) {
@@ -153,7 +131,7 @@ public class LineCountingVisitor extends ASTVisitor {
                 if (childList instanceof List<?>) {
                     for (Object o : (List<?>) childList) {
                         if (o instanceof ASTNode) {
-                            maxLine = Math.max(maxLine, getNodeEndLine((ASTNode) o, compilationUnit));
+                            maxLine = Math.max(maxLine, getNodeEndLine((ASTNode) o));
                         }
                     }
                 }
@@ -163,15 +141,15 @@ public class LineCountingVisitor extends ASTVisitor {
         // If no children were found (e.g. empty class {} or empty method body {}),
         // fallback to this node's own end line
         if (maxLine == -1) {
-            return getNodeEndLine(node, compilationUnit);
+            return getNodeEndLine(node);
         }
 
         return maxLine;
     }
 
-    private int getNodeEndLine(ASTNode n, CompilationUnit cu) {
+    private int getNodeEndLine(ASTNode n) {
         int endPos = n.getStartPosition() + n.getLength() - 1;
-        return cu.getLineNumber(endPos);
+        return lineIndex.getLineNumber(endPos);
     }
 
 
@@ -181,6 +159,6 @@ public class LineCountingVisitor extends ASTVisitor {
      * @return LOC
      */
     public int getLOC() {
-        return lineNumbers.size();
+        return lineNumbers.cardinality();
     }
 }
@@ -0,0 +1,140 @@
+package cmu.detector.ast.visitors;
+
+import cmu.detector.ast.MethodSummary;
+import cmu.detector.ast.NameResolver;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the {@link MethodSummary} of every method declaration it walks and
+ * attaches it to the declaration. Declarations can be nested (methods of
+ * anonymous or local classes): what is found inside a nested one also counts for
+ * the enclosing ones, so a single walk gives the same result as walking each
+ * declaration on its own.
+ */
+public class MethodSummaryVisitor extends ASTVisitor {
+
+    /**
+     * Declarations being walked, innermost last
+     */
+    private final List<Frame> open;
+
+    public MethodSummaryVisitor() {
+        this.open = new ArrayList<>();
+    }
+
+    @Override
+    public boolean visit(MethodDeclaration node) {
+        open.add(new Frame(NameResolver.hasBindings(node)));
+        return true;
+    }
+
+    @Override
+    public void endVisit(MethodDeclaration node) {
+        Frame frame = open.remove(open.size() - 1);
+        MethodSummary.attach(node, frame.toSummary());
+    }
+
+    @Override
+    public boolean visit(MethodInvocation node) {
+        if (open.isEmpty()) {
+            return true;
+        }
+
+        int chainSize = 1;
+        Expression expr = node.getExpression();
+        while (expr instanceof MethodInvocation) {
+            chainSize++;
+            expr = ((MethodInvocation) expr).getExpression();
+        }
+
+        IMethodBinding methodBinding = node.resolveMethodBinding();
+        boolean counted = methodBinding != null && methodBinding.getDeclaringClass().isFromSource();
+        for (Frame frame : open) {
+            frame.maxCallChain = Math.max(frame.maxCallChain, chainSize);
+            if (counted) {
+                frame.invocations.add(methodBinding);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean visit(SimpleName node) {
+        if (open.isEmpty()) {
+            return true;
+        }
+
+        if (NameResolver.hasBindings(node)) {
+            IBinding binding = node.resolveBinding();
+            if (binding instanceof IVariableBinding && ((IVariableBinding) binding).isField()) {
+                String key = NameResolver.getVariableKey(node);
+                for (Frame frame : open) {
+                    frame.fields.add(key);
+                }
+            }
+        } else if (NameResolver.isVariablePosition(node)) {
+            // whether a local name shadows it is only known once the whole declaration was walked
+            boolean qualified = node.getLocationInParent() == FieldAccess.NAME_PROPERTY;
+            for (Frame frame : open) {
+                (qualified ? frame.fields : frame.candidates).add(node.getIdentifier());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean visit(SingleVariableDeclaration node) {
+        this.addLocalName(node.getName());
+        return true;
+    }
+
+    @Override
+    public boolean visit(VariableDeclarationFragment node) {
+        this.addLocalName(node.getName());
+        return true;
+    }
+
+    private void addLocalName(SimpleName name) {
+        for (Frame frame : open) {
+            if (!frame.bindings) {
+                frame.localNames.add(name.getIdentifier());
+            }
+        }
+    }
+
+    private static final class Frame {
+
+        private final boolean bindings;
+
+        private final Set<IMethodBinding> invocations = new HashSet<>();
+
+        private final Set<String> fields = new HashSet<>();
+
+        /**
+         * Names that are fields unless a parameter or local variable shadows them (no bindings only)
+         */
+        private final Set<String> candidates = new HashSet<>();
+
+        private final Set<String> localNames = new HashSet<>();
+
+        private int maxCallChain;
+
+        private Frame(boolean bindings) {
+            this.bindings = bindings;
+        }
+
+        private MethodSummary toSummary() {
+            for (String candidate : candidates) {
+                if (!localNames.contains(candidate)) {
+                    fields.add(candidate);
+                }
+            }
+            return new MethodSummary(invocations, fields, maxCallChain);
+        }
+    }
+}
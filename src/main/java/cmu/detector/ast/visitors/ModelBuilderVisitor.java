@@ -0,0 +1,86 @@
+package cmu.detector.ast.visitors;
+
+import cmu.detector.ast.NameResolver;
+import cmu.detector.resources.Type;
+import cmu.detector.resources.loader.PackageFilter;
+import cmu.detector.resources.loader.SourceFile;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the model of a compilation unit in a single walk: the types it declares
+ * (nested and local ones included, in declaration order), the method declarations
+ * of each type and, through {@link MethodSummaryVisitor}, the summary of every
+ * method.
+ *
+ * <p>
+ * A method belongs to the innermost type declaration around it; methods of
+ * anonymous classes belong to no type, and types rejected by the
+ * {@link PackageFilter} are not built, nor are their methods collected.
+ * </p>
+ */
+public class ModelBuilderVisitor extends MethodSummaryVisitor {
+
+    private final SourceFile sourceFile;
+
+    private final PackageFilter filter;
+
+    private final List<Type> types;
+
+    /**
+     * Method declarations of the enclosing types, innermost last; null for anonymous
+     * classes and filtered types
+     */
+    private final List<List<MethodDeclaration>> owners;
+
+    public ModelBuilderVisitor(SourceFile sourceFile, PackageFilter filter) {
+        this.sourceFile = sourceFile;
+        this.filter = filter;
+        this.types = new ArrayList<>();
+        this.owners = new ArrayList<>();
+    }
+
+    @Override
+    public boolean visit(TypeDeclaration node) {
+        List<MethodDeclaration> methods = null;
+        if (filter.accepts(NameResolver.getQualifiedName(node))) {
+            // filled while the walk goes on; the type only reads it once built
+            methods = new ArrayList<>();
+            types.add(new Type(sourceFile, node, methods));
+        }
+        owners.add(methods);
+        return true;
+    }
+
+    @Override
+    public void endVisit(TypeDeclaration node) {
+        owners.remove(owners.size() - 1);
+    }
+
+    @Override
+    public boolean visit(AnonymousClassDeclaration node) {
+        owners.add(null);
+        return true;
+    }
+
+    @Override
+    public void endVisit(AnonymousClassDeclaration node) {
+        owners.remove(owners.size() - 1);
+    }
+
+    @Override
+    public boolean visit(MethodDeclaration node) {
+        if (!owners.isEmpty() && owners.get(owners.size() - 1) != null) {
+            owners.get(owners.size() - 1).add(node);
+        }
+        return super.visit(node);
+    }
+
+    public List<Type> getTypes() {
+        return types;
+    }
+}
@@ -1,13 +0,0 @@
-package cmu.detector.ast.visitors;
-
-import cmu.detector.ast.CollectorVisitor;
-import org.eclipse.jdt.core.dom.TypeDeclaration;
-
-public class TypeDeclarationCollector extends CollectorVisitor<TypeDeclaration> {
-	
-	@Override
-	public boolean visit(TypeDeclaration node) {
-		super.addCollectedNode(node);
-		return true;
-	}
-}
@@ -1,13 +1,32 @@
 package cmu.detector.console;
 
+import cmu.detector.metrics.statistics.KLLSketch;
 import org.apache.commons.cli.*;
 
+import java.io.File;
+
 public class ToolParameters {
 
     public static final String SOURCE_FOLDER = "source-folder";
     public static final String OUTPUT_FILE = "output-file";
     public static final String IGNORE_TESTS = "ignore-tests";
     public static final String ONLY_SMELLY = "only-smelly";
+    public static final String BOUNDED_STATISTICS = "bounded-statistics";
+    public static final String TOKEN_LOC = "token-loc";
+    public static final String FAST_SCAN = "fast-scan";
+    public static final String INCLUDE = "include";
+    public static final String EXCLUDE = "exclude";
+    public static final String NO_DEFAULT_EXCLUDES = "no-default-excludes";
+    public static final String GITIGNORE = "gitignore";
+    public static final String CLASSPATH = "classpath";
+    public static final String SHARD_SIZE = "shard-size";
+    public static final String DAEMON = "daemon";
+    public static final String WATCH = "watch";
+    public static final String INCLUDE_PACKAGES = "include-packages";
+    public static final String HISTORY = "history";
+    public static final String HISTORY_CACHE = "history-cache";
+    public static final String SNAPSHOT = "snapshot";
+    public static final String CSV = "csv";
 
     private Options options;
 
@@ -32,6 +51,18 @@ public class ToolParameters {
         return line.hasOption(ONLY_SMELLY);
     }
 
+    /**
+     * @return the accuracy of the quantile sketches given to --bounded-statistics, or the default one
+     */
+    public int getSketchAccuracy() {
+        String accuracy = line.getOptionValue(BOUNDED_STATISTICS);
+        return accuracy == null ? KLLSketch.DEFAULT_K : Integer.parseInt(accuracy);
+    }
+
+    public boolean hasOption(String key) {
+        return line.hasOption(key);
+    }
+
     private void createOptions() {
         Option smellsFile = Option.builder("out")
                 .longOpt(OUTPUT_FILE)
@@ -43,15 +74,17 @@ public class ToolParameters {
 
         Option sourceFolder = Option.builder("src")
                 .longOpt(SOURCE_FOLDER)
-                .desc("Folder containing all Java files to be analyzed")
+                .desc("Folders containing all Java files to be analyzed. Repeat the option or separate the "
+                        + "folders with '" + File.pathSeparator + "' to analyze several source roots together")
                 .required()
-                .hasArg()
-                .argName("folder")
+                .hasArgs()
+                .valueSeparator(File.pathSeparatorChar)
+                .argName("folders")
                 .build();
 
         Option ignoreTests = Option.builder("it")
                 .longOpt(IGNORE_TESTS)
-                .desc("Ignore all the test classes")
+                .desc("Ignore all the test classes: test folders, test-named files and files using JUnit or TestNG")
                 .build();
 
         Option ignoreNonSmelly = Option.builder("os")
@@ -59,19 +92,197 @@ public class ToolParameters {
                 .desc("If this flag is used, only classes and methods containing code smells will be part of the output")
                 .build();
 
+        Option boundedStatistics = Option.builder("bs")
+                .longOpt(BOUNDED_STATISTICS)
+                .desc("Aggregate metric values with bounded memory: exact mean and standard deviation, "
+                        + "sketched quartiles. The optional argument sets the sketch accuracy (at least "
+                        + KLLSketch.MIN_K + ", default " + KLLSketch.DEFAULT_K + ")")
+                .hasArg()
+                .optionalArg(true)
+                .argName("accuracy")
+                .build();
+
+        Option tokenLOC = Option.builder("tl")
+                .longOpt(TOKEN_LOC)
+                .desc("Count lines of code (MLOC, CLOC) from the token stream of each file instead of the AST")
+                .build();
+
+        Option fastScan = Option.builder("fs")
+                .longOpt(FAST_SCAN)
+                .desc("Parse without bindings. Much faster, but names are resolved syntactically, metrics "
+                        + "that need bindings are not computed and results are tagged as approximate")
+                .build();
+
+        Option include = Option.builder("in")
+                .longOpt(INCLUDE)
+                .desc("Only analyze files matching these glob patterns (.gitignore syntax, relative to the source folder)")
+                .hasArgs()
+                .valueSeparator(',')
+                .argName("patterns")
+                .build();
+
+        Option exclude = Option.builder("ex")
+                .longOpt(EXCLUDE)
+                .desc("Skip files and folders matching these glob patterns (.gitignore syntax). "
+                        + "build/ and generated/ at the root of the source folder and node_modules/ are also skipped, "
+                        + "unless --" + NO_DEFAULT_EXCLUDES + " is set")
+                .hasArgs()
+                .valueSeparator(',')
+                .argName("patterns")
+                .build();
+
+        Option noDefaultExcludes = Option.builder("nde")
+                .longOpt(NO_DEFAULT_EXCLUDES)
+                .desc("Do not skip the build/, generated/ and node_modules/ folders by default")
+                .build();
+
+        Option includePackages = Option.builder("ip")
+                .longOpt(INCLUDE_PACKAGES)
+                .desc("Only build, measure and report the types of these packages or types (and of their "
+                        + "subpackages and member types). All files are still parsed to resolve bindings, but "
+                        + "call graph and hierarchy metrics only see the included types")
+                .hasArgs()
+                .valueSeparator(',')
+                .argName("packages")
+                .build();
+
+        Option gitignore = Option.builder("gi")
+                .longOpt(GITIGNORE)
+                .desc("Skip files ignored by the .gitignore files found in the source folder")
+                .build();
+
+        Option classpath = Option.builder("cp")
+                .longOpt(CLASSPATH)
+                .desc("Jars and class folders used to resolve bindings, separated by '" + File.pathSeparator
+                        + "'. A 'folder/*' entry adds all the jars of the folder")
+                .hasArgs()
+                .valueSeparator(File.pathSeparatorChar)
+                .argName("entries")
+                .build();
+
+        Option shardSize = Option.builder("ss")
+                .longOpt(SHARD_SIZE)
+                .desc("Parse the files in batches of this size to bound memory. Bindings across batches are "
+                        + "resolved from the source folders (default: a single batch)")
+                .hasArg()
+                .argName("files")
+                .build();
+
+        Option daemon = Option.builder("d")
+                .longOpt(DAEMON)
+                .desc("Keep the analysis in memory and answer JSON requests, one per line, on the standard input "
+                        + "(analyze, update, query, save, shutdown). The output file is written on 'save'")
+                .build();
+
+        Option watch = Option.builder("w")
+                .longOpt(WATCH)
+                .desc("After the analysis, watch the source folders and update the output file when Java files "
+                        + "change. The optional argument sets how long changes must settle, in ms (default 300)")
+                .hasArg()
+                .optionalArg(true)
+                .argName("millis")
+                .build();
+
+        Option history = Option.builder("hi")
+                .longOpt(HISTORY)
+                .desc("Mine the git repository of the first source folder for co-changes: number of other "
+                        + "methods and classes changed in the same commits (CoChangedMethods, CoChangedClasses). "
+                        + "The optional argument sets how many commits are mined (default 500)")
+                .hasArg()
+                .optionalArg(true)
+                .argName("commits")
+                .build();
+
+        Option historyCache = Option.builder("hc")
+                .longOpt(HISTORY_CACHE)
+                .desc("File keeping the mined commits between runs, so only new commits are read again")
+                .hasArg()
+                .argName("file")
+                .build();
+
+        Option snapshot = Option.builder("sn")
+                .longOpt(SNAPSHOT)
+                .desc("Also save the model in a compact binary file (string table, metric columns, smells and "
+                        + "calls between the analysed methods) that can be memory-mapped and loaded in constant time")
+                .hasArg()
+                .argName("file")
+                .build();
+
+        Option csv = Option.builder("csv")
+                .longOpt(CSV)
+                .desc("Also save the metrics as a CSV table, one row per type and per method and one column per "
+                        + "metric. The file is gzip-compressed when its name ends with .gz")
+                .hasArg()
+                .argName("file")
+                .build();
+
         options.addOption(smellsFile);
         options.addOption(sourceFolder);
         options.addOption(ignoreTests);
         options.addOption(ignoreNonSmelly);
+        options.addOption(boundedStatistics);
+        options.addOption(tokenLOC);
+        options.addOption(fastScan);
+        options.addOption(include);
+        options.addOption(exclude);
+        options.addOption(noDefaultExcludes);
+        options.addOption(includePackages);
+        options.addOption(gitignore);
+        options.addOption(classpath);
+        options.addOption(shardSize);
+        options.addOption(daemon);
+        options.addOption(watch);
+        options.addOption(history);
+        options.addOption(historyCache);
+        options.addOption(snapshot);
+        options.addOption(csv);
     }
 
     public String getValue(String key) {
         return this.line.getOptionValue(key);
     }
 
+    /**
+     * @return all the values of an option that takes several arguments, or an empty array
+     */
+    public String[] getValues(String key) {
+        String[] values = this.line.getOptionValues(key);
+        return values == null ? new String[0] : values;
+    }
+
     public void parse(String[] args) throws ParseException {
         CommandLineParser parser = new DefaultParser();
         this.line = parser.parse(getOptions(), args);
+        this.validate();
+    }
+
+    /**
+     * Rejects option values that would only fail once the analysis is running
+     */
+    private void validate() throws ParseException {
+        this.checkInteger(BOUNDED_STATISTICS, KLLSketch.MIN_K);
+        this.checkInteger(SHARD_SIZE, 1);
+        this.checkInteger(HISTORY, 1);
+        this.checkInteger(WATCH, 1);
+    }
+
+    /**
+     * Checks that the value of an option, when given, is an integer of at least minimum
+     */
+    private void checkInteger(String option, int minimum) throws ParseException {
+        String value = line.getOptionValue(option);
+        if (value == null) {
+            return;
+        }
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException exception) {
+            throw new ParseException("The value of --" + option + " must be an integer: " + value);
+        }
+        if (number < minimum) {
+            throw new ParseException("The value of --" + option + " must be at least " + minimum + ": " + value);
+        }
     }
 
     public void printHelp() {
@@ -0,0 +1,129 @@
+package cmu.detector.console.output;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.Smell;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the analysis model as a flat CSV table (RFC 4180): one row per type and
+ * per method, one column per {@link MetricName}, so it can be loaded without
+ * re-flattening the nested JSON. Rows are streamed as they are written, and the
+ * file is gzip-compressed when its name ends with ".gz".
+ *
+ * <p>
+ * Metrics that were not computed for a resource are left empty; integral values
+ * are written without a fraction. Smells are the names of the resource's smells,
+ * separated by ';'.
+ * </p>
+ */
+public final class CsvOutput {
+
+	private static final MetricName[] METRICS = MetricName.values();
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private CsvOutput() {
+	}
+
+	public static void write(File file, List<Type> types) throws IOException {
+		OutputStream stream = Files.newOutputStream(file.toPath());
+		if (file.getName().endsWith(".gz")) {
+			stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+		}
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			write(writer, types);
+		}
+	}
+
+	public static void write(Writer writer, List<Type> types) throws IOException {
+		writer.write("resource,name,type,kind,file,startLine,endLine,smells");
+		for (MetricName metric : METRICS) {
+			writer.write(',');
+			writeField(writer, metric.getLabel());
+		}
+		writer.write("\r\n");
+
+		for (Type type : types) {
+			writeRow(writer, "type", type, type);
+			for (Method method : type.getMethods()) {
+				writeRow(writer, "method", method, type);
+			}
+		}
+	}
+
+	private static void writeRow(Writer writer, String resourceKind, Resource resource, Type type) throws IOException {
+		writer.write(resourceKind);
+		writer.write(',');
+		writeField(writer, resource.getFullyQualifiedName());
+		writer.write(',');
+		writeField(writer, type.getFullyQualifiedName());
+		writer.write(',');
+		writeField(writer, resource.getKind());
+		writer.write(',');
+		writeField(writer, resource.getSourceFile() == null ? null : resource.getSourceFile().getFileRelativePath());
+		writer.write(',');
+		writer.write(Integer.toString(resource.getStartLineNumber()));
+		writer.write(',');
+		writer.write(Integer.toString(resource.getEndLineNumber()));
+		writer.write(',');
+		StringBuilder smells = new StringBuilder();
+		for (Smell smell : resource.getSmells()) {
+			if (smell.getName() != null) {
+				if (smells.length() > 0) {
+					smells.append(';');
+				}
+				smells.append(smell.getName().name());
+			}
+		}
+		writeField(writer, smells.toString());
+
+		for (MetricName metric : METRICS) {
+			writer.write(',');
+			if (resource.hasMetricValue(metric)) {
+				writer.write(formatValue(resource.getMetricValues().get(metric)));
+			}
+		}
+		writer.write("\r\n");
+	}
+
+	static String formatValue(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+
+	/**
+	 * Writes a field, quoted only when it holds a separator, a quote or a line break
+	 */
+	private static void writeField(Writer writer, String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
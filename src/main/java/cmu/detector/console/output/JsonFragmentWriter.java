@@ -0,0 +1,180 @@
+package cmu.detector.console.output;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.resources.loader.SourceFile;
+import cmu.detector.smells.Smell;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the analysis model as the same pretty-printed JSON array as a batch run,
+ * keeping the serialized types of each source file between writes. Only the
+ * fragments of changed files, and of files whose smells or metric values changed
+ * (thresholds and call graph metrics move with every update), are serialized
+ * again; the others are copied as they are.
+ *
+ * <p>
+ * The output file is replaced atomically, so readers never see a partial array.
+ * </p>
+ */
+public class JsonFragmentWriter {
+
+	private static final String INDENT = "  ";
+
+	private final File file;
+
+	private final boolean onlySmelly;
+
+	private final Gson gson;
+
+	private final Map<String, Fragment> fragments;
+
+	/**
+	 * @param onlySmelly keep only the smelly types and methods, like --only-smelly, without
+	 * removing anything from the model
+	 */
+	public JsonFragmentWriter(File file, boolean onlySmelly) {
+		this.file = file;
+		this.onlySmelly = onlySmelly;
+		this.gson = JsonOutput.create(true);
+		this.fragments = new HashMap<>();
+	}
+
+	/**
+	 * Writes the types of all the source files, in the given order
+	 *
+	 * @param changed files whose model was rebuilt since the last write
+	 * @return the number of files whose fragment was serialized again
+	 */
+	public int write(Collection<SourceFile> sourceFiles, Collection<File> changed) throws IOException {
+		Set<String> changedPaths = new HashSet<>();
+		for (File changedFile : changed) {
+			changedPaths.add(changedFile.getAbsolutePath());
+		}
+
+		Set<String> present = new HashSet<>();
+		StringBuilder json = new StringBuilder("[");
+		boolean empty = true;
+		int serialized = 0;
+		for (SourceFile sourceFile : sourceFiles) {
+			String path = sourceFile.getFile().getAbsolutePath();
+			present.add(path);
+
+			String signature = signature(sourceFile.getTypes());
+			Fragment fragment = fragments.get(path);
+			if (fragment == null || changedPaths.contains(path) || !fragment.signature.equals(signature)) {
+				fragment = new Fragment(signature, this.serialize(sourceFile.getTypes()));
+				fragments.put(path, fragment);
+				serialized++;
+			}
+
+			if (!fragment.text.isEmpty()) {
+				json.append(empty ? "\n" : ",\n").append(fragment.text);
+				empty = false;
+			}
+		}
+		fragments.keySet().retainAll(present);
+		json.append(empty ? "]" : "\n]");
+
+		this.replace(json.toString());
+		return serialized;
+	}
+
+	/**
+	 * Forgets every fragment, so the next write serializes the whole model
+	 */
+	public void clear() {
+		fragments.clear();
+	}
+
+	private String serialize(List<Type> types) {
+		StringBuilder text = new StringBuilder();
+		for (Type type : types) {
+			JsonElement element = JsonOutput.toJsonTree(gson, type, onlySmelly);
+			if (element == null) {
+				continue;
+			}
+			if (text.length() > 0) {
+				text.append(",\n");
+			}
+			// indented as an element of the top-level array
+			String[] lines = gson.toJson(element).split("\n");
+			for (int i = 0; i < lines.length; i++) {
+				text.append(i == 0 ? "" : "\n").append(INDENT).append(lines[i]);
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Everything of a file that an update of another file can change: its metric
+	 * values and smells
+	 */
+	private static String signature(List<Type> types) {
+		StringBuilder signature = new StringBuilder();
+		for (Type type : types) {
+			appendState(signature, type);
+			for (Method method : type.getMethods()) {
+				appendState(signature, method);
+			}
+			signature.append(';');
+		}
+		return signature.toString();
+	}
+
+	private static void appendState(StringBuilder signature, Resource resource) {
+		for (MetricName metric : MetricName.values()) {
+			if (resource.hasMetricValue(metric)) {
+				signature.append(metric.ordinal()).append('=').append(resource.getMetricValue(metric)).append(',');
+			}
+		}
+		for (Smell smell : resource.getSmells()) {
+			signature.append(smell.getName()).append('|').append(smell.getReason())
+					.append('|').append(smell.getStartingLine()).append('|').append(smell.getEndingLine()).append(',');
+		}
+		signature.append('/');
+	}
+
+	private void replace(String json) throws IOException {
+		Path target = file.getAbsoluteFile().toPath();
+		Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+			writer.write(json);
+		}
+		try {
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException exception) {
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static final class Fragment {
+
+		private final String signature;
+
+		private final String text;
+
+		private Fragment(String signature, String text) {
+			this.signature = signature;
+			this.text = text;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package cmu.detector.console.output;
+
+import cmu.detector.metrics.MetricValueStore;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Gson configuration shared by everything that writes the analysis model as JSON
+ */
+public final class JsonOutput {
+
+	private JsonOutput() {
+	}
+
+	/**
+	 * @param pretty indent the output; line-based protocols need it on a single line
+	 */
+	public static Gson create(boolean pretty) {
+		GsonBuilder builder = new GsonBuilder();
+		builder.addSerializationExclusionStrategy(new ObservableExclusionStrategy());
+		builder.registerTypeAdapter(MetricValueStore.class, new MetricValueStoreSerializer());
+		builder.disableHtmlEscaping();
+		if (pretty) {
+			builder.setPrettyPrinting();
+		}
+		builder.serializeNulls();
+		return builder.create();
+	}
+
+	/**
+	 * Writes the types as a JSON array, like {@code gson.toJson(types, writer)}
+	 *
+	 * @param onlySmelly keep only the smelly types and methods (see {@link #toJsonTree})
+	 */
+	public static void write(Gson gson, List<Type> types, boolean onlySmelly, Writer writer) throws IOException {
+		JsonWriter json = gson.newJsonWriter(writer);
+		json.beginArray();
+		for (Type type : types) {
+			JsonElement element = toJsonTree(gson, type, onlySmelly);
+			if (element != null) {
+				gson.toJson(element, json);
+			}
+		}
+		json.endArray();
+		json.flush();
+	}
+
+	/**
+	 * Serializes a type. With onlySmelly, only its smelly methods are kept, and a type
+	 * is dropped (null) unless it or one of its methods is smelly; the model itself is
+	 * left untouched
+	 */
+	public static JsonElement toJsonTree(Gson gson, Type type, boolean onlySmelly) {
+		JsonElement element = gson.toJsonTree(type);
+		if (!onlySmelly) {
+			return element;
+		}
+
+		JsonArray methods = new JsonArray();
+		JsonArray serializedMethods = element.getAsJsonObject().getAsJsonArray("methods");
+		List<Method> typeMethods = type.getMethods();
+		for (int i = 0; i < typeMethods.size(); i++) {
+			if (typeMethods.get(i).isSmelly()) {
+				methods.add(serializedMethods.get(i));
+			}
+		}
+		if (!type.isSmelly() && methods.isEmpty()) {
+			return null;
+		}
+		JsonObject object = element.getAsJsonObject();
+		object.add("methods", methods);
+		return object;
+	}
+}
@@ -0,0 +1,23 @@
+package cmu.detector.console.output;
+
+import cmu.detector.metrics.MetricValueStore;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+import java.lang.reflect.Type;
+
+/**
+ * Writes a MetricValueStore as a JSON object from metric label to value,
+ * the same shape a Map&lt;MetricName, Double&gt; is serialized to
+ */
+public class MetricValueStoreSerializer implements JsonSerializer<MetricValueStore> {
+
+	@Override
+	public JsonElement serialize(MetricValueStore store, Type type, JsonSerializationContext context) {
+		JsonObject object = new JsonObject();
+		store.forEach((metric, value) -> object.addProperty(metric.getLabel(), value));
+		return object;
+	}
+}
@@ -0,0 +1,224 @@
+package cmu.detector.daemon;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.console.ToolParameters;
+import cmu.detector.console.output.JsonOutput;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.resources.loader.SourceFile;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps an {@link AnalysisSession} in a warm JVM and serves requests over a
+ * line-based JSON protocol: one request object per input line, one response
+ * object per output line.
+ *
+ * <p>
+ * Requests carry a {@code command} and an optional {@code id}, echoed in the
+ * response:
+ * </p>
+ * <ul>
+ *   <li>{@code analyze}: loads and analyses all the source folders</li>
+ *   <li>{@code update}, with {@code files}: re-analyses the given files (deleted files are dropped)
+ *   and answers the types they declare</li>
+ *   <li>{@code query}, with {@code type} (a fully qualified name), {@code file} or
+ *   {@code smelly: true}: answers the selected types, or all of them</li>
+ *   <li>{@code save}, with an optional {@code file}: writes the model, by default to the output file,
+ *   keeping only the smelly types and methods when {@code --only-smelly} is set</li>
+ *   <li>{@code shutdown}: answers and stops</li>
+ * </ul>
+ * Responses have {@code status} "ok" or "error" (with a {@code message}) and the
+ * time spent in {@code millis}.
+ */
+public class AnalysisDaemon {
+
+    private final AnalysisSession session;
+
+    private final BufferedReader input;
+
+    private final PrintStream output;
+
+    private final boolean standardStreams;
+
+    private final Gson gson;
+
+    private boolean analyzed;
+
+    private boolean running;
+
+    /**
+     * Serves requests from the standard input. While the daemon runs, anything else
+     * written to the standard output (progress, logs) goes to the standard error
+     */
+    public AnalysisDaemon(AnalysisSession session) {
+        this(session, new InputStreamReader(System.in, StandardCharsets.UTF_8), System.out, true);
+    }
+
+    public AnalysisDaemon(AnalysisSession session, Reader input, PrintStream output) {
+        this(session, input, output, false);
+    }
+
+    private AnalysisDaemon(AnalysisSession session, Reader input, PrintStream output, boolean standardStreams) {
+        this.session = session;
+        this.input = new BufferedReader(input);
+        this.output = output;
+        this.standardStreams = standardStreams;
+        this.gson = JsonOutput.create(false);
+    }
+
+    public void run() throws IOException {
+        PrintStream standardOutput = System.out;
+        if (standardStreams) {
+            System.setOut(System.err);
+        }
+
+        try {
+            this.running = true;
+            String line;
+            while (this.running && (line = input.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                output.println(gson.toJson(this.handle(line)));
+                output.flush();
+            }
+        } finally {
+            if (standardStreams) {
+                System.setOut(standardOutput);
+            }
+        }
+    }
+
+    /**
+     * Handles one request line and builds its response
+     */
+    public JsonObject handle(String line) {
+        long start = System.nanoTime();
+        JsonObject response = new JsonObject();
+        try {
+            JsonElement parsed = JsonParser.parseString(line);
+            if (!parsed.isJsonObject()) {
+                throw new IllegalArgumentException("a request must be a JSON object");
+            }
+            JsonObject request = parsed.getAsJsonObject();
+            if (request.has("id")) {
+                response.add("id", request.get("id"));
+            }
+            this.dispatch(request, response);
+            response.addProperty("status", "ok");
+        } catch (JsonParseException exception) {
+            response.addProperty("status", "error");
+            response.addProperty("message", "Invalid JSON: " + exception.getMessage());
+        } catch (IOException | RuntimeException exception) {
+            response.addProperty("status", "error");
+            response.addProperty("message", String.valueOf(exception.getMessage()));
+        }
+        response.addProperty("millis", (System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    private void dispatch(JsonObject request, JsonObject response) throws IOException {
+        String command = getString(request, "command");
+        if (command == null) {
+            throw new IllegalArgumentException("missing command");
+        }
+
+        switch (command) {
+            case "analyze":
+                session.analyze();
+                this.analyzed = true;
+                response.addProperty("files", session.getSourceFiles().size());
+                response.addProperty("types", session.getTypes().size());
+                break;
+            case "update":
+                this.requireAnalysis();
+                List<Type> updated = session.update(getFiles(request));
+                response.add("types", gson.toJsonTree(updated));
+                break;
+            case "query":
+                this.requireAnalysis();
+                response.add("types", gson.toJsonTree(this.query(request)));
+                break;
+            case "save":
+                this.requireAnalysis();
+                String file = getString(request, "file");
+                this.save(file != null ? file : ToolParameters.getInstance().getValue(ToolParameters.OUTPUT_FILE));
+                break;
+            case "shutdown":
+                this.running = false;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown command " + command);
+        }
+    }
+
+    private void requireAnalysis() {
+        if (!this.analyzed) {
+            throw new IllegalStateException("nothing analysed yet, send 'analyze' first");
+        }
+    }
+
+    private List<Type> query(JsonObject request) {
+        String typeName = getString(request, "type");
+        if (typeName != null) {
+            Type type = session.findType(typeName);
+            return type == null ? List.of() : List.of(type);
+        }
+
+        String fileName = getString(request, "file");
+        if (fileName != null) {
+            SourceFile sourceFile = session.getSourceFile(new File(fileName));
+            return sourceFile == null ? List.of() : sourceFile.getTypes();
+        }
+
+        boolean smelly = request.has("smelly") && request.get("smelly").getAsBoolean();
+        List<Type> types = new ArrayList<>();
+        for (Type type : session.getTypes()) {
+            if (!smelly || type.isSmelly() || type.getMethods().stream().anyMatch(Method::isSmelly)) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    private void save(String fileName) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, StandardCharsets.UTF_8))) {
+            JsonOutput.write(JsonOutput.create(true), session.getTypes(),
+                    ToolParameters.getInstance().shouldFilterSmelly(), writer);
+        }
+    }
+
+    private static List<File> getFiles(JsonObject request) {
+        if (!request.has("files") || !request.get("files").isJsonArray()) {
+            throw new IllegalArgumentException("'update' needs a 'files' array");
+        }
+        JsonArray array = request.getAsJsonArray("files");
+        List<File> files = new ArrayList<>();
+        for (JsonElement element : array) {
+            files.add(new File(element.getAsString()));
+        }
+        return files;
+    }
+
+    private static String getString(JsonObject request, String key) {
+        JsonElement element = request.get(key);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+}
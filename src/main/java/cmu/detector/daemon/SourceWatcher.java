@@ -0,0 +1,205 @@
+package cmu.detector.daemon;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.console.output.JsonFragmentWriter;
+import cmu.detector.resources.loader.SourceFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the source folders of an analysed {@link AnalysisSession} and keeps it,
+ * and its output file, up to date. Bursts of events (an IDE saving several files,
+ * a branch checkout) are debounced: changes are collected until the folders have
+ * been quiet for a while, then only the changed files are parsed again.
+ *
+ * <p>
+ * Directories are registered one by one, since a {@link WatchService} does not
+ * watch subtrees; directories created later are registered when they appear and
+ * the Java files they already hold count as changed. Pruned directories (build/,
+ * excluded patterns) are not watched. If the service loses events, the whole
+ * session is analysed again.
+ * </p>
+ */
+public class SourceWatcher implements Closeable {
+
+    public static final long DEFAULT_QUIET_MILLIS = 300;
+
+    private final AnalysisSession session;
+
+    private final JsonFragmentWriter writer;
+
+    private final long quietMillis;
+
+    private final WatchService service;
+
+    private final Map<WatchKey, Path> directories;
+
+    public SourceWatcher(AnalysisSession session, JsonFragmentWriter writer, long quietMillis) throws IOException {
+        this.session = session;
+        this.writer = writer;
+        this.quietMillis = quietMillis;
+        this.service = FileSystems.getDefault().newWatchService();
+        this.directories = new HashMap<>();
+
+        for (String sourcePath : session.getSourcePaths()) {
+            Path root = Paths.get(sourcePath).toAbsolutePath().normalize();
+            if (Files.isDirectory(root)) {
+                this.registerAll(root, new TreeSet<>());
+            }
+        }
+    }
+
+    /**
+     * Applies changes until the watcher is closed or the thread interrupted
+     */
+    public void run() throws IOException {
+        try {
+            while (true) {
+                this.processNextBatch();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException exception) {
+            // closed from another thread
+        }
+    }
+
+    /**
+     * Waits for the next burst of changes and applies it to the session and the output
+     *
+     * @return the files that were updated, empty if the events touched no analysed file
+     */
+    public Set<File> processNextBatch() throws IOException, InterruptedException {
+        Set<File> changed = new TreeSet<>();
+        boolean overflow = this.collect(service.take(), changed);
+
+        // debounce: keep collecting until no event arrives during the quiet period
+        WatchKey key;
+        while ((key = service.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+            overflow |= this.collect(key, changed);
+        }
+
+        long start = System.nanoTime();
+        if (overflow) {
+            session.analyze();
+            writer.clear();
+            writer.write(session.getSourceFiles(), List.of());
+            System.out.println("Events were lost, analysed everything again in " + elapsed(start) + " ms");
+            return changed;
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+
+        session.update(changed);
+        int rewritten = writer.write(session.getSourceFiles(), changed);
+        System.out.println("Updated " + changed.size() + " file(s), rewrote " + rewritten + " fragment(s) in "
+                + elapsed(start) + " ms");
+        return changed;
+    }
+
+    /**
+     * Adds the analysed files touched by the events of a key to the changes
+     *
+     * @return true if events were lost
+     */
+    private boolean collect(WatchKey key, Set<File> changed) throws IOException {
+        Path directory = directories.get(key);
+        boolean overflow = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            File file = path.toFile();
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (session.getFinder().accepts(file)) {
+                    this.registerAll(path, changed);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // either a file or a whole directory of analysed files
+                this.addAnalysedUnder(path, changed);
+            } else if (!Files.isDirectory(path)
+                    && (session.getSourceFile(file) != null || session.getFinder().accepts(file))) {
+                changed.add(file);
+            }
+        }
+
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return overflow;
+    }
+
+    private void addAnalysedUnder(Path path, Set<File> changed) {
+        for (SourceFile sourceFile : session.getSourceFiles()) {
+            Path analysed = sourceFile.getFile().getAbsoluteFile().toPath();
+            if (analysed.startsWith(path)) {
+                changed.add(analysed.toFile());
+            }
+        }
+    }
+
+    /**
+     * Registers a directory and the directories below it, adding the Java files found
+     * to the changes (they may have been created before the directory was watched)
+     */
+    private void registerAll(Path directory, Set<File> found) throws IOException {
+        WatchKey key = directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, directory);
+
+        List<Path> subdirectories = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                File file = entry.toFile();
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    if (session.getFinder().accepts(file)) {
+                        subdirectories.add(entry);
+                    }
+                } else if (session.getSourceFile(file) == null && session.getFinder().accepts(file)) {
+                    found.add(file);
+                }
+            }
+        }
+        for (Path subdirectory : subdirectories) {
+            this.registerAll(subdirectory, found);
+        }
+    }
+
+    private static long elapsed(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
@@ -1,103 +1,487 @@
 package cmu.detector.graph;
 
+import cmu.detector.ast.NameResolver;
 import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Calls between methods of the whole analysis, across files and shards.
+ *
+ * <p>
+ * Methods are identified by their binding keys, interned into dense int ids, so
+ * the graph holds neither JDT bindings (and the compilation units behind them)
+ * nor a hash set per method. Calls are appended to two int arrays; the first
+ * query after a change sorts and deduplicates them into a compressed sparse row
+ * snapshot, one for the callees and one for the callers of each method. Queries
+ * read the current snapshot without locking; changes are synchronized.
+ * </p>
+ *
+ * <p>
+ * A graph belongs to one analysis. Parser shards fill their own unsynchronized
+ * {@link Builder} and {@link #merge(Builder) merge} it in one step, so they only
+ * contend once per shard.
+ * </p>
+ */
 public class CallGraph {
 
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> ids;
+
+    private final List<String> keys;
+
     /**
-     * For each IMethodBinding, we find the set of methods
-     * called by it
+     * Declaring type of each method id, as an index in types, or -1 if unknown
      */
-    private Map<IMethodBinding, Set<IMethodBinding>> calling;
+    private int[] declaringTypes;
+
+    private final Map<String, Integer> typeIds;
+
+    private final List<String> types;
 
     /**
-     * For each IMethodBinding, we found the list of
-     * methods which call it
+     * Calls added since the last compaction, as parallel arrays
      */
-    private Map<IMethodBinding, Set<IMethodBinding>> calledBy;
+    private int[] callers;
+
+    private int[] callees;
 
-    private static CallGraph singleton;
+    private int edgeCount;
 
-    static {
-        singleton = new CallGraph();
+    private volatile Snapshot snapshot;
+
+    public CallGraph() {
+        this.ids = new HashMap<>();
+        this.keys = new ArrayList<>();
+        this.typeIds = new HashMap<>();
+        this.types = new ArrayList<>();
+        this.reset();
     }
 
-    private CallGraph() {
-        this.calling = new HashMap<>();
-        this.calledBy = new HashMap<>();
+    /**
+     * Records that caller calls callee, with the types declaring them
+     */
+    public void addMethodCall(IMethodBinding caller, IMethodBinding callee) {
+        this.addMethodCall(key(caller), typeName(caller), key(callee), typeName(callee));
     }
 
-    public static CallGraph getInstance() {
-        return singleton;
+    public synchronized void addMethodCall(String callerKey, String callerType, String calleeKey, String calleeType) {
+        this.addEdge(this.intern(callerKey, callerType), this.intern(calleeKey, calleeType));
+        this.snapshot = null;
     }
 
-    private void addCaller(IMethodBinding caller, IMethodBinding callee) {
-        Set<IMethodBinding> calls = this.calling.get(caller);
+    /**
+     * Adds everything a shard collected: its methods are interned once and its calls
+     * appended under a single lock
+     */
+    public synchronized void merge(Builder builder) {
+        int[] global = new int[builder.keys.size()];
+        for (int local = 0; local < global.length; local++) {
+            global[local] = this.intern(builder.keys.get(local), builder.types.get(local));
+        }
+        for (int i = 0; i < builder.edgeCount; i++) {
+            this.addEdge(global[builder.callers[i]], global[builder.callees[i]]);
+        }
+        this.snapshot = null;
+    }
 
-        if (calls == null) {
-            calls = new HashSet<>();
-            this.calling.put(caller, calls);
+    private void addEdge(int caller, int callee) {
+        if (edgeCount == callers.length) {
+            callers = Arrays.copyOf(callers, edgeCount * 2);
+            callees = Arrays.copyOf(callees, edgeCount * 2);
         }
+        callers[edgeCount] = caller;
+        callees[edgeCount] = callee;
+        edgeCount++;
+    }
+
+    /**
+     * Declares a method, so it has an id (and a type) even if it makes or receives no call
+     *
+     * @return the id of the method
+     */
+    public synchronized int addMethod(String key, String type) {
+        int id = this.intern(key, type);
+        if (this.snapshot != null && id >= this.snapshot.size()) {
+            this.snapshot = null;
+        }
+        return id;
+    }
+
+    private int intern(String key, String type) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = keys.size();
+            ids.put(key, id);
+            keys.add(key);
+            if (id == declaringTypes.length) {
+                declaringTypes = Arrays.copyOf(declaringTypes, Math.max(16, id * 2));
+                Arrays.fill(declaringTypes, id, declaringTypes.length, -1);
+            }
+        }
+        if (type != null && declaringTypes[id] < 0) {
+            Integer typeId = typeIds.get(type);
+            if (typeId == null) {
+                typeId = types.size();
+                typeIds.put(type, typeId);
+                types.add(type);
+            }
+            declaringTypes[id] = typeId;
+        }
+        return id;
+    }
+
+    /**
+     * Key of the declared method: a call into a generic type or a generic method is
+     * bound to a parameterized or inferred copy of the method, whose key differs
+     */
+    private static String key(IMethodBinding method) {
+        return method.getMethodDeclaration().getKey();
+    }
 
-        calls.add(callee);
+    private static String typeName(IMethodBinding method) {
+        ITypeBinding type = method.getDeclaringClass();
+        return type == null ? null : NameResolver.getQualifiedName(type);
     }
 
-    private void addCalee(IMethodBinding caller, IMethodBinding callee) {
-        Set<IMethodBinding> callers = this.calledBy.get(callee);
+    /**
+     * Removes the calls made by a method. Calls it receives are kept: method keys do
+     * not change when a file is parsed again, so the callers stay valid
+     */
+    public void removeCalls(String key) {
+        this.removeCalls(List.of(key));
+    }
 
-        if (callers == null) {
-            callers = new HashSet<>();
-            this.calledBy.put(callee, callers);
+    public synchronized void removeCalls(Collection<String> keys) {
+        Set<Integer> removed = new HashSet<>();
+        for (String key : keys) {
+            Integer id = ids.get(key);
+            if (id != null) {
+                removed.add(id);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
         }
 
-        callers.add(caller);
+        int kept = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            if (!removed.contains(callers[i])) {
+                callers[kept] = callers[i];
+                callees[kept] = callees[i];
+                kept++;
+            }
+        }
+        edgeCount = kept;
+        this.snapshot = null;
     }
 
-    public void addMethodCall(IMethodBinding caller, IMethodBinding callee) {
-        this.addCaller(caller, callee);
-        this.addCalee(caller, callee);
+    public synchronized void reset() {
+        this.ids.clear();
+        this.keys.clear();
+        this.typeIds.clear();
+        this.types.clear();
+        this.declaringTypes = new int[16];
+        Arrays.fill(this.declaringTypes, -1);
+        this.callers = new int[64];
+        this.callees = new int[64];
+        this.edgeCount = 0;
+        this.snapshot = null;
     }
 
     /**
-     * The methods that call a specific method
+     * The current compressed snapshot, built if calls changed since the last query
      */
-    public Set<IMethodBinding> getCallers(IMethodBinding method) {
-        Set<IMethodBinding> calls = this.calledBy.get(method);
+    public Snapshot snapshot() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = this.snapshot;
+                if (current == null) {
+                    current = this.compact();
+                    this.snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sorts and deduplicates the calls, keeps them deduplicated in the edge arrays and
+     * builds both adjacency structures
+     */
+    private Snapshot compact() {
+        int size = keys.size();
+        long[] packed = new long[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            packed[i] = ((long) callers[i] << 32) | callees[i];
+        }
+        Arrays.sort(packed);
+
+        int unique = 0;
+        for (int i = 0; i < packed.length; i++) {
+            if (i == 0 || packed[i] != packed[i - 1]) {
+                packed[unique] = packed[i];
+                callers[unique] = (int) (packed[i] >>> 32);
+                callees[unique] = (int) packed[i];
+                unique++;
+            }
+        }
+        edgeCount = unique;
 
-        if (calls == null) {
-            return new HashSet<>();
+        int[] calleeOffsets = new int[size + 1];
+        int[] callerOffsets = new int[size + 1];
+        for (int i = 0; i < unique; i++) {
+            calleeOffsets[callers[i] + 1]++;
+            callerOffsets[callees[i] + 1]++;
         }
-        return calls;
+        for (int id = 0; id < size; id++) {
+            calleeOffsets[id + 1] += calleeOffsets[id];
+            callerOffsets[id + 1] += callerOffsets[id];
+        }
+
+        // edges are sorted by caller then callee, so both rows come out sorted
+        int[] calleeTargets = Arrays.copyOf(callees, unique);
+        int[] callerTargets = new int[unique];
+        int[] next = Arrays.copyOf(callerOffsets, size);
+        for (int i = 0; i < unique; i++) {
+            callerTargets[next[callees[i]]++] = callers[i];
+        }
+
+        String[] typeNames = types.toArray(new String[0]);
+        return new Snapshot(keys.toArray(new String[0]), Arrays.copyOf(declaringTypes, size), typeNames,
+                calleeOffsets, calleeTargets, callerOffsets, callerTargets);
     }
 
     /**
-     * Return true if caller calls called in its body
+     * The methods that call a specific method
      */
-    public boolean calls(IMethodBinding caller, IMethodBinding called) {
-        Set<IMethodBinding> calls = this.getCalls(caller);
-        return calls.contains(called);
+    public Set<String> getCallers(String key) {
+        Snapshot graph = this.snapshot();
+        return graph.keysOf(graph.getCallers(graph.getId(key)));
     }
 
     /**
      * The methods that a specific method calls
      */
-    public Set<IMethodBinding> getCalls(IMethodBinding method) {
-        Set<IMethodBinding> callers = this.calling.get(method);
-        if (callers == null) {
-            return new HashSet<>();
+    public Set<String> getCalls(String key) {
+        Snapshot graph = this.snapshot();
+        return graph.keysOf(graph.getCallees(graph.getId(key)));
+    }
+
+    /**
+     * Return true if caller calls called in its body
+     */
+    public boolean calls(String caller, String called) {
+        Snapshot graph = this.snapshot();
+        return graph.calls(graph.getId(caller), graph.getId(called));
+    }
+
+    /**
+     * Methods and calls collected by a single thread (e.g. one parser shard) before
+     * they are merged into a graph. Not thread-safe
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private final List<String> keys = new ArrayList<>();
+
+        private final List<String> types = new ArrayList<>();
+
+        private int[] callers = new int[16];
+
+        private int[] callees = new int[16];
+
+        private int edgeCount;
+
+        public void addMethod(String key, String type) {
+            this.intern(key, type);
+        }
+
+        public void addMethodCall(IMethodBinding caller, IMethodBinding callee) {
+            this.addMethodCall(key(caller), typeName(caller), key(callee), typeName(callee));
+        }
+
+        public void addMethodCall(String callerKey, String callerType, String calleeKey, String calleeType) {
+            int caller = this.intern(callerKey, callerType);
+            int callee = this.intern(calleeKey, calleeType);
+            if (edgeCount == callers.length) {
+                callers = Arrays.copyOf(callers, edgeCount * 2);
+                callees = Arrays.copyOf(callees, edgeCount * 2);
+            }
+            callers[edgeCount] = caller;
+            callees[edgeCount] = callee;
+            edgeCount++;
+        }
+
+        private int intern(String key, String type) {
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = keys.size();
+                ids.put(key, id);
+                keys.add(key);
+                types.add(type);
+            } else if (types.get(id) == null) {
+                types.set(id, type);
+            }
+            return id;
         }
-        return callers;
     }
 
+    /**
+     * Immutable compressed view of the graph. Ids are dense, from 0 to
+     * {@link #size()} - 1, and rows are sorted by id
+     */
+    public static final class Snapshot {
+
+        private final String[] keys;
+
+        private final Map<String, Integer> ids;
+
+        private final int[] declaringTypes;
+
+        private final String[] types;
+
+        /**
+         * Index of the type names, built on the first lookup
+         */
+        private volatile Map<String, Integer> typeIds;
+
+        private final int[] calleeOffsets;
 
+        private final int[] calleeTargets;
 
-    public void reset() {
-        this.calledBy.clear();
-        this.calling.clear();
+        private final int[] callerOffsets;
+
+        private final int[] callerTargets;
+
+        private Snapshot(String[] keys, int[] declaringTypes, String[] types, int[] calleeOffsets,
+                         int[] calleeTargets, int[] callerOffsets, int[] callerTargets) {
+            this.keys = keys;
+            this.ids = new HashMap<>(keys.length * 2);
+            for (int id = 0; id < keys.length; id++) {
+                this.ids.put(keys[id], id);
+            }
+            this.declaringTypes = declaringTypes;
+            this.types = types;
+            this.calleeOffsets = calleeOffsets;
+            this.calleeTargets = calleeTargets;
+            this.callerOffsets = callerOffsets;
+            this.callerTargets = callerTargets;
+        }
+
+        public int size() {
+            return keys.length;
+        }
+
+        public int getEdgeCount() {
+            return calleeTargets.length;
+        }
+
+        /**
+         * @return the id of a method key, or -1 if the method is unknown
+         */
+        public int getId(String key) {
+            Integer id = key == null ? null : ids.get(key);
+            return id == null ? -1 : id;
+        }
+
+        public String getKey(int id) {
+            return keys[id];
+        }
+
+        /**
+         * @return the qualified name of the type declaring a method, or null if unknown
+         */
+        public String getDeclaringType(int id) {
+            int type = declaringTypes[id];
+            return type < 0 ? null : types[type];
+        }
+
+        /**
+         * @return the index of the type declaring a method, or -1 if unknown
+         */
+        public int getDeclaringTypeId(int id) {
+            return declaringTypes[id];
+        }
+
+        public int getTypeCount() {
+            return types.length;
+        }
+
+        /**
+         * @return the index of a type declaring methods of the graph, or -1 if it declares none
+         */
+        public int getTypeId(String type) {
+            if (typeIds == null) {
+                Map<String, Integer> index = new HashMap<>(types.length * 2);
+                for (int i = 0; i < types.length; i++) {
+                    index.put(types[i], i);
+                }
+                typeIds = index;
+            }
+            Integer id = type == null ? null : typeIds.get(type);
+            return id == null ? -1 : id;
+        }
+
+        public int[] getCallees(int id) {
+            if (id < 0) {
+                return NONE;
+            }
+            return Arrays.copyOfRange(calleeTargets, calleeOffsets[id], calleeOffsets[id + 1]);
+        }
+
+        public int[] getCallers(int id) {
+            if (id < 0) {
+                return NONE;
+            }
+            return Arrays.copyOfRange(callerTargets, callerOffsets[id], callerOffsets[id + 1]);
+        }
+
+        public int getCalleeCount(int id) {
+            return calleeOffsets[id + 1] - calleeOffsets[id];
+        }
+
+        public int getCallerCount(int id) {
+            return callerOffsets[id + 1] - callerOffsets[id];
+        }
+
+        /**
+         * Callee of a method by position, 0 &lt;= index &lt; {@link #getCalleeCount(int)},
+         * for loops that must not allocate
+         */
+        public int getCallee(int id, int index) {
+            return calleeTargets[calleeOffsets[id] + index];
+        }
+
+        public int getCaller(int id, int index) {
+            return callerTargets[callerOffsets[id] + index];
+        }
+
+        public boolean calls(int caller, int callee) {
+            if (caller < 0 || callee < 0) {
+                return false;
+            }
+            return Arrays.binarySearch(calleeTargets, calleeOffsets[caller], calleeOffsets[caller + 1], callee) >= 0;
+        }
+
+        private Set<String> keysOf(int[] row) {
+            Set<String> result = new LinkedHashSet<>();
+            for (int id : row) {
+                result.add(keys[id]);
+            }
+            return result;
+        }
     }
 }
@@ -0,0 +1,351 @@
+package cmu.detector.graph;
+
+import java.util.Arrays;
+
+/**
+ * Whole-graph analyses of the {@link CallGraph}: strongly connected components
+ * (Tarjan), call depth, transitive reachability and the caller/callee class
+ * counts behind Shotgun Surgery and Intensive Coupling.
+ *
+ * <p>
+ * Every algorithm is iterative and works on the compressed snapshot, so deep call
+ * chains cannot overflow the stack and graphs with millions of calls stay in
+ * primitive arrays. Components come out of Tarjan in reverse topological order,
+ * which lets depth and reachability be computed in a single pass over the
+ * condensed graph. Reachability is exact up to {@link #SKETCH_SIZE} methods and
+ * estimated with bottom-k sketches above, so memory stays linear in the graph.
+ * </p>
+ *
+ * <p>
+ * Results are cached per snapshot: they are computed once, when the first metric
+ * is requested after the graph changed.
+ * </p>
+ */
+public class CallGraphAnalyzer {
+
+    public static final int SKETCH_SIZE = 128;
+
+    private final CallGraph graph;
+
+    private CallGraphMetrics metrics;
+
+    public CallGraphAnalyzer(CallGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * @return the metrics of the current call graph
+     */
+    public synchronized CallGraphMetrics getMetrics() {
+        CallGraph.Snapshot snapshot = graph.snapshot();
+        if (metrics == null || metrics.getSnapshot() != snapshot) {
+            metrics = analyze(snapshot);
+        }
+        return metrics;
+    }
+
+    public static CallGraphMetrics analyze(CallGraph.Snapshot graph) {
+        int size = graph.size();
+        int[] component = new int[size];
+        int[] members = new int[size];
+        int[] memberOffsets = new int[size + 1];
+        int componentCount = findComponents(graph, component, members, memberOffsets);
+
+        int[] recursionGroupSize = new int[size];
+        for (int c = 0; c < componentCount; c++) {
+            int start = memberOffsets[c];
+            int groupSize = memberOffsets[c + 1] - start;
+            if (groupSize > 1 || graph.calls(members[start], members[start])) {
+                for (int i = start; i < memberOffsets[c + 1]; i++) {
+                    recursionGroupSize[members[i]] = groupSize;
+                }
+            }
+        }
+
+        int[] callDepth = new int[size];
+        double[] reachable = new double[size];
+        condense(graph, component, componentCount, members, memberOffsets, recursionGroupSize, callDepth, reachable);
+
+        int[] changingClasses = new int[size];
+        int[] couplingIntensity = new int[size];
+        int[] coupledClasses = new int[size];
+        countClasses(graph, changingClasses, couplingIntensity, coupledClasses);
+
+        int[] typeCouplingIntensity = new int[graph.getTypeCount()];
+        int[] typeCoupledClasses = new int[graph.getTypeCount()];
+        countTypeCoupling(graph, typeCouplingIntensity, typeCoupledClasses);
+
+        return new CallGraphMetrics(graph, component, componentCount, recursionGroupSize, callDepth, reachable,
+                changingClasses, couplingIntensity, coupledClasses, typeCouplingIntensity, typeCoupledClasses);
+    }
+
+    /**
+     * Iterative Tarjan. Fills the component of each method and the members of each
+     * component, contiguous in members
+     *
+     * @return the number of components
+     */
+    private static int findComponents(CallGraph.Snapshot graph, int[] component, int[] members, int[] memberOffsets) {
+        int size = graph.size();
+        int[] index = new int[size];
+        int[] low = new int[size];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int stackSize = 0;
+
+        // explicit recursion: the method visited at each level and its next callee
+        int[] callNode = new int[size];
+        int[] callEdge = new int[size];
+        int depth = 0;
+
+        int counter = 0;
+        int componentCount = 0;
+        int memberCount = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callNode[0] = root;
+            callEdge[0] = 0;
+            depth = 1;
+
+            while (depth > 0) {
+                int v = callNode[depth - 1];
+                if (callEdge[depth - 1] < graph.getCalleeCount(v)) {
+                    int w = graph.getCallee(v, callEdge[depth - 1]++);
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callNode[depth] = w;
+                        callEdge[depth] = 0;
+                        depth++;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (low[v] == index[v]) {
+                    memberOffsets[componentCount] = memberCount;
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        component[w] = componentCount;
+                        members[memberCount++] = w;
+                    } while (w != v);
+                    componentCount++;
+                }
+                if (depth > 0) {
+                    int parent = callNode[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        memberOffsets[componentCount] = memberCount;
+        return componentCount;
+    }
+
+    /**
+     * Walks the condensed graph from the sinks up. A component's sketch is kept only
+     * until all the components calling it were processed
+     */
+    private static void condense(CallGraph.Snapshot graph, int[] component, int componentCount, int[] members,
+                                 int[] memberOffsets, int[] recursionGroupSize, int[] callDepth, double[] reachable) {
+        int[] remainingCallers = new int[componentCount];
+        for (int id = 0; id < graph.size(); id++) {
+            for (int i = 0; i < graph.getCalleeCount(id); i++) {
+                int target = component[graph.getCallee(id, i)];
+                if (target != component[id]) {
+                    remainingCallers[target]++;
+                }
+            }
+        }
+
+        int[] componentDepth = new int[componentCount];
+        // methods reachable from a component, including its own members
+        long[][] closure = new long[componentCount][];
+
+        for (int c = 0; c < componentCount; c++) {
+            long[] sketch = new long[0];
+            int depth = 0;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int id = members[m];
+                for (int i = 0; i < graph.getCalleeCount(id); i++) {
+                    int target = component[graph.getCallee(id, i)];
+                    if (target == c) {
+                        continue;
+                    }
+                    depth = Math.max(depth, componentDepth[target] + 1);
+                    sketch = merge(sketch, closure[target]);
+                    if (--remainingCallers[target] == 0) {
+                        closure[target] = null;
+                    }
+                }
+            }
+
+            long[] own = new long[0];
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                own = merge(own, new long[]{rank(members[m])});
+            }
+            boolean recursive = recursionGroupSize[members[memberOffsets[c]]] > 0;
+            if (recursive) {
+                sketch = merge(sketch, own);
+            }
+
+            double estimate = estimate(sketch);
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                callDepth[members[m]] = depth;
+                reachable[members[m]] = estimate;
+            }
+            componentDepth[c] = depth;
+            if (remainingCallers[c] > 0) {
+                closure[c] = recursive ? sketch : merge(sketch, own);
+            }
+        }
+    }
+
+    /**
+     * Pseudo-random rank of a method, uniform over the non-negative longs (SplitMix64)
+     */
+    private static long rank(int id) {
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 1;
+    }
+
+    /**
+     * Union of two bottom-k sketches: the smallest distinct ranks of both, at most SKETCH_SIZE
+     */
+    private static long[] merge(long[] first, long[] second) {
+        if (second == null || second.length == 0) {
+            return first;
+        }
+        if (first.length == 0) {
+            return second;
+        }
+        long[] merged = new long[Math.min(SKETCH_SIZE, first.length + second.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (count < merged.length && (i < first.length || j < second.length)) {
+            long next;
+            if (j >= second.length || (i < first.length && first[i] < second[j])) {
+                next = first[i++];
+            } else if (i >= first.length || second[j] < first[i]) {
+                next = second[j++];
+            } else {
+                next = first[i++];
+                j++;
+            }
+            merged[count++] = next;
+        }
+        return count == merged.length ? merged : Arrays.copyOf(merged, count);
+    }
+
+    /**
+     * Exact count for small sets; above, the k-th smallest rank of a uniform sample
+     * estimates the set size as (k - 1) / rank
+     */
+    private static double estimate(long[] sketch) {
+        if (sketch.length < SKETCH_SIZE) {
+            return sketch.length;
+        }
+        double kth = (double) sketch[SKETCH_SIZE - 1] / Long.MAX_VALUE;
+        return Math.rint((SKETCH_SIZE - 1) / kth);
+    }
+
+    /**
+     * Distinct classes of the callers (CC), and distinct methods (CINT) and classes of
+     * other classes called by each method
+     */
+    private static void countClasses(CallGraph.Snapshot graph, int[] changingClasses, int[] couplingIntensity,
+                                     int[] coupledClasses) {
+        // marks the types already counted for the current method, without clearing between methods
+        int[] seen = new int[graph.getTypeCount()];
+        int stamp = 0;
+
+        for (int id = 0; id < graph.size(); id++) {
+            stamp++;
+            for (int i = 0; i < graph.getCallerCount(id); i++) {
+                int type = graph.getDeclaringTypeId(graph.getCaller(id, i));
+                if (type >= 0 && seen[type] != stamp) {
+                    seen[type] = stamp;
+                    changingClasses[id]++;
+                }
+            }
+
+            stamp++;
+            int ownType = graph.getDeclaringTypeId(id);
+            for (int i = 0; i < graph.getCalleeCount(id); i++) {
+                int type = graph.getDeclaringTypeId(graph.getCallee(id, i));
+                if (type < 0 || type == ownType) {
+                    continue;
+                }
+                couplingIntensity[id]++;
+                if (seen[type] != stamp) {
+                    seen[type] = stamp;
+                    coupledClasses[id]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * CINT and coupled classes of each type: distinct methods (and their classes) of
+     * other types called by any method of the type. Methods are grouped by type with
+     * a counting sort, so the whole pass is linear in methods and calls
+     */
+    private static void countTypeCoupling(CallGraph.Snapshot graph, int[] couplingIntensity, int[] coupledClasses) {
+        int typeCount = graph.getTypeCount();
+        int[] memberOffsets = new int[typeCount + 1];
+        for (int id = 0; id < graph.size(); id++) {
+            int type = graph.getDeclaringTypeId(id);
+            if (type >= 0) {
+                memberOffsets[type + 1]++;
+            }
+        }
+        for (int type = 0; type < typeCount; type++) {
+            memberOffsets[type + 1] += memberOffsets[type];
+        }
+        int[] members = new int[memberOffsets[typeCount]];
+        int[] next = Arrays.copyOf(memberOffsets, typeCount);
+        for (int id = 0; id < graph.size(); id++) {
+            int type = graph.getDeclaringTypeId(id);
+            if (type >= 0) {
+                members[next[type]++] = id;
+            }
+        }
+
+        // stamped with the type being counted, as in countClasses
+        int[] seenMethod = new int[graph.size()];
+        int[] seenType = new int[typeCount];
+        for (int type = 0; type < typeCount; type++) {
+            int stamp = type + 1;
+            for (int m = memberOffsets[type]; m < memberOffsets[type + 1]; m++) {
+                int id = members[m];
+                for (int i = 0; i < graph.getCalleeCount(id); i++) {
+                    int callee = graph.getCallee(id, i);
+                    int calleeType = graph.getDeclaringTypeId(callee);
+                    if (calleeType < 0 || calleeType == type || seenMethod[callee] == stamp) {
+                        continue;
+                    }
+                    seenMethod[callee] = stamp;
+                    couplingIntensity[type]++;
+                    if (seenType[calleeType] != stamp) {
+                        seenType[calleeType] = stamp;
+                        coupledClasses[type]++;
+                    }
+                }
+            }
+        }
+    }
+}
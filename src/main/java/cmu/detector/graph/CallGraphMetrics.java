@@ -0,0 +1,147 @@
+package cmu.detector.graph;
+
+/**
+ * Per-method and per-type results of a {@link CallGraphAnalyzer} run, indexed by
+ * the ids of the {@link CallGraph.Snapshot} they were computed from
+ */
+public final class CallGraphMetrics {
+
+    private final CallGraph.Snapshot snapshot;
+
+    private final int[] component;
+
+    private final int[] recursionGroupSize;
+
+    private final int[] callDepth;
+
+    private final double[] reachable;
+
+    private final int[] changingClasses;
+
+    private final int[] couplingIntensity;
+
+    private final int[] coupledClasses;
+
+    private final int componentCount;
+
+    /**
+     * Indexed by the type ids of the snapshot
+     */
+    private final int[] typeCouplingIntensity;
+
+    private final int[] typeCoupledClasses;
+
+    CallGraphMetrics(CallGraph.Snapshot snapshot, int[] component, int componentCount, int[] recursionGroupSize,
+                     int[] callDepth, double[] reachable, int[] changingClasses, int[] couplingIntensity,
+                     int[] coupledClasses, int[] typeCouplingIntensity, int[] typeCoupledClasses) {
+        this.snapshot = snapshot;
+        this.component = component;
+        this.componentCount = componentCount;
+        this.recursionGroupSize = recursionGroupSize;
+        this.callDepth = callDepth;
+        this.reachable = reachable;
+        this.changingClasses = changingClasses;
+        this.couplingIntensity = couplingIntensity;
+        this.coupledClasses = coupledClasses;
+        this.typeCouplingIntensity = typeCouplingIntensity;
+        this.typeCoupledClasses = typeCoupledClasses;
+    }
+
+    public CallGraph.Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the id of a method key in the analysed snapshot, or -1 if the method is unknown
+     */
+    public int getId(String key) {
+        return snapshot.getId(key);
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Strongly connected component of a method. Components are numbered in reverse
+     * topological order: a method only calls methods of its own or lower components
+     */
+    public int getComponent(int id) {
+        return component[id];
+    }
+
+    /**
+     * @return the number of methods in the call cycle of a method, or 0 if it is not recursive
+     */
+    public int getRecursionGroupSize(int id) {
+        return recursionGroupSize[id];
+    }
+
+    public int getFanIn(int id) {
+        return snapshot.getCallerCount(id);
+    }
+
+    public int getFanOut(int id) {
+        return snapshot.getCalleeCount(id);
+    }
+
+    /**
+     * Length of the longest chain of calls from a method, a call cycle counting as a single step
+     */
+    public int getCallDepth(int id) {
+        return callDepth[id];
+    }
+
+    /**
+     * Number of distinct methods transitively called by a method: exact up to
+     * {@link CallGraphAnalyzer#SKETCH_SIZE}, estimated above
+     */
+    public double getReachableMethods(int id) {
+        return reachable[id];
+    }
+
+    /**
+     * Number of classes declaring the methods that call a method (CC)
+     */
+    public int getChangingClasses(int id) {
+        return changingClasses[id];
+    }
+
+    /**
+     * Number of distinct methods of other classes called by a method (CINT)
+     */
+    public int getCouplingIntensity(int id) {
+        return couplingIntensity[id];
+    }
+
+    /**
+     * Number of other classes declaring the methods called, divided by CINT (CDISP).
+     * Zero if the method calls no other class
+     */
+    public double getCouplingDispersion(int id) {
+        return couplingIntensity[id] == 0 ? 0.0 : (double) coupledClasses[id] / couplingIntensity[id];
+    }
+
+    /**
+     * @return the id of a type in the analysed snapshot, or -1 if it declares no known method
+     */
+    public int getTypeId(String type) {
+        return snapshot.getTypeId(type);
+    }
+
+    /**
+     * Number of distinct methods of other classes called by the methods of a type (CINT)
+     */
+    public int getTypeCouplingIntensity(int type) {
+        return typeCouplingIntensity[type];
+    }
+
+    /**
+     * Number of other classes called by the methods of a type, divided by its CINT
+     * (CDISP). Zero if the type calls no other class
+     */
+    public double getTypeCouplingDispersion(int type) {
+        return typeCouplingIntensity[type] == 0 ? 0.0
+                : (double) typeCoupledClasses[type] / typeCouplingIntensity[type];
+    }
+}
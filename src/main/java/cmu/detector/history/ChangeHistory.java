@@ -0,0 +1,169 @@
+package cmu.detector.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mines the co-changes of the last commits of the git repository containing the
+ * analysed sources. The history is walked from HEAD, newest commits first, until
+ * the window is full; the change sets of the commits not seen before are then
+ * extracted in parallel, and the window is folded into a {@link CoChangeIndex}.
+ *
+ * <p>
+ * Change sets are cached by commit id, in memory for the lifetime of the history
+ * (e.g. across the analyses of a daemon) and optionally in a file across runs, so
+ * a new analysis only reads the commits made since the previous one. Nothing is
+ * mined again while HEAD does not move.
+ * </p>
+ */
+public class ChangeHistory {
+
+    public static final int DEFAULT_WINDOW = 500;
+
+    private final File start;
+
+    private final int window;
+
+    private final File cacheFile;
+
+    private final Map<String, ChangeSet> changeSets;
+
+    private String minedHead;
+
+    private CoChangeIndex index;
+
+    /**
+     * @param start     a folder inside the working tree of the repository
+     * @param window    number of commits to mine, merges included
+     * @param cacheFile file keeping the change sets between runs, or null
+     */
+    public ChangeHistory(File start, int window, File cacheFile) {
+        this.start = start;
+        this.window = window;
+        this.cacheFile = cacheFile;
+        this.changeSets = new ConcurrentHashMap<>(cacheFile == null ? Collections.emptyMap()
+                : ChangeSetCache.read(cacheFile));
+    }
+
+    /**
+     * @return the co-changes of the last commits reachable from HEAD, or null if the
+     * start folder is not inside a git repository
+     */
+    public synchronized CoChangeIndex mine() throws IOException {
+        try (GitRepository repository = GitRepository.find(start)) {
+            if (repository == null) {
+                return null;
+            }
+            String head = repository.resolveHead();
+            if (head == null) {
+                return CoChangeIndex.of(Collections.emptyList());
+            }
+            if (head.equals(minedHead)) {
+                return index;
+            }
+
+            Set<String> shallow = repository.getShallowCommits();
+            Map<String, GitCommit> read = new HashMap<>();
+            List<String> commits = this.walk(repository, head, shallow, read);
+
+            List<GitCommit> pending = new ArrayList<>();
+            for (String commit : commits) {
+                if (!changeSets.containsKey(commit)) {
+                    pending.add(read.get(commit));
+                }
+            }
+            this.extract(repository, pending, shallow);
+
+            List<ChangeSet> mined = new ArrayList<>();
+            for (String commit : commits) {
+                mined.add(changeSets.get(commit));
+            }
+            this.index = CoChangeIndex.of(mined);
+            this.minedHead = head;
+            if (cacheFile != null && !pending.isEmpty()) {
+                ChangeSetCache.write(cacheFile, changeSets.values());
+            }
+            return index;
+        }
+    }
+
+    /**
+     * @return the ids of the last commits, newest first
+     */
+    private List<String> walk(GitRepository repository, String head, Set<String> shallow,
+                              Map<String, GitCommit> read) throws IOException {
+        PriorityQueue<Visit> queue = new PriorityQueue<>(Comparator.comparingLong((Visit visit) -> visit.commitTime)
+                .reversed().thenComparing(visit -> visit.commit));
+        Set<String> seen = new HashSet<>();
+        seen.add(head);
+        queue.add(this.visit(repository, head, shallow, read));
+
+        List<String> commits = new ArrayList<>();
+        while (!queue.isEmpty() && commits.size() < window) {
+            Visit visit = queue.poll();
+            commits.add(visit.commit);
+            for (String parent : visit.parents) {
+                if (seen.add(parent)) {
+                    queue.add(this.visit(repository, parent, shallow, read));
+                }
+            }
+        }
+        return commits;
+    }
+
+    /**
+     * Time and parents of a commit, from its cached change set or else read from the repository
+     */
+    private Visit visit(GitRepository repository, String commit, Set<String> shallow,
+                        Map<String, GitCommit> read) throws IOException {
+        ChangeSet cached = changeSets.get(commit);
+        if (cached != null) {
+            return new Visit(commit, cached.getCommitTime(), cached.getParents());
+        }
+        GitCommit parsed = repository.readCommit(commit);
+        read.put(commit, parsed);
+        List<String> parents = shallow.contains(commit) ? Collections.emptyList() : parsed.getParents();
+        return new Visit(commit, parsed.getCommitTime(), parents);
+    }
+
+    private void extract(GitRepository repository, List<GitCommit> commits, Set<String> shallow) throws IOException {
+        ChangeSetExtractor extractor = new ChangeSetExtractor(repository);
+        try {
+            commits.parallelStream().forEach(commit -> {
+                try {
+                    changeSets.put(commit.getId(), extractor.extract(commit, shallow.contains(commit.getId())));
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private static final class Visit {
+
+        private final String commit;
+
+        private final long commitTime;
+
+        private final List<String> parents;
+
+        private Visit(String commit, long commitTime, List<String> parents) {
+            this.commit = commit;
+            this.commitTime = commitTime;
+            this.parents = parents;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package cmu.detector.history;
+
+import cmu.detector.ast.NameResolver;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+
+import java.util.List;
+
+/**
+ * The types and methods a commit changed, with the commit time and parents so the
+ * history can be walked again without reading the commit. Change sets never change
+ * for a given commit id, which makes them the unit of the history cache.
+ *
+ * <p>
+ * Types and methods are identified by syntactic keys, computed the same way from
+ * the history and from the analysed model, with or without bindings: the qualified
+ * name of a type, and for a method the key of its type, its name and its parameter
+ * types as written, e.g. {@code a.b.C.m(int,List<String>)}.
+ * </p>
+ */
+public final class ChangeSet {
+
+    private final String commit;
+
+    private final long commitTime;
+
+    private final List<String> parents;
+
+    private final String[] types;
+
+    private final String[] methods;
+
+    public ChangeSet(String commit, long commitTime, List<String> parents, String[] types, String[] methods) {
+        this.commit = commit;
+        this.commitTime = commitTime;
+        this.parents = parents;
+        this.types = types;
+        this.methods = methods;
+    }
+
+    public static String getTypeKey(AbstractTypeDeclaration declaration) {
+        return NameResolver.getQualifiedName(declaration);
+    }
+
+    /**
+     * @return the key of a method, or null for methods of anonymous classes, whose
+     * changes count as changes of the enclosing method
+     */
+    public static String getMethodKey(MethodDeclaration declaration) {
+        if (!(declaration.getParent() instanceof AbstractTypeDeclaration)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(getTypeKey((AbstractTypeDeclaration) declaration.getParent()));
+        key.append('.').append(declaration.getName().getIdentifier()).append('(');
+        for (int i = 0; i < declaration.parameters().size(); i++) {
+            SingleVariableDeclaration parameter = (SingleVariableDeclaration) declaration.parameters().get(i);
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(parameter.getType());
+            for (int dimension = 0; dimension < parameter.getExtraDimensions(); dimension++) {
+                key.append("[]");
+            }
+            if (parameter.isVarargs()) {
+                key.append("...");
+            }
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * @return the key of the type declaring a method
+     */
+    public static String getDeclaringTypeKey(String methodKey) {
+        return methodKey.substring(0, methodKey.lastIndexOf('.', methodKey.indexOf('(')));
+    }
+
+    public String getCommit() {
+        return commit;
+    }
+
+    /**
+     * @return seconds since the epoch
+     */
+    public long getCommitTime() {
+        return commitTime;
+    }
+
+    public List<String> getParents() {
+        return parents;
+    }
+
+    /**
+     * @return keys of the changed types, sorted
+     */
+    public String[] getTypes() {
+        return types;
+    }
+
+    /**
+     * @return keys of the changed methods, sorted
+     */
+    public String[] getMethods() {
+        return methods;
+    }
+}
@@ -0,0 +1,109 @@
+package cmu.detector.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores change sets by commit id in a file, so a later run only reads the
+ * commits made since. The file is replaced atomically when written; a missing,
+ * outdated or corrupt file is treated as an empty cache.
+ */
+final class ChangeSetCache {
+
+    private static final int MAGIC = 0x53444348;
+
+    private static final int VERSION = 1;
+
+    private ChangeSetCache() {
+    }
+
+    static Map<String, ChangeSet> read(File file) {
+        Map<String, ChangeSet> changeSets = new HashMap<>();
+        if (!file.isFile()) {
+            return changeSets;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return changeSets;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String commit = input.readUTF();
+                long commitTime = input.readLong();
+                List<String> parents = new ArrayList<>();
+                for (int parent = input.readInt(); parent > 0; parent--) {
+                    parents.add(input.readUTF());
+                }
+                String[] types = readStrings(input);
+                String[] methods = readStrings(input);
+                changeSets.put(commit, new ChangeSet(commit, commitTime, parents, types, methods));
+            }
+            return changeSets;
+        } catch (IOException exception) {
+            // the cache only saves time: start again from scratch
+            return new HashMap<>();
+        }
+    }
+
+    static void write(File file, Collection<ChangeSet> changeSets) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        File temporary = new File(file.getAbsolutePath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(changeSets.size());
+            for (ChangeSet changeSet : changeSets) {
+                output.writeUTF(changeSet.getCommit());
+                output.writeLong(changeSet.getCommitTime());
+                output.writeInt(changeSet.getParents().size());
+                for (String commit : changeSet.getParents()) {
+                    output.writeUTF(commit);
+                }
+                writeStrings(output, changeSet.getTypes());
+                writeStrings(output, changeSet.getMethods());
+            }
+        }
+        try {
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt change set cache");
+        }
+        String[] strings = new String[length];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUTF();
+        }
+        return strings;
+    }
+
+    private static void writeStrings(DataOutputStream output, String[] strings) throws IOException {
+        output.writeInt(strings.length);
+        for (String string : strings) {
+            output.writeUTF(string);
+        }
+    }
+}
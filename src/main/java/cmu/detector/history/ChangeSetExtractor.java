@@ -0,0 +1,188 @@
+package cmu.detector.history;
+
+import cmu.detector.ast.ASTBuilder;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Computes the {@link ChangeSet} of a commit: the Java files it changed, found by
+ * comparing its tree with the tree of its first parent (identical subtrees are
+ * skipped without being read), then the types and methods whose source text
+ * differs between the two versions of each file. Both versions are parsed without
+ * bindings, so any commit can be read without its classpath.
+ *
+ * <p>
+ * Merge commits get an empty change set: their changes were already counted in
+ * the commits they merge. So do commits changing more than
+ * {@link #MAX_CHANGED_FILES} Java files: reformatting, renaming a package or
+ * updating license headers would otherwise couple everything with everything.
+ * </p>
+ */
+public class ChangeSetExtractor {
+
+    public static final int MAX_CHANGED_FILES = 50;
+
+    private static final String[] NONE = new String[0];
+
+    private final GitRepository repository;
+
+    private final ASTBuilder builder;
+
+    public ChangeSetExtractor(GitRepository repository) {
+        this.repository = repository;
+        this.builder = new ASTBuilder(new String[0], false);
+    }
+
+    /**
+     * @param shallow true if the parents of the commit are missing (shallow clone):
+     *                its changes cannot be known
+     */
+    public ChangeSet extract(GitCommit commit, boolean shallow) throws IOException {
+        List<String> parents = shallow ? Collections.emptyList() : commit.getParents();
+        if (shallow || parents.size() > 1) {
+            return new ChangeSet(commit.getId(), commit.getCommitTime(), parents, NONE, NONE);
+        }
+
+        String parentTree = parents.isEmpty() ? null : repository.readCommit(parents.get(0)).getTree();
+        List<FileChange> changes = new ArrayList<>();
+        this.compareTrees(parentTree, commit.getTree(), "", changes);
+        if (changes.size() > MAX_CHANGED_FILES) {
+            return new ChangeSet(commit.getId(), commit.getCommitTime(), parents, NONE, NONE);
+        }
+
+        Set<String> types = new TreeSet<>();
+        Set<String> methods = new TreeSet<>();
+        for (FileChange change : changes) {
+            Map<String, Long> before = this.getDeclarations(change.oldBlob);
+            Map<String, Long> after = this.getDeclarations(change.newBlob);
+            Set<String> keys = new HashSet<>(before.keySet());
+            keys.addAll(after.keySet());
+            for (String key : keys) {
+                if (!Objects.equals(before.get(key), after.get(key))) {
+                    // only method keys have a parameter list
+                    if (key.indexOf('(') >= 0) {
+                        methods.add(key);
+                    } else {
+                        types.add(key);
+                    }
+                }
+            }
+        }
+        return new ChangeSet(commit.getId(), commit.getCommitTime(), parents,
+                types.toArray(NONE), methods.toArray(NONE));
+    }
+
+    /**
+     * Collects the Java files that differ between two trees (null for an empty tree)
+     */
+    private void compareTrees(String oldTree, String newTree, String path, List<FileChange> changes)
+            throws IOException {
+        if (Objects.equals(oldTree, newTree)) {
+            return;
+        }
+        Map<String, GitRepository.TreeEntry> oldEntries = new HashMap<>();
+        if (oldTree != null) {
+            for (GitRepository.TreeEntry entry : repository.readTree(oldTree)) {
+                oldEntries.put(entry.getName(), entry);
+            }
+        }
+        if (newTree != null) {
+            for (GitRepository.TreeEntry entry : repository.readTree(newTree)) {
+                this.compareEntries(oldEntries.remove(entry.getName()), entry, path + entry.getName(), changes);
+            }
+        }
+        for (GitRepository.TreeEntry entry : oldEntries.values()) {
+            this.compareEntries(entry, null, path + entry.getName(), changes);
+        }
+    }
+
+    private void compareEntries(GitRepository.TreeEntry previous, GitRepository.TreeEntry current, String path,
+                                List<FileChange> changes) throws IOException {
+        // a folder may replace a file of the same name, or the other way around
+        String oldTree = previous != null && previous.isTree() ? previous.getId() : null;
+        String newTree = current != null && current.isTree() ? current.getId() : null;
+        if (oldTree != null || newTree != null) {
+            this.compareTrees(oldTree, newTree, path + "/", changes);
+        }
+
+        if (!path.endsWith(".java")) {
+            return;
+        }
+        String oldBlob = previous != null && previous.isFile() ? previous.getId() : null;
+        String newBlob = current != null && current.isFile() ? current.getId() : null;
+        if ((oldBlob != null || newBlob != null) && !Objects.equals(oldBlob, newBlob)) {
+            changes.add(new FileChange(oldBlob, newBlob));
+        }
+    }
+
+    /**
+     * @return a hash of the source text of each type and method of a file version, by key
+     */
+    private Map<String, Long> getDeclarations(String blob) throws IOException {
+        if (blob == null) {
+            return Collections.emptyMap();
+        }
+        char[] source = new String(repository.readBlob(blob), StandardCharsets.UTF_8).toCharArray();
+        ASTParser parser = builder.create();
+        parser.setSource(source);
+        ASTNode unit = parser.createAST(null);
+
+        Map<String, Long> declarations = new HashMap<>();
+        unit.accept(new ASTVisitor() {
+            @Override
+            public boolean preVisit2(ASTNode node) {
+                String key = null;
+                if (node instanceof AbstractTypeDeclaration) {
+                    key = ChangeSet.getTypeKey((AbstractTypeDeclaration) node);
+                } else if (node instanceof MethodDeclaration) {
+                    key = ChangeSet.getMethodKey((MethodDeclaration) node);
+                }
+                if (key != null) {
+                    // duplicated declarations (broken code) are hashed together
+                    declarations.merge(key, hash(source, node.getStartPosition(), node.getLength()), Long::sum);
+                }
+                return true;
+            }
+        });
+        return declarations;
+    }
+
+    /**
+     * 64-bit FNV-1a of a range of the source
+     */
+    private static long hash(char[] source, int start, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < start + length && i < source.length; i++) {
+            hash ^= source[i];
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class FileChange {
+
+        private final String oldBlob;
+
+        private final String newBlob;
+
+        private FileChange(String oldBlob, String newBlob) {
+            this.oldBlob = oldBlob;
+            this.newBlob = newBlob;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package cmu.detector.history;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Co-change coupling over a window of commits: which types and methods changed in
+ * the same commits. The index only keeps, for each key, the change sets it
+ * appears in; the distinct partners of a type or method are counted when queried,
+ * so memory stays linear in the number of changes.
+ */
+public final class CoChangeIndex {
+
+    private final List<ChangeSet> changeSets;
+
+    private final Map<String, List<ChangeSet>> byType;
+
+    private final Map<String, List<ChangeSet>> byMethod;
+
+    private CoChangeIndex(List<ChangeSet> changeSets) {
+        this.changeSets = changeSets;
+        this.byType = new HashMap<>();
+        this.byMethod = new HashMap<>();
+        for (ChangeSet changeSet : changeSets) {
+            for (String type : changeSet.getTypes()) {
+                byType.computeIfAbsent(type, key -> new ArrayList<>()).add(changeSet);
+            }
+            for (String method : changeSet.getMethods()) {
+                byMethod.computeIfAbsent(method, key -> new ArrayList<>()).add(changeSet);
+            }
+        }
+    }
+
+    public static CoChangeIndex of(List<ChangeSet> changeSets) {
+        return new CoChangeIndex(changeSets);
+    }
+
+    /**
+     * @return the number of commits of the window, merges included
+     */
+    public int getCommitCount() {
+        return changeSets.size();
+    }
+
+    /**
+     * Distinct other types changed in the same commits as a type. Its member types
+     * and the types it is a member of are not counted: they change with it
+     */
+    public int getCoChangedTypes(String typeKey) {
+        Set<String> partners = new HashSet<>();
+        for (ChangeSet changeSet : byType.getOrDefault(typeKey, Collections.emptyList())) {
+            for (String type : changeSet.getTypes()) {
+                if (!isNested(type, typeKey) && !isNested(typeKey, type)) {
+                    partners.add(type);
+                }
+            }
+        }
+        partners.remove(typeKey);
+        return partners.size();
+    }
+
+    /**
+     * Distinct other methods changed in the same commits as a method
+     */
+    public int getCoChangedMethods(String methodKey) {
+        Set<String> partners = new HashSet<>();
+        for (ChangeSet changeSet : byMethod.getOrDefault(methodKey, Collections.emptyList())) {
+            Collections.addAll(partners, changeSet.getMethods());
+        }
+        partners.remove(methodKey);
+        return partners.size();
+    }
+
+    /**
+     * Distinct classes, other than its own, declaring the methods changed in the same
+     * commits as a method
+     */
+    public int getCoChangedClasses(String methodKey) {
+        String ownType = ChangeSet.getDeclaringTypeKey(methodKey);
+        Set<String> partners = new HashSet<>();
+        for (ChangeSet changeSet : byMethod.getOrDefault(methodKey, Collections.emptyList())) {
+            for (String method : changeSet.getMethods()) {
+                partners.add(ChangeSet.getDeclaringTypeKey(method));
+            }
+        }
+        partners.remove(ownType);
+        return partners.size();
+    }
+
+    private static boolean isNested(String type, String outer) {
+        return type.length() > outer.length() && type.startsWith(outer) && type.charAt(outer.length()) == '.';
+    }
+}
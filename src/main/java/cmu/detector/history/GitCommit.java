@@ -0,0 +1,84 @@
+package cmu.detector.history;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fields of a commit needed to walk the history: its tree, its parents and
+ * the committer time
+ */
+public final class GitCommit {
+
+    private final String id;
+
+    private final String tree;
+
+    private final List<String> parents;
+
+    private final long commitTime;
+
+    GitCommit(String id, String tree, List<String> parents, long commitTime) {
+        this.id = id;
+        this.tree = tree;
+        this.parents = parents;
+        this.commitTime = commitTime;
+    }
+
+    /**
+     * Reads the header lines of a commit object, up to the blank line before the message
+     */
+    static GitCommit parse(String id, byte[] data) throws IOException {
+        String tree = null;
+        List<String> parents = new ArrayList<>();
+        long commitTime = 0;
+
+        int start = 0;
+        while (start < data.length && data[start] != '\n') {
+            int end = start;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            String line = new String(data, start, end - start, StandardCharsets.UTF_8);
+            if (line.startsWith("tree ")) {
+                tree = line.substring("tree ".length());
+            } else if (line.startsWith("parent ")) {
+                parents.add(line.substring("parent ".length()));
+            } else if (line.startsWith("committer ")) {
+                // "committer Name <email> <seconds> <timezone>"
+                String[] fields = line.substring(line.lastIndexOf('>') + 1).trim().split(" ");
+                try {
+                    commitTime = Long.parseLong(fields[0]);
+                } catch (NumberFormatException exception) {
+                    commitTime = 0;
+                }
+            }
+            start = end + 1;
+        }
+
+        if (tree == null) {
+            throw new IOException("Commit without tree: " + id);
+        }
+        return new GitCommit(id, tree, parents, commitTime);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTree() {
+        return tree;
+    }
+
+    public List<String> getParents() {
+        return parents;
+    }
+
+    /**
+     * @return seconds since the epoch
+     */
+    public long getCommitTime() {
+        return commitTime;
+    }
+}
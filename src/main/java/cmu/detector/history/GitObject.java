@@ -0,0 +1,51 @@
+package cmu.detector.history;
+
+/**
+ * An object of the git database, inflated and with deltas applied: its type and
+ * raw contents, without the loose object header
+ */
+public final class GitObject {
+
+    public static final int COMMIT = 1;
+
+    public static final int TREE = 2;
+
+    public static final int BLOB = 3;
+
+    public static final int TAG = 4;
+
+    private final int type;
+
+    private final byte[] data;
+
+    GitObject(int type, byte[] data) {
+        this.type = type;
+        this.data = data;
+    }
+
+    /**
+     * @return the type of a loose object header ("commit", "tree"...), or -1 if unknown
+     */
+    static int parseType(String name) {
+        switch (name) {
+            case "commit":
+                return COMMIT;
+            case "tree":
+                return TREE;
+            case "blob":
+                return BLOB;
+            case "tag":
+                return TAG;
+            default:
+                return -1;
+        }
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+}
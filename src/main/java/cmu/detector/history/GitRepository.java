@@ -0,0 +1,384 @@
+package cmu.detector.history;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only access to a local git repository, in plain Java: references, loose
+ * objects and packs. Enough to walk the history and read trees and blobs; the
+ * working tree and the index are never touched, and nothing is written.
+ *
+ * <p>
+ * Only SHA-1 repositories with version 2 pack indexes are supported, i.e. what
+ * any git release of the last decade writes. Linked worktrees (a {@code .git}
+ * file and a {@code commondir}) share the objects and references of the main
+ * repository. Reads are thread-safe.
+ * </p>
+ */
+public class GitRepository implements Closeable {
+
+    private final File gitDir;
+
+    private final File commonDir;
+
+    private final File objectsDir;
+
+    private volatile List<PackFile> packs;
+
+    /**
+     * Packs replaced by a rescan, closed with the repository
+     */
+    private final List<PackFile> retired;
+
+    private boolean rescanned;
+
+    private GitRepository(File gitDir, File commonDir) throws IOException {
+        this.gitDir = gitDir;
+        this.commonDir = commonDir;
+        this.objectsDir = new File(commonDir, "objects");
+        this.retired = new ArrayList<>();
+        this.packs = this.openPacks();
+    }
+
+    /**
+     * @param start a folder of the working tree, or any folder below it
+     * @return the repository containing the folder, or null if there is none
+     */
+    public static GitRepository find(File start) throws IOException {
+        for (File current = start.getAbsoluteFile(); current != null; current = current.getParentFile()) {
+            File dotGit = new File(current, ".git");
+            if (dotGit.isDirectory()) {
+                return open(dotGit);
+            }
+            if (dotGit.isFile()) {
+                // linked worktree or submodule: "gitdir: <path>"
+                String content = new String(Files.readAllBytes(dotGit.toPath()), StandardCharsets.UTF_8).trim();
+                if (content.startsWith("gitdir:")) {
+                    File gitDir = new File(content.substring("gitdir:".length()).trim());
+                    return open(gitDir.isAbsolute() ? gitDir : new File(current, gitDir.getPath()));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param gitDir the {@code .git} folder, or the folder of a bare repository
+     */
+    public static GitRepository open(File gitDir) throws IOException {
+        if (!new File(gitDir, "HEAD").isFile()) {
+            throw new IOException("Not a git repository: " + gitDir);
+        }
+        File commonDir = gitDir;
+        File commonDirFile = new File(gitDir, "commondir");
+        if (commonDirFile.isFile()) {
+            String path = new String(Files.readAllBytes(commonDirFile.toPath()), StandardCharsets.UTF_8).trim();
+            File common = new File(path);
+            commonDir = common.isAbsolute() ? common : new File(gitDir, path);
+        }
+        return new GitRepository(gitDir, commonDir);
+    }
+
+    private List<PackFile> openPacks() throws IOException {
+        List<PackFile> opened = new ArrayList<>();
+        File[] indexes = new File(objectsDir, "pack").listFiles((dir, name) -> name.endsWith(".idx"));
+        if (indexes != null) {
+            // newest packs first: they hold the recent history walked first
+            Arrays.sort(indexes, (first, second) -> Long.compare(second.lastModified(), first.lastModified()));
+            for (File index : indexes) {
+                opened.add(PackFile.open(index));
+            }
+        }
+        return opened;
+    }
+
+    public File getGitDir() {
+        return gitDir;
+    }
+
+    /**
+     * @return the commit HEAD points to, or null in a repository without commits
+     */
+    public String resolveHead() throws IOException {
+        return this.resolve("HEAD");
+    }
+
+    /**
+     * Resolves a reference ("HEAD", "refs/heads/main") or an object id
+     *
+     * @return the object id, or null if the reference does not exist
+     */
+    public String resolve(String name) throws IOException {
+        String current = name;
+        // symbolic references may point to each other, but not forever
+        for (int depth = 0; depth < 10; depth++) {
+            if (isObjectId(current)) {
+                return current;
+            }
+            String value = this.readReference(current);
+            if (value == null) {
+                return null;
+            }
+            if (value.startsWith("ref:")) {
+                current = value.substring("ref:".length()).trim();
+            } else if (isObjectId(value)) {
+                return value;
+            } else if (value.length() == 64) {
+                throw new IOException("SHA-256 repositories are not supported: " + gitDir);
+            } else {
+                throw new IOException("Invalid reference " + current + ": " + value);
+            }
+        }
+        throw new IOException("Symbolic reference loop at " + name);
+    }
+
+    private String readReference(String name) throws IOException {
+        // HEAD and other pseudo references belong to the worktree, the rest is shared
+        for (File dir : new File[]{gitDir, commonDir}) {
+            File file = new File(dir, name);
+            if (file.isFile()) {
+                return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+            }
+        }
+        File packedRefs = new File(commonDir, "packed-refs");
+        if (!packedRefs.isFile()) {
+            return null;
+        }
+        for (String line : Files.readAllLines(packedRefs.toPath(), StandardCharsets.UTF_8)) {
+            if (line.startsWith("#") || line.startsWith("^")) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            if (space > 0 && line.substring(space + 1).trim().equals(name)) {
+                return line.substring(0, space);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the object, or null if the repository does not contain it
+     */
+    public GitObject read(String id) throws IOException {
+        byte[] rawId = toBytes(id);
+        for (PackFile pack : this.packs) {
+            GitObject object = pack.read(rawId, this);
+            if (object != null) {
+                return object;
+            }
+        }
+        GitObject loose = this.readLoose(id);
+        if (loose != null) {
+            return loose;
+        }
+
+        // a concurrent repack may have moved loose objects to a new pack; checked once,
+        // the old packs stay open for the threads still reading them
+        synchronized (this) {
+            if (!this.rescanned) {
+                this.rescanned = true;
+                this.retired.addAll(this.packs);
+                this.packs = this.openPacks();
+            }
+        }
+        for (PackFile pack : this.packs) {
+            GitObject object = pack.read(rawId, this);
+            if (object != null) {
+                return object;
+            }
+        }
+        return this.readLoose(id);
+    }
+
+    /**
+     * @return the commits whose parents are missing in a shallow clone
+     */
+    public Set<String> getShallowCommits() throws IOException {
+        File shallow = new File(commonDir, "shallow");
+        if (!shallow.isFile()) {
+            return Collections.emptySet();
+        }
+        Set<String> commits = new HashSet<>();
+        for (String line : Files.readAllLines(shallow.toPath(), StandardCharsets.US_ASCII)) {
+            if (isObjectId(line.trim())) {
+                commits.add(line.trim());
+            }
+        }
+        return commits;
+    }
+
+    private GitObject readLoose(String id) throws IOException {
+        File file = new File(new File(objectsDir, id.substring(0, 2)), id.substring(2));
+        if (!file.isFile()) {
+            return null;
+        }
+        byte[] raw;
+        try (InputStream input = new InflaterInputStream(new FileInputStream(file))) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            input.transferTo(output);
+            raw = output.toByteArray();
+        }
+
+        // header: "<type> <size>\0"
+        int space = indexOf(raw, (byte) ' ', 0);
+        int end = indexOf(raw, (byte) 0, 0);
+        if (space < 0 || end < space) {
+            throw new IOException("Corrupt loose object " + id);
+        }
+        int type = GitObject.parseType(new String(raw, 0, space, StandardCharsets.US_ASCII));
+        if (type < 0) {
+            throw new IOException("Unknown type of loose object " + id);
+        }
+        return new GitObject(type, Arrays.copyOfRange(raw, end + 1, raw.length));
+    }
+
+    /**
+     * @throws IOException if the object is missing or is not a commit
+     */
+    public GitCommit readCommit(String id) throws IOException {
+        GitObject object = this.read(id);
+        if (object == null || object.getType() != GitObject.COMMIT) {
+            throw new IOException("Not a commit: " + id);
+        }
+        return GitCommit.parse(id, object.getData());
+    }
+
+    /**
+     * @throws IOException if the object is missing or is not a tree
+     */
+    public List<TreeEntry> readTree(String id) throws IOException {
+        GitObject object = this.read(id);
+        if (object == null || object.getType() != GitObject.TREE) {
+            throw new IOException("Not a tree: " + id);
+        }
+        byte[] data = object.getData();
+        List<TreeEntry> entries = new ArrayList<>();
+        int position = 0;
+        // entries: "<mode> <name>\0<20-byte id>"
+        while (position < data.length) {
+            int space = indexOf(data, (byte) ' ', position);
+            int end = indexOf(data, (byte) 0, space);
+            if (space < 0 || end < 0 || end + 21 > data.length) {
+                throw new IOException("Corrupt tree " + id);
+            }
+            String mode = new String(data, position, space - position, StandardCharsets.US_ASCII);
+            String name = new String(data, space + 1, end - space - 1, StandardCharsets.UTF_8);
+            entries.add(new TreeEntry(mode, name, toHex(data, end + 1)));
+            position = end + 21;
+        }
+        return entries;
+    }
+
+    /**
+     * @throws IOException if the object is missing or is not a blob
+     */
+    public byte[] readBlob(String id) throws IOException {
+        GitObject object = this.read(id);
+        if (object == null || object.getType() != GitObject.BLOB) {
+            throw new IOException("Not a blob: " + id);
+        }
+        return object.getData();
+    }
+
+    private static int indexOf(byte[] data, byte value, int from) {
+        for (int i = Math.max(from, 0); i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isObjectId(String value) {
+        if (value.length() != 40) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static byte[] toBytes(String id) {
+        byte[] bytes = new byte[20];
+        for (int i = 0; i < 20; i++) {
+            bytes[i] = (byte) Integer.parseInt(id.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    static String toHex(byte[] bytes, int offset) {
+        StringBuilder hex = new StringBuilder(40);
+        for (int i = offset; i < offset + 20; i++) {
+            hex.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (PackFile pack : this.packs) {
+            pack.close();
+        }
+        for (PackFile pack : this.retired) {
+            pack.close();
+        }
+    }
+
+    /**
+     * An entry of a tree: a file (blob), a folder (tree) or a submodule commit
+     */
+    public static final class TreeEntry {
+
+        private final String mode;
+
+        private final String name;
+
+        private final String id;
+
+        TreeEntry(String mode, String name, String id) {
+            this.mode = mode;
+            this.name = name;
+            this.id = id;
+        }
+
+        public boolean isTree() {
+            return mode.equals("40000");
+        }
+
+        /**
+         * @return true for regular and executable files; links and submodules are not files
+         */
+        public boolean isFile() {
+            return mode.startsWith("100");
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+}
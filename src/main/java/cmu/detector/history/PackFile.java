@@ -0,0 +1,366 @@
+package cmu.detector.history;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A git pack and its version 2 index. The index is read in memory (ids and
+ * offsets only); objects are inflated from the pack with positional reads, so
+ * several threads can read the same pack.
+ *
+ * <p>
+ * Deltified objects are resolved iteratively: the chain is followed down to its
+ * base, then the deltas are applied back up. Resolved objects are kept in a small
+ * LRU cache by offset, since consecutive versions of a file are usually deltas of
+ * each other.
+ * </p>
+ */
+final class PackFile implements Closeable {
+
+    private static final int IDX_MAGIC = 0xff744f63;
+
+    private static final int OFS_DELTA = 6;
+
+    private static final int REF_DELTA = 7;
+
+    private static final long CACHE_BYTES = 32L * 1024 * 1024;
+
+    private final File file;
+
+    private final FileChannel channel;
+
+    /**
+     * Number of objects whose first id byte is at most i
+     */
+    private final int[] fanout;
+
+    /**
+     * Sorted object ids, 20 bytes each
+     */
+    private final byte[] ids;
+
+    private final long[] offsets;
+
+    private final Map<Long, GitObject> cache;
+
+    private long cachedBytes;
+
+    private PackFile(File file, FileChannel channel, int[] fanout, byte[] ids, long[] offsets) {
+        this.file = file;
+        this.channel = channel;
+        this.fanout = fanout;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.cache = new LinkedHashMap<>(64, 0.75f, true);
+    }
+
+    /**
+     * Opens the pack of an index file (pack-*.idx next to pack-*.pack)
+     */
+    static PackFile open(File indexFile) throws IOException {
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+        if (index.limit() < 8 + 1024 || index.getInt(0) != IDX_MAGIC || index.getInt(4) != 2) {
+            throw new IOException("Unsupported pack index: " + indexFile);
+        }
+        int[] fanout = new int[256];
+        for (int i = 0; i < 256; i++) {
+            fanout[i] = index.getInt(8 + 4 * i);
+        }
+        int count = fanout[255];
+        int idsStart = 8 + 1024;
+        int offsetsStart = idsStart + 20 * count + 4 * count;
+        int largeOffsetsStart = offsetsStart + 4 * count;
+
+        byte[] ids = Arrays.copyOfRange(index.array(), idsStart, idsStart + 20 * count);
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            int offset = index.getInt(offsetsStart + 4 * i);
+            // the high bit points to the table of offsets above 2 GB
+            offsets[i] = offset >= 0 ? offset : index.getLong(largeOffsetsStart + 8 * (offset & 0x7fffffff));
+        }
+
+        String name = indexFile.getName();
+        File packFile = new File(indexFile.getParentFile(), name.substring(0, name.length() - 4) + ".pack");
+        FileChannel channel = FileChannel.open(packFile.toPath(), StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(8);
+        channel.read(header, 0);
+        if (header.getInt(0) != 0x5041434b) {
+            channel.close();
+            throw new IOException("Not a pack file: " + packFile);
+        }
+        return new PackFile(packFile, channel, fanout, ids, offsets);
+    }
+
+    int size() {
+        return offsets.length;
+    }
+
+    /**
+     * @return the offset of an object in the pack, or -1 if the pack does not contain it
+     */
+    long findOffset(byte[] id) {
+        int first = id[0] & 0xff;
+        int low = first == 0 ? 0 : fanout[first - 1];
+        int high = fanout[first] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Arrays.compareUnsigned(ids, 20 * middle, 20 * middle + 20, id, 0, 20);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return offsets[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param repository resolves the bases of REF_DELTA objects stored outside the pack
+     * @return the object, or null if the pack does not contain it
+     */
+    GitObject read(byte[] id, GitRepository repository) throws IOException {
+        long offset = this.findOffset(id);
+        return offset < 0 ? null : this.readAt(offset, repository);
+    }
+
+    private GitObject readAt(long offset, GitRepository repository) throws IOException {
+        Deque<byte[]> deltas = new ArrayDeque<>();
+        GitObject base = null;
+        long current = offset;
+        int depth = 0;
+        while (base == null) {
+            base = this.getCached(current);
+            if (base != null) {
+                break;
+            }
+            if (++depth > 10_000) {
+                throw new IOException("Delta chain too long in " + file + " at " + offset);
+            }
+
+            Entry entry = this.readEntry(current);
+            if (entry.type == OFS_DELTA) {
+                deltas.push(this.inflate(entry.dataOffset, entry.size));
+                current = entry.baseOffset;
+            } else if (entry.type == REF_DELTA) {
+                deltas.push(this.inflate(entry.dataOffset, entry.size));
+                long baseOffset = this.findOffset(entry.baseId);
+                if (baseOffset >= 0) {
+                    current = baseOffset;
+                } else {
+                    base = repository.read(GitRepository.toHex(entry.baseId, 0));
+                    if (base == null) {
+                        throw new IOException("Missing delta base " + GitRepository.toHex(entry.baseId, 0));
+                    }
+                }
+            } else if (entry.type >= GitObject.COMMIT && entry.type <= GitObject.TAG) {
+                base = new GitObject(entry.type, this.inflate(entry.dataOffset, entry.size));
+            } else {
+                throw new IOException("Invalid object type " + entry.type + " in " + file + " at " + current);
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            this.putCached(offset, base);
+            return base;
+        }
+        byte[] data = base.getData();
+        while (!deltas.isEmpty()) {
+            data = applyDelta(data, deltas.pop());
+        }
+        GitObject object = new GitObject(base.getType(), data);
+        this.putCached(offset, object);
+        return object;
+    }
+
+    private synchronized GitObject getCached(long offset) {
+        return cache.get(offset);
+    }
+
+    private synchronized void putCached(long offset, GitObject object) {
+        long size = object.getData().length;
+        if (size > CACHE_BYTES / 4 || cache.containsKey(offset)) {
+            return;
+        }
+        cache.put(offset, object);
+        cachedBytes += size;
+        Iterator<GitObject> iterator = cache.values().iterator();
+        while (cachedBytes > CACHE_BYTES && iterator.hasNext()) {
+            cachedBytes -= iterator.next().getData().length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Parses the header of the entry at an offset: type, inflated size and delta base
+     */
+    private Entry readEntry(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        if (channel.read(buffer, offset) <= 0) {
+            throw new EOFException("Offset " + offset + " is past the end of " + file);
+        }
+        byte[] header = buffer.array();
+        int position = 0;
+        int c = header[position++] & 0xff;
+        Entry entry = new Entry();
+        entry.type = (c >> 4) & 7;
+        entry.size = c & 15;
+        int shift = 4;
+        while ((c & 0x80) != 0) {
+            c = header[position++] & 0xff;
+            entry.size |= (long) (c & 0x7f) << shift;
+            shift += 7;
+        }
+
+        if (entry.type == OFS_DELTA) {
+            c = header[position++] & 0xff;
+            long distance = c & 0x7f;
+            while ((c & 0x80) != 0) {
+                c = header[position++] & 0xff;
+                distance = ((distance + 1) << 7) | (c & 0x7f);
+            }
+            entry.baseOffset = offset - distance;
+        } else if (entry.type == REF_DELTA) {
+            entry.baseId = Arrays.copyOfRange(header, position, position + 20);
+            position += 20;
+        }
+        entry.dataOffset = offset + position;
+        return entry;
+    }
+
+    private byte[] inflate(long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Object too large in " + file);
+        }
+        byte[] result = new byte[(int) size];
+        ByteBuffer input = ByteBuffer.allocate(8192);
+        Inflater inflater = new Inflater();
+        try {
+            int written = 0;
+            while (written < result.length) {
+                if (inflater.needsInput()) {
+                    input.clear();
+                    int read = channel.read(input, position);
+                    if (read <= 0) {
+                        throw new EOFException("Truncated object in " + file);
+                    }
+                    position += read;
+                    inflater.setInput(input.array(), 0, read);
+                }
+                int inflated = inflater.inflate(result, written, result.length - written);
+                written += inflated;
+                if (inflated == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+            if (written != result.length) {
+                throw new IOException("Corrupt object in " + file);
+            }
+            return result;
+        } catch (DataFormatException exception) {
+            throw new IOException("Corrupt object in " + file, exception);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Applies a git delta: the sizes of base and result, then instructions copying a
+     * range of the base or inserting literal bytes
+     */
+    static byte[] applyDelta(byte[] base, byte[] delta) throws IOException {
+        try {
+            int[] position = {0};
+            long baseSize = readSize(delta, position);
+            long resultSize = readSize(delta, position);
+            if (baseSize != base.length || resultSize > Integer.MAX_VALUE - 8) {
+                throw new IOException("Delta does not match its base");
+            }
+            byte[] result = new byte[(int) resultSize];
+            int p = position[0];
+            int written = 0;
+            while (p < delta.length) {
+                int instruction = delta[p++] & 0xff;
+                if ((instruction & 0x80) != 0) {
+                    long copyOffset = 0;
+                    int copySize = 0;
+                    for (int i = 0; i < 4; i++) {
+                        if ((instruction & (1 << i)) != 0) {
+                            copyOffset |= (long) (delta[p++] & 0xff) << (8 * i);
+                        }
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        if ((instruction & (1 << (4 + i))) != 0) {
+                            copySize |= (delta[p++] & 0xff) << (8 * i);
+                        }
+                    }
+                    if (copySize == 0) {
+                        copySize = 0x10000;
+                    }
+                    if (copyOffset + copySize > base.length) {
+                        throw new IOException("Delta copies past the end of its base");
+                    }
+                    System.arraycopy(base, (int) copyOffset, result, written, copySize);
+                    written += copySize;
+                } else if (instruction != 0) {
+                    System.arraycopy(delta, p, result, written, instruction);
+                    p += instruction;
+                    written += instruction;
+                } else {
+                    throw new IOException("Invalid delta instruction");
+                }
+            }
+            if (written != result.length) {
+                throw new IOException("Delta result has the wrong size");
+            }
+            return result;
+        } catch (IndexOutOfBoundsException exception) {
+            throw new IOException("Corrupt delta", exception);
+        }
+    }
+
+    private static long readSize(byte[] delta, int[] position) {
+        long size = 0;
+        int shift = 0;
+        int c;
+        do {
+            c = delta[position[0]++] & 0xff;
+            size |= (long) (c & 0x7f) << shift;
+            shift += 7;
+        } while ((c & 0x80) != 0);
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static final class Entry {
+
+        private int type;
+
+        private long size;
+
+        private long dataOffset;
+
+        private long baseOffset;
+
+        private byte[] baseId;
+    }
+}
@@ -0,0 +1,31 @@
+package cmu.detector.metrics;
+
+import cmu.detector.metrics.calculators.method.CallDepthCalculator;
+import cmu.detector.metrics.calculators.method.ChangingClassesCalculator;
+import cmu.detector.metrics.calculators.method.ChangingMethodsCalculator;
+import cmu.detector.metrics.calculators.method.CouplingDispersionCalculator;
+import cmu.detector.metrics.calculators.method.CouplingIntensityCalculator;
+import cmu.detector.metrics.calculators.method.FanInCalculator;
+import cmu.detector.metrics.calculators.method.FanOutCalculator;
+import cmu.detector.metrics.calculators.method.ReachableMethodsCalculator;
+import cmu.detector.metrics.calculators.method.RecursionGroupSizeCalculator;
+
+/**
+ * Method metrics derived from the whole call graph. Unlike the other collectors,
+ * its values change when any file changes, so it runs after every file was loaded
+ * and again, on every method, after an update
+ */
+public class CallGraphMetricValueCollector extends MetricValueCollector {
+
+    public CallGraphMetricValueCollector() {
+        addCalculator(new FanInCalculator());
+        addCalculator(new FanOutCalculator());
+        addCalculator(new CallDepthCalculator());
+        addCalculator(new ReachableMethodsCalculator());
+        addCalculator(new RecursionGroupSizeCalculator());
+        addCalculator(new ChangingMethodsCalculator());
+        addCalculator(new ChangingClassesCalculator());
+        addCalculator(new CouplingIntensityCalculator());
+        addCalculator(new CouplingDispersionCalculator());
+    }
+}
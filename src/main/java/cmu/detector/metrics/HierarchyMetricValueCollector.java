@@ -0,0 +1,17 @@
+package cmu.detector.metrics;
+
+import cmu.detector.metrics.calculators.type.DepthOfInheritanceCalculator;
+import cmu.detector.metrics.calculators.type.NumberOfChildrenCalculator;
+
+/**
+ * Type metrics derived from the whole type hierarchy. Like the call graph metrics,
+ * they change when other files change, so they are collected after every file was
+ * loaded and again, on every type, after an update
+ */
+public class HierarchyMetricValueCollector extends MetricValueCollector {
+
+	public HierarchyMetricValueCollector() {
+		addCalculator(new DepthOfInheritanceCalculator());
+		addCalculator(new NumberOfChildrenCalculator());
+	}
+}
@@ -0,0 +1,16 @@
+package cmu.detector.metrics;
+
+import cmu.detector.metrics.calculators.method.CoChangedClassesCalculator;
+import cmu.detector.metrics.calculators.method.CoChangedMethodsCalculator;
+
+/**
+ * Method metrics derived from the co-changes mined from the git history, collected
+ * like {@link TypeHistoryMetricValueCollector}
+ */
+public class MethodHistoryMetricValueCollector extends MetricValueCollector {
+
+    public MethodHistoryMetricValueCollector() {
+        addCalculator(new CoChangedMethodsCalculator());
+        addCalculator(new CoChangedClassesCalculator());
+    }
+}
@@ -1,11 +1,29 @@
 package cmu.detector.metrics;
 
+import cmu.detector.metrics.calculators.method.AccessedVariablesCalculator;
+import cmu.detector.metrics.calculators.method.CyclomaticComplexityCalculator;
 import cmu.detector.metrics.calculators.method.MaxCallChainCalculator;
+import cmu.detector.metrics.calculators.method.MaxNestingCalculator;
+import cmu.detector.metrics.calculators.method.MethodLOCCalculator;
+import cmu.detector.metrics.calculators.method.MethodTokenLOCCalculator;
+import cmu.detector.metrics.calculators.method.ParameterCountCalculator;
 
 public class MethodMetricValueCollector extends MetricValueCollector{
 
     public MethodMetricValueCollector() {
-        addCalculator(new MaxCallChainCalculator());
+        this(false);
+    }
 
+    /**
+     * @param tokenLOC count lines of code from the token stream of the file instead of the AST
+     */
+    public MethodMetricValueCollector(boolean tokenLOC) {
+        addCalculator(new MaxCallChainCalculator());
+        addCalculator(tokenLOC ? new MethodTokenLOCCalculator() : new MethodLOCCalculator());
+        addCalculator(new ParameterCountCalculator());
+        // fused: computed together in a single walk of the method
+        addCalculator(new CyclomaticComplexityCalculator());
+        addCalculator(new MaxNestingCalculator());
+        addCalculator(new AccessedVariablesCalculator());
     }
 }
@@ -22,7 +22,16 @@ public enum MetricName {
     LCOM1("LackOfCohesionOfMethods1"),
     LCOM2("LackOfCohesionOfMethods2"),
     LCOM3("LackOfCohesionOfMethods3"),
-    LCOM4("LackOfCohesionOfMethods4");
+    LCOM4("LackOfCohesionOfMethods4"),
+    FanIn,
+    FanOut,
+    CallDepth,
+    ReachableMethods,
+    RecursionGroupSize,
+    DIT("DepthOfInheritanceTree"),
+    NOC("NumberOfChildren"),
+    CoChangedMethods,
+    CoChangedClasses;
 
     private String label;
 
@@ -1,11 +1,15 @@
 package cmu.detector.metrics;
 
+import cmu.detector.metrics.calculators.FusedMetricCalculator;
+import cmu.detector.metrics.calculators.FusedMetricTraversal;
+import cmu.detector.metrics.calculators.MetricAccumulator;
 import cmu.detector.metrics.calculators.MetricValueCalculator;
 import cmu.detector.resources.Resource;
-import org.eclipse.jdt.core.dom.ASTNode;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class MetricValueCollector {
 
@@ -19,10 +23,28 @@ public abstract class MetricValueCollector {
         this.calculators.add(calculator);
     }
 
+    /**
+     * Computes every metric of the resource. Fused calculators share a single walk
+     * of its node; the others, and fused ones that opt out with no accumulator,
+     * compute their value on their own
+     */
     public void collect(Resource resource) {
+        Map<MetricValueCalculator, MetricAccumulator> accumulators = new IdentityHashMap<>();
         for (MetricValueCalculator calculator : this.calculators) {
-            ASTNode node = resource.getNode();
-            Double value = calculator.getValue(node);
+            if (calculator instanceof FusedMetricCalculator) {
+                MetricAccumulator accumulator = ((FusedMetricCalculator) calculator).createAccumulator(resource.getNode());
+                if (accumulator != null) {
+                    accumulators.put(calculator, accumulator);
+                }
+            }
+        }
+        FusedMetricTraversal.run(resource.getNode(), accumulators.values());
+
+        for (MetricValueCalculator calculator : this.calculators) {
+            MetricAccumulator accumulator = accumulators.get(calculator);
+            Double value = accumulator != null
+                    ? ((FusedMetricCalculator) calculator).getValue(accumulator)
+                    : calculator.getValue(resource);
             resource.addMetricValue(calculator.getMetricName(), value);
         }
     }
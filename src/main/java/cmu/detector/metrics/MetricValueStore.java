@@ -0,0 +1,72 @@
+package cmu.detector.metrics;
+
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Compact storage for the metric values of one resource. Values live in a
+ * primitive array indexed by {@link MetricName#ordinal()} and a bitmask tells
+ * which metrics were computed, so writing a value neither boxes a Double nor
+ * allocates a hash node.
+ */
+public final class MetricValueStore {
+
+    private static final MetricName[] METRICS = MetricName.values();
+
+    static {
+        if (METRICS.length > Long.SIZE) {
+            throw new IllegalStateException("MetricValueStore supports up to " + Long.SIZE + " metrics");
+        }
+    }
+
+    private final double[] values;
+
+    private long presence;
+
+    public MetricValueStore() {
+        this.values = new double[METRICS.length];
+    }
+
+    public void put(MetricName metric, double value) {
+        values[metric.ordinal()] = value;
+        presence |= 1L << metric.ordinal();
+    }
+
+    public void remove(MetricName metric) {
+        values[metric.ordinal()] = 0.0;
+        presence &= ~(1L << metric.ordinal());
+    }
+
+    public boolean contains(MetricName metric) {
+        return (presence & (1L << metric.ordinal())) != 0;
+    }
+
+    /**
+     * @return the value of the metric, or NaN if it was not computed
+     */
+    public double get(MetricName metric) {
+        if (!contains(metric)) {
+            return Double.NaN;
+        }
+        return values[metric.ordinal()];
+    }
+
+    public int size() {
+        return Long.bitCount(presence);
+    }
+
+    public boolean isEmpty() {
+        return presence == 0;
+    }
+
+    /**
+     * Visits the computed metrics in declaration order
+     */
+    public void forEach(ObjDoubleConsumer<MetricName> consumer) {
+        long remaining = presence;
+        while (remaining != 0) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            consumer.accept(METRICS[index], values[index]);
+            remaining &= remaining - 1;
+        }
+    }
+}
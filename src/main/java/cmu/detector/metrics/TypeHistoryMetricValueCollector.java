@@ -0,0 +1,15 @@
+package cmu.detector.metrics;
+
+import cmu.detector.metrics.calculators.type.ClassCoChangedClassesCalculator;
+
+/**
+ * Type metrics derived from the co-changes mined from the git history. They depend
+ * on HEAD rather than on the analysed files, so they are collected with the other
+ * global metrics, after every file was loaded and again after an update
+ */
+public class TypeHistoryMetricValueCollector extends MetricValueCollector {
+
+    public TypeHistoryMetricValueCollector() {
+        addCalculator(new ClassCoChangedClassesCalculator());
+    }
+}
@@ -1,21 +1,43 @@
 package cmu.detector.metrics;
 
+import cmu.detector.metrics.calculators.type.AccessorMethodsCalculator;
+import cmu.detector.metrics.calculators.type.ClassCouplingDispersionCalculator;
+import cmu.detector.metrics.calculators.type.ClassCouplingIntensityCalculator;
 import cmu.detector.metrics.calculators.type.LackOfCohesion1Calculator;
 import cmu.detector.metrics.calculators.type.LackOfCohesion2Calculator;
 import cmu.detector.metrics.calculators.type.LackOfCohesion3Calculator;
 import cmu.detector.metrics.calculators.type.LackOfCohesion4Calculator;
 import cmu.detector.metrics.calculators.type.PublicFieldCountCalculator;
 import cmu.detector.metrics.calculators.type.TCCMetricValueCalculator;
+import cmu.detector.metrics.calculators.type.TypeLOCCalculator;
+import cmu.detector.metrics.calculators.type.TypeTokenLOCCalculator;
+import cmu.detector.metrics.calculators.type.WeightOfClassCalculator;
+import cmu.detector.metrics.calculators.type.WeightedMethodCountCalculator;
 
 public class TypeMetricValueCollector extends MetricValueCollector {
 
 	public TypeMetricValueCollector() {
+		this(false);
+	}
+
+	/**
+	 * @param tokenLOC count lines of code from the token stream of the file instead of the AST
+	 */
+	public TypeMetricValueCollector(boolean tokenLOC) {
 		addCalculator(new PublicFieldCountCalculator());
 		addCalculator(new LackOfCohesion1Calculator());
 		addCalculator(new LackOfCohesion2Calculator());
 		addCalculator(new LackOfCohesion3Calculator());
 		addCalculator(new LackOfCohesion4Calculator());
 		addCalculator(new TCCMetricValueCalculator());
+		addCalculator(tokenLOC ? new TypeTokenLOCCalculator() : new TypeLOCCalculator());
+		addCalculator(new AccessorMethodsCalculator());
+		addCalculator(new WeightOfClassCalculator());
+		// reuses the CC of the methods when they were measured first
+		addCalculator(new WeightedMethodCountCalculator());
+		// read from the per-type pass over the call graph
+		addCalculator(new ClassCouplingIntensityCalculator());
+		addCalculator(new ClassCouplingDispersionCalculator());
 	}
 
 }
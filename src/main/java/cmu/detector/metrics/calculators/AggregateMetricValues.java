@@ -1,18 +1,22 @@
 package cmu.detector.metrics.calculators;
 
 import cmu.detector.metrics.MetricName;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import cmu.detector.metrics.statistics.ExactMetricStatistics;
+import cmu.detector.metrics.statistics.MetricStatistics;
+import cmu.detector.metrics.statistics.StreamingMetricStatistics;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.Set;
 
 public class AggregateMetricValues implements Observer {
 
     private static AggregateMetricValues singleton;
 
-    private Map<MetricName, DescriptiveStatistics> aggregateValues;
+    private Map<MetricName, MetricStatistics> aggregateValues;
 
     private Map<MetricName, Double> avgCache;
 
@@ -20,6 +24,12 @@ public class AggregateMetricValues implements Observer {
 
     private Map<MetricName, Double> stdDevCache;
 
+    /**
+     * Accuracy of the quantile sketches when running with bounded memory,
+     * or null when every value is kept (exact mode)
+     */
+    private Integer sketchAccuracy;
+
     static {
         singleton = new AggregateMetricValues();
     }
@@ -28,6 +38,64 @@ public class AggregateMetricValues implements Observer {
         this.reset();
     }
 
+    /**
+     * Creates an independent aggregate, e.g. to collect the values of one
+     * shard and merge it later into the shared instance
+     * @param sketchAccuracy accuracy of the quantile sketches, or null for the exact mode
+     */
+    public AggregateMetricValues(Integer sketchAccuracy) {
+        this.sketchAccuracy = sketchAccuracy;
+        this.reset();
+    }
+
+    /**
+     * Switches to the bounded-memory mode: mean and standard deviation stay exact
+     * but quartiles are estimated with a KLL sketch of the given accuracy.
+     * Values registered before the switch are discarded
+     * @param sketchAccuracy the k parameter of the sketch (the higher, the more accurate)
+     */
+    public void useBoundedMemory(int sketchAccuracy) {
+        this.sketchAccuracy = sketchAccuracy;
+        this.reset();
+    }
+
+    public void useExactValues() {
+        this.sketchAccuracy = null;
+        this.reset();
+    }
+
+    public boolean isBoundedMemory() {
+        return this.sketchAccuracy != null;
+    }
+
+    private MetricStatistics createStatistics() {
+        if (this.sketchAccuracy == null) {
+            return new ExactMetricStatistics();
+        }
+        return new StreamingMetricStatistics(this.sketchAccuracy);
+    }
+
+    private void invalidateCaches(MetricName metricName) {
+        this.avgCache.remove(metricName);
+        this.firstQuartileCache.remove(metricName);
+        this.stdDevCache.remove(metricName);
+    }
+
+    /**
+     * Merges the values collected by another aggregate (same mode) into this one
+     */
+    public void merge(AggregateMetricValues other) {
+        for (Map.Entry<MetricName, MetricStatistics> entry : other.aggregateValues.entrySet()) {
+            MetricStatistics stats = this.aggregateValues.get(entry.getKey());
+            if (stats == null) {
+                stats = this.createStatistics();
+                this.aggregateValues.put(entry.getKey(), stats);
+            }
+            stats.merge(entry.getValue());
+            this.invalidateCaches(entry.getKey());
+        }
+    }
+
     public void reset() {
         this.aggregateValues = new HashMap<>();
         this.avgCache = new HashMap<>();
@@ -35,18 +103,30 @@ public class AggregateMetricValues implements Observer {
         this.stdDevCache = new HashMap<>();
     }
 
+    /**
+     * Adds a value computed earlier, e.g. when aggregates are rebuilt from stored metric values
+     */
+    public void addValue(MetricName metricName, Double value) {
+        this.register(metricName, value);
+    }
+
+    /**
+     * @return the metrics that received at least one value
+     */
+    public Set<MetricName> getAggregatedMetrics() {
+        return new HashSet<>(this.aggregateValues.keySet());
+    }
+
     private void register(MetricName metricName, Double value) {
         if (value == null) {
             return;
         }
-        DescriptiveStatistics stats = this.aggregateValues.get(metricName);
+        MetricStatistics stats = this.aggregateValues.get(metricName);
         if (stats == null) {
-            stats = new DescriptiveStatistics();
+            stats = this.createStatistics();
             this.aggregateValues.put(metricName, stats);
         }
-        this.avgCache.remove(metricName);
-        this.firstQuartileCache.remove(metricName);
-        this.stdDevCache.remove(metricName);
+        this.invalidateCaches(metricName);
         stats.addValue(value);
     }
 
@@ -57,7 +137,7 @@ public class AggregateMetricValues implements Observer {
         }
 
         //if no value was computed, return null
-        DescriptiveStatistics stats = this.aggregateValues.get(name);
+        MetricStatistics stats = this.aggregateValues.get(name);
         if (stats == null) {
             return null;
         }
@@ -75,14 +155,14 @@ public class AggregateMetricValues implements Observer {
         }
 
         //if no value was computed, return null
-        DescriptiveStatistics stats = this.aggregateValues.get(name);
+        MetricStatistics stats = this.aggregateValues.get(name);
         if (stats == null) {
             return null;
         }
 
         //stores in the cache and returns
         Double firstQuartile = stats.getPercentile(25);
-        this.avgCache.put(name, firstQuartile);
+        this.firstQuartileCache.put(name, firstQuartile);
         return firstQuartile;
     }
 
@@ -93,7 +173,7 @@ public class AggregateMetricValues implements Observer {
         }
 
         //if no value was computed, return null
-        DescriptiveStatistics stats = this.aggregateValues.get(name);
+        MetricStatistics stats = this.aggregateValues.get(name);
         if (stats == null) {
             return null;
         }
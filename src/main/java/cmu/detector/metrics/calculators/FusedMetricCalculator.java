@@ -0,0 +1,40 @@
+package cmu.detector.metrics.calculators;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+
+import java.util.List;
+
+/**
+ * A calculator computed from the callbacks of a {@link FusedMetricTraversal}
+ * instead of its own walk. Collectors create the accumulators of all their fused
+ * calculators, walk the resource once and publish every value; used on its own,
+ * the calculator walks the node for its accumulator only.
+ */
+public abstract class FusedMetricCalculator extends MetricValueCalculator {
+
+    /**
+     * @param target the node the traversal starts from
+     * @return fresh state for one traversal of target, or null if the value of this
+     * calculator is not computed from the traversal (collectors then call
+     * {@link #getValue(cmu.detector.resources.Resource)})
+     */
+    public abstract MetricAccumulator createAccumulator(ASTNode target);
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        MetricAccumulator accumulator = this.createAccumulator(target);
+        FusedMetricTraversal.run(target, List.of(accumulator));
+        return accumulator.getValue();
+    }
+
+    /**
+     * Publishes the value of an accumulator fed by a shared traversal, as
+     * {@link #getValue(ASTNode)} does for a computed one
+     */
+    public Double getValue(MetricAccumulator accumulator) {
+        Double value = accumulator.getValue();
+        setChanged();
+        notifyObservers(value);
+        return value;
+    }
+}
@@ -0,0 +1,86 @@
+package cmu.detector.metrics.calculators;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One walk over a resource that feeds several {@link MetricAccumulator}s. Each
+ * node is dispatched by its type to the accumulators interested in it, so adding
+ * a metric adds callbacks, not another walk.
+ */
+public class FusedMetricTraversal extends ASTVisitor {
+
+    private static final MetricAccumulator[] NONE = new MetricAccumulator[0];
+
+    private final MetricAccumulator[] everyNode;
+
+    /**
+     * Interested accumulators, indexed by node type
+     */
+    private final MetricAccumulator[][] byType;
+
+    public FusedMetricTraversal(Collection<MetricAccumulator> accumulators) {
+        List<MetricAccumulator> all = new ArrayList<>();
+        List<List<MetricAccumulator>> typed = new ArrayList<>();
+        for (MetricAccumulator accumulator : accumulators) {
+            if (accumulator.visitsEveryNode()) {
+                all.add(accumulator);
+                continue;
+            }
+            for (int nodeType : accumulator.getNodeTypes()) {
+                while (typed.size() <= nodeType) {
+                    typed.add(null);
+                }
+                if (typed.get(nodeType) == null) {
+                    typed.set(nodeType, new ArrayList<>());
+                }
+                typed.get(nodeType).add(accumulator);
+            }
+        }
+
+        this.everyNode = all.toArray(NONE);
+        this.byType = new MetricAccumulator[typed.size()][];
+        for (int nodeType = 0; nodeType < typed.size(); nodeType++) {
+            List<MetricAccumulator> interested = typed.get(nodeType);
+            this.byType[nodeType] = interested == null ? NONE : interested.toArray(NONE);
+        }
+    }
+
+    /**
+     * Walks the node once for all the accumulators
+     */
+    public static void run(ASTNode node, Collection<MetricAccumulator> accumulators) {
+        if (!accumulators.isEmpty()) {
+            node.accept(new FusedMetricTraversal(accumulators));
+        }
+    }
+
+    @Override
+    public void preVisit(ASTNode node) {
+        for (MetricAccumulator accumulator : everyNode) {
+            accumulator.enter(node);
+        }
+        for (MetricAccumulator accumulator : this.interested(node)) {
+            accumulator.enter(node);
+        }
+    }
+
+    @Override
+    public void postVisit(ASTNode node) {
+        for (MetricAccumulator accumulator : everyNode) {
+            accumulator.exit(node);
+        }
+        for (MetricAccumulator accumulator : this.interested(node)) {
+            accumulator.exit(node);
+        }
+    }
+
+    private MetricAccumulator[] interested(ASTNode node) {
+        int nodeType = node.getNodeType();
+        return nodeType < byType.length ? byType[nodeType] : NONE;
+    }
+}
@@ -0,0 +1,43 @@
+package cmu.detector.metrics.calculators;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+
+/**
+ * State of a {@link FusedMetricCalculator} for one resource. It is fed by the
+ * traversal the collector shares between all the fused calculators of the
+ * resource, and only called back for the node types it asks for.
+ */
+public abstract class MetricAccumulator {
+
+    /**
+     * @return the node types to be called back for ({@link ASTNode#getNodeType()}
+     * constants); ignored if {@link #visitsEveryNode()}
+     */
+    public int[] getNodeTypes() {
+        return new int[0];
+    }
+
+    /**
+     * @return true to be called back for every node of the resource
+     */
+    public boolean visitsEveryNode() {
+        return false;
+    }
+
+    /**
+     * Called before the children of a node are visited
+     */
+    public void enter(ASTNode node) {
+    }
+
+    /**
+     * Called after the children of a node were visited
+     */
+    public void exit(ASTNode node) {
+    }
+
+    /**
+     * @return the metric value once the traversal is over, or null if there is none
+     */
+    public abstract Double getValue();
+}
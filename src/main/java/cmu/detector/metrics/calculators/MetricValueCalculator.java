@@ -1,6 +1,7 @@
 package cmu.detector.metrics.calculators;
 
 import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
 import org.eclipse.jdt.core.dom.ASTNode;
 
 import java.util.Observable;
@@ -20,8 +21,23 @@ public abstract class MetricValueCalculator extends Observable {
         return value;
     }
 
+    /**
+     * Computes the value for a loaded resource. Calculators that need more than the
+     * AST node (e.g. the source file) override {@link #computeValue(Resource)}
+     */
+    public Double getValue(Resource resource) {
+        Double value = this.computeValue(resource);
+        setChanged();
+        notifyObservers(value);
+        return value;
+    }
+
     protected abstract Double computeValue(ASTNode target);
 
+    protected Double computeValue(Resource resource) {
+        return this.computeValue(resource.getNode());
+    }
+
     /**
      * Metric's name. It MUST be unique for each subclass
      * @return metric's name
@@ -0,0 +1,55 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.ast.NameResolver;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.FusedMetricCalculator;
+import cmu.detector.metrics.calculators.MetricAccumulator;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Number of Accessed Variables (NOAV): distinct parameters, local variables and
+ * fields the method reads or writes. Declaring a variable is not an access.
+ * Without bindings, variables are told apart by name only
+ */
+public class AccessedVariablesCalculator extends FusedMetricCalculator {
+
+    private static final int[] NAMES = {ASTNode.SIMPLE_NAME};
+
+    @Override
+    public MetricAccumulator createAccumulator(ASTNode target) {
+        return new MetricAccumulator() {
+            private final Set<String> variables = new HashSet<>();
+
+            @Override
+            public int[] getNodeTypes() {
+                return NAMES;
+            }
+
+            @Override
+            public void enter(ASTNode node) {
+                SimpleName name = (SimpleName) node;
+                if (name.isDeclaration()) {
+                    return;
+                }
+                String key = NameResolver.getVariableKey(name);
+                if (key != null) {
+                    variables.add(key);
+                }
+            }
+
+            @Override
+            public Double getValue() {
+                return (double) variables.size();
+            }
+        };
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.NOAV;
+    }
+}
@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Longest chain of calls starting at the method, a call cycle counting as one step
+ */
+public class CallDepthCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getCallDepth(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CallDepth;
+    }
+}
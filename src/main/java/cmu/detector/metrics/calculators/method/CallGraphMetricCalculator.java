@@ -0,0 +1,41 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+
+/**
+ * Base of the method metrics read from the analysed call graph. Values depend on
+ * every parsed file, so they must be collected once all of them were loaded; a
+ * method without binding (fast-scan mode) has no value
+ */
+public abstract class CallGraphMetricCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(Resource resource) {
+        if (!(resource instanceof Method)) {
+            return null;
+        }
+        IMethodBinding binding = ((Method) resource).getBinding();
+        if (binding == null) {
+            return null;
+        }
+
+        CallGraphMetrics metrics = resource.getSourceFile().getContext().getCallGraphMetrics();
+        int id = metrics.getId(binding.getKey());
+        if (id < 0) {
+            return null;
+        }
+        return this.computeValue(metrics, id);
+    }
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        return null;
+    }
+
+    protected abstract double computeValue(CallGraphMetrics metrics, int id);
+}
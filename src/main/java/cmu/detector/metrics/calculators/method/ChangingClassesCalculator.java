@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Changing Classes (CC): number of classes declaring the methods that call the method
+ */
+public class ChangingClassesCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getChangingClasses(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.ChangingClasses;
+    }
+}
@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Changing Methods (CM): number of distinct methods calling the method, which may have to change with it
+ */
+public class ChangingMethodsCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getFanIn(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.ChangingMethods;
+    }
+}
@@ -0,0 +1,40 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.history.ChangeSet;
+import cmu.detector.history.CoChangeIndex;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+/**
+ * Base of the method metrics read from the co-changes mined from the git history.
+ * Methods are matched with the history by their syntactic key, so values do not
+ * need bindings; without mined history there is no value
+ */
+public abstract class CoChangeMetricCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(Resource resource) {
+        if (!(resource instanceof Method)) {
+            return null;
+        }
+        CoChangeIndex coChanges = resource.getSourceFile().getContext().getCoChanges();
+        if (coChanges == null) {
+            return null;
+        }
+        String key = ChangeSet.getMethodKey((MethodDeclaration) resource.getNode());
+        if (key == null) {
+            return null;
+        }
+        return this.computeValue(coChanges, key);
+    }
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        return null;
+    }
+
+    protected abstract double computeValue(CoChangeIndex coChanges, String key);
+}
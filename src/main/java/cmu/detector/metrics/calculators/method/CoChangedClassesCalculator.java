@@ -0,0 +1,21 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.history.CoChangeIndex;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Co-changed classes: number of other classes declaring the methods changed in the
+ * same commits as the method
+ */
+public class CoChangedClassesCalculator extends CoChangeMetricCalculator {
+
+    @Override
+    protected double computeValue(CoChangeIndex coChanges, String key) {
+        return coChanges.getCoChangedClasses(key);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CoChangedClasses;
+    }
+}
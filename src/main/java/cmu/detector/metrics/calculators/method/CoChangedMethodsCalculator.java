@@ -0,0 +1,21 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.history.CoChangeIndex;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Co-changed methods: number of other methods changed in the same commits as the
+ * method, over the mined window of the history
+ */
+public class CoChangedMethodsCalculator extends CoChangeMetricCalculator {
+
+    @Override
+    protected double computeValue(CoChangeIndex coChanges, String key) {
+        return coChanges.getCoChangedMethods(key);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CoChangedMethods;
+    }
+}
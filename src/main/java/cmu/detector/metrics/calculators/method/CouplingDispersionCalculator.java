@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Coupling Dispersion (CDISP): number of classes the method calls into, divided by CINT
+ */
+public class CouplingDispersionCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getCouplingDispersion(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CDISP;
+    }
+}
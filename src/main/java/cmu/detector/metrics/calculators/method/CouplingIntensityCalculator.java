@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Coupling Intensity (CINT): number of distinct methods of other classes called by the method
+ */
+public class CouplingIntensityCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getCouplingIntensity(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CINT;
+    }
+}
@@ -0,0 +1,69 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.FusedMetricCalculator;
+import cmu.detector.metrics.calculators.MetricAccumulator;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.InfixExpression;
+
+/**
+ * McCabe's Cyclomatic Complexity (CC): one plus the decision points of the method.
+ * Loops, if statements, catch clauses, conditional expressions and every case
+ * label (default included) count as one; a chain of && or || counts one per
+ * operator
+ */
+public class CyclomaticComplexityCalculator extends FusedMetricCalculator {
+
+    private static final int[] DECISIONS = {
+            ASTNode.IF_STATEMENT,
+            ASTNode.FOR_STATEMENT,
+            ASTNode.ENHANCED_FOR_STATEMENT,
+            ASTNode.WHILE_STATEMENT,
+            ASTNode.DO_STATEMENT,
+            ASTNode.SWITCH_CASE,
+            ASTNode.CATCH_CLAUSE,
+            ASTNode.CONDITIONAL_EXPRESSION,
+            ASTNode.INFIX_EXPRESSION
+    };
+
+    @Override
+    public MetricAccumulator createAccumulator(ASTNode target) {
+        return new MetricAccumulator() {
+            private int complexity = 1;
+
+            @Override
+            public int[] getNodeTypes() {
+                return DECISIONS;
+            }
+
+            @Override
+            public void enter(ASTNode node) {
+                if (node.getNodeType() != ASTNode.INFIX_EXPRESSION) {
+                    complexity++;
+                    return;
+                }
+                InfixExpression.Operator operator = ((InfixExpression) node).getOperator();
+                if (operator == InfixExpression.Operator.CONDITIONAL_AND
+                        || operator == InfixExpression.Operator.CONDITIONAL_OR) {
+                    // a && b && c is a single node with extended operands
+                    complexity += 1 + ((InfixExpression) node).extendedOperands().size();
+                }
+            }
+
+            @Override
+            public Double getValue() {
+                return (double) complexity;
+            }
+        };
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CC;
+    }
+
+    @Override
+    public boolean shouldComputeAggregate() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Number of distinct methods calling the method
+ */
+public class FanInCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getFanIn(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.FanIn;
+    }
+}
@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Number of distinct methods called by the method
+ */
+public class FanOutCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getFanOut(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.FanOut;
+    }
+}
@@ -1,14 +1,19 @@
 package cmu.detector.metrics.calculators.method;
 
+import cmu.detector.ast.MethodSummary;
 import cmu.detector.ast.visitors.MaxCallChainVisitor;
 import cmu.detector.metrics.MetricName;
 import cmu.detector.metrics.calculators.MetricValueCalculator;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 
 public class MaxCallChainCalculator extends MetricValueCalculator {
 
     @Override
     protected Double computeValue(ASTNode target) {
+        if (target instanceof MethodDeclaration) {
+            return (double) MethodSummary.of((MethodDeclaration) target).getMaxCallChain();
+        }
         MaxCallChainVisitor visitor = new MaxCallChainVisitor();
         target.accept(visitor);
 
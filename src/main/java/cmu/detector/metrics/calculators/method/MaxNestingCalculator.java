@@ -0,0 +1,71 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.FusedMetricCalculator;
+import cmu.detector.metrics.calculators.MetricAccumulator;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.IfStatement;
+
+/**
+ * Maximum nesting level of control structures in the method (MAXNESTING): 0 for
+ * straight-line code, 1 for a loop, 2 for an if inside it, and so on. An
+ * "else if" continues its chain instead of nesting deeper
+ */
+public class MaxNestingCalculator extends FusedMetricCalculator {
+
+    private static final int[] CONTROL_STRUCTURES = {
+            ASTNode.IF_STATEMENT,
+            ASTNode.FOR_STATEMENT,
+            ASTNode.ENHANCED_FOR_STATEMENT,
+            ASTNode.WHILE_STATEMENT,
+            ASTNode.DO_STATEMENT,
+            ASTNode.SWITCH_STATEMENT,
+            ASTNode.SWITCH_EXPRESSION,
+            ASTNode.TRY_STATEMENT,
+            ASTNode.SYNCHRONIZED_STATEMENT
+    };
+
+    @Override
+    public MetricAccumulator createAccumulator(ASTNode target) {
+        return new MetricAccumulator() {
+            private int depth;
+
+            private int maxDepth;
+
+            @Override
+            public int[] getNodeTypes() {
+                return CONTROL_STRUCTURES;
+            }
+
+            @Override
+            public void enter(ASTNode node) {
+                if (!isElseIf(node)) {
+                    depth++;
+                    maxDepth = Math.max(maxDepth, depth);
+                }
+            }
+
+            @Override
+            public void exit(ASTNode node) {
+                if (!isElseIf(node)) {
+                    depth--;
+                }
+            }
+
+            @Override
+            public Double getValue() {
+                return (double) maxDepth;
+            }
+        };
+    }
+
+    private static boolean isElseIf(ASTNode node) {
+        return node.getLocationInParent() == IfStatement.ELSE_STATEMENT_PROPERTY
+                && node.getNodeType() == ASTNode.IF_STATEMENT;
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.MaxNesting;
+    }
+}
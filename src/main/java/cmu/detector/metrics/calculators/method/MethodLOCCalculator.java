@@ -3,7 +3,8 @@ package cmu.detector.metrics.calculators.method;
 
 import cmu.detector.ast.visitors.LineCountingVisitor;
 import cmu.detector.metrics.MetricName;
-import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.metrics.calculators.FusedMetricCalculator;
+import cmu.detector.metrics.calculators.MetricAccumulator;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
@@ -14,21 +15,46 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
  *
  * @author Leonardo
  */
-public class MethodLOCCalculator extends MetricValueCalculator {
+public class MethodLOCCalculator extends FusedMetricCalculator {
 	
 	@Override
-	protected Double computeValue(ASTNode target) {
+	public MetricAccumulator createAccumulator(ASTNode target) {
+		return this.createLineAccumulator(target);
+	}
+
+	/**
+	 * @return the AST-based line count of target, fed by a traversal
+	 */
+	protected MetricAccumulator createLineAccumulator(ASTNode target) {
 		// We need to get the CompilationUnit from this node
 		CompilationUnit compilationUnit = getCompilationUnit(target);
 
 		/*
-		 * Use the LineCountingVisitor to count lines of code.
-		 * Visit the CompilationUnit directly to handle package and imports instead of using the TypeDeclaration
+		 * Use the LineCountingVisitor to count lines of code, fed by the traversal
+		 * shared with the other method metrics
 		 */
 		LineCountingVisitor visitor = new LineCountingVisitor(compilationUnit);
-		target.accept(visitor);
+		return new MetricAccumulator() {
+			@Override
+			public boolean visitsEveryNode() {
+				return true;
+			}
+
+			@Override
+			public void enter(ASTNode node) {
+				visitor.preVisit(node);
+			}
+
+			@Override
+			public void exit(ASTNode node) {
+				visitor.postVisit(node);
+			}
 
-		return (double) visitor.getLOC();
+			@Override
+			public Double getValue() {
+				return (double) visitor.getLOC();
+			}
+		};
 	}
 
 	@Override
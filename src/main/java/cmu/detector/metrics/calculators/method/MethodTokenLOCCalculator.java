@@ -0,0 +1,50 @@
+package cmu.detector.metrics.calculators.method;
+
+
+import cmu.detector.ast.CodeLineMap;
+import cmu.detector.metrics.calculators.FusedMetricTraversal;
+import cmu.detector.metrics.calculators.MetricAccumulator;
+import cmu.detector.resources.Resource;
+import org.eclipse.jdt.core.dom.ASTNode;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 	Counts the lines of code of a method from the token stream of its file instead of
+ *  walking the AST: a line counts if a non-comment token of the method's source range
+ *  lies on it. When the file cannot be read, it falls back to the AST-based count.
+ *  The count does not come from the AST walk, so the calculator does not take part
+ *  in the traversal shared by the fused method metrics
+ */
+public class MethodTokenLOCCalculator extends MethodLOCCalculator {
+
+	@Override
+	public MetricAccumulator createAccumulator(ASTNode target) {
+		return null;
+	}
+
+	@Override
+	protected Double computeValue(ASTNode target) {
+		// without a source file there is no token stream: count from the AST
+		MetricAccumulator accumulator = this.createLineAccumulator(target);
+		FusedMetricTraversal.run(target, List.of(accumulator));
+		return accumulator.getValue();
+	}
+
+	@Override
+	protected Double computeValue(Resource resource) {
+		CodeLineMap codeLines;
+		try {
+			codeLines = resource.getSourceFile().getCodeLineMap();
+		} catch (IOException exception) {
+			return this.computeValue(resource.getNode());
+		}
+
+		ASTNode node = resource.getNode();
+		int start = node.getStartPosition();
+		int end = start + node.getLength() - 1;
+		return (double) codeLines.countLines(start, end);
+	}
+
+}
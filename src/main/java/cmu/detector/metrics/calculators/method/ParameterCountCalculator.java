@@ -0,0 +1,26 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+/**
+ * Number of parameters declared by the method. Read from the declaration, no
+ * traversal needed
+ */
+public class ParameterCountCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        if (!(target instanceof MethodDeclaration)) {
+            return null;
+        }
+        return (double) ((MethodDeclaration) target).parameters().size();
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.ParameterCount;
+    }
+}
@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Number of methods the method calls directly or transitively (estimated for large call trees)
+ */
+public class ReachableMethodsCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getReachableMethods(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.ReachableMethods;
+    }
+}
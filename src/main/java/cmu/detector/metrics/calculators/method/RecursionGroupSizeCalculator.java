@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.method;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Number of methods in the call cycle (strongly connected component) of the method, 0 if it is not recursive
+ */
+public class RecursionGroupSizeCalculator extends CallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int id) {
+        return metrics.getRecursionGroupSize(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.RecursionGroupSize;
+    }
+}
@@ -0,0 +1,108 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.ast.NameResolver;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.List;
+
+/**
+ * Number of Accessor Methods (NOAM): public, non-static getters and setters of the
+ * class. A getter ({@code getX}, {@code isX}) takes no parameter and only returns
+ * a field; a setter ({@code setX}) takes one parameter and only assigns it to a
+ * field. Only the declarations and the single statement of each body are looked
+ * at, never the rest of the class
+ */
+public class AccessorMethodsCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        if (!(target instanceof TypeDeclaration)) {
+            return null;
+        }
+        int accessors = 0;
+        for (MethodDeclaration method : ((TypeDeclaration) target).getMethods()) {
+            if (isAccessor(method)) {
+                accessors++;
+            }
+        }
+        return (double) accessors;
+    }
+
+    static boolean isAccessor(MethodDeclaration method) {
+        int modifiers = method.getModifiers();
+        if (method.isConstructor() || !Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers)
+                || method.getBody() == null) {
+            return false;
+        }
+        List<?> statements = method.getBody().statements();
+        if (statements.size() != 1) {
+            return false;
+        }
+        String name = method.getName().getIdentifier();
+        Object statement = statements.get(0);
+
+        if ((hasPrefix(name, "get") || hasPrefix(name, "is")) && method.parameters().isEmpty()
+                && statement instanceof ReturnStatement) {
+            return isField(((ReturnStatement) statement).getExpression());
+        }
+        if (hasPrefix(name, "set") && method.parameters().size() == 1 && statement instanceof ExpressionStatement
+                && ((ExpressionStatement) statement).getExpression() instanceof Assignment) {
+            Assignment assignment = (Assignment) ((ExpressionStatement) statement).getExpression();
+            SingleVariableDeclaration parameter = (SingleVariableDeclaration) method.parameters().get(0);
+            return assignment.getOperator() == Assignment.Operator.ASSIGN
+                    && isField(assignment.getLeftHandSide())
+                    && assignment.getRightHandSide() instanceof SimpleName
+                    && ((SimpleName) assignment.getRightHandSide()).getIdentifier()
+                            .equals(parameter.getName().getIdentifier());
+        }
+        return false;
+    }
+
+    private static boolean hasPrefix(String name, String prefix) {
+        return name.length() > prefix.length() && name.startsWith(prefix)
+                && Character.isUpperCase(name.charAt(prefix.length()));
+    }
+
+    /**
+     * {@code x} or {@code this.x} naming a field. Without bindings a plain name is
+     * taken as a field: accessors declare no local variable
+     */
+    private static boolean isField(Expression expression) {
+        SimpleName name;
+        if (expression instanceof FieldAccess && ((FieldAccess) expression).getExpression() instanceof ThisExpression) {
+            name = ((FieldAccess) expression).getName();
+        } else if (expression instanceof SimpleName) {
+            name = (SimpleName) expression;
+        } else {
+            return false;
+        }
+        if (!NameResolver.hasBindings(name)) {
+            return expression instanceof FieldAccess || !isParameter(name);
+        }
+        IBinding binding = name.resolveBinding();
+        return binding instanceof IVariableBinding && ((IVariableBinding) binding).isField();
+    }
+
+    private static boolean isParameter(SimpleName name) {
+        ASTNode current = name;
+        while (current != null && !(current instanceof MethodDeclaration)) {
+            current = current.getParent();
+        }
+        if (current == null) {
+            return false;
+        }
+        for (Object parameter : ((MethodDeclaration) current).parameters()) {
+            if (((SingleVariableDeclaration) parameter).getName().getIdentifier().equals(name.getIdentifier())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.NOAM;
+    }
+}
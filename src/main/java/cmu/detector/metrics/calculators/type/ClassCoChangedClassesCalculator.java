@@ -0,0 +1,40 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.history.ChangeSet;
+import cmu.detector.history.CoChangeIndex;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import org.eclipse.jdt.core.dom.ASTNode;
+
+/**
+ * Co-changed classes of a type: number of other types changed in the same commits,
+ * over the mined window of the history. Types are matched with the history by
+ * qualified name, so values do not need bindings; without mined history there is no value
+ */
+public class ClassCoChangedClassesCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(Resource resource) {
+        if (!(resource instanceof Type)) {
+            return null;
+        }
+        CoChangeIndex coChanges = resource.getSourceFile().getContext().getCoChanges();
+        if (coChanges == null) {
+            return null;
+        }
+        String key = ChangeSet.getTypeKey(((Type) resource).getNodeAsTypeDeclaration());
+        return (double) coChanges.getCoChangedTypes(key);
+    }
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        return null;
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CoChangedClasses;
+    }
+}
@@ -0,0 +1,21 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Coupling Dispersion (CDISP) of a class: number of other classes its methods call,
+ * divided by its CINT
+ */
+public class ClassCouplingDispersionCalculator extends TypeCallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int typeId) {
+        return metrics.getTypeCouplingDispersion(typeId);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CDISP;
+    }
+}
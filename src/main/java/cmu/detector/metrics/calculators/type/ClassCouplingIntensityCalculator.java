@@ -0,0 +1,21 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.MetricName;
+
+/**
+ * Coupling Intensity (CINT) of a class: number of distinct methods of other classes
+ * called by its methods
+ */
+public class ClassCouplingIntensityCalculator extends TypeCallGraphMetricCalculator {
+
+    @Override
+    protected double computeValue(CallGraphMetrics metrics, int typeId) {
+        return metrics.getTypeCouplingIntensity(typeId);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.CINT;
+    }
+}
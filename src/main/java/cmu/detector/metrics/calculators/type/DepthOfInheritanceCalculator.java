@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.HierarchyIndex;
+
+/**
+ * Depth of Inheritance Tree (DIT): number of superclasses above the type
+ */
+public class DepthOfInheritanceCalculator extends HierarchyMetricCalculator {
+
+    @Override
+    protected double computeValue(HierarchyIndex index, int id) {
+        return index.getDepth(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.DIT;
+    }
+}
@@ -0,0 +1,36 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.resources.HierarchyIndex;
+import cmu.detector.resources.ParenthoodRegistry;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import org.eclipse.jdt.core.dom.ASTNode;
+
+/**
+ * Base of the type metrics read from the hierarchy index. Values depend on every
+ * registered type, so they must be collected once all of them were loaded; a type
+ * without binding (fast-scan mode) has no value
+ */
+public abstract class HierarchyMetricCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(Resource resource) {
+        if (!(resource instanceof Type)) {
+            return null;
+        }
+        ParenthoodRegistry registry = resource.getSourceFile().getContext().getParenthoodRegistry();
+        int id = registry.getId((Type) resource);
+        if (id < 0) {
+            return null;
+        }
+        return this.computeValue(registry.getIndex(), id);
+    }
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        return null;
+    }
+
+    protected abstract double computeValue(HierarchyIndex index, int id);
+}
@@ -1,6 +1,6 @@
 package cmu.detector.metrics.calculators.type;
 
-import cmu.detector.ast.visitors.FieldAccessVisitor;
+import cmu.detector.ast.MethodSummary;
 import cmu.detector.ast.visitors.InstanceMembersVisitor;
 import cmu.detector.metrics.MetricName;
 import cmu.detector.metrics.calculators.MetricValueCalculator;
@@ -58,7 +58,7 @@ public class LackOfCohesion1Calculator extends MetricValueCalculator {
         InstanceMembersVisitor membersVisitor = new InstanceMembersVisitor();
         typeDecl.accept(membersVisitor);
         
-        Set<IVariableBinding> instanceFields = membersVisitor.getInstanceFields();
+        Set<String> instanceFields = membersVisitor.getInstanceFields();
         List<MethodDeclaration> instanceMethods = membersVisitor.getInstanceMethods();
         
         if (instanceMethods.size() < 2) {
@@ -66,9 +66,7 @@ public class LackOfCohesion1Calculator extends MetricValueCalculator {
         }
         
         // Collect field access for each method
-        FieldAccessVisitor fieldAccessVisitor = new FieldAccessVisitor(instanceFields);
-        typeDecl.accept(fieldAccessVisitor);
-        Map<MethodDeclaration, Set<IVariableBinding>> methodFieldAccess = fieldAccessVisitor.getMethodFieldAccess();
+        Map<MethodDeclaration, Set<String>> methodFieldAccess = MethodSummary.getFieldAccess(instanceMethods, instanceFields);
         
         // Count P and Q
         int P = 0; // Pairs with disjoint field access
@@ -79,15 +77,15 @@ public class LackOfCohesion1Calculator extends MetricValueCalculator {
                 MethodDeclaration m1 = instanceMethods.get(i);
                 MethodDeclaration m2 = instanceMethods.get(j);
                 
-                Set<IVariableBinding> fields1 = methodFieldAccess.get(m1);
-                Set<IVariableBinding> fields2 = methodFieldAccess.get(m2);
+                Set<String> fields1 = methodFieldAccess.get(m1);
+                Set<String> fields2 = methodFieldAccess.get(m2);
                 
                 if (fields1 == null) fields1 = new HashSet<>();
                 if (fields2 == null) fields2 = new HashSet<>();
                 
                 // Check if they share any fields
                 boolean sharesFields = false;
-                for (IVariableBinding field : fields1) {
+                for (String field : fields1) {
                     if (fields2.contains(field)) {
                         sharesFields = true;
                         break;
@@ -1,6 +1,6 @@
 package cmu.detector.metrics.calculators.type;
 
-import cmu.detector.ast.visitors.FieldAccessVisitor;
+import cmu.detector.ast.MethodSummary;
 import cmu.detector.ast.visitors.InstanceMembersVisitor;
 import cmu.detector.metrics.MetricName;
 import cmu.detector.metrics.calculators.MetricValueCalculator;
@@ -50,7 +50,7 @@ public class LackOfCohesion3Calculator extends MetricValueCalculator {
         InstanceMembersVisitor membersVisitor = new InstanceMembersVisitor();
         typeDecl.accept(membersVisitor);
         
-        Set<IVariableBinding> instanceFields = membersVisitor.getInstanceFields();
+        Set<String> instanceFields = membersVisitor.getInstanceFields();
         List<MethodDeclaration> instanceMethods = membersVisitor.getInstanceMethods();
         
         int m = instanceMethods.size();
@@ -62,16 +62,14 @@ public class LackOfCohesion3Calculator extends MetricValueCalculator {
         }
         
         // Collect field access for each method
-        FieldAccessVisitor fieldAccessVisitor = new FieldAccessVisitor(instanceFields);
-        typeDecl.accept(fieldAccessVisitor);
-        Map<MethodDeclaration, Set<IVariableBinding>> methodFieldAccess = fieldAccessVisitor.getMethodFieldAccess();
+        Map<MethodDeclaration, Set<String>> methodFieldAccess = MethodSummary.getFieldAccess(instanceMethods, instanceFields);
         
         // Calculate sum of m(A) for each attribute A
         int sum = 0;
-        for (IVariableBinding field : instanceFields) {
+        for (String field : instanceFields) {
             int methodsAccessingField = 0;
             for (MethodDeclaration method : instanceMethods) {
-                Set<IVariableBinding> accessedFields = methodFieldAccess.get(method);
+                Set<String> accessedFields = methodFieldAccess.get(method);
                 if (accessedFields != null && accessedFields.contains(field)) {
                     methodsAccessingField++;
                 }
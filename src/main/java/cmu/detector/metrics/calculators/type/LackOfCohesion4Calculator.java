@@ -1,7 +1,7 @@
 package cmu.detector.metrics.calculators.type;
 
+import cmu.detector.ast.MethodSummary;
 import cmu.detector.ast.visitors.AllMembersVisitor;
-import cmu.detector.ast.visitors.FieldAccessVisitor;
 import cmu.detector.ast.visitors.MethodCallGraphVisitor;
 import cmu.detector.metrics.MetricName;
 import cmu.detector.metrics.calculators.MetricValueCalculator;
@@ -53,7 +53,7 @@ public class LackOfCohesion4Calculator extends MetricValueCalculator {
         AllMembersVisitor membersVisitor = new AllMembersVisitor();
         typeDecl.accept(membersVisitor);
         
-        Set<IVariableBinding> allFields = membersVisitor.getAllFields();
+        Set<String> allFields = membersVisitor.getAllFields();
         List<MethodDeclaration> allMethods = membersVisitor.getAllMethods();
         
         if (allMethods.isEmpty()) {
@@ -61,9 +61,7 @@ public class LackOfCohesion4Calculator extends MetricValueCalculator {
         }
         
         // Collect field access for each method
-        FieldAccessVisitor fieldAccessVisitor = new FieldAccessVisitor(allFields);
-        typeDecl.accept(fieldAccessVisitor);
-        Map<MethodDeclaration, Set<IVariableBinding>> methodFieldAccess = fieldAccessVisitor.getMethodFieldAccess();
+        Map<MethodDeclaration, Set<String>> methodFieldAccess = MethodSummary.getFieldAccess(allMethods, allFields);
         
         // Collect method calls
         MethodCallGraphVisitor callGraphVisitor = new MethodCallGraphVisitor();
@@ -83,7 +81,7 @@ public class LackOfCohesion4Calculator extends MetricValueCalculator {
 
     private Map<MethodDeclaration, Set<MethodDeclaration>> buildAdjacencyGraph(
             List<MethodDeclaration> methods,
-            Map<MethodDeclaration, Set<IVariableBinding>> methodFieldAccess,
+            Map<MethodDeclaration, Set<String>> methodFieldAccess,
             Map<MethodDeclaration, Set<SimpleName>> methodCalls) {
         
         Map<MethodDeclaration, Set<MethodDeclaration>> graph = new HashMap<>();
@@ -94,11 +92,11 @@ public class LackOfCohesion4Calculator extends MetricValueCalculator {
         }
         
         // Build field access map (field -> methods that access it)
-        Map<IVariableBinding, Set<MethodDeclaration>> fieldAccessMap = new HashMap<>();
+        Map<String, Set<MethodDeclaration>> fieldAccessMap = new HashMap<>();
         for (MethodDeclaration method : methods) {
-            Set<IVariableBinding> accessedFields = methodFieldAccess.get(method);
+            Set<String> accessedFields = methodFieldAccess.get(method);
             if (accessedFields != null) {
-                for (IVariableBinding field : accessedFields) {
+                for (String field : accessedFields) {
                     fieldAccessMap.computeIfAbsent(field, k -> new HashSet<>()).add(method);
                 }
             }
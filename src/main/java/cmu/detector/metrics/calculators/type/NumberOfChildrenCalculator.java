@@ -0,0 +1,20 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.HierarchyIndex;
+
+/**
+ * Number of Children (NOC): analysed types directly extending or implementing the type
+ */
+public class NumberOfChildrenCalculator extends HierarchyMetricCalculator {
+
+    @Override
+    protected double computeValue(HierarchyIndex index, int id) {
+        return index.getChildrenCount(id);
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.NOC;
+    }
+}
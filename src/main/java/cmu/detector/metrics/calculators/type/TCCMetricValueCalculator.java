@@ -1,5 +1,6 @@
 package cmu.detector.metrics.calculators.type;
 
+import cmu.detector.ast.NameResolver;
 import cmu.detector.ast.visitors.CallTreeFieldAccessVisitor;
 import cmu.detector.ast.visitors.VisibleInstanceMethodsVisitor;
 import cmu.detector.metrics.MetricName;
@@ -73,12 +74,12 @@ public class TCCMetricValueCalculator extends MetricValueCalculator {
         int NP = N * (N - 1) / 2;
         
         // Get instance fields
-        Set<IVariableBinding> instanceFields = getInstanceFields(typeDecl);
+        Set<String> instanceFields = getInstanceFields(typeDecl);
         
         // Analyze field access with call tree
         CallTreeFieldAccessVisitor callTreeVisitor = new CallTreeFieldAccessVisitor(instanceFields, visibleMethods);
         callTreeVisitor.analyze(typeDecl);
-        Map<MethodDeclaration, Set<IVariableBinding>> methodFieldAccess = 
+        Map<MethodDeclaration, Set<String>> methodFieldAccess = 
             callTreeVisitor.getMethodFieldAccessWithCallTree();
         
         // Count direct connections (NDC)
@@ -88,15 +89,15 @@ public class TCCMetricValueCalculator extends MetricValueCalculator {
                 MethodDeclaration m1 = visibleMethods.get(i);
                 MethodDeclaration m2 = visibleMethods.get(j);
                 
-                Set<IVariableBinding> fields1 = methodFieldAccess.get(m1);
-                Set<IVariableBinding> fields2 = methodFieldAccess.get(m2);
+                Set<String> fields1 = methodFieldAccess.get(m1);
+                Set<String> fields2 = methodFieldAccess.get(m2);
                 
                 if (fields1 == null) fields1 = new HashSet<>();
                 if (fields2 == null) fields2 = new HashSet<>();
                 
                 // Check if they share any fields
                 boolean sharesFields = false;
-                for (IVariableBinding field : fields1) {
+                for (String field : fields1) {
                     if (fields2.contains(field)) {
                         sharesFields = true;
                         break;
@@ -113,15 +114,15 @@ public class TCCMetricValueCalculator extends MetricValueCalculator {
         return (double) NDC / NP;
     }
 
-    private Set<IVariableBinding> getInstanceFields(TypeDeclaration typeDecl) {
-        Set<IVariableBinding> fields = new HashSet<>();
+    private Set<String> getInstanceFields(TypeDeclaration typeDecl) {
+        Set<String> fields = new HashSet<>();
         for (FieldDeclaration field : typeDecl.getFields()) {
             if (!Modifier.isStatic(field.getModifiers())) {
                 for (Object fragment : field.fragments()) {
                     VariableDeclarationFragment vdf = (VariableDeclarationFragment) fragment;
-                    IVariableBinding binding = vdf.resolveBinding();
-                    if (binding != null) {
-                        fields.add(binding);
+                    String key = NameResolver.getVariableKey(vdf);
+                    if (key != null) {
+                        fields.add(key);
                     }
                 }
             }
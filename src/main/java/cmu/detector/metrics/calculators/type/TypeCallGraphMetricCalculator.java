@@ -0,0 +1,43 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.ast.NameResolver;
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+/**
+ * Base of the type metrics read from the per-type results of the call graph
+ * analysis, computed once for all types in a pass over the call edges. A type
+ * that declares no method of the graph makes no call (0); a type without binding
+ * (fast-scan mode) has no value
+ */
+public abstract class TypeCallGraphMetricCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(Resource resource) {
+        if (!(resource instanceof Type)) {
+            return null;
+        }
+        ITypeBinding binding = ((Type) resource).getBinding();
+        if (binding == null) {
+            return null;
+        }
+
+        CallGraphMetrics metrics = resource.getSourceFile().getContext().getCallGraphMetrics();
+        int id = metrics.getTypeId(NameResolver.getQualifiedName(binding));
+        if (id < 0) {
+            return 0.0;
+        }
+        return this.computeValue(metrics, id);
+    }
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        return null;
+    }
+
+    protected abstract double computeValue(CallGraphMetrics metrics, int typeId);
+}
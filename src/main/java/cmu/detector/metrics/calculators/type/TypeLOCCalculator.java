@@ -15,12 +15,23 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
  * @author Leonardo
  */
 public class TypeLOCCalculator extends MetricValueCalculator {
+
+	/**
+	 * The count covers the whole compilation unit, so it is stored in the unit and
+	 * reused by every type declared in the same file
+	 */
+	private static final String LOC_PROPERTY = TypeLOCCalculator.class.getName();
 	
 	@Override
 	protected Double computeValue(ASTNode target) {
 		// We need to get the CompilationUnit from this node
 		CompilationUnit compilationUnit = getCompilationUnit(target);
 
+		Object cached = compilationUnit.getProperty(LOC_PROPERTY);
+		if (cached instanceof Double) {
+			return (Double) cached;
+		}
+
 		/*
 		 * Use the LineCountingVisitor to count lines of code.
 		 * Visit the CompilationUnit directly to handle package and imports instead of using the TypeDeclaration
@@ -28,7 +39,9 @@ public class TypeLOCCalculator extends MetricValueCalculator {
 		LineCountingVisitor visitor = new LineCountingVisitor(compilationUnit);
 		compilationUnit.accept(visitor);
 
-		return (double) visitor.getLOC();
+		Double loc = (double) visitor.getLOC();
+		compilationUnit.setProperty(LOC_PROPERTY, loc);
+		return loc;
 	}
 
 	@Override
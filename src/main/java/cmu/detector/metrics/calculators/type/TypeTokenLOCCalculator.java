@@ -0,0 +1,26 @@
+package cmu.detector.metrics.calculators.type;
+
+
+import cmu.detector.ast.CodeLineMap;
+import cmu.detector.resources.Resource;
+
+import java.io.IOException;
+
+/**
+ * 	Counts the lines of code of a type from the token stream of its file instead of
+ *  walking the AST. Like {@link TypeLOCCalculator}, the whole file is counted (package
+ *  and imports included). When the file cannot be read, it falls back to the AST-based count
+ */
+public class TypeTokenLOCCalculator extends TypeLOCCalculator {
+
+	@Override
+	protected Double computeValue(Resource resource) {
+		try {
+			CodeLineMap codeLines = resource.getSourceFile().getCodeLineMap();
+			return (double) codeLines.countLines();
+		} catch (IOException exception) {
+			return super.computeValue(resource);
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+/**
+ * Weight Of Class (WOC): functional public methods (neither constructors nor
+ * accessors) divided by all the public members of the class, i.e. its public
+ * methods and public non-static fields. A class without public members has no value
+ */
+public class WeightOfClassCalculator extends MetricValueCalculator {
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        if (!(target instanceof TypeDeclaration)) {
+            return null;
+        }
+        TypeDeclaration type = (TypeDeclaration) target;
+
+        int members = 0;
+        int functional = 0;
+        for (MethodDeclaration method : type.getMethods()) {
+            if (method.isConstructor() || !Modifier.isPublic(method.getModifiers())) {
+                continue;
+            }
+            members++;
+            if (!AccessorMethodsCalculator.isAccessor(method)) {
+                functional++;
+            }
+        }
+        for (FieldDeclaration field : type.getFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)) {
+                members++;
+            }
+        }
+        return members == 0 ? null : (double) functional / members;
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.WOC;
+    }
+}
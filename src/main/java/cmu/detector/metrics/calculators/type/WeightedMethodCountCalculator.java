@@ -0,0 +1,67 @@
+package cmu.detector.metrics.calculators.type;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.FusedMetricTraversal;
+import cmu.detector.metrics.calculators.MetricAccumulator;
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.metrics.calculators.method.CyclomaticComplexityCalculator;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import java.util.List;
+
+/**
+ * Weighted Method Count (WMC): sum of the cyclomatic complexity of the methods of
+ * the class. The CC already stored in the methods is reused, so the bodies are
+ * only walked for methods that were not measured
+ */
+public class WeightedMethodCountCalculator extends MetricValueCalculator {
+
+    private final CyclomaticComplexityCalculator complexity = new CyclomaticComplexityCalculator();
+
+    @Override
+    protected Double computeValue(Resource resource) {
+        if (!(resource instanceof Type)) {
+            return null;
+        }
+        double wmc = 0;
+        for (Method method : ((Type) resource).getMethods()) {
+            Double cc = method.getMetricValue(MetricName.CC);
+            wmc += cc != null ? cc : this.complexity(method.getNode());
+        }
+        return wmc;
+    }
+
+    @Override
+    protected Double computeValue(ASTNode target) {
+        if (!(target instanceof TypeDeclaration)) {
+            return null;
+        }
+        double wmc = 0;
+        for (MethodDeclaration method : ((TypeDeclaration) target).getMethods()) {
+            wmc += this.complexity(method);
+        }
+        return wmc;
+    }
+
+    private double complexity(ASTNode method) {
+        // walked directly: publishing it would add it to the CC aggregates a second time
+        MetricAccumulator accumulator = complexity.createAccumulator(method);
+        FusedMetricTraversal.run(method, List.of(accumulator));
+        return accumulator.getValue();
+    }
+
+    @Override
+    public MetricName getMetricName() {
+        return MetricName.WMC;
+    }
+
+    @Override
+    public boolean shouldComputeAggregate() {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package cmu.detector.metrics.statistics;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
+/**
+ * Keeps every value in memory, so percentiles are exact. It is the default
+ * mode and it is fine for small and medium projects.
+ */
+public class ExactMetricStatistics implements MetricStatistics {
+
+    private final DescriptiveStatistics stats;
+
+    public ExactMetricStatistics() {
+        this.stats = new DescriptiveStatistics();
+    }
+
+    @Override
+    public void addValue(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        this.stats.addValue(value);
+    }
+
+    @Override
+    public long getN() {
+        return this.stats.getN();
+    }
+
+    @Override
+    public double getMean() {
+        return this.stats.getMean();
+    }
+
+    @Override
+    public double getStandardDeviation() {
+        return this.stats.getStandardDeviation();
+    }
+
+    @Override
+    public double getPercentile(double percentile) {
+        return this.stats.getPercentile(percentile);
+    }
+
+    @Override
+    public void merge(MetricStatistics other) {
+        if (!(other instanceof ExactMetricStatistics)) {
+            throw new IllegalArgumentException("Cannot merge exact statistics with " + other.getClass().getSimpleName());
+        }
+        for (double value : ((ExactMetricStatistics) other).stats.getValues()) {
+            this.stats.addValue(value);
+        }
+    }
+}
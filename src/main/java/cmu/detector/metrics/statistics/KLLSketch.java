@@ -0,0 +1,233 @@
+package cmu.detector.metrics.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mergeable quantile sketch, following Karnin, Lang and Liberty
+ * ("Optimal Quantile Approximation in Streams", FOCS 2016).
+ *
+ * <p>
+ * Values are kept in a hierarchy of compactors. An item stored at level
+ * <code>h</code> stands for <code>2^h</code> values of the stream. When the
+ * sketch grows beyond its capacity, the first full compactor is sorted and
+ * every other item is promoted to the level above. The parameter
+ * <code>k</code> controls the accuracy: the normalized rank error is roughly
+ * <code>1.65 / k</code> (about 1% for the default of 200), and the memory is
+ * <code>O(k)</code> no matter how many values are added.
+ * </p>
+ *
+ * <p>
+ * The choice of the surviving half is driven by a deterministic coin, so two
+ * runs over the same input produce the same thresholds.
+ * </p>
+ */
+public class KLLSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 2;
+
+    /**
+     * Smallest accepted value of <code>k</code>
+     */
+    public static final int MIN_K = MIN_CAPACITY * 4;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+
+    private final List<double[]> levels;
+
+    private int[] sizes;
+
+    private long n;
+
+    private double min;
+
+    private double max;
+
+    private boolean coin;
+
+    public KLLSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KLLSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("KLL accuracy parameter must be at least " + MIN_K);
+        }
+        this.k = k;
+        this.levels = new ArrayList<>();
+        this.sizes = new int[0];
+        this.n = 0;
+        this.min = Double.NaN;
+        this.max = Double.NaN;
+        this.addLevel();
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public long getN() {
+        return n;
+    }
+
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (n == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        n++;
+        this.append(0, value);
+        this.compressIfNeeded();
+    }
+
+    /**
+     * Adds all values represented by other to this sketch. The other sketch is not modified
+     */
+    public void merge(KLLSketch other) {
+        if (other.n == 0) {
+            return;
+        }
+        if (this.n == 0) {
+            this.min = other.min;
+            this.max = other.max;
+        } else {
+            this.min = Math.min(this.min, other.min);
+            this.max = Math.max(this.max, other.max);
+        }
+        this.n += other.n;
+
+        for (int level = 0; level < other.levels.size(); level++) {
+            while (this.levels.size() <= level) {
+                this.addLevel();
+            }
+            double[] items = other.levels.get(level);
+            for (int i = 0; i < other.sizes[level]; i++) {
+                this.append(level, items[i]);
+            }
+        }
+        this.compressIfNeeded();
+    }
+
+    /**
+     * @param fraction value in the range [0, 1]
+     * @return the estimated value whose rank is fraction * n
+     */
+    public double getQuantile(double fraction) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (fraction <= 0) {
+            return min;
+        }
+        if (fraction >= 1) {
+            return max;
+        }
+
+        int retained = this.getRetainedItems();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        int index = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            double[] items = levels.get(level);
+            for (int i = 0; i < sizes[level]; i++) {
+                values[index] = items[i];
+                weights[index] = 1L << level;
+                order[index] = index;
+                index++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        double targetRank = fraction * totalWeight;
+        long cumulative = 0;
+        for (Integer position : order) {
+            cumulative += weights[position];
+            if (cumulative >= targetRank) {
+                return values[position];
+            }
+        }
+        return max;
+    }
+
+    public int getRetainedItems() {
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    private void addLevel() {
+        this.levels.add(new double[MIN_CAPACITY]);
+        this.sizes = Arrays.copyOf(this.sizes, this.levels.size());
+    }
+
+    private void append(int level, double value) {
+        double[] items = levels.get(level);
+        if (sizes[level] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(level, items);
+        }
+        items[sizes[level]++] = value;
+    }
+
+    private int getCapacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int getTotalCapacity() {
+        int total = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            total += getCapacity(level);
+        }
+        return total;
+    }
+
+    private void compressIfNeeded() {
+        while (this.getRetainedItems() >= this.getTotalCapacity()) {
+            this.compressFirstFullLevel();
+        }
+    }
+
+    private void compressFirstFullLevel() {
+        for (int level = 0; level < levels.size(); level++) {
+            if (sizes[level] < getCapacity(level)) {
+                continue;
+            }
+            if (level + 1 == levels.size()) {
+                this.addLevel();
+            }
+
+            double[] items = levels.get(level);
+            int size = sizes[level];
+            Arrays.sort(items, 0, size);
+
+            // an odd item stays behind so the weight of the stream is preserved
+            int start = size % 2 == 1 ? 1 : 0;
+            int offset = coin ? 1 : 0;
+            coin = !coin;
+            for (int i = start + offset; i < size; i += 2) {
+                this.append(level + 1, items[i]);
+            }
+            sizes[level] = start;
+            return;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package cmu.detector.metrics.statistics;
+
+/**
+ * Running statistics of the values computed for one metric over the whole
+ * project. Implementations decide how much memory they spend to answer
+ * percentile queries.
+ */
+public interface MetricStatistics {
+
+    /**
+     * Adds a value; NaN is not a measurement and is skipped (it is neither counted
+     * nor part of the mean, deviation or percentiles)
+     */
+    void addValue(double value);
+
+    long getN();
+
+    double getMean();
+
+    /**
+     * Sample standard deviation (bias-corrected), like commons-math
+     * @return the standard deviation, 0 for a single value and NaN when empty
+     */
+    double getStandardDeviation();
+
+    /**
+     * @param percentile value in the range (0, 100]
+     * @return an estimate of the given percentile, NaN when empty
+     */
+    double getPercentile(double percentile);
+
+    /**
+     * Folds the values of another statistics object into this one. Used to
+     * combine statistics collected by different threads or shards
+     * @param other statistics of the same kind
+     */
+    void merge(MetricStatistics other);
+}
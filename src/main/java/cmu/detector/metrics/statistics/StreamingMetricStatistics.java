@@ -0,0 +1,89 @@
+package cmu.detector.metrics.statistics;
+
+/**
+ * Bounded-memory statistics. Mean and standard deviation are exact and are
+ * updated with Welford's algorithm; percentiles are estimated with a
+ * {@link KLLSketch}. Two instances are merged with the parallel variant of
+ * Welford's update (Chan et al.), so shards can be combined in O(k).
+ */
+public class StreamingMetricStatistics implements MetricStatistics {
+
+    private long n;
+
+    private double mean;
+
+    /**
+     * Sum of squared differences from the current mean
+     */
+    private double m2;
+
+    private final KLLSketch sketch;
+
+    public StreamingMetricStatistics() {
+        this(KLLSketch.DEFAULT_K);
+    }
+
+    public StreamingMetricStatistics(int sketchAccuracy) {
+        this.sketch = new KLLSketch(sketchAccuracy);
+    }
+
+    @Override
+    public void addValue(double value) {
+        // the sketch skips NaN as well, so n stays the count of both sides
+        if (Double.isNaN(value)) {
+            return;
+        }
+        n++;
+        double delta = value - mean;
+        mean += delta / n;
+        m2 += delta * (value - mean);
+        sketch.update(value);
+    }
+
+    @Override
+    public long getN() {
+        return n;
+    }
+
+    @Override
+    public double getMean() {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        return mean;
+    }
+
+    @Override
+    public double getStandardDeviation() {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return 0.0;
+        }
+        return Math.sqrt(m2 / (n - 1));
+    }
+
+    @Override
+    public double getPercentile(double percentile) {
+        return sketch.getQuantile(percentile / 100.0);
+    }
+
+    @Override
+    public void merge(MetricStatistics other) {
+        if (!(other instanceof StreamingMetricStatistics)) {
+            throw new IllegalArgumentException("Cannot merge streaming statistics with " + other.getClass().getSimpleName());
+        }
+        StreamingMetricStatistics streaming = (StreamingMetricStatistics) other;
+        if (streaming.n == 0) {
+            return;
+        }
+
+        long total = this.n + streaming.n;
+        double delta = streaming.mean - this.mean;
+        this.mean += delta * streaming.n / total;
+        this.m2 += streaming.m2 + delta * delta * ((double) this.n * streaming.n / total);
+        this.n = total;
+        this.sketch.merge(streaming.sketch);
+    }
+}
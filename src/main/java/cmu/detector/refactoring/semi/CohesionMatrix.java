@@ -1,5 +1,6 @@
 package cmu.detector.refactoring.semi;
 
+import cmu.detector.ast.NameResolver;
 import org.eclipse.jdt.core.dom.*;
 import java.util.*;
 
@@ -10,7 +11,7 @@ public class CohesionMatrix {
     
     private List<Statement> statements;
     private CompilationUnit compilationUnit;
-    private Map<Statement, Set<IVariableBinding>> statementVariables;
+    private Map<Statement, Set<String>> statementVariables;
     private Map<Statement, Set<MethodCallInfo>> statementMethodCalls;
     private boolean[][] cohesionMatrix;
     
@@ -88,12 +89,12 @@ public class CohesionMatrix {
      * Check if statements share variables
      */
     private boolean shareVariables(Statement s1, Statement s2) {
-        Set<IVariableBinding> vars1 = statementVariables.get(s1);
-        Set<IVariableBinding> vars2 = statementVariables.get(s2);
+        Set<String> vars1 = statementVariables.get(s1);
+        Set<String> vars2 = statementVariables.get(s2);
         
         if (vars1 == null || vars2 == null) return false;
         
-        for (IVariableBinding var : vars1) {
+        for (String var : vars1) {
             if (vars2.contains(var)) {
                 return true;
             }
@@ -153,14 +154,14 @@ public class CohesionMatrix {
      * Helper class to extract variables and method calls from a statement
      */
     private static class StatementInfoExtractor extends ASTVisitor {
-        private Set<IVariableBinding> variables = new HashSet<>();
+        private Set<String> variables = new HashSet<>();
         private Set<MethodCallInfo> methodCalls = new HashSet<>();
         
         @Override
         public boolean visit(SimpleName node) {
-            IBinding binding = node.resolveBinding();
-            if (binding instanceof IVariableBinding) {
-                variables.add((IVariableBinding) binding);
+            String key = NameResolver.getVariableKey(node);
+            if (key != null) {
+                variables.add(key);
             }
             return true;
         }
@@ -171,7 +172,7 @@ public class CohesionMatrix {
             return true;
         }
         
-        public Set<IVariableBinding> getVariables() {
+        public Set<String> getVariables() {
             return variables;
         }
         
@@ -1,5 +1,6 @@
 package cmu.detector.refactoring.semi;
 
+import cmu.detector.ast.LineIndex;
 import org.eclipse.jdt.core.dom.*;
 import java.util.*;
 
@@ -13,6 +14,8 @@ public class ExtractOpportunity {
     private double benefit;
     private List<VariableInfo> parameters;
     private ITypeBinding returnType;
+    private int startLine;
+    private int endLine;
     
     public ExtractOpportunity(StatementCluster cluster, MethodDeclaration method, 
                              CompilationUnit cu) {
@@ -20,6 +23,13 @@ public class ExtractOpportunity {
         this.originalMethod = method;
         this.compilationUnit = cu;
         this.benefit = 0.0;
+
+        // grouping and deduplication query the lines many times, so they are resolved once
+        LineIndex lineIndex = LineIndex.of(cu);
+        List<Statement> statements = cluster.getStatements();
+        Statement last = statements.get(statements.size() - 1);
+        this.startLine = lineIndex.getLineNumber(statements.get(0).getStartPosition());
+        this.endLine = lineIndex.getLineNumber(last.getStartPosition() + last.getLength());
     }
     
     /**
@@ -70,16 +80,11 @@ public class ExtractOpportunity {
     }
     
     public int getStartLine() {
-        return compilationUnit.getLineNumber(
-            cluster.getStatements().get(0).getStartPosition()
-        );
+        return startLine;
     }
     
     public int getEndLine() {
-        Statement last = cluster.getStatements().get(cluster.getStatements().size() - 1);
-        return compilationUnit.getLineNumber(
-            last.getStartPosition() + last.getLength()
-        );
+        return endLine;
     }
     
     public int getStatementCount() {
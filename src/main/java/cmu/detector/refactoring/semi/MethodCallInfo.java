@@ -1,17 +1,31 @@
 package cmu.detector.refactoring.semi;
 
+import cmu.detector.ast.NameResolver;
 import org.eclipse.jdt.core.dom.*;
 
 /**
- * Information about a method call
+ * Information about a method call. Receivers and their types are identified by
+ * binding keys; without bindings, the receiver is identified by its name and
+ * its type is unknown
  */
 public class MethodCallInfo {
-    private IMethodBinding methodBinding;
-    private IVariableBinding receiverBinding;
-    private ITypeBinding receiverType;
+    private String methodName;
+    private String receiverKey;
+    private String receiverTypeKey;
     
     public MethodCallInfo(MethodInvocation invocation) {
-        this.methodBinding = invocation.resolveMethodBinding();
+        if (!NameResolver.hasBindings(invocation)) {
+            this.methodName = invocation.getName().getIdentifier();
+            if (invocation.getExpression() instanceof SimpleName) {
+                this.receiverKey = NameResolver.getVariableKey((SimpleName) invocation.getExpression());
+            }
+            return;
+        }
+
+        IMethodBinding methodBinding = invocation.resolveMethodBinding();
+        if (methodBinding != null) {
+            this.methodName = methodBinding.getName();
+        }
         
         Expression expr = invocation.getExpression();
         if (expr != null) {
@@ -19,24 +33,28 @@ public class MethodCallInfo {
                 SimpleName name = (SimpleName) expr;
                 IBinding binding = name.resolveBinding();
                 if (binding instanceof IVariableBinding) {
-                    this.receiverBinding = (IVariableBinding) binding;
-                    this.receiverType = receiverBinding.getType();
+                    IVariableBinding receiverBinding = (IVariableBinding) binding;
+                    this.receiverKey = receiverBinding.getKey();
+                    this.receiverTypeKey = getKey(receiverBinding.getType());
                 }
             } else {
-                ITypeBinding type = expr.resolveTypeBinding();
-                this.receiverType = type;
+                this.receiverTypeKey = getKey(expr.resolveTypeBinding());
             }
         }
     }
+
+    private static String getKey(ITypeBinding type) {
+        return type == null ? null : type.getKey();
+    }
     
     /**
      * Check if two calls have the same receiver object
      */
     public boolean isSameReceiver(MethodCallInfo other) {
-        if (this.receiverBinding == null || other.receiverBinding == null) {
+        if (this.receiverKey == null || other.receiverKey == null) {
             return false;
         }
-        return this.receiverBinding.isEqualTo(other.receiverBinding);
+        return this.receiverKey.equals(other.receiverKey);
     }
     
     /**
@@ -44,26 +62,26 @@ public class MethodCallInfo {
      */
     public boolean isSameMethodDifferentReceiver(MethodCallInfo other) {
         // Different receivers
-        if (this.receiverBinding != null && other.receiverBinding != null) {
-            if (this.receiverBinding.isEqualTo(other.receiverBinding)) {
+        if (this.receiverKey != null && other.receiverKey != null) {
+            if (this.receiverKey.equals(other.receiverKey)) {
                 return false;
             }
         }
         
         // Same method
-        if (this.methodBinding == null || other.methodBinding == null) {
+        if (this.methodName == null || other.methodName == null) {
             return false;
         }
         
-        if (!this.methodBinding.getName().equals(other.methodBinding.getName())) {
+        if (!this.methodName.equals(other.methodName)) {
             return false;
         }
         
         // Same receiver type
-        if (this.receiverType == null || other.receiverType == null) {
+        if (this.receiverTypeKey == null || other.receiverTypeKey == null) {
             return false;
         }
         
-        return this.receiverType.isEqualTo(other.receiverType);
+        return this.receiverTypeKey.equals(other.receiverTypeKey);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package cmu.detector.resources;
+
+import cmu.detector.graph.CallGraph;
+import cmu.detector.graph.CallGraphAnalyzer;
+import cmu.detector.graph.CallGraphMetrics;
+import cmu.detector.history.CoChangeIndex;
+import cmu.detector.resources.loader.PackageFilter;
+import cmu.detector.resources.loader.SourceFile;
+import cmu.detector.resources.loader.SourceStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Registries shared by the files of one analysis: the call graph and the type
+ * hierarchy. Each analysis creates its own context, so several analyses can run
+ * in the same JVM (e.g. in the daemon) without resetting each other's state.
+ *
+ * <p>
+ * Files are registered once they are parsed, one shard at a time: types go to the
+ * concurrent {@link ParenthoodRegistry} right away, while the methods and calls of
+ * a shard are only collected when the call graph is first needed, in a
+ * shard-local {@link CallGraph.Builder} merged in one step. Registering shards
+ * from several threads is safe.
+ * </p>
+ *
+ * <p>
+ * The context also carries the {@link PackageFilter} deciding which types of the
+ * parsed files are part of the model, and the co-changes mined from the git
+ * history when history metrics are enabled, and the {@link SourceStore} holding
+ * the contents of the parsed files.
+ * </p>
+ */
+public class AnalysisContext {
+
+    private final CallGraph callGraph;
+
+    private final CallGraphAnalyzer callGraphAnalyzer;
+
+    private final ParenthoodRegistry parenthoodRegistry;
+
+    private final PackageFilter packageFilter;
+
+    private volatile CoChangeIndex coChanges;
+
+    private final SourceStore sourceStore;
+
+    /**
+     * Shards registered but whose calls are not in the call graph yet
+     */
+    private final List<List<SourceFile>> pendingCalls;
+
+    public AnalysisContext() {
+        this(PackageFilter.ALL);
+    }
+
+    public AnalysisContext(PackageFilter packageFilter) {
+        this.callGraph = new CallGraph();
+        this.callGraphAnalyzer = new CallGraphAnalyzer(callGraph);
+        this.parenthoodRegistry = new ParenthoodRegistry();
+        this.packageFilter = packageFilter;
+        this.pendingCalls = new ArrayList<>();
+        this.sourceStore = new SourceStore();
+    }
+
+    /**
+     * Registers the types and supertypes of a shard of parsed files. Its calls are
+     * added to the call graph on the first query
+     */
+    public void register(Collection<SourceFile> sourceFiles) {
+        for (SourceFile sourceFile : sourceFiles) {
+            for (Type type : sourceFile.getTypes()) {
+                parenthoodRegistry.registerChild(type);
+            }
+        }
+        synchronized (pendingCalls) {
+            pendingCalls.add(new ArrayList<>(sourceFiles));
+        }
+    }
+
+    /**
+     * Adds the methods and calls of the pending shards to the call graph
+     */
+    private void registerPendingCalls() {
+        // held until the graph is complete: a concurrent query must not see it half-built
+        synchronized (pendingCalls) {
+            for (List<SourceFile> shard : pendingCalls) {
+                CallGraph.Builder calls = new CallGraph.Builder();
+                for (SourceFile sourceFile : shard) {
+                    for (Type type : sourceFile.getTypes()) {
+                        for (Method method : type.getMethods()) {
+                            method.registerCalls(calls);
+                        }
+                    }
+                }
+                callGraph.merge(calls);
+            }
+            pendingCalls.clear();
+        }
+    }
+
+    /**
+     * Undoes {@link #register(Collection)} for a file, before it is parsed again or
+     * dropped, and forgets its contents. Calls into its methods are kept: their keys
+     * survive a new parse
+     */
+    public void unregister(SourceFile sourceFile) {
+        sourceStore.evict(sourceFile.getFile());
+        synchronized (pendingCalls) {
+            for (List<SourceFile> shard : pendingCalls) {
+                shard.remove(sourceFile);
+            }
+        }
+        List<String> methodKeys = new ArrayList<>();
+        for (Type type : sourceFile.getTypes()) {
+            parenthoodRegistry.unregisterChild(type);
+            for (Method method : type.getMethods()) {
+                if (method.getBinding() != null) {
+                    methodKeys.add(method.getBinding().getKey());
+                }
+            }
+        }
+        callGraph.removeCalls(methodKeys);
+    }
+
+    public CallGraph getCallGraph() {
+        this.registerPendingCalls();
+        return callGraph;
+    }
+
+    /**
+     * @return the analyses of the current call graph, computed again only if it changed
+     */
+    public CallGraphMetrics getCallGraphMetrics() {
+        this.registerPendingCalls();
+        return callGraphAnalyzer.getMetrics();
+    }
+
+    public ParenthoodRegistry getParenthoodRegistry() {
+        return parenthoodRegistry;
+    }
+
+    public SourceStore getSourceStore() {
+        return sourceStore;
+    }
+
+    public PackageFilter getPackageFilter() {
+        return packageFilter;
+    }
+
+    /**
+     * @return the co-changes of the analysed repository, or null if history metrics are not computed
+     */
+    public CoChangeIndex getCoChanges() {
+        return coChanges;
+    }
+
+    public void setCoChanges(CoChangeIndex coChanges) {
+        this.coChanges = coChanges;
+    }
+}
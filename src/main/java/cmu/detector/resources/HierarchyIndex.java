@@ -0,0 +1,312 @@
+package cmu.detector.resources;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the type hierarchy, built once from what the
+ * {@link ParenthoodRegistry} recorded while loading.
+ *
+ * <p>
+ * Types (analysed ones and the library types above them) get dense int ids. The
+ * superclass tree is numbered by an iterative depth-first walk, so "is a
+ * subclass of" is an interval check on pre/post numbers. Interfaces may have
+ * several parents; the interfaces above each type are kept in a small sorted
+ * array. Depth of inheritance and number of children are precomputed.
+ * </p>
+ */
+public final class HierarchyIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> ids;
+
+    private final String[] names;
+
+    private final boolean[] interfaces;
+
+    private final int[] superclass;
+
+    /**
+     * Direct parents of each type: its superclass, then its interfaces
+     */
+    private final int[][] parents;
+
+    private final int[][] interfaceAncestors;
+
+    private final int[] pre;
+
+    private final int[] post;
+
+    private final int[] depth;
+
+    private final int[] childrenCount;
+
+    private HierarchyIndex(Map<String, Integer> ids, String[] names, boolean[] interfaces, int[] superclass,
+                           int[][] parents, boolean[] declared) {
+        this.ids = ids;
+        this.names = names;
+        this.interfaces = interfaces;
+        this.superclass = superclass;
+        this.parents = parents;
+
+        int size = names.length;
+        this.pre = new int[size];
+        this.post = new int[size];
+        this.depth = new int[size];
+        this.numberClassTree();
+
+        this.interfaceAncestors = new int[size][];
+        this.collectInterfaceAncestors();
+
+        this.childrenCount = new int[size];
+        for (int id = 0; id < size; id++) {
+            if (!declared[id]) {
+                continue;
+            }
+            for (int parent : parents[id]) {
+                childrenCount[parent]++;
+            }
+        }
+    }
+
+    /**
+     * @param records direct parents of every type seen while loading
+     * @param declared names of the analysed types; only they count as children
+     */
+    static HierarchyIndex build(Map<String, ParenthoodRegistry.Record> records, Set<String> declared) {
+        Map<String, Integer> ids = new HashMap<>();
+        Set<String> all = new LinkedHashSet<>(records.keySet());
+        for (ParenthoodRegistry.Record record : records.values()) {
+            if (record.getSuperclass() != null) {
+                all.add(record.getSuperclass());
+            }
+            all.addAll(Arrays.asList(record.getInterfaces()));
+        }
+
+        String[] names = all.toArray(new String[0]);
+        for (int id = 0; id < names.length; id++) {
+            ids.put(names[id], id);
+        }
+
+        boolean[] interfaces = new boolean[names.length];
+        int[] superclass = new int[names.length];
+        int[][] parents = new int[names.length][];
+        boolean[] isDeclared = new boolean[names.length];
+        for (int id = 0; id < names.length; id++) {
+            ParenthoodRegistry.Record record = records.get(names[id]);
+            isDeclared[id] = declared.contains(names[id]);
+            if (record == null) {
+                superclass[id] = -1;
+                parents[id] = NONE;
+                continue;
+            }
+            interfaces[id] = record.isInterface();
+            superclass[id] = record.getSuperclass() == null ? -1 : ids.get(record.getSuperclass());
+            int[] direct = new int[record.getInterfaces().length + (superclass[id] < 0 ? 0 : 1)];
+            int count = 0;
+            if (superclass[id] >= 0) {
+                direct[count++] = superclass[id];
+            }
+            for (String implemented : record.getInterfaces()) {
+                direct[count++] = ids.get(implemented);
+            }
+            parents[id] = direct;
+        }
+        return new HierarchyIndex(ids, names, interfaces, superclass, parents, isDeclared);
+    }
+
+    /**
+     * Pre/post numbers and depth over the superclass forest, without recursion. A
+     * superclass cycle (possible in broken code) is cut where the walk enters it
+     */
+    private void numberClassTree() {
+        int size = names.length;
+        int[] subclassOffsets = new int[size + 1];
+        for (int id = 0; id < size; id++) {
+            if (superclass[id] >= 0) {
+                subclassOffsets[superclass[id] + 1]++;
+            }
+        }
+        for (int id = 0; id < size; id++) {
+            subclassOffsets[id + 1] += subclassOffsets[id];
+        }
+        int[] subclasses = new int[subclassOffsets[size]];
+        int[] next = Arrays.copyOf(subclassOffsets, size);
+        for (int id = 0; id < size; id++) {
+            if (superclass[id] >= 0) {
+                subclasses[next[superclass[id]]++] = id;
+            }
+        }
+
+        Arrays.fill(pre, -1);
+        int[] stack = new int[size];
+        int[] position = new int[size];
+        int counter = 0;
+
+        // roots first, then whatever a cycle left unreached
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < size; root++) {
+                if (pre[root] >= 0 || (pass == 0 && superclass[root] >= 0)) {
+                    continue;
+                }
+                int top = 0;
+                stack[top] = root;
+                position[top] = subclassOffsets[root];
+                pre[root] = counter++;
+                depth[root] = superclass[root] < 0 ? 0 : 1;
+
+                while (top >= 0) {
+                    int id = stack[top];
+                    if (position[top] < subclassOffsets[id + 1]) {
+                        int subclass = subclasses[position[top]++];
+                        if (pre[subclass] < 0) {
+                            pre[subclass] = counter++;
+                            depth[subclass] = depth[id] + 1;
+                            top++;
+                            stack[top] = subclass;
+                            position[top] = subclassOffsets[subclass];
+                        }
+                    } else {
+                        post[id] = counter++;
+                        top--;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Interfaces above each type, through its superclasses and interfaces. Types are
+     * completed parents first with an explicit stack
+     */
+    private void collectInterfaceAncestors() {
+        int size = names.length;
+        // 0: not visited, 1: in progress, 2: done
+        byte[] state = new byte[size];
+        int[] stack = new int[size];
+
+        for (int start = 0; start < size; start++) {
+            if (state[start] != 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top] = start;
+            state[start] = 1;
+            while (top >= 0) {
+                int id = stack[top];
+                boolean pending = false;
+                for (int parent : parents[id]) {
+                    if (state[parent] == 0) {
+                        state[parent] = 1;
+                        stack[++top] = parent;
+                        pending = true;
+                        break;
+                    }
+                }
+                if (pending) {
+                    continue;
+                }
+
+                Set<Integer> ancestors = new LinkedHashSet<>();
+                for (int parent : parents[id]) {
+                    if (interfaces[parent]) {
+                        ancestors.add(parent);
+                    }
+                    // a parent still in progress is part of a cycle and contributes nothing more
+                    if (interfaceAncestors[parent] != null) {
+                        for (int ancestor : interfaceAncestors[parent]) {
+                            ancestors.add(ancestor);
+                        }
+                    }
+                }
+                ancestors.remove(id);
+                int[] sorted = ancestors.stream().mapToInt(Integer::intValue).sorted().toArray();
+                interfaceAncestors[id] = sorted;
+                state[id] = 2;
+                top--;
+            }
+        }
+    }
+
+    /**
+     * @return the id of a type, or -1 if the type is not in the hierarchy
+     */
+    public int getId(String qualifiedName) {
+        Integer id = qualifiedName == null ? null : ids.get(qualifiedName);
+        return id == null ? -1 : id;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return true if parent is the superclass or a directly implemented interface of child
+     */
+    public boolean isChild(int child, int parent) {
+        if (child < 0 || parent < 0) {
+            return false;
+        }
+        for (int direct : parents[child]) {
+            if (direct == parent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if ancestor is above type, through superclasses or interfaces
+     */
+    public boolean isDescendant(int type, int ancestor) {
+        if (type < 0 || ancestor < 0 || type == ancestor) {
+            return false;
+        }
+        if (interfaces[ancestor]) {
+            return Arrays.binarySearch(interfaceAncestors[type], ancestor) >= 0;
+        }
+        return pre[ancestor] < pre[type] && post[type] < post[ancestor];
+    }
+
+    /**
+     * @return the names of the superclasses and interfaces above a type
+     */
+    public Set<String> getAncestors(int type) {
+        if (type < 0) {
+            return Collections.emptySet();
+        }
+        Set<String> ancestors = new LinkedHashSet<>();
+        for (int current = superclass[type]; current >= 0 && current != type; current = superclass[current]) {
+            if (!ancestors.add(names[current])) {
+                break;
+            }
+        }
+        for (int ancestor : interfaceAncestors[type]) {
+            ancestors.add(names[ancestor]);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Depth of inheritance tree: number of superclasses above a type (java.lang.Object has 0)
+     */
+    public int getDepth(int type) {
+        return depth[type];
+    }
+
+    /**
+     * Number of analysed types directly extending or implementing a type
+     */
+    public int getChildrenCount(int type) {
+        return type < 0 ? 0 : childrenCount[type];
+    }
+}
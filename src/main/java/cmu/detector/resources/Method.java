@@ -1,6 +1,7 @@
 package cmu.detector.resources;
 
-import cmu.detector.ast.visitors.MethodInvocationCollector;
+import cmu.detector.ast.MethodSummary;
+import cmu.detector.ast.NameResolver;
 import cmu.detector.graph.CallGraph;
 import cmu.detector.resources.loader.SourceFile;
 import org.eclipse.jdt.core.dom.*;
@@ -19,52 +20,53 @@ public class Method extends Resource {
     }
 
     /**
-     * Every time a new method is declared, it must be
-     * registered in the call Graph
+     * Registers the method and the calls it makes. Called once the whole shard of
+     * files is parsed, with a builder local to the shard
      */
-    private void registerOnCallGraph(MethodDeclaration node) {
-        CallGraph graph = CallGraph.getInstance();
+    public void registerCalls(CallGraph.Builder graph) {
         IMethodBinding thisBinding = this.getBinding();
         if (thisBinding == null) {
             //TODO LOG!
             return;
         }
+        graph.addMethod(thisBinding.getKey(), NameResolver.getQualifiedName(thisBinding.getDeclaringClass()));
 
-        /*
-         * Retrieves the list of method calls made by the new
-         * declared method
-         */
-        MethodInvocationCollector invocationVisitor = new MethodInvocationCollector();
-        node.accept(invocationVisitor);
+        // calls made by the method, collected when the model was built
+        MethodSummary summary = MethodSummary.of((MethodDeclaration) this.getNode());
 
-        for (IMethodBinding methodBinding : invocationVisitor.getCalls()) {
-            if (!(methodBinding.getDeclaringClass().getQualifiedName().startsWith("java"))){
-                graph.addMethodCall(thisBinding, methodBinding);
-            }
+        // calls into libraries were already left out of the summary
+        for (IMethodBinding methodBinding : summary.getInvocations()) {
+            graph.addMethodCall(thisBinding, methodBinding);
         }
 
     }
 
     public Method(SourceFile sourceFile, MethodDeclaration node) {
         super(sourceFile, node);
-        this.registerOnCallGraph(node);
-
-        this.parametersTypes = new ArrayList<>();
-        for(Object obj : node.parameters()) {
-            SingleVariableDeclaration declaration = (SingleVariableDeclaration)obj;
-            declaration.getName();
-            parametersTypes.add(declaration.getType().toString());
-        }
 
         IBinding binding = node.resolveBinding();
         if (binding != null) {
             IMethodBinding methodBinding = (IMethodBinding)binding;
             String classFqn = methodBinding.getDeclaringClass().getQualifiedName();
             setFullyQualifiedName(classFqn + "." + node.getName());
+        } else if (isApproximate() && node.getParent() instanceof AbstractTypeDeclaration) {
+            String classFqn = NameResolver.getQualifiedName((AbstractTypeDeclaration) node.getParent());
+            setFullyQualifiedName(classFqn + "." + node.getName());
         }
     }
 
-    public List<String> getParametersTypes() {
+    /**
+     * Declared types of the parameters, as written in the source. Computed on the first call
+     */
+    public synchronized List<String> getParametersTypes() {
+        if (this.parametersTypes == null) {
+            List<String> types = new ArrayList<>();
+            for (Object obj : ((MethodDeclaration) this.getNode()).parameters()) {
+                SingleVariableDeclaration declaration = (SingleVariableDeclaration) obj;
+                types.add(declaration.getType().toString());
+            }
+            this.parametersTypes = types;
+        }
         return parametersTypes;
     }
 
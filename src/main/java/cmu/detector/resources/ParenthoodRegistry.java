@@ -1,178 +1,197 @@
 package cmu.detector.resources;
 
+import cmu.detector.ast.NameResolver;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the supertypes of every loaded type and answers hierarchy queries
+ * through a {@link HierarchyIndex}. The index is built on the first query after
+ * types were registered, i.e. once loading is over, and reused until the next
+ * registration.
+ *
+ * <p>
+ * A registry belongs to one analysis. Records are kept in concurrent maps, so
+ * shards can register their types in parallel; every change bumps a version, and
+ * an index built from an older version is never returned.
+ * </p>
+ */
 public class ParenthoodRegistry {
 
-    private static ParenthoodRegistry singleton;
-
-    private Map<String, Set<String>> ancestorsMap;
+    /**
+     * Direct supertypes of the analysed types and of every type above them
+     */
+    private final Map<String, Record> records;
 
     /**
-     * A set of children that a given type (identified by its FQN) has
+     * Names of the analysed types, the only ones counted as children
      */
-    private Map<String, Set<String>> parenthoodMap;
+    private final Set<String> declared;
 
-    static {
-        singleton = new ParenthoodRegistry();
-    }
+    private final AtomicLong version;
 
-    private ParenthoodRegistry() {
-        this.parenthoodMap = new HashMap<>();
-        this.ancestorsMap = new HashMap<>();
-    }
+    private volatile VersionedIndex index;
 
-    public static ParenthoodRegistry getInstance() {
-        return singleton;
+    public ParenthoodRegistry() {
+        this.records = new ConcurrentHashMap<>();
+        this.declared = ConcurrentHashMap.newKeySet();
+        this.version = new AtomicLong();
     }
 
-    private String getQualifiedName(ITypeBinding typeBinding) {
-        String fqn = typeBinding.getQualifiedName();
-        if (fqn.contains("<")) {
-            fqn = fqn.substring(0, fqn.indexOf("<"));
+    /**
+     * Get the type parent and register its new child
+     * @param child the child
+     */
+    public void registerChild(Type child) {
+        ITypeBinding childBinding = child.getBinding();
+        if (childBinding == null) {
+            return;
         }
-        return fqn;
-    }
 
-    public boolean isChild(Type child, Type parent) {
-        String childFqn = this.getQualifiedName(child.getBinding());
-        return this.getChildren(parent).contains(childFqn);
+        // the type itself is always recorded again: its supertypes may have changed
+        Deque<ITypeBinding> pending = new ArrayDeque<>();
+        pending.push(childBinding);
+        boolean first = true;
+        while (!pending.isEmpty()) {
+            ITypeBinding current = pending.pop().getErasure();
+            String name = NameResolver.getQualifiedName(current);
+            if (!first && this.records.containsKey(name)) {
+                continue;
+            }
+
+            ITypeBinding superclass = current.getSuperclass();
+            ITypeBinding[] interfaces = current.getInterfaces();
+            String[] interfaceNames = new String[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++) {
+                interfaceNames[i] = NameResolver.getQualifiedName(interfaces[i]);
+                pending.push(interfaces[i]);
+            }
+            if (superclass != null) {
+                pending.push(superclass);
+            }
+            Record record = new Record(superclass == null ? null : NameResolver.getQualifiedName(superclass),
+                    interfaceNames, current.isInterface());
+            if (first) {
+                this.records.put(name, record);
+                first = false;
+            } else {
+                this.records.putIfAbsent(name, record);
+            }
+        }
+
+        this.declared.add(NameResolver.getQualifiedName(childBinding));
+        this.version.incrementAndGet();
     }
 
-    public boolean isChild(ITypeBinding child, ITypeBinding parent) {
-        String childFqn = this.getQualifiedName(child);
-        return this.getChildren(parent).contains(childFqn);
+    /**
+     * Undoes {@link #registerChild(Type)}, e.g. before the type is parsed again. Its
+     * supertypes stay recorded: other types may still extend it
+     */
+    public void unregisterChild(Type child) {
+        ITypeBinding childBinding = child.getBinding();
+        if (childBinding == null) {
+            return;
+        }
+        this.declared.remove(NameResolver.getQualifiedName(childBinding));
+        this.version.incrementAndGet();
     }
 
-    private Set<String> getInterfaceAncestors(ITypeBinding type) {
-        Set<String> interfaceAncestors = new HashSet<>();
-        Queue<ITypeBinding> queue = new LinkedList<>(Arrays.asList(type));
-        Set<ITypeBinding> visited = new HashSet<>();
-        while (!queue.isEmpty()) {
-            ITypeBinding current = queue.poll();
-            visited.add(current);
-            interfaceAncestors.add(getQualifiedName(current));
-            ITypeBinding[] superInterfaces = current.getInterfaces();
-            for (ITypeBinding iInterface : superInterfaces) {
-                if (!visited.contains(iInterface)) {
-                    queue.add(iInterface);
-                }
+    /**
+     * @return the index of the registered hierarchy, built if types were registered since the last query
+     */
+    public HierarchyIndex getIndex() {
+        VersionedIndex current = this.index;
+        if (current != null && current.version == this.version.get()) {
+            return current.index;
+        }
+        synchronized (this) {
+            // read the version first: changes made while building make the index stale again
+            long expected = this.version.get();
+            current = this.index;
+            if (current == null || current.version != expected) {
+                current = new VersionedIndex(expected, HierarchyIndex.build(this.records, this.declared));
+                this.index = current;
             }
+            return current.index;
         }
-        interfaceAncestors.remove(getQualifiedName(type));
-        return interfaceAncestors;
     }
 
-    private Set<String> getClassAncestors(ITypeBinding type) {
-        Set<String> classAncestors = new HashSet<>();
-        ITypeBinding current = type;
-        while (current != null) {
-            String currentFqn = this.getQualifiedName(current);
-            classAncestors.add(currentFqn);
-            current = current.getSuperclass();
+    /**
+     * @return the id of a type in the current index, or -1 if it has no binding
+     */
+    public int getId(Type type) {
+        return this.getId(type.getBinding());
+    }
+
+    private int getId(ITypeBinding binding) {
+        if (binding == null) {
+            return -1;
         }
-        classAncestors.remove(getQualifiedName(type));
-        return classAncestors;
+        return this.getIndex().getId(NameResolver.getQualifiedName(binding));
+    }
+
+    public boolean isChild(Type child, Type parent) {
+        return this.isChild(child.getBinding(), parent.getBinding());
+    }
+
+    public boolean isChild(ITypeBinding child, ITypeBinding parent) {
+        return this.getIndex().isChild(this.getId(child), this.getId(parent));
     }
 
     public boolean isDescendant(Type type, Type ancestor) {
-        ITypeBinding ancestorBinding = ancestor.getBinding();
-        ITypeBinding typeBinding = type.getBinding();
-        if (ancestorBinding == null || typeBinding == null || typeBinding == ancestorBinding) {
-            return false;
-        }
-        Set<String> ancestors = getAncestors(type);
-        return ancestors.contains(getQualifiedName(ancestorBinding));
+        return this.getIndex().isDescendant(this.getId(type.getBinding()), this.getId(ancestor.getBinding()));
     }
 
     public Set<String> getAncestors(Type type) {
-        ITypeBinding typeBinding = type.getBinding();
-        if (typeBinding == null) {
-            return new HashSet<>();
-        }
+        return this.getIndex().getAncestors(this.getId(type.getBinding()));
+    }
 
-        String typeFqn = getQualifiedName(typeBinding);
-        if (this.ancestorsMap.containsKey(typeFqn)) {
-            return this.ancestorsMap.get(typeFqn);
-        }
-        Set<String> classAncestors = this.getClassAncestors(typeBinding);
-        Set<String> interfaceAncestors = this.getInterfaceAncestors(typeBinding);
-        classAncestors.addAll(interfaceAncestors);
-        this.ancestorsMap.put(typeFqn, classAncestors);
-        return classAncestors;
+    public Integer getChildrenCount(Type type) {
+        return this.getIndex().getChildrenCount(this.getId(type.getBinding()));
     }
 
-    private void addChild(ITypeBinding parent, ITypeBinding child) {
-        String parentFqn = this.getQualifiedName(parent);
-        Set<String> children = this.parenthoodMap.get(parentFqn);
-        if (children == null) {
-            children = new HashSet<>();
-            this.parenthoodMap.put(parentFqn, children);
-        }
+    private static final class VersionedIndex {
+
+        private final long version;
+
+        private final HierarchyIndex index;
 
-        String childFqn = this.getQualifiedName(child);
-        children.add(childFqn);
+        private VersionedIndex(long version, HierarchyIndex index) {
+            this.version = version;
+            this.index = index;
+        }
     }
 
     /**
-     * Get the type parent and register its new child
-     * @param child the child
+     * Direct supertypes of a type, by qualified name
      */
-    public void registerChild(Type child) {
-        ITypeBinding childBinding = child.getBinding();
-        if (childBinding == null) {
-            return;
-        }
+    static final class Record {
 
-        //adding child of the direct superclass
-        ITypeBinding parent = child.getSuperclassBinding();
-        if (parent !=  null) {
-            this.addChild(parent, childBinding);
-        }
+        private final String superclass;
 
-        //add child of all implementing interfaces
-        ITypeBinding[] interfaces = childBinding.getInterfaces();
-        for (ITypeBinding implementing : interfaces) {
-            this.addChild(implementing, childBinding);
-        }
-    }
+        private final String[] interfaces;
 
-    public void reset() {
-        this.parenthoodMap.clear();
-        this.ancestorsMap.clear();
-    }
+        private final boolean isInterface;
 
-    public Integer getChildrenCount(Type type) {
-        ITypeBinding binding = type.getBinding();
-        if (binding == null) {
-            return 0;
-        }
-        String fqn = this.getQualifiedName(binding);
-        Set<String> children = this.parenthoodMap.get(fqn);
-        if (children != null) {
-            return children.size();
+        Record(String superclass, String[] interfaces, boolean isInterface) {
+            this.superclass = superclass;
+            this.interfaces = interfaces;
+            this.isInterface = isInterface;
         }
-        return 0;
-    }
 
-    private Set<String> getChildren(Type type) {
-        ITypeBinding binding = type.getBinding();
-        return this.getChildren(binding);
-    }
+        String getSuperclass() {
+            return superclass;
+        }
 
-    private Set<String> getChildren(ITypeBinding binding) {
-        if (binding == null) {
-            return new HashSet<>();
+        String[] getInterfaces() {
+            return interfaces;
         }
-        String fqn = this.getQualifiedName(binding);
-        Set<String> children = this.parenthoodMap.get(fqn);
-        if (children != null) {
-            return children;
+
+        boolean isInterface() {
+            return isInterface;
         }
-        return new HashSet<>();
     }
-
 }
-
@@ -1,6 +1,9 @@
 package cmu.detector.resources;
 
+import cmu.detector.ast.LineIndex;
+import cmu.detector.ast.NameResolver;
 import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.MetricValueStore;
 import cmu.detector.resources.loader.SourceFile;
 import cmu.detector.smells.Smell;
 import cmu.detector.smells.SmellName;
@@ -14,23 +17,57 @@ public abstract class Resource {
 
     private String fullyQualifiedName;
 
-    private final Map<MetricName, Double> metricsValues;
+    private final MetricValueStore metricsValues;
 
     private final transient ASTNode node;
 
     private String kind;
 
+    /**
+     * True when the node was parsed without bindings (fast-scan mode), so names
+     * and binding-based metrics are resolved syntactically or not at all
+     */
+    private final boolean approximate;
+
+    private final transient int startLineNumber;
+
+    private final transient int endLineNumber;
+
     private final List<Smell> smells;
 
     public Resource(SourceFile sourceFile, ASTNode node) {
-        this.metricsValues = new HashMap<>();
+        this.metricsValues = new MetricValueStore();
         this.sourceFile = sourceFile;
         this.node = node;
         this.smells = new ArrayList<>();
+        this.approximate = !NameResolver.hasBindings(node);
+
+        // resolved once, so line queries do not need the AST anymore
+        LineIndex lineIndex = getLineIndex(sourceFile, node);
+        if (lineIndex != null) {
+            this.startLineNumber = lineIndex.getLineNumber(node.getStartPosition());
+            this.endLineNumber = lineIndex.getLineNumber(node.getStartPosition() + node.getLength());
+        } else {
+            // no compilation unit to count lines in, like CompilationUnit.getLineNumber for unknown positions
+            this.startLineNumber = -1;
+            this.endLineNumber = -1;
+        }
 
         identifyKind();
     }
 
+    /**
+     * @return the line index of the source file, or of the unit holding the node when
+     * the resource has no source file, or null if the node is not part of a unit
+     */
+    private static LineIndex getLineIndex(SourceFile sourceFile, ASTNode node) {
+        if (sourceFile != null) {
+            return sourceFile.getLineIndex();
+        }
+        ASTNode root = node.getRoot();
+        return root instanceof CompilationUnit ? LineIndex.of((CompilationUnit) root) : null;
+    }
+
     public String getKind() {
         return kind;
     }
@@ -49,16 +86,22 @@ public abstract class Resource {
      * @return line where node starts
      */
     public int getStartLineNumber() {
-        CompilationUnit compUnit = sourceFile.getCompilationUnit();
-        return compUnit.getLineNumber(node.getStartPosition());
+        return startLineNumber;
     }
 
     public int getEndLineNumber() {
-        CompilationUnit compUnit = sourceFile.getCompilationUnit();
-        return compUnit.getLineNumber(node.getStartPosition() + node.getLength());
+        return endLineNumber;
     }
 
     public void addMetricValue(MetricName metricName, Double value) {
+        if (value == null) {
+            this.metricsValues.remove(metricName);
+        } else {
+            this.metricsValues.put(metricName, value);
+        }
+    }
+
+    public void addMetricValue(MetricName metricName, double value) {
         this.metricsValues.put(metricName, value);
     }
 
@@ -71,9 +114,24 @@ public abstract class Resource {
     }
 
     public Double getMetricValue(MetricName metricName) {
+        if (!this.metricsValues.contains(metricName)) {
+            return null;
+        }
         return this.metricsValues.get(metricName);
     }
 
+    public boolean hasMetricValue(MetricName metricName) {
+        return this.metricsValues.contains(metricName);
+    }
+
+    public MetricValueStore getMetricValues() {
+        return metricsValues;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
     public String getFullyQualifiedName() {
         return fullyQualifiedName;
     }
@@ -86,6 +144,18 @@ public abstract class Resource {
         this.smells.addAll(smells);
     }
 
+    public void clearSmells() {
+        this.smells.clear();
+    }
+
+    public List<Smell> getSmells() {
+        return smells;
+    }
+
+    public boolean isSmelly() {
+        return !this.smells.isEmpty();
+    }
+
     public boolean hasSmell(SmellName targetSmell) {
         for (Smell smell : this.smells) {
             if (smell.getName().equals(targetSmell)) {
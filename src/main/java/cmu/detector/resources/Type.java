@@ -1,5 +1,6 @@
 package cmu.detector.resources;
 
+import cmu.detector.ast.NameResolver;
 import cmu.detector.ast.visitors.MethodCollector;
 import cmu.detector.resources.loader.SourceFile;
 import org.eclipse.jdt.core.dom.*;
@@ -34,36 +35,51 @@ public class Type extends Resource {
     }
 
 
+    /**
+     * Method declarations found by the model pass, turned into methods on demand
+     */
+    private transient List<MethodDeclaration> methodDeclarations;
+
     public Type(SourceFile sourceFile, TypeDeclaration typeDeclaration) {
+        this(sourceFile, typeDeclaration, null);
+    }
+
+    /**
+     * @param methodDeclarations declarations of the methods of the type, or null to search for them on demand
+     */
+    public Type(SourceFile sourceFile, TypeDeclaration typeDeclaration, List<MethodDeclaration> methodDeclarations) {
         super(sourceFile, typeDeclaration);
+        this.methodDeclarations = methodDeclarations;
         this.children = new HashSet<>();
 
         IBinding binding = typeDeclaration.resolveBinding();
         if (binding != null) {
             String fqn = typeDeclaration.resolveBinding().getQualifiedName();
             setFullyQualifiedName(fqn);
+        } else if (isApproximate()) {
+            setFullyQualifiedName(NameResolver.getQualifiedName(typeDeclaration));
         }
-        this.searchForMethods();
-
-        //register itself in the ParenthoodRegistry
-        ParenthoodRegistry.getInstance().registerChild(this);
     }
 
-    private void searchForMethods() {
-        this.methods = new ArrayList<>();
-        MethodCollector visitor = new MethodCollector();
-        this.getNode().accept(visitor);
-
-        List<MethodDeclaration> methodsDeclarations = visitor.getNodesCollected();
+    private List<Method> searchForMethods() {
+        List<Method> methods = new ArrayList<>();
+        List<MethodDeclaration> methodsDeclarations = this.methodDeclarations;
+        if (methodsDeclarations == null) {
+            MethodCollector visitor = new MethodCollector();
+            this.getNode().accept(visitor);
+            methodsDeclarations = visitor.getNodesCollected();
+        }
 
         for (MethodDeclaration methodDeclaration : methodsDeclarations) {
             Method method = new Method(getSourceFile(), methodDeclaration);
-            this.methods.add(method);
+            methods.add(method);
         }
+        this.methodDeclarations = null;
+        return methods;
     }
 
     public Method findMethodByName(String name) {
-        for (Method method : this.methods) {
+        for (Method method : this.getMethods()) {
             String toBeFound = this.getFullyQualifiedName() + "." + name;
             if (method.getFullyQualifiedName().equals(toBeFound)) {
                 return method;
@@ -72,7 +88,14 @@ public class Type extends Resource {
         return null;
     }
 
-    public List<Method> getMethods() {
+    /**
+     * Methods are created on the first call, so runs that only need class-level
+     * information never build them
+     */
+    public synchronized List<Method> getMethods() {
+        if (this.methods == null) {
+            this.methods = this.searchForMethods();
+        }
         return methods;
     }
 
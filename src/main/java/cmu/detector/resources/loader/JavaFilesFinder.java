@@ -1,48 +1,362 @@
 package cmu.detector.resources.loader;
 
-import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.compiler.IScanner;
+import org.eclipse.jdt.core.compiler.ITerminalSymbols;
+import org.eclipse.jdt.core.compiler.InvalidInputException;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+/**
+ * Finds the Java files under a set of source folders. Each folder is walked in
+ * parallel (one fork/join task per directory); excluded directories are pruned
+ * before their contents are listed.
+ *
+ * <p>
+ * Patterns follow the .gitignore conventions (see {@link PathPatterns}) and are
+ * relative to each source folder. By default, the build/ and generated/
+ * directories at the root of a source folder and node_modules/ directories at
+ * any depth are excluded; a package named build or generated is still found.
+ * </p>
+ */
 public class JavaFilesFinder {
 
-	private static final String[] EXTENSIONS = {"java"};
-	
+	private static final String EXTENSION = ".java";
+
+	public static final List<String> DEFAULT_EXCLUDES = List.of("/build/", "/generated/", "node_modules/");
+
+	/**
+	 * Directory names holding test code (Maven/Gradle layouts and common variants)
+	 */
+	private static final List<String> TEST_DIRECTORIES = List.of("test", "tests", "testFixtures", "integrationTest");
+
+	/**
+	 * File names of test classes: FooTest, FooTests, FooIT, Test and TestFoo (not Testimonial)
+	 */
+	private static final List<String> TEST_FILES = List.of("*Test.java", "*Tests.java", "*IT.java", "Test.java",
+			"Test[A-Z0-9_]*.java");
+
+	/**
+	 * Packages of the test frameworks whose imports or annotations mark a file as test code
+	 */
+	private static final String[] TEST_PACKAGES = {"org.junit", "org.testng"};
+
 	private List<String> directories;
-	
+
+	private List<String> includes = new ArrayList<>();
+
+	private List<String> excludes = new ArrayList<>(DEFAULT_EXCLUDES);
+
+	private boolean ignoreTests;
+
+	private boolean respectGitignore;
+
 	public JavaFilesFinder() {
 		this.directories = new ArrayList<>();
 	}
-	
+
 	public JavaFilesFinder(String sourcePath) {
 		this.directories = Arrays.asList(sourcePath);
 	}
-	
+
 	public JavaFilesFinder(List<String> sourcePaths) {
 		this.directories = sourcePaths;
 	}
-	
+
 	public void addDir(String directory) {
 		this.directories.add(directory);
 	}
-	
+
 	public String[] getSourcePaths() {
 		String[] sourcePathsArray = new String[this.directories.size()];
 		this.directories.toArray(sourcePathsArray);
 		return sourcePathsArray;
 	}
-	
+
+	/**
+	 * Only files matching at least one of the patterns are found (all Java files if empty)
+	 */
+	public void setIncludes(List<String> includes) {
+		this.includes = new ArrayList<>(includes);
+	}
+
+	/**
+	 * Replaces the excluded patterns, including the defaults
+	 */
+	public void setExcludes(List<String> excludes) {
+		this.excludes = new ArrayList<>(excludes);
+	}
+
+	public void addExcludes(List<String> excludes) {
+		this.excludes.addAll(excludes);
+	}
+
+	/**
+	 * Skips test directories, test-named files and files importing test frameworks
+	 */
+	public void setIgnoreTests(boolean ignoreTests) {
+		this.ignoreTests = ignoreTests;
+	}
+
+	/**
+	 * Also excludes what the .gitignore files found along the walk exclude
+	 */
+	public void setRespectGitignore(boolean respectGitignore) {
+		this.respectGitignore = respectGitignore;
+	}
+
 	public List<File> findAll() {
 		List<File> files = new ArrayList<>();
 		for (String dir : this.directories) {
-			Collection<File> tempFiles = FileUtils.listFiles(new File(dir), EXTENSIONS, true);
-			files.addAll(tempFiles);
+			Path root = Paths.get(dir);
+			if (!Files.isDirectory(root)) {
+				continue;
+			}
+			Walk walk = new Walk(root);
+			files.addAll(ForkJoinPool.commonPool().invoke(new DirectoryTask(walk, root, List.of())));
 		}
+		files.sort(Comparator.comparing(File::getPath));
 		return files;
 	}
-	
+
+	/**
+	 * Tells whether a single path would be found by a walk: a directory that would be
+	 * walked or a Java file that would be selected. Used to filter file-system events
+	 * without walking the source folders again
+	 */
+	public boolean accepts(File file) {
+		Path path = file.toPath().toAbsolutePath().normalize();
+		for (String dir : this.directories) {
+			Path root = Paths.get(dir).toAbsolutePath().normalize();
+			if (!path.startsWith(root)) {
+				continue;
+			}
+			if (path.equals(root)) {
+				return true;
+			}
+
+			Walk walk = new Walk(root);
+			List<PathPatterns> gitignores = List.of();
+			Path directory = root;
+			Path parent = path.getParent();
+			if (!parent.equals(root)) {
+				for (Path name : root.relativize(parent)) {
+					gitignores = withGitignore(directory, gitignores);
+					directory = directory.resolve(name);
+					if (walk.isPruned(directory, gitignores)) {
+						return false;
+					}
+				}
+			}
+			gitignores = withGitignore(directory, gitignores);
+
+			if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+				return !walk.isPruned(path, gitignores);
+			}
+			return walk.isSelected(path, gitignores);
+		}
+		return false;
+	}
+
+	/**
+	 * Settings shared by all the tasks that walk the same source folder
+	 */
+	private final class Walk {
+
+		private final PathPatterns includePatterns;
+
+		private final PathPatterns excludePatterns;
+
+		private final PathPatterns testPatterns;
+
+		private Walk(Path root) {
+			this.includePatterns = new PathPatterns(root, includes);
+			this.excludePatterns = new PathPatterns(root, excludes);
+
+			List<String> tests = new ArrayList<>();
+			if (ignoreTests) {
+				for (String directory : TEST_DIRECTORIES) {
+					tests.add(directory + "/");
+				}
+				tests.addAll(TEST_FILES);
+			}
+			this.testPatterns = new PathPatterns(root, tests);
+		}
+
+		private boolean isPruned(Path directory, List<PathPatterns> gitignores) {
+			return excludePatterns.matches(directory, true)
+					|| testPatterns.matches(directory, true)
+					|| isIgnored(directory, true, gitignores);
+		}
+
+		private boolean isSelected(Path file, List<PathPatterns> gitignores) {
+			if (!file.getFileName().toString().endsWith(EXTENSION)) {
+				return false;
+			}
+			if (!includePatterns.isEmpty() && !includePatterns.matches(file, false)) {
+				return false;
+			}
+			if (excludePatterns.matches(file, false) || isIgnored(file, false, gitignores)) {
+				return false;
+			}
+			return !ignoreTests || !(testPatterns.matches(file, false) || importsTestFramework(file));
+		}
+	}
+
+	private static boolean isIgnored(Path path, boolean directory, List<PathPatterns> gitignores) {
+		// deeper .gitignore files override the outer ones
+		Boolean ignored = null;
+		for (PathPatterns gitignore : gitignores) {
+			Boolean match = gitignore.match(path, directory);
+			if (match != null) {
+				ignored = match;
+			}
+		}
+		return Boolean.TRUE.equals(ignored);
+	}
+
+	/**
+	 * Adds the .gitignore of a directory, if any, to the patterns in scope
+	 */
+	private List<PathPatterns> withGitignore(Path directory, List<PathPatterns> gitignores) {
+		if (!respectGitignore) {
+			return gitignores;
+		}
+		Path gitignore = directory.resolve(".gitignore");
+		if (!Files.isRegularFile(gitignore, LinkOption.NOFOLLOW_LINKS)) {
+			return gitignores;
+		}
+		try {
+			List<PathPatterns> scope = new ArrayList<>(gitignores);
+			scope.add(new PathPatterns(directory, Files.readAllLines(gitignore, StandardCharsets.UTF_8)));
+			return scope;
+		} catch (IOException exception) {
+			return gitignores;
+		}
+	}
+
+	/**
+	 * Tells whether the file imports a test framework or uses its annotations. The file is
+	 * only tokenized, not parsed, so the walk stays cheap; markers in comments or strings
+	 * are not tokens and do not count. It is read directly, leaving the {@link SourceStore}
+	 * to the files actually analysed
+	 */
+	private static boolean importsTestFramework(Path file) {
+		char[] source;
+		try {
+			source = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).toCharArray();
+		} catch (IOException exception) {
+			return false;
+		}
+		IScanner scanner = ToolFactory.createScanner(false, false, false, JavaCore.latestSupportedJavaVersion());
+		scanner.setSource(source);
+
+		try {
+			int token = scanner.getNextToken();
+			while (token != ITerminalSymbols.TokenNameEOF) {
+				if (token != ITerminalSymbols.TokenNameimport && token != ITerminalSymbols.TokenNameAT) {
+					token = scanner.getNextToken();
+					continue;
+				}
+				boolean annotation = token == ITerminalSymbols.TokenNameAT;
+				token = scanner.getNextToken();
+				if (token == ITerminalSymbols.TokenNamestatic) {
+					token = scanner.getNextToken();
+				}
+				// the dotted name; the token after it is handled by the next iteration
+				StringBuilder name = new StringBuilder();
+				while (token == ITerminalSymbols.TokenNameIdentifier) {
+					name.append(scanner.getCurrentTokenSource());
+					token = scanner.getNextToken();
+					if (token != ITerminalSymbols.TokenNameDOT) {
+						break;
+					}
+					name.append('.');
+					token = scanner.getNextToken();
+				}
+				if ((annotation && name.toString().equals("Test")) || isTestFrameworkName(name.toString())) {
+					return true;
+				}
+			}
+		} catch (InvalidInputException exception) {
+			// not valid Java: the parser reports it later, the file is not taken for a test
+		}
+		return false;
+	}
+
+	private static boolean isTestFrameworkName(String name) {
+		for (String testPackage : TEST_PACKAGES) {
+			if (name.equals(testPackage) || name.startsWith(testPackage + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private final class DirectoryTask extends RecursiveTask<List<File>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Walk walk;
+
+		private final Path directory;
+
+		private final List<PathPatterns> gitignores;
+
+		private DirectoryTask(Walk walk, Path directory, List<PathPatterns> gitignores) {
+			this.walk = walk;
+			this.directory = directory;
+			this.gitignores = gitignores;
+		}
+
+		@Override
+		protected List<File> compute() {
+			List<PathPatterns> scope = withGitignore(directory, gitignores);
+			List<File> files = new ArrayList<>();
+			List<DirectoryTask> subtasks = new ArrayList<>();
+
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+				for (Path entry : entries) {
+					// linked directories are not followed, so the walk cannot loop
+					BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class,
+							LinkOption.NOFOLLOW_LINKS);
+					boolean regularFile = attributes.isRegularFile()
+							|| (attributes.isSymbolicLink() && Files.isRegularFile(entry));
+					if (attributes.isDirectory()) {
+						if (!walk.isPruned(entry, scope)) {
+							DirectoryTask subtask = new DirectoryTask(walk, entry, scope);
+							subtask.fork();
+							subtasks.add(subtask);
+						}
+					} else if (regularFile && walk.isSelected(entry, scope)) {
+						files.add(entry.toFile());
+					}
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+
+			for (DirectoryTask subtask : subtasks) {
+				files.addAll(subtask.join());
+			}
+			return files;
+		}
+	}
+
 }
@@ -0,0 +1,53 @@
+package cmu.detector.resources.loader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Packages and types a run is focused on. Files are still parsed as a whole, so
+ * bindings resolve across the project, but only the types accepted here are
+ * turned into model types, measured and reported.
+ *
+ * <p>
+ * An entry accepts the type or package of that name and everything below it:
+ * {@code com.acme} accepts {@code com.acme.Foo} and {@code com.acme.util.Bar},
+ * {@code com.acme.Foo} accepts {@code com.acme.Foo} and its member types. A
+ * trailing {@code .*} is ignored.
+ * </p>
+ */
+public final class PackageFilter {
+
+	public static final PackageFilter ALL = new PackageFilter(List.of());
+
+	private final List<String> prefixes;
+
+	public PackageFilter(Collection<String> entries) {
+		this.prefixes = new ArrayList<>();
+		for (String entry : entries) {
+			String prefix = entry.trim();
+			if (prefix.endsWith(".*")) {
+				prefix = prefix.substring(0, prefix.length() - 2);
+			}
+			if (!prefix.isEmpty()) {
+				this.prefixes.add(prefix);
+			}
+		}
+	}
+
+	/**
+	 * @param qualifiedName qualified name of a type, e.g. {@code com.acme.Foo.Inner}
+	 */
+	public boolean accepts(String qualifiedName) {
+		if (prefixes.isEmpty()) {
+			return true;
+		}
+		for (String prefix : prefixes) {
+			if (qualifiedName.startsWith(prefix) && (qualifiedName.length() == prefix.length()
+					|| qualifiedName.charAt(prefix.length()) == '.')) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,127 @@
+package cmu.detector.resources.loader;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered list of glob patterns matched against paths relative to a base
+ * directory, following the .gitignore conventions:
+ * <ul>
+ *   <li>a pattern without a slash matches a name at any depth ({@code build}, {@code *Test.java})</li>
+ *   <li>a pattern with a slash is anchored at the base ({@code /out}, {@code src/gen/**})</li>
+ *   <li>a trailing slash matches directories only ({@code node_modules/})</li>
+ *   <li>a leading {@code !} re-includes what an earlier pattern matched; the last matching pattern wins</li>
+ * </ul>
+ * A matching directory stands for its whole subtree: finders prune it instead of walking it.
+ */
+class PathPatterns {
+
+    private static final FileSystem FILE_SYSTEM = FileSystems.getDefault();
+
+    private final Path base;
+
+    private final List<Pattern> patterns;
+
+    PathPatterns(Path base, List<String> patterns) {
+        this.base = base;
+        this.patterns = new ArrayList<>();
+        for (String pattern : patterns) {
+            Pattern compiled = compile(pattern);
+            if (compiled != null) {
+                this.patterns.add(compiled);
+            }
+        }
+    }
+
+    private static Pattern compile(String pattern) {
+        String glob = pattern.trim();
+        if (glob.isEmpty() || glob.startsWith("#")) {
+            return null;
+        }
+
+        boolean negated = glob.startsWith("!");
+        if (negated) {
+            glob = glob.substring(1);
+        }
+        boolean directoryOnly = glob.endsWith("/");
+        if (directoryOnly) {
+            glob = glob.substring(0, glob.length() - 1);
+        }
+        boolean anchored = glob.startsWith("/") || glob.contains("/");
+        if (glob.startsWith("/")) {
+            glob = glob.substring(1);
+        }
+        if (glob.isEmpty()) {
+            return null;
+        }
+
+        PathMatcher matcher = FILE_SYSTEM.getPathMatcher("glob:" + glob);
+        return new Pattern(matcher, negated, directoryOnly, anchored);
+    }
+
+    Path getBase() {
+        return base;
+    }
+
+    boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * @return Boolean.TRUE if the last matching pattern selects the path, Boolean.FALSE if it
+     * is a negated pattern, or null if no pattern matches
+     */
+    Boolean match(Path path, boolean directory) {
+        if (!path.startsWith(base)) {
+            return null;
+        }
+        Path relative = base.relativize(path);
+        if (relative.getNameCount() == 0 || relative.toString().isEmpty()) {
+            return null;
+        }
+
+        Boolean result = null;
+        for (Pattern pattern : patterns) {
+            if (pattern.matches(relative, directory)) {
+                result = !pattern.negated;
+            }
+        }
+        return result;
+    }
+
+    boolean matches(Path path, boolean directory) {
+        return Boolean.TRUE.equals(match(path, directory));
+    }
+
+    private static final class Pattern {
+
+        private final PathMatcher matcher;
+
+        private final boolean negated;
+
+        private final boolean directoryOnly;
+
+        private final boolean anchored;
+
+        private Pattern(PathMatcher matcher, boolean negated, boolean directoryOnly, boolean anchored) {
+            this.matcher = matcher;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+        }
+
+        private boolean matches(Path relative, boolean directory) {
+            if (directoryOnly && !directory) {
+                return false;
+            }
+            if (anchored) {
+                return matcher.matches(relative);
+            }
+            return matcher.matches(relative.getFileName());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package cmu.detector.resources.loader;
+
+import java.io.File;
+
+/**
+ * Decoded contents of a source file, as loaded by the {@link SourceStore}. The
+ * character array is shared and must not be modified
+ */
+public final class SourceContent {
+
+    private final File file;
+
+    private final char[] contents;
+
+    private final String hash;
+
+    private final long size;
+
+    private final long lastModified;
+
+    SourceContent(File file, char[] contents, String hash, long size, long lastModified) {
+        this.file = file;
+        this.contents = contents;
+        this.hash = hash;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public char[] getContents() {
+        return contents;
+    }
+
+    /**
+     * @return SHA-256 of the file bytes, in hexadecimal
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
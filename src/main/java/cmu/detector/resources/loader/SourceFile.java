@@ -1,15 +1,17 @@
 package cmu.detector.resources.loader;
 
-import cmu.detector.ast.visitors.TypeDeclarationCollector;
+import cmu.detector.ast.CodeLineMap;
+import cmu.detector.ast.LineIndex;
+import cmu.detector.ast.visitors.ModelBuilderVisitor;
+import cmu.detector.resources.AnalysisContext;
 import cmu.detector.resources.Type;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.TypeDeclaration;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 
 public class SourceFile {
@@ -20,33 +22,56 @@ public class SourceFile {
 
     private transient CompilationUnit compilationUnit;
 
+    private transient LineIndex lineIndex;
+
+    private transient CodeLineMap codeLineMap;
+
+    private transient SourceContent content;
+
     private transient List<Type> types;
 
+    private transient AnalysisContext context;
+
     public SourceFile(File file, CompilationUnit compilationUnit) {
+        this(file, compilationUnit, null);
+    }
+
+    /**
+     * @param content contents the unit was parsed from, or null to load them on demand
+     */
+    public SourceFile(File file, CompilationUnit compilationUnit, SourceContent content) {
+        this(file, compilationUnit, content, new AnalysisContext());
+    }
+
+    /**
+     * @param context registries of the analysis the file belongs to
+     */
+    public SourceFile(File file, CompilationUnit compilationUnit, SourceContent content, AnalysisContext context) {
         this.file = file;
+        this.content = content;
+        this.context = context;
         Path cwd = FileSystems.getDefault().getPath("").toAbsolutePath();
         this.fileRelativePath = cwd.relativize(Paths.get(file.getPath())).toString();
         this.compilationUnit = compilationUnit;
+        this.lineIndex = LineIndex.of(compilationUnit);
         this.searchForTypes();
     }
 
     private void searchForTypes() {
-        this.types = new ArrayList<>();
-
-        TypeDeclarationCollector visitor = new TypeDeclarationCollector();
+        // one walk builds the types, their methods and the method summaries
+        ModelBuilderVisitor visitor = new ModelBuilderVisitor(this, this.context.getPackageFilter());
         this.compilationUnit.accept(visitor);
-        List<TypeDeclaration> typeDeclarations = visitor.getNodesCollected();
-
-        for (TypeDeclaration typeDeclaration : typeDeclarations) {
-            Type type = new Type(this, typeDeclaration);
-            this.types.add(type);
-        }
+        this.types = visitor.getTypes();
     }
 
     public List<Type> getTypes() {
         return types;
     }
 
+    public AnalysisContext getContext() {
+        return context;
+    }
+
     public File getFile() {
         return file;
     }
@@ -57,4 +82,29 @@ public class SourceFile {
         return compilationUnit;
     }
 
+    public LineIndex getLineIndex() {
+        return lineIndex;
+    }
+
+    /**
+     * Contents of the file, from the {@link SourceStore} of its context. Loaded on the first call
+     * unless the unit was parsed from them
+     */
+    public synchronized SourceContent getContent() throws IOException {
+        if (this.content == null) {
+            this.content = this.context.getSourceStore().load(this.file);
+        }
+        return content;
+    }
+
+    /**
+     * Lines holding code, computed by scanning the tokens of the file (no AST needed)
+     */
+    public synchronized CodeLineMap getCodeLineMap() throws IOException {
+        if (this.codeLineMap == null) {
+            this.codeLineMap = CodeLineMap.scan(this.getContent().getContents());
+        }
+        return codeLineMap;
+    }
+
 }
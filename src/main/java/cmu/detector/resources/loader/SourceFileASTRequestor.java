@@ -1,5 +1,6 @@
 package cmu.detector.resources.loader;
 
+import cmu.detector.resources.AnalysisContext;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
 
@@ -11,13 +12,20 @@ public class SourceFileASTRequestor extends FileASTRequestor {
 
     private List<SourceFile> sourceFiles;
 
+    private AnalysisContext context;
+
     public SourceFileASTRequestor() {
-        sourceFiles = new ArrayList<>();
+        this(new AnalysisContext());
+    }
+
+    public SourceFileASTRequestor(AnalysisContext context) {
+        this.sourceFiles = new ArrayList<>();
+        this.context = context;
     }
 
     @Override
     public void acceptAST(String sourceFilePath, CompilationUnit ast) {
-        this.sourceFiles.add(new SourceFile(new File(sourceFilePath), ast));
+        this.sourceFiles.add(new SourceFile(new File(sourceFilePath), ast, null, context));
     }
 
     public List<SourceFile> getSourceFiles() {
@@ -2,7 +2,9 @@ package cmu.detector.resources.loader;
 
 import cmu.detector.ast.ASTBuilder;
 import cmu.detector.console.ConsoleProgressMonitor;
+import cmu.detector.resources.AnalysisContext;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,45 +16,141 @@ public class SourceFilesLoader {
 
 	private List<SourceFile> sourceFiles;
 	
-	private JavaFilesFinder loader;
+	private final JavaFilesFinder loader;
+
+	private final boolean resolveBindings;
+
+	private final String[] classpath;
+
+	private final int shardSize;
+
+	private final AnalysisContext context;
 	
+	/**
+	 * Loads every file found, with bindings, into registries of its own
+	 */
 	public SourceFilesLoader(JavaFilesFinder loader) throws IOException {
-		this.loader = loader;
-		this.sourceFiles = new ArrayList<>();
+		this(loader, true);
+	}
 
-		this.load(loader.findAll());
+	/**
+	 * Loads every file found into registries of its own
+	 * @param resolveBindings false parses all files without bindings (fast-scan mode)
+	 */
+	public SourceFilesLoader(JavaFilesFinder loader, boolean resolveBindings) throws IOException {
+		this(loader, loader.findAll(), new String[0], resolveBindings, 0, new AnalysisContext());
 	}
-	
+
+	/**
+	 * Loads every file found into the registries of an analysis
+	 * @param classpath jars and class folders used to resolve bindings
+	 * @param shardSize files parsed per batch, or 0 to parse all of them in a single batch.
+	 *                  Bindings only connect units of the same batch; smaller batches bound memory
+	 * @param context registries the loaded files are added to, shard by shard
+	 */
+	public SourceFilesLoader(JavaFilesFinder loader, String[] classpath, boolean resolveBindings, int shardSize,
+			AnalysisContext context) throws IOException {
+		this(loader, loader.findAll(), classpath, resolveBindings, shardSize, context);
+	}
+
+	/**
+	 * Loads only the given files, with bindings, into registries of their own
+	 */
 	public SourceFilesLoader(JavaFilesFinder loader, List<File> files) throws IOException {
-		this.loader = loader;
-		this.sourceFiles = new ArrayList<>();
-		this.load(files);
+		this(loader, files, new String[0], true, 0, new AnalysisContext());
 	}
 	
+	/**
+	 * Loads only the given files into the registries of an existing analysis, with the
+	 * same settings as a full load
+	 */
+	public SourceFilesLoader(JavaFilesFinder loader, List<File> files, String[] classpath, boolean resolveBindings,
+			AnalysisContext context) throws IOException {
+		this(loader, files, classpath, resolveBindings, 0, context);
+	}
+
 	public SourceFilesLoader(JavaFilesFinder loader, File file) throws IOException {
+		this(loader, Arrays.asList(file));
+	}
+
+	private SourceFilesLoader(JavaFilesFinder loader, List<File> files, String[] classpath, boolean resolveBindings,
+			int shardSize, AnalysisContext context) throws IOException {
 		this.loader = loader;
 		this.sourceFiles = new ArrayList<>();
-		this.load(Arrays.asList(file));
+		this.classpath = classpath;
+		this.resolveBindings = resolveBindings;
+		this.shardSize = shardSize;
+		this.context = context;
+
+		this.load(files);
 	}
 	
 	private void load(List<File> sourceFiles) throws IOException {
-		String[] files = new String[sourceFiles.size()];
-		for (int i = 0; i < sourceFiles.size(); i++) {
-			files[i] = sourceFiles.get(i).getAbsolutePath();
+		if (!resolveBindings) {
+			this.loadFromStore(sourceFiles);
+			return;
 		}
 
 		String[] sourcePaths = loader.getSourcePaths();
-		ASTBuilder builder = new ASTBuilder(sourcePaths);
-		ASTParser parser = builder.create();
+		ASTBuilder builder = new ASTBuilder(sourcePaths, classpath, resolveBindings);
+		if (!builder.getEnvironment().getMissingEntries().isEmpty()) {
+			System.out.println("Ignoring missing entries: " + builder.getEnvironment().getMissingEntries());
+		}
+		SourceFileASTRequestor requestor = new SourceFileASTRequestor(context);
+
+		int batchSize = shardSize > 0 ? shardSize : Math.max(sourceFiles.size(), 1);
+		for (int start = 0; start < sourceFiles.size(); start += batchSize) {
+			List<File> shard = sourceFiles.subList(start, Math.min(start + batchSize, sourceFiles.size()));
+			String[] files = new String[shard.size()];
+			for (int i = 0; i < shard.size(); i++) {
+				files[i] = shard.get(i).getAbsolutePath();
+			}
 
-		SourceFileASTRequestor requestor = new SourceFileASTRequestor();
-		parser.createASTs(files, null, new String[0], requestor, new ConsoleProgressMonitor());
+			// every shard shares the builder, so the resolved environment is computed once
+			ASTParser parser = builder.create();
+			int loaded = requestor.getSourceFiles().size();
+			parser.createASTs(files, null, new String[0], requestor, new ConsoleProgressMonitor());
+
+			// bindings of a shard are only walked while its environment is current
+			List<SourceFile> parsed = requestor.getSourceFiles();
+			context.register(parsed.subList(loaded, parsed.size()));
+		}
 
 		this.sourceFiles = requestor.getSourceFiles();
 	}
 	
+	/**
+	 * Without bindings, units do not depend on each other: each one is parsed on its own
+	 * from the contents kept by the {@link SourceStore} of the context, which also feed the LOC scanner
+	 */
+	private void loadFromStore(List<File> sourceFiles) throws IOException {
+		ASTBuilder builder = new ASTBuilder(loader.getSourcePaths(), classpath, false);
+		SourceStore store = context.getSourceStore();
+		ConsoleProgressMonitor monitor = new ConsoleProgressMonitor();
+
+		monitor.beginTask("Parsing", sourceFiles.size());
+		for (File sourceFile : sourceFiles) {
+			File file = sourceFile.getAbsoluteFile();
+			SourceContent content = store.load(file);
+
+			ASTParser parser = builder.create();
+			parser.setUnitName(file.getName());
+			parser.setSource(content.getContents());
+			CompilationUnit compilationUnit = (CompilationUnit) parser.createAST(null);
+
+			this.sourceFiles.add(new SourceFile(file, compilationUnit, content, context));
+			monitor.worked(1);
+		}
+		monitor.done();
+		context.register(this.sourceFiles);
+	}
+
 	public List<SourceFile> getLoadedSourceFiles() {
 		return sourceFiles;
 	}
+
+	public AnalysisContext getContext() {
+		return context;
+	}
 	
 }
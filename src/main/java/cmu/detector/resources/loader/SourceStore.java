@@ -0,0 +1,179 @@
+package cmu.detector.resources.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads source files through memory mapping and keeps their decoded contents, so a
+ * file is read at most once per change: the parser and the LOC scanner share the
+ * same buffer, and re-analysing an unchanged file (same size and modification
+ * time) does not touch the disk.
+ *
+ * <p>
+ * Contents are also addressed by their SHA-256 hash: files with identical bytes
+ * share a single buffer, and the hash identifies a version of a file when
+ * caching analysis results. Each buffer counts the stored files holding it and is
+ * dropped with the last one.
+ * </p>
+ *
+ * <p>
+ * Each {@link cmu.detector.resources.AnalysisContext} owns a store, so the contents
+ * only live as long as the analysis: a full analysis starts from an empty store, and
+ * files unregistered from the context (changed or deleted) are evicted.
+ * </p>
+ */
+public class SourceStore {
+
+    private final Map<String, SourceContent> byPath;
+
+    /**
+     * Guarded by itself: a reference count changes together with the presence of its entry
+     */
+    private final Map<String, SharedContents> byHash;
+
+    public SourceStore() {
+        this.byPath = new ConcurrentHashMap<>();
+        this.byHash = new HashMap<>();
+    }
+
+    /**
+     * Retrieves the contents of the file, reading it only if it is unknown or
+     * changed since the last read
+     */
+    public SourceContent load(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        SourceContent cached = this.byPath.get(path);
+        if (cached != null && cached.getSize() == size && cached.getLastModified() == lastModified) {
+            return cached;
+        }
+
+        SourceContent content = this.read(file, lastModified);
+        SourceContent previous = this.byPath.put(path, content);
+        if (previous != null) {
+            this.release(previous.getHash());
+        }
+        return content;
+    }
+
+    private SourceContent read(File file, long lastModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            MessageDigest digest = newDigest();
+            digest.update(buffer.duplicate());
+            String hash = toHex(digest.digest());
+
+            char[] contents = this.acquire(hash, buffer);
+            return new SourceContent(file, contents, hash, size, lastModified);
+        }
+    }
+
+    /**
+     * Takes a reference to the contents of a hash, decoding them if no stored file holds them
+     */
+    private char[] acquire(String hash, MappedByteBuffer buffer) throws IOException {
+        synchronized (this.byHash) {
+            SharedContents shared = this.byHash.get(hash);
+            if (shared != null) {
+                shared.references++;
+                return shared.contents;
+            }
+        }
+        // decoded outside the lock; another thread may have stored the same contents meanwhile
+        char[] decoded = decode(buffer);
+        synchronized (this.byHash) {
+            SharedContents shared = this.byHash.computeIfAbsent(hash, key -> new SharedContents(decoded));
+            shared.references++;
+            return shared.contents;
+        }
+    }
+
+    private void release(String hash) {
+        synchronized (this.byHash) {
+            SharedContents shared = this.byHash.get(hash);
+            if (shared != null && --shared.references == 0) {
+                this.byHash.remove(hash);
+            }
+        }
+    }
+
+    private static char[] decode(MappedByteBuffer buffer) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = decoder.decode(buffer);
+
+        // a byte order mark is not part of the source
+        if (chars.hasRemaining() && chars.get(chars.position()) == '\uFEFF') {
+            chars.position(chars.position() + 1);
+        }
+        char[] contents = new char[chars.remaining()];
+        chars.get(contents);
+        return contents;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            hex.append(Character.forDigit((value >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(value & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Forgets a file; its contents stay available by hash while another file shares them
+     */
+    public void evict(File file) {
+        SourceContent removed = this.byPath.remove(file.getAbsolutePath());
+        if (removed != null) {
+            this.release(removed.getHash());
+        }
+    }
+
+    public void reset() {
+        synchronized (this.byHash) {
+            this.byPath.clear();
+            this.byHash.clear();
+        }
+    }
+
+    private static final class SharedContents {
+
+        private final char[] contents;
+
+        /**
+         * Stored files holding the contents
+         */
+        private int references;
+
+        private SharedContents(char[] contents) {
+            this.contents = contents;
+        }
+    }
+}
@@ -12,6 +12,11 @@ public abstract class CompositeSmellDetector extends SmellDetector {
 	public CompositeSmellDetector() {
 		this.detectors = new ArrayList<>();
 	}
+
+	public CompositeSmellDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+		this.detectors = new ArrayList<>();
+	}
 	
 	public void addDetector(SmellDetector detector) {
 		this.detectors.add(detector);
@@ -1,5 +1,7 @@
 package cmu.detector.smells;
 
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
 import cmu.detector.resources.Resource;
 
 import java.util.List;
@@ -9,6 +11,37 @@ import java.util.List;
  */
 public abstract class SmellDetector {
 
+	private volatile ThresholdSnapshot thresholds;
+
+	public SmellDetector() {
+		this(null);
+	}
+
+	/**
+	 * @param thresholds aggregate values frozen after the metrics collection
+	 */
+	public SmellDetector(ThresholdSnapshot thresholds) {
+		this.thresholds = thresholds;
+	}
+
+	/**
+	 * Thresholds the detector compares metric values against. If none was given,
+	 * the current aggregate values are frozen on the first call and kept
+	 * @return thresholds used by this detector
+	 */
+	protected ThresholdSnapshot getThresholds() {
+		ThresholdSnapshot snapshot = thresholds;
+		if (snapshot == null) {
+			synchronized (this) {
+				if (thresholds == null) {
+					thresholds = ThresholdSnapshot.freeze(AggregateMetricValues.getInstance());
+				}
+				snapshot = thresholds;
+			}
+		}
+		return snapshot;
+	}
+
 	/**
 	 * Given a resource, return a list of existing smells 
 	 * @param resource to be evaluated
@@ -18,6 +51,14 @@ public abstract class SmellDetector {
 
 	protected abstract SmellName getSmellName();
 	
+	/**
+	 * @return the metric value of the resource, or NaN if it was not computed (every comparison fails)
+	 */
+	protected double getMetricValue(Resource resource, MetricName metric) {
+		Double value = resource.getMetricValue(metric);
+		return value == null ? Double.NaN : value;
+	}
+
 	protected Smell createSmell(Resource resource, String reason) {
 		Smell smell = new Smell(getSmellName(), reason);
 
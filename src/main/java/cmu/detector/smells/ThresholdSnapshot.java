@@ -0,0 +1,87 @@
+package cmu.detector.smells;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
+
+/**
+ * Immutable copy of the aggregate values that smell detection relies on.
+ *
+ * <p>
+ * It is taken once, after all metrics were collected (first pass), and handed
+ * to the detectors (second pass). Because the values are frozen, the result
+ * of the detection does not depend on the order the resources are visited,
+ * and detectors can safely run in parallel. Values are kept in primitive
+ * arrays indexed by {@link MetricName#ordinal()}; a metric without aggregate
+ * values yields NaN thresholds.
+ * </p>
+ */
+public final class ThresholdSnapshot {
+
+	private static final double VERY_HIGH_FACTOR = 1.5;
+
+	private final double[] average;
+
+	private final double[] standardDeviation;
+
+	private final double[] firstQuartile;
+
+	private ThresholdSnapshot(double[] average, double[] standardDeviation, double[] firstQuartile) {
+		this.average = average;
+		this.standardDeviation = standardDeviation;
+		this.firstQuartile = firstQuartile;
+	}
+
+	/**
+	 * Takes a snapshot of the current aggregate values
+	 * @param aggregate values collected during the first pass
+	 * @return the frozen thresholds
+	 */
+	public static ThresholdSnapshot freeze(AggregateMetricValues aggregate) {
+		int size = MetricName.values().length;
+		double[] average = new double[size];
+		double[] standardDeviation = new double[size];
+		double[] firstQuartile = new double[size];
+
+		for (MetricName metric : MetricName.values()) {
+			int index = metric.ordinal();
+			average[index] = toPrimitive(aggregate.getAverageValue(metric));
+			standardDeviation[index] = toPrimitive(aggregate.getStandardDeviation(metric));
+			firstQuartile[index] = toPrimitive(aggregate.getFirstQuartileValue(metric));
+		}
+		return new ThresholdSnapshot(average, standardDeviation, firstQuartile);
+	}
+
+	private static double toPrimitive(Double value) {
+		return value == null ? Double.NaN : value;
+	}
+
+	public boolean hasValues(MetricName metric) {
+		return !Double.isNaN(average[metric.ordinal()]);
+	}
+
+	public double getAverageValue(MetricName metric) {
+		return average[metric.ordinal()];
+	}
+
+	public double getStandardDeviation(MetricName metric) {
+		return standardDeviation[metric.ordinal()];
+	}
+
+	public double getFirstQuartileValue(MetricName metric) {
+		return firstQuartile[metric.ordinal()];
+	}
+
+	public double getLowThreshold(MetricName metric) {
+		int index = metric.ordinal();
+		return average[index] - standardDeviation[index];
+	}
+
+	public double getHighThreshold(MetricName metric) {
+		int index = metric.ordinal();
+		return average[index] + standardDeviation[index];
+	}
+
+	public double getVeryHighThreshold(MetricName metric) {
+		return getHighThreshold(metric) * VERY_HIGH_FACTOR;
+	}
+}
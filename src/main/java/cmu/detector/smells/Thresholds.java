@@ -31,6 +31,10 @@ public class Thresholds {
 	
 	public static final Double SHORT_MEMORY_CAP = 8.0;
 
+	/*
+	 * The methods below read the aggregate values live, so their result changes while
+	 * metrics are being collected. Smell detection uses a ThresholdSnapshot instead.
+	 */
 	public static Double getLowThreshold(MetricName metric) {
 		AggregateMetricValues aggregate = AggregateMetricValues.getInstance();
 		return aggregate.getAverageValue(metric) - aggregate.getStandardDeviation(metric);
@@ -0,0 +1,41 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The class declares public instance attributes instead of encapsulating them
+ */
+public class ClassDataShouldBePrivateDetector extends SmellDetector {
+
+	public ClassDataShouldBePrivateDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		double publicFields = getMetricValue(resource, MetricName.PublicFieldCount);
+
+		if (publicFields > Thresholds.NONE) {
+			String reason = String.format(Locale.ROOT, "PublicFieldCount = %.2f > %.2f",
+					publicFields, Thresholds.NONE);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.ClassDataShouldBePrivate;
+	}
+}
@@ -1,12 +1,25 @@
 package cmu.detector.smells.detectors;
 
+import cmu.detector.metrics.calculators.AggregateMetricValues;
 import cmu.detector.smells.CompositeSmellDetector;
 import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
 
 public class ClassLevelSmellDetector extends CompositeSmellDetector {
 	
+	/**
+	 * Freezes the current aggregate values once and shares them with every detector
+	 */
 	public ClassLevelSmellDetector() {
+		this(ThresholdSnapshot.freeze(AggregateMetricValues.getInstance()));
+	}
 
+	public ClassLevelSmellDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+		addDetector(new GodClassDetector(thresholds));
+		addDetector(new DataClassDetector(thresholds));
+		addDetector(new LazyClassDetector(thresholds));
+		addDetector(new ClassDataShouldBePrivateDetector(thresholds));
 	}
 
 	@Override
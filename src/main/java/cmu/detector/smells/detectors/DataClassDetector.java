@@ -0,0 +1,47 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A Data Class exposes its data, through public attributes or accessor methods,
+ * while providing little functionality of its own (WOC below one third, when computed)
+ */
+public class DataClassDetector extends SmellDetector {
+
+	public DataClassDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		double publicFields = getMetricValue(resource, MetricName.PublicFieldCount);
+		Double accessors = resource.getMetricValue(MetricName.NOAM);
+		Double weightOfClass = resource.getMetricValue(MetricName.WOC);
+
+		double exposedData = publicFields + (accessors == null ? 0.0 : accessors);
+		boolean lowFunctionality = weightOfClass == null || weightOfClass < Thresholds.ONE_THIRD;
+
+		if (exposedData > Thresholds.FEW && lowFunctionality) {
+			String reason = String.format(Locale.ROOT, "PublicFieldCount + NOAM = %.2f > %.2f",
+					exposedData, Thresholds.FEW);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.DataClass;
+	}
+}
@@ -0,0 +1,60 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.ast.visitors.ForeignDataAccessVisitor;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Feature Envy, as defined by Lanza and Marinescu: the method uses directly
+ * more than a few attributes of other classes (ATFD &gt; FEW), uses far more
+ * attributes from other classes than its own (LAA &lt; ONE_THIRD), and the
+ * foreign attributes belong to very few other classes (FDP &lt;= FEW)
+ */
+public class FeatureEnvyDetector extends SmellDetector {
+
+	public FeatureEnvyDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		if (!(resource instanceof Method)) {
+			return smells;
+		}
+
+		IMethodBinding binding = ((Method) resource).getBinding();
+		if (binding == null) {
+			return smells;
+		}
+
+		ForeignDataAccessVisitor visitor = new ForeignDataAccessVisitor(binding.getDeclaringClass());
+		resource.getNode().accept(visitor);
+
+		int atfd = visitor.getForeignAttributeCount();
+		double laa = visitor.getLocalityOfAttributeAccesses();
+		int fdp = visitor.getForeignDataProviderCount();
+
+		if (atfd > Thresholds.FEW && laa < Thresholds.ONE_THIRD && fdp <= Thresholds.FEW) {
+			String reason = String.format(Locale.ROOT, "ATFD = %d > %.2f, LAA = %.2f < %.2f and FDP = %d <= %.2f",
+					atfd, Thresholds.FEW, laa, Thresholds.ONE_THIRD, fdp, Thresholds.FEW);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.FeatureEnvy;
+	}
+}
@@ -0,0 +1,65 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.ast.visitors.ForeignDataAccessVisitor;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * God Class, as defined by Lanza and Marinescu: the class is very complex (WMC at
+ * or above the very high threshold of the project), uses directly more than a few
+ * attributes of other classes (ATFD &gt; FEW) and is non-cohesive (TCC &lt; ONE_THIRD):
+ * it centralizes the intelligence of the system
+ */
+public class GodClassDetector extends SmellDetector {
+
+	public GodClassDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		if (!(resource instanceof Type)) {
+			return smells;
+		}
+
+		double wmc = getMetricValue(resource, MetricName.WMC);
+		double tcc = getMetricValue(resource, MetricName.TCC);
+		double veryHighWmc = getThresholds().getVeryHighThreshold(MetricName.WMC);
+		if (!(wmc >= veryHighWmc && tcc < Thresholds.ONE_THIRD)) {
+			return smells;
+		}
+
+		// the accesses of all the methods of the class, measured only for complex, non-cohesive classes
+		ITypeBinding binding = ((Type) resource).getBinding();
+		if (binding == null) {
+			return smells;
+		}
+		ForeignDataAccessVisitor visitor = new ForeignDataAccessVisitor(binding);
+		resource.getNode().accept(visitor);
+		int atfd = visitor.getForeignAttributeCount();
+
+		if (atfd > Thresholds.FEW) {
+			String reason = String.format(Locale.ROOT, "WMC = %.2f >= %.2f, ATFD = %d > %.2f and TCC = %.2f < %.2f",
+					wmc, veryHighWmc, atfd, Thresholds.FEW, tcc, Thresholds.ONE_THIRD);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.GodClass;
+	}
+}
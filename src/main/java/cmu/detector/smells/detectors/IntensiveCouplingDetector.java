@@ -0,0 +1,64 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Intensive Coupling, as defined by Lanza and Marinescu: the method calls many
+ * methods of a few other classes, either more than SHORT_MEMORY_CAP methods with
+ * CDISP &lt; HALF or more than FEW methods with CDISP &lt; ONE_QUARTER, and it is
+ * not a flat method (MaxNesting &gt; SHALLOW). The nesting condition only applies
+ * when MaxNesting was computed
+ */
+public class IntensiveCouplingDetector extends SmellDetector {
+
+	public IntensiveCouplingDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		if (!(resource instanceof Method)) {
+			return smells;
+		}
+
+		double cint = getMetricValue(resource, MetricName.CINT);
+		double cdisp = getMetricValue(resource, MetricName.CDISP);
+		String reason;
+		if (cint > Thresholds.SHORT_MEMORY_CAP && cdisp < Thresholds.HALF) {
+			reason = String.format(Locale.ROOT, "CINT = %.2f > %.2f and CDISP = %.2f < %.2f",
+					cint, Thresholds.SHORT_MEMORY_CAP, cdisp, Thresholds.HALF);
+		} else if (cint > Thresholds.FEW && cdisp < Thresholds.ONE_QUARTER) {
+			reason = String.format(Locale.ROOT, "CINT = %.2f > %.2f and CDISP = %.2f < %.2f",
+					cint, Thresholds.FEW, cdisp, Thresholds.ONE_QUARTER);
+		} else {
+			return smells;
+		}
+
+		if (resource.hasMetricValue(MetricName.MaxNesting)) {
+			double nesting = getMetricValue(resource, MetricName.MaxNesting);
+			if (nesting <= Thresholds.SHALLOW) {
+				return smells;
+			}
+			reason += String.format(Locale.ROOT, " and MaxNesting = %.2f > %.2f", nesting, Thresholds.SHALLOW);
+		}
+		smells.add(createSmell(resource, reason));
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.IntensiveCoupling;
+	}
+}
@@ -0,0 +1,59 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A Lazy Class does too little to pay for itself: it declares fewer than three
+ * methods (NOM &lt; THREE) and they hold almost no logic (WMC &lt; FEW). Interfaces,
+ * nested classes (helpers of their enclosing class) and classes extending or
+ * implementing another type (small overrides are how strategies and callbacks
+ * contribute) are ignored
+ */
+public class LazyClassDetector extends SmellDetector {
+
+	public LazyClassDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		if (!(resource instanceof Type)
+				|| (resource.getKind() != null && resource.getKind().endsWith("interface"))) {
+			return smells;
+		}
+		TypeDeclaration declaration = ((Type) resource).getNodeAsTypeDeclaration();
+		if (!(declaration.getParent() instanceof CompilationUnit)
+				|| declaration.getSuperclassType() != null || !declaration.superInterfaceTypes().isEmpty()) {
+			return smells;
+		}
+
+		int methods = ((Type) resource).getMethods().size();
+		double wmc = getMetricValue(resource, MetricName.WMC);
+
+		if (methods < Thresholds.THREE && wmc < Thresholds.FEW) {
+			String reason = String.format(Locale.ROOT, "NOM = %d < %.2f and WMC = %.2f < %.2f",
+					methods, Thresholds.THREE, wmc, Thresholds.FEW);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.LazyClass;
+	}
+}
@@ -0,0 +1,41 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A Long Method has more lines of code than the high threshold (average plus one
+ * standard deviation) of the project
+ */
+public class LongMethodDetector extends SmellDetector {
+
+	public LongMethodDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		double loc = getMetricValue(resource, MetricName.MLOC);
+		double highLoc = getThresholds().getHighThreshold(MetricName.MLOC);
+
+		if (loc > highLoc) {
+			String reason = String.format(Locale.ROOT, "MLOC = %.2f > %.2f", loc, highLoc);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.LongMethod;
+	}
+}
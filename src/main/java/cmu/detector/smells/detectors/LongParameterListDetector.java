@@ -0,0 +1,43 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The method declares more parameters than a few (four)
+ */
+public class LongParameterListDetector extends SmellDetector {
+
+	public LongParameterListDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		if (!(resource instanceof Method)) {
+			return smells;
+		}
+
+		int parameters = ((Method) resource).getParametersTypes().size();
+		if (parameters > Thresholds.FEW) {
+			String reason = String.format(Locale.ROOT, "ParameterCount = %d > %.2f", parameters, Thresholds.FEW);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.LongParameterList;
+	}
+}
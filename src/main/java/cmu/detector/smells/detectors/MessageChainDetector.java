@@ -0,0 +1,41 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The method navigates through a long chain of calls (more than three in a sequence)
+ */
+public class MessageChainDetector extends SmellDetector {
+
+	public MessageChainDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		double maxCallChain = getMetricValue(resource, MetricName.MaxCallChain);
+
+		if (maxCallChain > Thresholds.THREE) {
+			String reason = String.format(Locale.ROOT, "MaxCallChain = %.2f > %.2f",
+					maxCallChain, Thresholds.THREE);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.MessageChain;
+	}
+}
@@ -1,12 +1,27 @@
 package cmu.detector.smells.detectors;
 
+import cmu.detector.metrics.calculators.AggregateMetricValues;
 import cmu.detector.smells.CompositeSmellDetector;
 import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
 
 public class MethodLevelSmellDetector extends CompositeSmellDetector {
 	
+	/**
+	 * Freezes the current aggregate values once and shares them with every detector
+	 */
 	public MethodLevelSmellDetector() {
+		this(ThresholdSnapshot.freeze(AggregateMetricValues.getInstance()));
+	}
 
+	public MethodLevelSmellDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+		addDetector(new LongMethodDetector(thresholds));
+		addDetector(new LongParameterListDetector(thresholds));
+		addDetector(new MessageChainDetector(thresholds));
+		addDetector(new FeatureEnvyDetector(thresholds));
+		addDetector(new ShotgunSurgeryDetector(thresholds));
+		addDetector(new IntensiveCouplingDetector(thresholds));
 	}
 
 	@Override
@@ -0,0 +1,49 @@
+package cmu.detector.smells.detectors;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellDetector;
+import cmu.detector.smells.SmellName;
+import cmu.detector.smells.ThresholdSnapshot;
+import cmu.detector.smells.Thresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shotgun Surgery, as defined by Lanza and Marinescu: a change to the method
+ * ripples through many methods (CM &gt; SHORT_MEMORY_CAP) spread over many
+ * classes (CC &gt; MANY). Both counts come from the callers in the call graph
+ */
+public class ShotgunSurgeryDetector extends SmellDetector {
+
+	public ShotgunSurgeryDetector(ThresholdSnapshot thresholds) {
+		super(thresholds);
+	}
+
+	@Override
+	public List<Smell> detect(Resource resource) {
+		List<Smell> smells = new ArrayList<>();
+		if (!(resource instanceof Method)) {
+			return smells;
+		}
+
+		double changingMethods = getMetricValue(resource, MetricName.ChangingMethods);
+		double changingClasses = getMetricValue(resource, MetricName.ChangingClasses);
+
+		if (changingMethods > Thresholds.SHORT_MEMORY_CAP && changingClasses > Thresholds.MANY) {
+			String reason = String.format(Locale.ROOT, "CM = %.2f > %.2f and CC = %.2f > %.2f",
+					changingMethods, Thresholds.SHORT_MEMORY_CAP, changingClasses, Thresholds.MANY);
+			smells.add(createSmell(resource, reason));
+		}
+		return smells;
+	}
+
+	@Override
+	protected SmellName getSmellName() {
+		return SmellName.ShotgunSurgery;
+	}
+}
@@ -0,0 +1,290 @@
+package cmu.detector.snapshot;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellName;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only view of a model snapshot written by {@link SnapshotWriter}. The file
+ * is memory-mapped and only its header is read when opened: every query reads the
+ * few bytes it needs, and strings are decoded on first use. Opening a snapshot
+ * therefore takes the same time whatever the size of the model.
+ *
+ * <p>
+ * Types and methods are addressed by id (their position in the snapshot); the
+ * methods of a type have consecutive ids. Views are safe to share between threads.
+ * </p>
+ */
+public final class ModelSnapshot {
+
+    private static final MetricName[] METRICS = MetricName.values();
+
+    private final ByteBuffer buffer;
+
+    private final int typeCount;
+
+    private final int methodCount;
+
+    private final int smellCount;
+
+    private final int edgeCount;
+
+    private final long stringBytes;
+
+    private final long types;
+
+    private final long methods;
+
+    private final long metrics;
+
+    private final long smells;
+
+    private final long smellIndex;
+
+    private final long calls;
+
+    /**
+     * Column of each metric, by ordinal, or -1 if the snapshot has no value for it
+     */
+    private final int[] metricColumns;
+
+    private final String[] strings;
+
+    private ModelSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < SnapshotFormat.HEADER_SIZE || buffer.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a model snapshot");
+        }
+        if (buffer.getInt(4) != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        this.typeCount = buffer.getInt(SnapshotFormat.TYPE_COUNT);
+        this.methodCount = buffer.getInt(SnapshotFormat.METHOD_COUNT);
+        this.smellCount = buffer.getInt(SnapshotFormat.SMELL_COUNT);
+        this.edgeCount = buffer.getInt(SnapshotFormat.EDGE_COUNT);
+        int stringCount = buffer.getInt(SnapshotFormat.STRING_COUNT);
+        long stringOffsets = buffer.getLong(SnapshotFormat.STRINGS);
+        this.stringBytes = stringOffsets + 4L * (stringCount + 1);
+        this.types = buffer.getLong(SnapshotFormat.TYPES);
+        this.methods = buffer.getLong(SnapshotFormat.METHODS);
+        this.metrics = buffer.getLong(SnapshotFormat.METRICS);
+        this.smells = buffer.getLong(SnapshotFormat.SMELLS);
+        this.smellIndex = buffer.getLong(SnapshotFormat.SMELL_INDEX);
+        this.calls = buffer.getLong(SnapshotFormat.CALLS);
+        this.strings = new String[stringCount];
+
+        // metrics are stored by label, so renumbering MetricName does not break old snapshots
+        this.metricColumns = new int[METRICS.length];
+        Arrays.fill(this.metricColumns, -1);
+        long metricNames = buffer.getLong(SnapshotFormat.METRIC_NAMES);
+        int metricCount = buffer.getInt(SnapshotFormat.METRIC_COUNT);
+        for (int column = 0; column < metricCount; column++) {
+            String label = this.getString(buffer.getInt((int) (metricNames + 4L * column)));
+            for (MetricName metric : METRICS) {
+                if (metric.getLabel().equals(label)) {
+                    this.metricColumns[metric.ordinal()] = column;
+                }
+            }
+        }
+    }
+
+    public static ModelSnapshot open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ModelSnapshot(buffer.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    public int getSmellCount() {
+        return smellCount;
+    }
+
+    public int getCallCount() {
+        return edgeCount;
+    }
+
+    public String getTypeName(int type) {
+        return this.getString(this.getTypeField(type, 0));
+    }
+
+    /**
+     * @return the path of the file declaring the type, relative to its source folder
+     */
+    public String getTypePath(int type) {
+        return this.getString(this.getTypeField(type, 1));
+    }
+
+    public String getTypeKind(int type) {
+        return this.getString(this.getTypeField(type, 2));
+    }
+
+    public boolean isTypeApproximate(int type) {
+        return (this.getTypeField(type, 3) & SnapshotFormat.APPROXIMATE) != 0;
+    }
+
+    /**
+     * @return the id of the first method of the type
+     */
+    public int getFirstMethod(int type) {
+        return this.getTypeField(type, 4);
+    }
+
+    /**
+     * @return the id after the last method of the type
+     */
+    public int getEndMethod(int type) {
+        return type + 1 < typeCount ? this.getFirstMethod(type + 1) : methodCount;
+    }
+
+    /**
+     * @return the value of a metric of the type, or NaN if it was not computed
+     */
+    public double getTypeMetric(int type, MetricName metric) {
+        return this.getMetric(this.checkIndex(type, typeCount), metric);
+    }
+
+    public List<Smell> getTypeSmells(int type) {
+        return this.getSmells(this.checkIndex(type, typeCount));
+    }
+
+    public String getMethodName(int method) {
+        return this.getString(this.getMethodField(method, 0));
+    }
+
+    public String getMethodKind(int method) {
+        return this.getString(this.getMethodField(method, 1));
+    }
+
+    public boolean isMethodApproximate(int method) {
+        return (this.getMethodField(method, 2) & SnapshotFormat.APPROXIMATE) != 0;
+    }
+
+    /**
+     * @return the id of the type declaring the method
+     */
+    public int getMethodType(int method) {
+        return this.getMethodField(method, 3);
+    }
+
+    /**
+     * @return the value of a metric of the method, or NaN if it was not computed
+     */
+    public double getMethodMetric(int method, MetricName metric) {
+        return this.getMetric(typeCount + this.checkIndex(method, methodCount), metric);
+    }
+
+    public List<Smell> getMethodSmells(int method) {
+        return this.getSmells(typeCount + this.checkIndex(method, methodCount));
+    }
+
+    /**
+     * @return the number of methods of the model the method calls
+     */
+    public int getCalleeCount(int method) {
+        this.checkIndex(method, methodCount);
+        return this.getInt(calls + 4L * (method + 1)) - this.getInt(calls + 4L * method);
+    }
+
+    /**
+     * @return the id of a method called by the method
+     */
+    public int getCallee(int method, int index) {
+        this.checkIndex(index, this.getCalleeCount(method));
+        long targets = calls + 4L * (methodCount + 1);
+        return this.getInt(targets + 4L * (this.getInt(calls + 4L * method) + index));
+    }
+
+    public int[] getCallees(int method) {
+        int[] callees = new int[this.getCalleeCount(method)];
+        for (int i = 0; i < callees.length; i++) {
+            callees[i] = this.getCallee(method, i);
+        }
+        return callees;
+    }
+
+    private double getMetric(int resource, MetricName metric) {
+        int column = metricColumns[metric.ordinal()];
+        if (column < 0) {
+            return Double.NaN;
+        }
+        long position = metrics + 8L * ((long) column * (typeCount + methodCount) + resource);
+        return buffer.getDouble((int) position);
+    }
+
+    private List<Smell> getSmells(int resource) {
+        int first = this.getInt(smellIndex + 4L * resource);
+        int end = this.getInt(smellIndex + 4L * (resource + 1));
+        List<Smell> result = new ArrayList<>(end - first);
+        for (int smell = first; smell < end; smell++) {
+            long record = smells + (long) SnapshotFormat.SMELL_RECORD * smell;
+            String name = this.getString(this.getInt(record + 4));
+            Smell decoded = new Smell(name == null ? null : SmellName.valueOf(name), this.getString(this.getInt(record + 8)));
+            int startingLine = this.getInt(record + 12);
+            int endingLine = this.getInt(record + 16);
+            decoded.setStartingLine(startingLine < 0 ? null : startingLine);
+            decoded.setEndingLine(endingLine < 0 ? null : endingLine);
+            result.add(decoded);
+        }
+        return result;
+    }
+
+    private int getTypeField(int type, int field) {
+        return this.getInt(types + (long) SnapshotFormat.TYPE_RECORD * this.checkIndex(type, typeCount) + 4L * field);
+    }
+
+    private int getMethodField(int method, int field) {
+        return this.getInt(methods + (long) SnapshotFormat.METHOD_RECORD * this.checkIndex(method, methodCount)
+                + 4L * field);
+    }
+
+    private String getString(int id) {
+        if (id < 0) {
+            return null;
+        }
+        String value = strings[id];
+        if (value == null) {
+            long offsets = stringBytes - 4L * (strings.length + 1);
+            int start = this.getInt(offsets + 4L * id);
+            int end = this.getInt(offsets + 4L * (id + 1));
+            byte[] bytes = new byte[end - start];
+            buffer.get((int) (stringBytes + start), bytes);
+            // strings are immutable: a race only decodes the same value twice
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    private int getInt(long position) {
+        return buffer.getInt((int) position);
+    }
+
+    private int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return index;
+    }
+}
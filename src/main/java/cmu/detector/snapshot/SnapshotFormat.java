@@ -0,0 +1,73 @@
+package cmu.detector.snapshot;
+
+/**
+ * Layout of a model snapshot file. Everything is little-endian, at fixed offsets
+ * from the section starts listed in the header, so a reader can map the file and
+ * answer queries without decoding it first.
+ *
+ * <pre>
+ * header        magic, version, counts, then the offset of each section
+ * strings       int[stringCount + 1] offsets into the UTF-8 bytes that follow
+ * types         per type: name, path, kind, flags, first method (5 ints)
+ * methods       per method: name, kind, flags, type (4 ints)
+ * metric names  int[metricCount] string ids of the metric labels
+ * metrics       per metric, a column of doubles: types, then methods (NaN: not computed)
+ * smells        per smell: resource, name, reason, starting line, ending line (5 ints)
+ * smell index   int[types + methods + 1]: first smell of each resource
+ * calls         int[methods + 1] offsets into the callee method ids that follow
+ * </pre>
+ *
+ * Strings (names, paths, kinds, smell names and reasons) are stored once and
+ * referred to by id; -1 stands for null. A resource id is a type id, or the
+ * number of types plus a method id.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x4e534453;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 128;
+
+    static final int TYPE_COUNT = 8;
+
+    static final int METHOD_COUNT = 12;
+
+    static final int STRING_COUNT = 16;
+
+    static final int METRIC_COUNT = 20;
+
+    static final int SMELL_COUNT = 24;
+
+    static final int EDGE_COUNT = 28;
+
+    /**
+     * Section offsets, one long each, in file order
+     */
+    static final int STRINGS = 32;
+
+    static final int TYPES = 40;
+
+    static final int METHODS = 48;
+
+    static final int METRIC_NAMES = 56;
+
+    static final int METRICS = 64;
+
+    static final int SMELLS = 72;
+
+    static final int SMELL_INDEX = 80;
+
+    static final int CALLS = 88;
+
+    static final int TYPE_RECORD = 20;
+
+    static final int METHOD_RECORD = 16;
+
+    static final int SMELL_RECORD = 20;
+
+    static final int APPROXIMATE = 1;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,354 @@
+package cmu.detector.snapshot;
+
+import cmu.detector.graph.CallGraph;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.AnalysisContext;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.Smell;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the analysed model as a {@link SnapshotFormat binary snapshot}: types,
+ * methods, metric values, smells and the calls between the methods of the model.
+ * Sections are streamed through a small buffer, so only the string table and the
+ * call graph offsets are held in memory while writing.
+ */
+public final class SnapshotWriter {
+
+    private static final MetricName[] METRICS = MetricName.values();
+
+    private final List<Type> types;
+
+    private final List<Method> methods;
+
+    /**
+     * Types, then methods: the order of the resource ids
+     */
+    private final List<Resource> resources;
+
+    /**
+     * Id of the first method of each type, and the number of methods at the end
+     */
+    private final int[] firstMethods;
+
+    private final Map<String, Integer> strings;
+
+    private SnapshotWriter(List<Type> types) {
+        this.types = types;
+        this.methods = new ArrayList<>();
+        this.firstMethods = new int[types.size() + 1];
+        for (int t = 0; t < types.size(); t++) {
+            this.methods.addAll(types.get(t).getMethods());
+            this.firstMethods[t + 1] = this.methods.size();
+        }
+        this.resources = new ArrayList<>(types.size() + methods.size());
+        this.resources.addAll(types);
+        this.resources.addAll(methods);
+        this.strings = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param context call graph of the analysis, or null to write no calls
+     */
+    public static void write(File file, List<Type> types, AnalysisContext context) throws IOException {
+        new SnapshotWriter(types).write(file, context);
+    }
+
+    private void write(File file, AnalysisContext context) throws IOException {
+        int[] typeNames = new int[types.size()];
+        int[] typePaths = new int[types.size()];
+        int[] typeKinds = new int[types.size()];
+        for (int t = 0; t < types.size(); t++) {
+            Type type = types.get(t);
+            typeNames[t] = this.intern(type.getFullyQualifiedName());
+            typePaths[t] = this.intern(type.getSourceFile() == null ? null : type.getSourceFile().getFileRelativePath());
+            typeKinds[t] = this.intern(type.getKind());
+        }
+        int[] methodNames = new int[methods.size()];
+        int[] methodKinds = new int[methods.size()];
+        for (int m = 0; m < methods.size(); m++) {
+            methodNames[m] = this.intern(methods.get(m).getFullyQualifiedName());
+            methodKinds[m] = this.intern(methods.get(m).getKind());
+        }
+
+        // only the metrics computed for at least one resource get a column
+        List<MetricName> metrics = new ArrayList<>();
+        for (MetricName metric : METRICS) {
+            if (this.isComputed(metric)) {
+                metrics.add(metric);
+                this.intern(metric.getLabel());
+            }
+        }
+        int smellCount = 0;
+        for (Resource resource : resources) {
+            for (Smell smell : resource.getSmells()) {
+                this.intern(smell.getName() == null ? null : smell.getName().name());
+                this.intern(smell.getReason());
+                smellCount++;
+            }
+        }
+        int[][] calls = this.getCalls(context);
+        int edgeCount = 0;
+        for (int[] callees : calls) {
+            edgeCount += callees.length;
+        }
+
+        try (Output output = new Output(file)) {
+            long[] sections = new long[8];
+            output.skip(SnapshotFormat.HEADER_SIZE);
+
+            sections[0] = output.position();
+            this.writeStrings(output);
+
+            sections[1] = output.position();
+            for (int t = 0; t < types.size(); t++) {
+                output.writeInt(typeNames[t]);
+                output.writeInt(typePaths[t]);
+                output.writeInt(typeKinds[t]);
+                output.writeInt(types.get(t).isApproximate() ? SnapshotFormat.APPROXIMATE : 0);
+                output.writeInt(firstMethods[t]);
+            }
+
+            sections[2] = output.position();
+            for (int t = 0; t < types.size(); t++) {
+                for (int m = firstMethods[t]; m < firstMethods[t + 1]; m++) {
+                    output.writeInt(methodNames[m]);
+                    output.writeInt(methodKinds[m]);
+                    output.writeInt(methods.get(m).isApproximate() ? SnapshotFormat.APPROXIMATE : 0);
+                    output.writeInt(t);
+                }
+            }
+
+            sections[3] = output.position();
+            for (MetricName metric : metrics) {
+                output.writeInt(strings.get(metric.getLabel()));
+            }
+
+            output.align(8);
+            sections[4] = output.position();
+            for (MetricName metric : metrics) {
+                for (Resource resource : resources) {
+                    output.writeDouble(resource.getMetricValues().get(metric));
+                }
+            }
+
+            sections[5] = output.position();
+            int resourceId = 0;
+            int[] smellIndex = new int[types.size() + methods.size() + 1];
+            int smellId = 0;
+            for (Resource resource : resources) {
+                smellIndex[resourceId] = smellId;
+                for (Smell smell : resource.getSmells()) {
+                    output.writeInt(resourceId);
+                    output.writeInt(this.intern(smell.getName() == null ? null : smell.getName().name()));
+                    output.writeInt(this.intern(smell.getReason()));
+                    output.writeInt(smell.getStartingLine() == null ? -1 : smell.getStartingLine());
+                    output.writeInt(smell.getEndingLine() == null ? -1 : smell.getEndingLine());
+                    smellId++;
+                }
+                resourceId++;
+            }
+            smellIndex[resourceId] = smellId;
+
+            sections[6] = output.position();
+            for (int index : smellIndex) {
+                output.writeInt(index);
+            }
+
+            sections[7] = output.position();
+            int offset = 0;
+            output.writeInt(0);
+            for (int[] callees : calls) {
+                offset += callees.length;
+                output.writeInt(offset);
+            }
+            for (int[] callees : calls) {
+                for (int callee : callees) {
+                    output.writeInt(callee);
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, SnapshotFormat.MAGIC);
+            header.putInt(4, SnapshotFormat.VERSION);
+            header.putInt(SnapshotFormat.TYPE_COUNT, types.size());
+            header.putInt(SnapshotFormat.METHOD_COUNT, methods.size());
+            header.putInt(SnapshotFormat.STRING_COUNT, strings.size());
+            header.putInt(SnapshotFormat.METRIC_COUNT, metrics.size());
+            header.putInt(SnapshotFormat.SMELL_COUNT, smellCount);
+            header.putInt(SnapshotFormat.EDGE_COUNT, edgeCount);
+            for (int i = 0; i < sections.length; i++) {
+                header.putLong(SnapshotFormat.STRINGS + 8 * i, sections[i]);
+            }
+            output.writeHeader(header);
+        }
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = strings.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.put(value, id);
+        }
+        return id;
+    }
+
+    private boolean isComputed(MetricName metric) {
+        for (Resource resource : resources) {
+            if (resource.hasMetricValue(metric)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Callees of each method of the model, as method ids; calls leaving the model are dropped
+     */
+    private int[][] getCalls(AnalysisContext context) {
+        int[][] calls = new int[methods.size()][];
+        Arrays.fill(calls, new int[0]);
+        if (context == null) {
+            return calls;
+        }
+        CallGraph.Snapshot graph = context.getCallGraph().snapshot();
+        int[] methodIds = new int[graph.size()];
+        Arrays.fill(methodIds, -1);
+        int[] graphIds = new int[methods.size()];
+        for (int m = 0; m < methods.size(); m++) {
+            Method method = methods.get(m);
+            graphIds[m] = method.getBinding() == null ? -1 : graph.getId(method.getBinding().getKey());
+            if (graphIds[m] >= 0) {
+                methodIds[graphIds[m]] = m;
+            }
+        }
+        for (int m = 0; m < methods.size(); m++) {
+            if (graphIds[m] < 0) {
+                continue;
+            }
+            int[] callees = new int[graph.getCalleeCount(graphIds[m])];
+            int count = 0;
+            for (int i = 0; i < callees.length; i++) {
+                int callee = methodIds[graph.getCallee(graphIds[m], i)];
+                if (callee >= 0) {
+                    callees[count++] = callee;
+                }
+            }
+            calls[m] = Arrays.copyOf(callees, count);
+        }
+        return calls;
+    }
+
+    private void writeStrings(Output output) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        int offset = 0;
+        output.writeInt(0);
+        for (String value : strings.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            offset += bytes.length;
+            output.writeInt(offset);
+        }
+        for (byte[] bytes : encoded) {
+            output.writeBytes(bytes);
+        }
+    }
+
+    /**
+     * Little-endian sequential output through a reusable buffer
+     */
+    private static final class Output implements Closeable {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer;
+
+        private long written;
+
+        private Output(File file) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long position() {
+            return written + buffer.position();
+        }
+
+        void writeInt(int value) throws IOException {
+            this.ensure(4);
+            buffer.putInt(value);
+        }
+
+        void writeDouble(double value) throws IOException {
+            this.ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                this.ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void skip(int count) throws IOException {
+            this.writeBytes(new byte[count]);
+        }
+
+        void align(int alignment) throws IOException {
+            int padding = (int) ((alignment - this.position() % alignment) % alignment);
+            this.skip(padding);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                this.flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void writeHeader(ByteBuffer header) throws IOException {
+            this.flush();
+            header.rewind();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.flush();
+            channel.close();
+        }
+    }
+}
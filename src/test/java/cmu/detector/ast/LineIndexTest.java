@@ -0,0 +1,62 @@
+package cmu.detector.ast;
+
+import cmu.detector.resources.Type;
+import cmu.detector.util.TypeLoader;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LineIndexTest {
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/kind");
+        TypeLoader.loadAllFromDir(dir);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyAbstractType",
+            "DummyInterface",
+            "DummyType",
+            "EdgeCases"
+    })
+    public void matchesCompilationUnitLines(String input) {
+        Type type = TypeLoader.findTypeByName(input);
+        CompilationUnit compilationUnit = type.getSourceFile().getCompilationUnit();
+        LineIndex index = LineIndex.of(compilationUnit);
+
+        int end = compilationUnit.getStartPosition() + compilationUnit.getLength();
+        for (int position = -1; position <= end + 1; position++) {
+            Assertions.assertEquals(compilationUnit.getLineNumber(position), index.getLineNumber(position),
+                    "Line of position " + position);
+        }
+
+        for (int line = 1; line <= index.getLineCount(); line++) {
+            Assertions.assertEquals(compilationUnit.getPosition(line, 0), index.getLineStart(line),
+                    "Start of line " + line);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyType",
+            "EdgeCases"
+    })
+    public void resourcesKeepTheirLines(String input) {
+        Type type = TypeLoader.findTypeByName(input);
+        CompilationUnit compilationUnit = type.getSourceFile().getCompilationUnit();
+        int start = type.getNode().getStartPosition();
+        int end = start + type.getNode().getLength();
+
+        Assertions.assertEquals(compilationUnit.getLineNumber(start), type.getStartLineNumber());
+        Assertions.assertEquals(compilationUnit.getLineNumber(end), type.getEndLineNumber());
+    }
+}
@@ -0,0 +1,80 @@
+package cmu.detector.ast;
+
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.resources.loader.SourceFile;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MethodSummaryTest {
+
+    private static final String SOURCE = String.join("\n",
+            "package sample;",
+            "class Outer {",
+            "    int a;",
+            "    int b;",
+            "    void first() {",
+            "        a = 1;",
+            "        helper().toString().trim();",
+            "        Runnable r = new Runnable() { public void run() { b++; } };",
+            "    }",
+            "    int second(int a) { return a + this.b; }",
+            "    Object helper() { return null; }",
+            "    class Inner { void inner() {} }",
+            "}");
+
+    private SourceFile sourceFile;
+
+    @BeforeAll
+    public void setUp() {
+        ASTParser parser = ASTParser.newParser(AST.getJLSLatest());
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setSource(SOURCE.toCharArray());
+        CompilationUnit compilationUnit = (CompilationUnit) parser.createAST(null);
+        sourceFile = new SourceFile(new File("Outer.java").getAbsoluteFile(), compilationUnit);
+    }
+
+    @Test
+    public void buildsNestedTypesAndTheirOwnMethods() {
+        List<Type> types = sourceFile.getTypes();
+        Assertions.assertEquals(List.of("sample.Outer", "sample.Outer.Inner"),
+                types.stream().map(Type::getFullyQualifiedName).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of("first", "second", "helper"), names(types.get(0)));
+        Assertions.assertEquals(List.of("inner"), names(types.get(1)));
+    }
+
+    @Test
+    public void summarisesFieldsAndCallChains() {
+        MethodSummary first = summary("first");
+        Assertions.assertTrue(first.getAccessedFields().containsAll(List.of("a", "b")));
+        Assertions.assertEquals(3, first.getMaxCallChain());
+
+        // the parameter shadows field a, this.b is always the field
+        MethodSummary second = summary("second");
+        Assertions.assertTrue(second.getAccessedFields().contains("b"));
+        Assertions.assertFalse(second.getAccessedFields().contains("a"));
+        Assertions.assertEquals(0, second.getMaxCallChain());
+    }
+
+    private MethodSummary summary(String name) {
+        Method method = sourceFile.getTypes().get(0).findMethodByName(name);
+        return MethodSummary.of((MethodDeclaration) method.getNode());
+    }
+
+    private static List<String> names(Type type) {
+        return type.getMethods().stream()
+                .map(method -> ((MethodDeclaration) method.getNode()).getName().getIdentifier())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,53 @@
+package cmu.detector.ast;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ParserEnvironmentTest {
+
+    @TempDir
+    Path root;
+
+    @AfterEach
+    public void tearDown() {
+        ParserEnvironment.clearCache();
+    }
+
+    @Test
+    public void expandsJarFoldersAndDropsMissingEntries() throws IOException {
+        Path libs = Files.createDirectories(root.resolve("libs"));
+        Files.createFile(libs.resolve("b.jar"));
+        Files.createFile(libs.resolve("a.jar"));
+        Files.createFile(libs.resolve("notes.txt"));
+        Path classes = Files.createDirectories(root.resolve("classes"));
+        Path sources = Files.createDirectories(root.resolve("src"));
+
+        ParserEnvironment environment = ParserEnvironment.of(
+                new String[]{sources.toString(), sources.toString()},
+                new String[]{libs + File.separator + "*", classes.toString(), root.resolve("missing.jar").toString()});
+
+        Assertions.assertArrayEquals(new String[]{
+                libs.resolve("a.jar").toString(),
+                libs.resolve("b.jar").toString(),
+                classes.toString()}, environment.getClasspath());
+        Assertions.assertArrayEquals(new String[]{sources.toString()}, environment.getSourcePaths());
+        Assertions.assertEquals(1, environment.getEncodings().length);
+        Assertions.assertEquals(List.of(root.resolve("missing.jar").toString()), environment.getMissingEntries());
+    }
+
+    @Test
+    public void reusesResolvedEnvironment() {
+        String[] sources = {root.toString()};
+        String[] classpath = {};
+
+        Assertions.assertSame(ParserEnvironment.of(sources, classpath), ParserEnvironment.of(sources, classpath));
+    }
+}
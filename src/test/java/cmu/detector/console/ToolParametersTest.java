@@ -0,0 +1,47 @@
+package cmu.detector.console;
+
+import cmu.detector.metrics.statistics.KLLSketch;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class ToolParametersTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "-bs, 3",
+            "-bs, 0",
+            "-bs, many",
+            "-ss, abc",
+            "-ss, 0",
+            "-ss, -5",
+            "-hi, x",
+            "-hi, 0",
+            "-w, soon",
+            "-w, 0"
+    })
+    public void rejectsInvalidValues(String option, String value) {
+        ToolParameters parameters = ToolParameters.getInstance();
+        Assertions.assertThrows(ParseException.class, () -> parameters.parse(
+                new String[]{"-out", "unused.json", "-src", "src", option, value}));
+    }
+
+    @Test
+    public void readsSketchAccuracy() throws ParseException {
+        ToolParameters parameters = ToolParameters.getInstance();
+        parameters.parse(new String[]{"-out", "unused.json", "-src", "src", "-bs", "500"});
+        Assertions.assertEquals(500, parameters.getSketchAccuracy());
+
+        parameters.parse(new String[]{"-out", "unused.json", "-src", "src", "-bs"});
+        Assertions.assertEquals(KLLSketch.DEFAULT_K, parameters.getSketchAccuracy());
+    }
+
+    @Test
+    public void acceptsPositiveShardSize() throws ParseException {
+        ToolParameters parameters = ToolParameters.getInstance();
+        parameters.parse(new String[]{"-out", "unused.json", "-src", "src", "-ss", "50"});
+        Assertions.assertEquals("50", parameters.getValue(ToolParameters.SHARD_SIZE));
+    }
+}
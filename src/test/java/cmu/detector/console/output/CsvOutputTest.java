@@ -0,0 +1,95 @@
+package cmu.detector.console.output;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellName;
+import cmu.detector.util.SessionLoader;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class CsvOutputTest {
+
+	@TempDir
+	Path source;
+
+	@Test
+	public void writesOneRowPerTypeAndMethod() throws IOException, ParseException {
+		AnalysisSession session = analyze("package p; public class Alpha { int x; "
+				+ "public int getX() { return x; } void run(int a) { if (a > 0) { getX(); } } }");
+		Type alpha = session.findType("p.Alpha");
+		alpha.clearSmells();
+		alpha.addAllSmells(List.of(new Smell(SmellName.DataClass), new Smell(SmellName.GodClass)));
+
+		StringWriter csv = new StringWriter();
+		CsvOutput.write(csv, session.getTypes());
+		String[] rows = csv.toString().split("\r\n");
+
+		List<String> header = Arrays.asList(rows[0].split(",", -1));
+		Assertions.assertEquals(8 + MetricName.values().length, header.size());
+		Assertions.assertEquals(1 + alpha.getMethods().size(), rows.length - 1);
+
+		String[] typeRow = rows[1].split(",", -1);
+		Assertions.assertEquals(header.size(), typeRow.length);
+		Assertions.assertEquals("type", typeRow[0]);
+		Assertions.assertEquals("p.Alpha", typeRow[1]);
+		Assertions.assertEquals("DataClass;GodClass", typeRow[7]);
+		int cloc = header.indexOf(MetricName.CLOC.getLabel());
+		Assertions.assertEquals(CsvOutput.formatValue(alpha.getMetricValue(MetricName.CLOC)), typeRow[cloc]);
+		// method metrics are not computed for types
+		Assertions.assertEquals("", typeRow[header.indexOf(MetricName.ParameterCount.getLabel())]);
+
+		Method run = alpha.findMethodByName("run");
+		String[] runRow = rows[1 + 1 + alpha.getMethods().indexOf(run)].split(",", -1);
+		Assertions.assertEquals("method", runRow[0]);
+		Assertions.assertEquals("p.Alpha", runRow[2]);
+		Assertions.assertEquals("1", runRow[header.indexOf(MetricName.ParameterCount.getLabel())]);
+		Assertions.assertEquals("", runRow[cloc]);
+	}
+
+	@Test
+	public void compressesGzipFiles() throws IOException, ParseException {
+		AnalysisSession session = analyze("package p; public class Alpha { void run() {} }");
+		StringWriter expected = new StringWriter();
+		CsvOutput.write(expected, session.getTypes());
+
+		File file = source.resolve("metrics.csv.gz").toFile();
+		CsvOutput.write(file, session.getTypes());
+		ByteArrayOutputStream contents = new ByteArrayOutputStream();
+		try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+			input.transferTo(contents);
+		}
+		Assertions.assertEquals(expected.toString(), contents.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void formatsValues() {
+		Assertions.assertEquals("3", CsvOutput.formatValue(3.0));
+		Assertions.assertEquals("0.5", CsvOutput.formatValue(0.5));
+		Assertions.assertEquals("NaN", CsvOutput.formatValue(Double.NaN));
+	}
+
+	private AnalysisSession analyze(String alpha) throws IOException, ParseException {
+		Path file = source.resolve("p/Alpha.java");
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, alpha, StandardCharsets.UTF_8);
+
+		return SessionLoader.analyze(source.toString());
+	}
+}
@@ -0,0 +1,115 @@
+package cmu.detector.daemon;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.console.ToolParameters;
+import cmu.detector.util.SessionLoader;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class AnalysisDaemonTest {
+
+    private static final String SOURCE = "src/test/java/cmu/detector/dummy/kind";
+
+    @TempDir
+    Path directory;
+
+    private AnalysisDaemon daemon;
+
+    @BeforeEach
+    public void setUp() throws ParseException {
+        this.daemon = new AnalysisDaemon(SessionLoader.create(SOURCE), new StringReader(""), System.out);
+    }
+
+    @Test
+    public void answersRequestsOnTheLoadedModel() {
+        JsonObject analyzed = daemon.handle("{\"id\": 1, \"command\": \"analyze\"}");
+        Assertions.assertEquals("ok", analyzed.get("status").getAsString());
+        Assertions.assertEquals(1, analyzed.get("id").getAsInt());
+        int types = analyzed.get("types").getAsInt();
+        Assertions.assertTrue(types > 0);
+
+        JsonObject query = daemon.handle("{\"command\": \"query\", \"type\": \"cmu.detector.dummy.kind.DummyType\"}");
+        Assertions.assertEquals(1, query.getAsJsonArray("types").size());
+
+        String file = new File(SOURCE, "DummyType.java").getAbsolutePath();
+        JsonObject update = daemon.handle("{\"command\": \"update\", \"files\": [" + quote(file) + "]}");
+        Assertions.assertEquals("ok", update.get("status").getAsString());
+        Assertions.assertEquals("cmu.detector.dummy.kind.DummyType", update.getAsJsonArray("types").get(0)
+                .getAsJsonObject().get("fullyQualifiedName").getAsString());
+
+        JsonObject all = daemon.handle("{\"command\": \"query\"}");
+        Assertions.assertEquals(types, all.getAsJsonArray("types").size());
+    }
+
+    @Test
+    public void readsEditsThatKeepSizeAndModificationTime() throws IOException, ParseException {
+        Path file = directory.resolve("p/Alpha.java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "package p; public class Alpha { void a() {} }", StandardCharsets.UTF_8);
+        FileTime modified = Files.getLastModifiedTime(file);
+        // without bindings, the units are parsed from the stored contents
+        AnalysisSession session = SessionLoader.create(directory.toString(), "-fs");
+        AnalysisDaemon daemon = new AnalysisDaemon(session, new StringReader(""), System.out);
+        daemon.handle("{\"command\": \"analyze\"}");
+
+        Files.writeString(file, "package p; public class Alpha { void b() {} }", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, modified);
+        JsonObject update = daemon.handle("{\"command\": \"update\", \"files\": [" + quote(file.toString()) + "]}");
+
+        JsonObject method = update.getAsJsonArray("types").get(0).getAsJsonObject()
+                .getAsJsonArray("methods").get(0).getAsJsonObject();
+        Assertions.assertEquals("p.Alpha.b", method.get("fullyQualifiedName").getAsString());
+    }
+
+    @Test
+    public void savesOnlySmellyTypesWhenFiltering() throws IOException, ParseException {
+        Path output = directory.resolve("smells.json");
+        AnalysisSession session = SessionLoader.create(SOURCE, "-os");
+        AnalysisDaemon daemon = new AnalysisDaemon(session, new StringReader(""), System.out);
+        JsonObject analyzed = daemon.handle("{\"command\": \"analyze\"}");
+        int smelly = daemon.handle("{\"command\": \"query\", \"smelly\": true}").getAsJsonArray("types").size();
+
+        Assertions.assertEquals("ok", daemon.handle("{\"command\": \"save\", \"file\": " + quote(output.toString()) + "}").get("status").getAsString());
+        int saved = JsonParser.parseString(Files.readString(output, StandardCharsets.UTF_8)).getAsJsonArray().size();
+        Assertions.assertEquals(smelly, saved);
+        Assertions.assertTrue(saved < analyzed.get("types").getAsInt());
+    }
+
+    @Test
+    public void reportsInvalidRequests() {
+        Assertions.assertEquals("error", daemon.handle("not json").get("status").getAsString());
+        Assertions.assertEquals("error", daemon.handle("{\"command\": \"unknown\"}").get("status").getAsString());
+        Assertions.assertEquals("error", daemon.handle("{\"command\": \"update\"}").get("status").getAsString());
+    }
+
+    @Test
+    public void stopsOnShutdown() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream output = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        String requests = "{\"id\": 7, \"command\": \"shutdown\"}\n{\"command\": \"analyze\"}\n";
+        new AnalysisDaemon(new AnalysisSession(ToolParameters.getInstance()), new StringReader(requests), output).run();
+
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).trim().split("\n");
+        Assertions.assertEquals(1, lines.length);
+        Assertions.assertEquals(7, JsonParser.parseString(lines[0]).getAsJsonObject().get("id").getAsInt());
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\") + "\"";
+    }
+}
@@ -0,0 +1,80 @@
+package cmu.detector.daemon;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.console.output.JsonFragmentWriter;
+import cmu.detector.console.output.JsonOutput;
+import cmu.detector.util.SessionLoader;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+public class SourceWatcherTest {
+
+    @TempDir
+    Path source;
+
+    @Test
+    public void writesTheSameJsonAsABatchRun() throws IOException, ParseException {
+        write("Alpha.java", "package p; public class Alpha { void a() {} }");
+        write("Beta.java", "package p; public class Beta { int b; int b() { return b; } }");
+        AnalysisSession session = SessionLoader.analyze(source.toString(), "-fs");
+
+        File output = source.resolve("out.json").toFile();
+        JsonFragmentWriter writer = new JsonFragmentWriter(output, false);
+        Assertions.assertEquals(2, writer.write(session.getSourceFiles(), List.of()));
+        Assertions.assertEquals(JsonOutput.create(true).toJson(session.getTypes()), read(output));
+
+        // nothing changed: every fragment is reused
+        Assertions.assertEquals(0, writer.write(session.getSourceFiles(), List.of()));
+    }
+
+    @Test
+    public void updatesOnlyTheChangedFiles() throws Exception {
+        write("Alpha.java", "package p; public class Alpha { void a() {} }");
+        File beta = write("Beta.java", "package p; public class Beta { void b() {} }");
+        AnalysisSession session = SessionLoader.analyze(source.toString(), "-fs");
+
+        File output = source.resolve("out.json").toFile();
+        JsonFragmentWriter writer = new JsonFragmentWriter(output, false);
+        writer.write(session.getSourceFiles(), List.of());
+
+        try (SourceWatcher watcher = new SourceWatcher(session, writer, 100)) {
+            write("Beta.java", "package p; public class Beta { void b() {} void renamed() {} }");
+            write("sub/Gamma.java", "package p.sub; public class Gamma {}");
+
+            Set<File> changed = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                Set<File> files = watcher.processNextBatch();
+                while (files.size() < 2) {
+                    files.addAll(watcher.processNextBatch());
+                }
+                return files;
+            });
+            Assertions.assertTrue(changed.contains(beta.getAbsoluteFile()));
+        }
+
+        Assertions.assertNotNull(session.findType("p.sub.Gamma"));
+        Assertions.assertEquals(2, session.findType("p.Beta").getMethods().size());
+        Assertions.assertEquals(JsonOutput.create(true).toJson(session.getTypes()), read(output));
+    }
+
+    private File write(String name, String contents) throws IOException {
+        Path file = source.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents, StandardCharsets.UTF_8);
+        return file.toFile();
+    }
+
+    private static String read(File file) throws IOException {
+        return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,6 @@
+package cmu.detector.dummy.hierarchy;
+
+public class Base {
+
+    protected int value;
+}
@@ -0,0 +1,6 @@
+package cmu.detector.dummy.hierarchy;
+
+public interface Labelled extends Named {
+
+    String getLabel();
+}
@@ -0,0 +1,8 @@
+package cmu.detector.dummy.hierarchy;
+
+import java.util.ArrayList;
+
+public class Leaf extends Middle {
+
+    private final ArrayList<String> names = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package cmu.detector.dummy.hierarchy;
+
+public class Middle extends Base implements Labelled {
+
+    public String getName() {
+        return "middle";
+    }
+
+    public String getLabel() {
+        return "Middle";
+    }
+}
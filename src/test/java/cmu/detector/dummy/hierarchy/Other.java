@@ -0,0 +1,4 @@
+package cmu.detector.dummy.hierarchy;
+
+public abstract class Other implements Named, Comparable<Other> {
+}
@@ -0,0 +1,41 @@
+package cmu.detector.dummy.metrics;
+
+// This class is mostly data: NOAM = 4, WOC = 1 / 6 (describe among 4 accessors and 1 public field)
+public class DummyDataClass {
+
+    public String label;
+
+    private int width;
+
+    private boolean visible;
+
+    public DummyDataClass(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public boolean isVisible() {
+        return this.visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    // not an accessor: it computes a value
+    public String describe() {
+        return label + ":" + width;
+    }
+
+    // not counted: only public members weigh the class
+    private int getDoubleWidth() {
+        return width * 2;
+    }
+}
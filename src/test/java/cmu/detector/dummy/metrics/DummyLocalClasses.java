@@ -0,0 +1,24 @@
+package cmu.detector.dummy.metrics;
+
+// Local classes have no qualified name: each one is a type of its own in the call graph
+public class DummyLocalClasses {
+
+    void first(DummyDataClass data) {
+        class FirstLocal {
+            void use() {
+                data.getWidth();
+                data.isVisible();
+            }
+        }
+        new FirstLocal().use();
+    }
+
+    void second(DummyDataClass data) {
+        class SecondLocal {
+            void use() {
+                data.setWidth(1);
+            }
+        }
+        new SecondLocal().use();
+    }
+}
@@ -0,0 +1,12 @@
+package cmu.detector.dummy.metrics;
+
+public class DummyTokenLayout {
+
+    String textBlock() {
+        String text = """
+                first
+                second
+                """;
+        return text;
+    }
+}
@@ -1,7 +1,9 @@
 package cmu.detector.dummy.metrics;
 
 import cmu.detector.metrics.calculators.method.MethodLOCCalculator;
+import cmu.detector.metrics.calculators.method.MethodTokenLOCCalculator;
 import cmu.detector.metrics.calculators.type.TypeLOCCalculator;
+import cmu.detector.metrics.calculators.type.TypeTokenLOCCalculator;
 import cmu.detector.resources.Method;
 import cmu.detector.resources.Type;
 import cmu.detector.util.TypeLoader;
@@ -90,4 +92,44 @@ public class LOCTest {
             }
         }
     }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyAbstractType, 29",
+            "DummyFinalType, 19",
+            "DummyInterface, 4",
+            "DummyType, 52",
+            "EdgeCases, 60"
+    })
+    public void countTypeLinesFromTokens(String input, double expected) {
+        Type typeClass = TypeLoader.findTypeByName(input);
+
+        TypeTokenLOCCalculator calculator = new TypeTokenLOCCalculator();
+
+        Assertions.assertEquals(expected, calculator.getValue(typeClass));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "method1, 5",
+            "method2, 9",
+            "method3, 6",
+            "method4, 10",
+            "testMultipleAnnotation, 8",
+            "provideTestArgumentsForClassNames, 6",
+            "provideTestArgumentsForInterfaceNames, 5"
+
+    })
+    public void countMethodLinesFromTokensEdgeCases(String input, double expected) {
+        Type typeClass = TypeLoader.findTypeByName("EdgeCases");
+        MethodTokenLOCCalculator calculator = new MethodTokenLOCCalculator();
+
+        List<Method> methods = typeClass.getMethods();
+        for (Method method : methods) {
+            MethodDeclaration dc = (MethodDeclaration) method.getNode();
+            if (input.equals(dc.getName().toString())) {
+                Assertions.assertEquals(expected, calculator.getValue(method));
+            }
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package cmu.detector.dummy.smells;
+
+// Not a God Class: complex and non-cohesive (TCC = 0), but it only uses its own data (ATFD = 0)
+public class DummyComplexClass {
+
+    private int count;
+
+    private String text = "";
+
+    public void count(int[] values) {
+        for (int value : values) {
+            if (value > 0 && value < 100) {
+                count++;
+            } else if (value < 0) {
+                count--;
+            }
+        }
+    }
+
+    public void pad(int width) {
+        while (text.length() < width) {
+            text = text.isEmpty() || width > 10 ? text + " " : " " + text;
+        }
+    }
+}
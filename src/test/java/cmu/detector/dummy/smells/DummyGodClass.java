@@ -0,0 +1,63 @@
+package cmu.detector.dummy.smells;
+
+// God Class: complex, uses the data of DummyRecord (ATFD = 5) and its methods share no attribute (TCC = 0)
+public class DummyGodClass {
+
+    private int total;
+
+    private String label;
+
+    private double mass;
+
+    private int volume;
+
+    public void sum(DummyRecord record) {
+        if (record.width > 0) {
+            total += record.width;
+        } else if (record.height > 0) {
+            total += record.height;
+        }
+        for (int i = 0; i < record.depth; i++) {
+            if (i % 2 == 0) {
+                total++;
+            }
+        }
+    }
+
+    public void describe(DummyRecord record) {
+        if (record.name == null) {
+            label = "?";
+        } else if (record.name.isEmpty()) {
+            label = "-";
+        } else {
+            label = record.name;
+        }
+        while (label.length() < 3) {
+            label = label + ".";
+        }
+    }
+
+    public void weigh(DummyRecord record) {
+        mass = record.weight > 100 ? 100 : record.weight;
+        if (mass < 0 || Double.isNaN(mass)) {
+            mass = 0;
+        }
+    }
+
+    public void measure(DummyRecord record) {
+        volume = record.width * record.height * record.depth;
+        if (volume < 0 && record.width < 0) {
+            volume = -volume;
+        }
+        switch (volume % 3) {
+            case 0:
+                volume++;
+                break;
+            case 1:
+                volume--;
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package cmu.detector.dummy.smells;
+
+// Lazy Class: a single trivial method (NOM = 1, WMC = 1)
+public class DummyLazyClass {
+
+    private int count;
+
+    public int next() {
+        return ++count;
+    }
+}
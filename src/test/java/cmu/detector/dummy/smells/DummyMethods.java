@@ -0,0 +1,39 @@
+package cmu.detector.dummy.smells;
+
+public class DummyMethods {
+
+    private int own;
+
+    // Feature Envy: reads five attributes of DummyRecord and none of its own class
+    public double envy(DummyRecord record) {
+        return record.width + record.height + record.depth + record.weight + record.name.length();
+    }
+
+    // not envious: a single foreign attribute, used with its own
+    public int local(DummyRecord record) {
+        own += record.width;
+        return own;
+    }
+
+    // Long Parameter List: more than four parameters
+    public int fiveParameters(int a, int b, int c, int d, int e) {
+        return a + b + c + d + e;
+    }
+
+    public int fourParameters(int a, int b, int c, int d) {
+        return a + b + c + d;
+    }
+
+    // Long Method
+    public int longMethod(int value) {
+        int result = value;
+        result += 1;
+        result *= 2;
+        result -= 3;
+        result /= 4;
+        result %= 5;
+        result += own;
+        own = result;
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package cmu.detector.dummy.smells;
+
+// Data Class and Class Data Should Be Private: five public fields and no behaviour
+public class DummyRecord {
+
+    public String name;
+
+    public int width;
+
+    public int height;
+
+    public int depth;
+
+    public double weight;
+}
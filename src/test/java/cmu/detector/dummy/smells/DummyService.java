@@ -0,0 +1,37 @@
+package cmu.detector.dummy.smells;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// No smell: cohesive, encapsulated and with some logic of its own (NOM = 4, WMC = 8)
+public class DummyService {
+
+    private final List<String> names = new ArrayList<>();
+
+    private final int limit;
+
+    public DummyService(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean add(String name) {
+        if (name == null || names.size() >= limit) {
+            return false;
+        }
+        names.add(name);
+        return true;
+    }
+
+    public boolean contains(String name) {
+        for (String known : names) {
+            if (known.equals(name) && limit > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int remaining() {
+        return limit - names.size();
+    }
+}
@@ -0,0 +1,129 @@
+package cmu.detector.graph;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CallGraphAnalyzerTest {
+
+    private CallGraph graph;
+
+    private CallGraphAnalyzer analyzer;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new CallGraph();
+        analyzer = new CallGraphAnalyzer(graph);
+    }
+
+    @Test
+    public void findsCyclesDepthAndReachability() {
+        // a -> b -> c -> a is a cycle, c -> d -> e a chain out of it, f calls itself
+        call("a", "A", "b", "A");
+        call("b", "A", "c", "B");
+        call("c", "B", "a", "A");
+        call("c", "B", "d", "C");
+        call("d", "C", "e", "D");
+        call("f", "E", "f", "E");
+        graph.addMethod("g", "E");
+
+        CallGraphMetrics metrics = analyzer.getMetrics();
+
+        Assertions.assertEquals(3, metrics.getRecursionGroupSize(id(metrics, "a")));
+        Assertions.assertEquals(metrics.getComponent(id(metrics, "a")), metrics.getComponent(id(metrics, "c")));
+        Assertions.assertEquals(0, metrics.getRecursionGroupSize(id(metrics, "d")));
+        Assertions.assertEquals(1, metrics.getRecursionGroupSize(id(metrics, "f")));
+        Assertions.assertEquals(0, metrics.getRecursionGroupSize(id(metrics, "g")));
+
+        Assertions.assertEquals(2, metrics.getCallDepth(id(metrics, "a")));
+        Assertions.assertEquals(1, metrics.getCallDepth(id(metrics, "d")));
+        Assertions.assertEquals(0, metrics.getCallDepth(id(metrics, "e")));
+
+        // the cycle reaches itself, d and e
+        Assertions.assertEquals(5, metrics.getReachableMethods(id(metrics, "b")));
+        Assertions.assertEquals(1, metrics.getReachableMethods(id(metrics, "d")));
+        Assertions.assertEquals(1, metrics.getReachableMethods(id(metrics, "f")));
+        Assertions.assertEquals(0, metrics.getReachableMethods(id(metrics, "g")));
+
+        Assertions.assertEquals(2, metrics.getFanOut(id(metrics, "c")));
+        Assertions.assertEquals(1, metrics.getFanIn(id(metrics, "a")));
+    }
+
+    @Test
+    public void countsCallerAndCalleeClasses() {
+        call("x1", "X", "target", "T");
+        call("x2", "X", "target", "T");
+        call("y1", "Y", "target", "T");
+        call("target", "T", "own", "T");
+        call("target", "T", "z1", "Z");
+        call("target", "T", "z2", "Z");
+        call("target", "T", "w1", "W");
+
+        CallGraphMetrics metrics = analyzer.getMetrics();
+        int target = id(metrics, "target");
+
+        Assertions.assertEquals(3, metrics.getFanIn(target));
+        Assertions.assertEquals(2, metrics.getChangingClasses(target));
+        Assertions.assertEquals(3, metrics.getCouplingIntensity(target));
+        Assertions.assertEquals(2.0 / 3.0, metrics.getCouplingDispersion(target), 1e-9);
+    }
+
+    @Test
+    public void countsCoupledMethodsAndClassesPerType() {
+        call("t1", "T", "x1", "X");
+        call("t2", "T", "x1", "X");
+        call("t2", "T", "x2", "X");
+        call("t2", "T", "y1", "Y");
+        call("t2", "T", "t1", "T");
+        graph.addMethod("idle", "I");
+
+        CallGraphMetrics metrics = analyzer.getMetrics();
+        int type = metrics.getTypeId("T");
+
+        // x1 is called twice but counted once; the call inside T does not count
+        Assertions.assertEquals(3, metrics.getTypeCouplingIntensity(type));
+        Assertions.assertEquals(2.0 / 3.0, metrics.getTypeCouplingDispersion(type), 1e-9);
+        Assertions.assertEquals(0, metrics.getTypeCouplingIntensity(metrics.getTypeId("I")));
+        Assertions.assertEquals(0.0, metrics.getTypeCouplingDispersion(metrics.getTypeId("X")));
+        Assertions.assertEquals(-1, metrics.getTypeId("Unknown"));
+    }
+
+    @Test
+    public void handlesDeepAndLargeGraphsIteratively() {
+        int length = 100_000;
+        for (int i = 0; i < length - 1; i++) {
+            call("m" + i, "A", "m" + (i + 1), "A");
+        }
+
+        CallGraphMetrics metrics = analyzer.getMetrics();
+        Assertions.assertEquals(length, metrics.getComponentCount());
+        Assertions.assertEquals(length - 1, metrics.getCallDepth(id(metrics, "m0")));
+        Assertions.assertEquals(10, metrics.getReachableMethods(id(metrics, "m" + (length - 11))));
+
+        // above the sketch size, reachability is an estimate
+        double estimate = metrics.getReachableMethods(id(metrics, "m0"));
+        Assertions.assertEquals(length - 1, estimate, (length - 1) * 0.3);
+    }
+
+    @Test
+    public void reusesTheResultsUntilTheGraphChanges() {
+        call("a", "A", "b", "B");
+        CallGraphMetrics first = analyzer.getMetrics();
+        Assertions.assertSame(first, analyzer.getMetrics());
+
+        call("b", "B", "c", "C");
+        CallGraphMetrics second = analyzer.getMetrics();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, second.getReachableMethods(id(second, "a")));
+    }
+
+    private void call(String caller, String callerType, String callee, String calleeType) {
+        graph.addMethodCall(caller, callerType, callee, calleeType);
+    }
+
+    private static int id(CallGraphMetrics metrics, String key) {
+        int id = metrics.getId(key);
+        Assertions.assertTrue(id >= 0, key);
+        return id;
+    }
+}
@@ -0,0 +1,122 @@
+package cmu.detector.graph;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.util.SessionLoader;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class CallGraphTest {
+
+    @TempDir
+    Path source;
+
+    private CallGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new CallGraph();
+    }
+
+    @Test
+    public void answersCallsAndCallersWithoutDuplicates() {
+        graph.addMethodCall("a", "p.A", "b", "p.B");
+        graph.addMethodCall("a", "p.A", "c", "p.C");
+        graph.addMethodCall("a", "p.A", "b", "p.B");
+        graph.addMethodCall("c", "p.C", "b", "p.B");
+
+        Assertions.assertEquals(Set.of("b", "c"), graph.getCalls("a"));
+        Assertions.assertEquals(Set.of("a", "c"), graph.getCallers("b"));
+        Assertions.assertTrue(graph.calls("c", "b"));
+        Assertions.assertFalse(graph.calls("b", "c"));
+        Assertions.assertTrue(graph.getCalls("unknown").isEmpty());
+
+        CallGraph.Snapshot snapshot = graph.snapshot();
+        Assertions.assertEquals(3, snapshot.getEdgeCount());
+        Assertions.assertEquals("p.B", snapshot.getDeclaringType(snapshot.getId("b")));
+    }
+
+    @Test
+    public void keepsIncomingCallsWhenAMethodIsParsedAgain() {
+        graph.addMethodCall("a", "p.A", "b", "p.B");
+        graph.addMethodCall("b", "p.B", "c", "p.C");
+
+        graph.removeCalls("b");
+        Assertions.assertTrue(graph.getCalls("b").isEmpty());
+        Assertions.assertEquals(Set.of("a"), graph.getCallers("b"));
+
+        graph.addMethodCall("b", "p.B", "d", "p.D");
+        Assertions.assertEquals(Set.of("d"), graph.getCalls("b"));
+        Assertions.assertTrue(graph.getCallers("c").isEmpty());
+    }
+
+    @Test
+    public void acceptsCallsFromParallelShards() {
+        IntStream.range(0, 1000).parallel().forEach(i ->
+                graph.addMethodCall("m" + (i % 10), "p.A", "m" + ((i + 1) % 10), "p.A"));
+
+        CallGraph.Snapshot snapshot = graph.snapshot();
+        Assertions.assertEquals(10, snapshot.size());
+        Assertions.assertEquals(10, snapshot.getEdgeCount());
+        for (int id = 0; id < snapshot.size(); id++) {
+            Assertions.assertEquals(1, snapshot.getCalleeCount(id));
+            Assertions.assertEquals(1, snapshot.getCallerCount(id));
+        }
+    }
+
+    @Test
+    public void mergesShardBuilders() {
+        List<CallGraph.Builder> shards = IntStream.range(0, 8).parallel().mapToObj(shard -> {
+            CallGraph.Builder builder = new CallGraph.Builder();
+            for (int i = 0; i < 10; i++) {
+                builder.addMethodCall("s" + shard + "m" + i, "p.S" + shard, "common", "p.C");
+            }
+            builder.addMethod("s" + shard + "idle", "p.S" + shard);
+            return builder;
+        }).collect(Collectors.toList());
+        shards.parallelStream().forEach(graph::merge);
+
+        CallGraph.Snapshot snapshot = graph.snapshot();
+        Assertions.assertEquals(8 * 11 + 1, snapshot.size());
+        Assertions.assertEquals(80, snapshot.getCallerCount(snapshot.getId("common")));
+        Assertions.assertEquals("p.S3", snapshot.getDeclaringType(snapshot.getId("s3idle")));
+        Assertions.assertEquals(Set.of("common"), graph.getCalls("s5m7"));
+    }
+
+    @Test
+    public void linksCallsIntoGenericTypesAndMethodsToTheirDeclarations() throws IOException, ParseException {
+        write("p/Box.java", "package p; class Box<T> { void put(T t) {} static <E> E id(E e) { return e; } }");
+        write("p/User.java", "package p; class User { void use(Box<String> b) { b.put(\"x\"); Box.id(\"y\"); } }");
+        AnalysisSession session = SessionLoader.analyze(source.toString());
+
+        Type box = session.findType("p.Box");
+        Method use = session.findType("p.User").findMethodByName("use");
+        CallGraph calls = session.getContext().getCallGraph();
+        Assertions.assertEquals(Set.of(box.findMethodByName("put").getBinding().getKey(),
+                box.findMethodByName("id").getBinding().getKey()), calls.getCalls(use.getBinding().getKey()));
+
+        Assertions.assertEquals(1.0, box.findMethodByName("put").getMetricValue(MetricName.FanIn));
+        Assertions.assertEquals(1.0, box.findMethodByName("id").getMetricValue(MetricName.ChangingMethods));
+        Assertions.assertEquals(2.0, use.getMetricValue(MetricName.FanOut));
+    }
+
+    private void write(String name, String contents) throws IOException {
+        Path file = source.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,161 @@
+package cmu.detector.history;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
+
+public class ChangeHistoryTest {
+
+    @TempDir
+    Path root;
+
+    private File gitDir;
+
+    private String firstCommit;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        gitDir = root.resolve(".git").toFile();
+        Files.createDirectories(root.resolve(".git/objects"));
+        Files.createDirectories(root.resolve(".git/refs/heads"));
+        Files.writeString(root.resolve(".git/HEAD"), "ref: refs/heads/main\n");
+
+        // 1: A and B are created; 2: A.a1 changes with B.b1; 3: A.a1 changes with A.a2
+        firstCommit = commit(1000, null,
+                "src/p/A.java", "package p; class A { void a1() {} void a2() {} }",
+                "src/p/B.java", "package p; class B { void b1() {} }",
+                "README", "readme");
+        String second = commit(2000, firstCommit,
+                "src/p/A.java", "package p; class A { void a1() { a2(); } void a2() {} }",
+                "src/p/B.java", "package p; class B { void b1() { new A(); } }",
+                "README", "readme");
+        String third = commit(3000, second,
+                "src/p/A.java", "package p; class A { void a1() { } void a2() { a1(); } }",
+                "src/p/B.java", "package p; class B { void b1() { new A(); } }",
+                "README", "changed readme");
+        Files.writeString(root.resolve(".git/refs/heads/main"), third + "\n");
+    }
+
+    @Test
+    public void countsCoChangedTypesAndMethods() throws IOException {
+        CoChangeIndex coChanges = new ChangeHistory(root.resolve("src").toFile(), 10, null).mine();
+
+        Assertions.assertEquals(3, coChanges.getCommitCount());
+        Assertions.assertEquals(2, coChanges.getCoChangedMethods("p.A.a1()"));
+        Assertions.assertEquals(1, coChanges.getCoChangedClasses("p.A.a1()"));
+        Assertions.assertEquals(1, coChanges.getCoChangedTypes("p.A"));
+        // b1 only changed with a1 (and with everything when created)
+        Assertions.assertEquals(2, coChanges.getCoChangedMethods("p.B.b1()"));
+        Assertions.assertEquals(0, coChanges.getCoChangedMethods("p.C.unknown()"));
+    }
+
+    @Test
+    public void onlyMinesTheWindow() throws IOException {
+        CoChangeIndex coChanges = new ChangeHistory(root.toFile(), 1, null).mine();
+
+        Assertions.assertEquals(1, coChanges.getCommitCount());
+        Assertions.assertEquals(1, coChanges.getCoChangedMethods("p.A.a1()"));
+        Assertions.assertEquals(0, coChanges.getCoChangedClasses("p.A.a1()"));
+        Assertions.assertEquals(0, coChanges.getCoChangedTypes("p.B"));
+    }
+
+    @Test
+    public void readsCachedCommitsFromTheCacheFile() throws IOException {
+        File cache = root.resolve("history.cache").toFile();
+        CoChangeIndex mined = new ChangeHistory(root.toFile(), 10, cache).mine();
+        Assertions.assertTrue(cache.isFile());
+
+        // the first commit can no longer be read: only the cache knows it
+        Files.delete(objectFile(firstCommit).toPath());
+        CoChangeIndex cached = new ChangeHistory(root.toFile(), 10, cache).mine();
+        Assertions.assertEquals(mined.getCoChangedMethods("p.A.a1()"), cached.getCoChangedMethods("p.A.a1()"));
+        Assertions.assertEquals(mined.getCoChangedTypes("p.A"), cached.getCoChangedTypes("p.A"));
+
+        Assertions.assertThrows(IOException.class, () -> new ChangeHistory(root.toFile(), 10, null).mine());
+    }
+
+    @Test
+    public void returnsNullOutsideARepository(@TempDir Path elsewhere) throws IOException {
+        Assertions.assertNull(new ChangeHistory(elsewhere.toFile(), 10, null).mine());
+    }
+
+    @Test
+    public void appliesPackDeltas() throws IOException {
+        byte[] base = "hello world".getBytes(StandardCharsets.US_ASCII);
+        // base size 11, result size 11, copy 6 bytes from offset 0, insert "there"
+        byte[] delta = {11, 11, (byte) 0x90, 6, 5, 't', 'h', 'e', 'r', 'e'};
+        Assertions.assertEquals("hello there", new String(PackFile.applyDelta(base, delta), StandardCharsets.US_ASCII));
+
+        byte[] wrongBase = {12, 11, (byte) 0x90, 6, 5, 't', 'h', 'e', 'r', 'e'};
+        Assertions.assertThrows(IOException.class, () -> PackFile.applyDelta(base, wrongBase));
+    }
+
+    /**
+     * Writes a commit whose tree holds the given files (path, contents pairs)
+     */
+    private String commit(long time, String parent, String... files) throws Exception {
+        Map<String, Object> tree = new TreeMap<>();
+        for (int i = 0; i < files.length; i += 2) {
+            Map<String, Object> folder = tree;
+            String[] path = files[i].split("/");
+            for (int j = 0; j < path.length - 1; j++) {
+                folder = cast(folder.computeIfAbsent(path[j], name -> new TreeMap<String, Object>()));
+            }
+            folder.put(path[path.length - 1], files[i + 1]);
+        }
+        String header = "tree " + writeTree(tree) + "\n"
+                + (parent == null ? "" : "parent " + parent + "\n")
+                + "author A <a@b.c> " + time + " +0000\n"
+                + "committer A <a@b.c> " + time + " +0000\n\nmessage\n";
+        return write("commit", header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String writeTree(Map<String, Object> entries) throws Exception {
+        ByteArrayOutputStream tree = new ByteArrayOutputStream();
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            boolean folder = entry.getValue() instanceof Map;
+            String id = folder ? writeTree(cast(entry.getValue()))
+                    : write("blob", ((String) entry.getValue()).getBytes(StandardCharsets.UTF_8));
+            tree.write(((folder ? "40000 " : "100644 ") + entry.getKey() + "\0").getBytes(StandardCharsets.UTF_8));
+            tree.write(GitRepository.toBytes(id));
+        }
+        return write("tree", tree.toByteArray());
+    }
+
+    private String write(String type, byte[] data) throws IOException, NoSuchAlgorithmException {
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        object.write((type + " " + data.length + "\0").getBytes(StandardCharsets.US_ASCII));
+        object.write(data);
+        String id = GitRepository.toHex(MessageDigest.getInstance("SHA-1").digest(object.toByteArray()), 0);
+
+        File file = objectFile(id);
+        Files.createDirectories(file.getParentFile().toPath());
+        try (OutputStream output = new DeflaterOutputStream(Files.newOutputStream(file.toPath()))) {
+            output.write(object.toByteArray());
+        }
+        return id;
+    }
+
+    private File objectFile(String id) {
+        return new File(new File(new File(gitDir, "objects"), id.substring(0, 2)), id.substring(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Object folder) {
+        return (Map<String, Object>) folder;
+    }
+}
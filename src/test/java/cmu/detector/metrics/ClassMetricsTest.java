@@ -0,0 +1,65 @@
+package cmu.detector.metrics;
+
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.util.TypeLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ClassMetricsTest {
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/metrics");
+        TypeLoader.loadAllFromDir(dir);
+    }
+
+    @Test
+    public void countsAccessorsAndWeighsPublicMembers() {
+        Type type = collect("DummyDataClass");
+        Assertions.assertEquals(4.0, type.getMetricValue(MetricName.NOAM));
+        Assertions.assertEquals(1.0 / 6.0, type.getMetricValue(MetricName.WOC), 1e-9);
+    }
+
+    @Test
+    public void sumsTheComplexityOfTheMethods() {
+        Assertions.assertEquals(27.0, collect("DummyCyclomaticComplexity").getMetricValue(MetricName.WMC));
+    }
+
+    @Test
+    public void reusesMeasuredMethodComplexity() {
+        Type type = TypeLoader.findTypeByName("DummyDataClass");
+        for (Method method : type.getMethods()) {
+            new MethodMetricValueCollector().collect(method);
+        }
+        new TypeMetricValueCollector().collect(type);
+        Assertions.assertEquals((double) type.getMethods().size(), type.getMetricValue(MetricName.WMC));
+    }
+
+    @Test
+    public void measuresCouplingFromTheCallGraph() {
+        // only calls to String and Object: java types are not part of the call graph
+        Type type = collect("DummyDataClass");
+        Assertions.assertEquals(0.0, type.getMetricValue(MetricName.CINT));
+        Assertions.assertEquals(0.0, type.getMetricValue(MetricName.CDISP));
+    }
+
+    @Test
+    public void keepsLocalClassesApartInTheCallGraph() {
+        Assertions.assertEquals(2.0, collect("FirstLocal").getMetricValue(MetricName.CINT));
+        Assertions.assertEquals(1.0, collect("SecondLocal").getMetricValue(MetricName.CINT));
+    }
+
+    private static Type collect(String name) {
+        Type type = TypeLoader.findTypeByName(name);
+        Assertions.assertNotNull(type, name);
+        new TypeMetricValueCollector().collect(type);
+        return type;
+    }
+}
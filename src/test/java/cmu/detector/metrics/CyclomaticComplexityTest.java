@@ -0,0 +1,76 @@
+package cmu.detector.metrics;
+
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.util.TypeLoader;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CyclomaticComplexityTest {
+
+    private Type type;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/metrics");
+        TypeLoader.loadAllFromDir(dir);
+
+        type = TypeLoader.findTypeByName("DummyCyclomaticComplexity");
+        for (Method method : type.getMethods()) {
+            new MethodMetricValueCollector().collect(method);
+        }
+    }
+
+    @ParameterizedTest(name = "{index} ⇒ {0} → CC={1}, MaxNesting={2}, ParameterCount={3}")
+    @CsvSource({
+            "simpleMethod, 1, 0, 0",
+            "ifElseMethod, 2, 1, 1",
+            "switchMethod, 4, 1, 1",
+            "switchMethodDefault, 5, 1, 1",
+            "forLoopMethod, 2, 1, 0",
+            "whileLoopMethod, 2, 1, 1",
+            "doWhileLoopMethod, 2, 1, 1",
+            "nestedControlMethod, 4, 3, 2",
+            "multipleReturnMethod, 3, 1, 1",
+            "tryCatchFinallyMethod, 2, 1, 0"
+    })
+    public void computesComplexityNestingAndParameters(String name, double cc, double nesting, double parameters) {
+        Method method = find(name);
+        Assertions.assertEquals(cc, method.getMetricValue(MetricName.CC));
+        Assertions.assertEquals(nesting, method.getMetricValue(MetricName.MaxNesting));
+        Assertions.assertEquals(parameters, method.getMetricValue(MetricName.ParameterCount));
+    }
+
+    @Test
+    public void sumsToTheDocumentedWeightedMethodCount() {
+        double wmc = type.getMethods().stream().mapToDouble(method -> method.getMetricValue(MetricName.CC)).sum();
+        Assertions.assertEquals(27.0, wmc);
+    }
+
+    @Test
+    public void countsAccessedVariablesOnce() {
+        // x and System.out
+        Assertions.assertEquals(2.0, find("ifElseMethod").getMetricValue(MetricName.NOAV));
+        // n, i and System.out; the declaration of i is not an access
+        Assertions.assertEquals(3.0, find("whileLoopMethod").getMetricValue(MetricName.NOAV));
+    }
+
+    private Method find(String name) {
+        for (Method method : type.getMethods()) {
+            if (((MethodDeclaration) method.getNode()).getName().getIdentifier().equals(name)) {
+                return method;
+            }
+        }
+        Assertions.fail("Method not found: " + name);
+        return null;
+    }
+}
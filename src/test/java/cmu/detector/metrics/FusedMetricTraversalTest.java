@@ -0,0 +1,106 @@
+package cmu.detector.metrics;
+
+import cmu.detector.metrics.calculators.FusedMetricTraversal;
+import cmu.detector.metrics.calculators.MetricAccumulator;
+import cmu.detector.metrics.calculators.method.MethodLOCCalculator;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.util.TypeLoader;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FusedMetricTraversalTest {
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/kind");
+        TypeLoader.loadAllFromDir(dir);
+    }
+
+    @Test
+    public void sharedTraversalMatchesStandaloneCalculators() {
+        for (Type type : TypeLoader.getTypes()) {
+            for (Method method : type.getMethods()) {
+                new MethodMetricValueCollector().collect(method);
+                Assertions.assertEquals(new MethodLOCCalculator().getValue(method.getNode()),
+                        method.getMetricValue(MetricName.MLOC), method.getFullyQualifiedName());
+            }
+        }
+    }
+
+    @Test
+    public void dispatchesOnlyTheRequestedNodeTypes() {
+        ASTNode root = TypeLoader.findTypeByName("DummyType").getNode();
+        CountingAccumulator invocations = new CountingAccumulator(false, ASTNode.METHOD_INVOCATION);
+        CountingAccumulator nodes = new CountingAccumulator(true);
+        FusedMetricTraversal.run(root, List.of(invocations, nodes));
+
+        int[] expected = new int[2];
+        root.accept(new ASTVisitor() {
+            @Override
+            public void preVisit(ASTNode node) {
+                expected[1]++;
+            }
+
+            @Override
+            public boolean visit(MethodInvocation node) {
+                expected[0]++;
+                return true;
+            }
+        });
+        Assertions.assertEquals(expected[0], invocations.getValue());
+        Assertions.assertEquals(expected[1], nodes.getValue());
+        Assertions.assertEquals(invocations.entered, invocations.exited);
+    }
+
+    private static final class CountingAccumulator extends MetricAccumulator {
+
+        private final boolean everyNode;
+
+        private final int[] nodeTypes;
+
+        private int entered;
+
+        private int exited;
+
+        private CountingAccumulator(boolean everyNode, int... nodeTypes) {
+            this.everyNode = everyNode;
+            this.nodeTypes = nodeTypes;
+        }
+
+        @Override
+        public int[] getNodeTypes() {
+            return nodeTypes;
+        }
+
+        @Override
+        public boolean visitsEveryNode() {
+            return everyNode;
+        }
+
+        @Override
+        public void enter(ASTNode node) {
+            entered++;
+        }
+
+        @Override
+        public void exit(ASTNode node) {
+            exited++;
+        }
+
+        @Override
+        public Double getValue() {
+            return (double) entered;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package cmu.detector.metrics;
+
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.util.TypeLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MethodMetricValueCollectorTest {
+
+    private Method textBlock;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/metrics");
+        TypeLoader.loadAllFromDir(dir);
+
+        Type type = TypeLoader.findTypeByName("DummyTokenLayout");
+        textBlock = type.findMethodByName("textBlock");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // the AST only sees where the text block starts, the tokens cover all its lines
+            "false, 5",
+            "true, 7"
+    })
+    public void countsLinesWithTheSelectedCalculator(boolean tokenLOC, double expected) {
+        new MethodMetricValueCollector(tokenLOC).collect(textBlock);
+
+        Assertions.assertEquals(expected, textBlock.getMetricValue(MetricName.MLOC));
+    }
+}
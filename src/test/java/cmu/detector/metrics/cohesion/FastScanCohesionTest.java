@@ -0,0 +1,71 @@
+package cmu.detector.metrics.cohesion;
+
+import cmu.detector.metrics.calculators.MetricValueCalculator;
+import cmu.detector.metrics.calculators.type.*;
+import cmu.detector.resources.Type;
+import cmu.detector.util.TypeLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cohesion metrics computed without bindings (fast-scan mode) must match the
+ * binding-based values on the dummy classes
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FastScanCohesionTest {
+
+    private final Map<String, Type> resolved = new HashMap<>();
+
+    private final Map<String, Type> approximate = new HashMap<>();
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/metrics/cohesion");
+        TypeLoader.loadAllFromDir(dir, true);
+        TypeLoader.getTypes().forEach(type -> resolved.put(type.getNodeAsTypeDeclaration().getName().toString(), type));
+
+        TypeLoader.loadAllFromDir(dir, false);
+        TypeLoader.getTypes().forEach(type -> approximate.put(type.getNodeAsTypeDeclaration().getName().toString(), type));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "ConnectedClass",
+            "DisconnectedClass",
+            "HighCohesion",
+            "MediumCohesion",
+            "NoCohesion",
+            "Simple1",
+            "Simple1Inner",
+            "SimpleClass"
+    })
+    public void matchesResolvedValues(String input) {
+        Type exact = resolved.get(input);
+        Type fast = approximate.get(input);
+        Assertions.assertNotNull(fast, "Type not found: " + input);
+
+        Assertions.assertFalse(exact.isApproximate());
+        Assertions.assertTrue(fast.isApproximate());
+        Assertions.assertEquals(exact.getFullyQualifiedName(), fast.getFullyQualifiedName());
+
+        List<MetricValueCalculator> calculators = List.of(
+                new LackOfCohesion1Calculator(),
+                new LackOfCohesion2Calculator(),
+                new LackOfCohesion3Calculator(),
+                new LackOfCohesion4Calculator(),
+                new TCCMetricValueCalculator());
+        for (MetricValueCalculator calculator : calculators) {
+            Assertions.assertEquals(calculator.getValue(exact.getNode()), calculator.getValue(fast.getNode()), 0.0001,
+                    calculator.getMetricName() + " for " + input);
+        }
+    }
+}
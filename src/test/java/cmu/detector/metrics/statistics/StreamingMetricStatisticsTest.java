@@ -0,0 +1,92 @@
+package cmu.detector.metrics.statistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+public class StreamingMetricStatisticsTest {
+
+    private static final int VALUES = 200_000;
+
+    @Test
+    public void meanAndStandardDeviationAreExact() {
+        ExactMetricStatistics exact = new ExactMetricStatistics();
+        StreamingMetricStatistics streaming = new StreamingMetricStatistics();
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextGaussian() * 15 + 40;
+            exact.addValue(value);
+            streaming.addValue(value);
+        }
+
+        Assertions.assertEquals(exact.getN(), streaming.getN());
+        Assertions.assertEquals(exact.getMean(), streaming.getMean(), 1e-9);
+        Assertions.assertEquals(exact.getStandardDeviation(), streaming.getStandardDeviation(), 1e-9);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "25",
+            "50",
+            "75"
+    })
+    public void quartilesAreWithinTheSketchError(double percentile) {
+        StreamingMetricStatistics streaming = new StreamingMetricStatistics();
+        for (int i = 0; i < VALUES; i++) {
+            streaming.addValue((i * 7919L) % VALUES);
+        }
+
+        double expected = VALUES * percentile / 100.0;
+        Assertions.assertEquals(expected, streaming.getPercentile(percentile), VALUES * 0.02);
+    }
+
+    @Test
+    public void mergedShardsMatchASingleStream() {
+        StreamingMetricStatistics single = new StreamingMetricStatistics();
+        StreamingMetricStatistics merged = new StreamingMetricStatistics();
+
+        for (int shard = 0; shard < 4; shard++) {
+            StreamingMetricStatistics partial = new StreamingMetricStatistics();
+            for (int i = 0; i < VALUES / 4; i++) {
+                double value = shard * (VALUES / 4) + i;
+                single.addValue(value);
+                partial.addValue(value);
+            }
+            merged.merge(partial);
+        }
+
+        Assertions.assertEquals(single.getN(), merged.getN());
+        Assertions.assertEquals(single.getMean(), merged.getMean(), 1e-6);
+        Assertions.assertEquals(single.getStandardDeviation(), merged.getStandardDeviation(), 1e-6);
+        Assertions.assertEquals(VALUES * 0.25, merged.getPercentile(25), VALUES * 0.02);
+    }
+
+    @Test
+    public void skipsNaNLikeTheSketch() {
+        ExactMetricStatistics exact = new ExactMetricStatistics();
+        StreamingMetricStatistics streaming = new StreamingMetricStatistics();
+        for (double value : new double[]{1, Double.NaN, 2, 3, Double.NaN}) {
+            exact.addValue(value);
+            streaming.addValue(value);
+        }
+
+        Assertions.assertEquals(3, streaming.getN());
+        Assertions.assertEquals(exact.getN(), streaming.getN());
+        Assertions.assertEquals(2.0, streaming.getMean(), 1e-9);
+        Assertions.assertEquals(exact.getStandardDeviation(), streaming.getStandardDeviation(), 1e-9);
+    }
+
+    @Test
+    public void sketchMemoryIsBounded() {
+        KLLSketch sketch = new KLLSketch(100);
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.update(i);
+        }
+        Assertions.assertTrue(sketch.getRetainedItems() < 1_000,
+                "Retained items: " + sketch.getRetainedItems());
+    }
+}
@@ -0,0 +1,80 @@
+package cmu.detector.resources;
+
+import cmu.detector.metrics.HierarchyMetricValueCollector;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.util.TypeLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class HierarchyIndexTest {
+
+    private ParenthoodRegistry registry;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/hierarchy");
+        TypeLoader.loadAllFromDir(dir);
+        registry = type("Base").getSourceFile().getContext().getParenthoodRegistry();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Middle, Base, true",
+            "Leaf, Middle, true",
+            "Leaf, Base, false",
+            "Middle, Labelled, true",
+            "Middle, Named, false"
+    })
+    public void findsDirectParents(String child, String parent, boolean expected) {
+        Assertions.assertEquals(expected, registry.isChild(type(child), type(parent)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Leaf, Base, true",
+            "Leaf, Named, true",
+            "Other, Named, true",
+            "Base, Leaf, false",
+            "Leaf, Leaf, false",
+            "Other, Labelled, false"
+    })
+    public void findsTransitiveAncestors(String descendant, String ancestor, boolean expected) {
+        Assertions.assertEquals(expected, registry.isDescendant(type(descendant), type(ancestor)));
+    }
+
+    @Test
+    public void listsAncestorsWithoutTypeArguments() {
+        Assertions.assertTrue(registry.getAncestors(type("Other")).contains("java.lang.Comparable"));
+        Assertions.assertTrue(registry.getAncestors(type("Leaf")).contains("java.lang.Object"));
+        Assertions.assertTrue(registry.getAncestors(type("Leaf")).contains("cmu.detector.dummy.hierarchy.Labelled"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Base, 1, 1",
+            "Middle, 2, 1",
+            "Leaf, 3, 0",
+            "Named, 0, 2",
+            "Labelled, 0, 1"
+    })
+    public void computesDepthAndChildren(String name, double depth, double children) {
+        Type type = type(name);
+        new HierarchyMetricValueCollector().collect(type);
+        Assertions.assertEquals(depth, type.getMetricValue(MetricName.DIT));
+        Assertions.assertEquals(children, type.getMetricValue(MetricName.NOC));
+    }
+
+    private static Type type(String name) {
+        Type type = TypeLoader.findTypeByName(name);
+        Assertions.assertNotNull(type, name);
+        return type;
+    }
+}
@@ -1,7 +1,11 @@
 package cmu.detector.resources;
 
 import cmu.detector.util.TypeLoader;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -68,4 +72,18 @@ public class TypeTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findsLinesWithoutSourceFile() {
+        ASTParser parser = ASTParser.newParser(AST.getJLSLatest());
+        parser.setSource("package p;\n\nclass A {\n  void run() {\n  }\n}\n".toCharArray());
+        CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+
+        Type type = new Type(null, (TypeDeclaration) unit.types().get(0));
+
+        Assertions.assertNull(type.getSourceFile());
+        Assertions.assertEquals(3, type.getStartLineNumber());
+        Assertions.assertEquals(6, type.getEndLineNumber());
+        Assertions.assertEquals(4, type.getMethods().get(0).getStartLineNumber());
+    }
+}
@@ -0,0 +1,142 @@
+package cmu.detector.resources.loader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JavaFilesFinderTest {
+
+    @TempDir
+    Path root;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        write("src/main/java/app/App.java", "class App {}");
+        write("src/main/java/app/Helper.java", "class Helper {}");
+        write("src/main/java/app/README.md", "not java");
+        write("src/main/java/app/Fixture.java", "import org.junit.jupiter.api.Test;\nclass Fixture {}");
+        write("src/test/java/app/AppTest.java", "class AppTest {}");
+        write("build/generated/Stub.java", "class Stub {}");
+        write("web/node_modules/lib/Lib.java", "class Lib {}");
+        write("src/main/java/app/generated/Parser.java", "class Parser {}");
+        write("src/main/java/app/build/Builder.java", "package app.build; class Builder {}");
+        write("src/main/java/app/Testimonial.java", "class Testimonial {}");
+        write("src/main/java/app/Util.java", "// not org.junit\nclass Util { @TestOnly void reset() { String s = \"@Test\"; } }");
+        write("src/test/java/app/TestApp.java", "class TestApp {}");
+        write("tmp/Scratch.java", "class Scratch {}");
+    }
+
+    @Test
+    public void skipsDefaultExcludes() {
+        JavaFilesFinder finder = new JavaFilesFinder(root.toString());
+
+        // build/ and generated/ are only excluded at the root of the source folder
+        Assertions.assertEquals(List.of(
+                "src/main/java/app/App.java",
+                "src/main/java/app/Fixture.java",
+                "src/main/java/app/Helper.java",
+                "src/main/java/app/Testimonial.java",
+                "src/main/java/app/Util.java",
+                "src/main/java/app/build/Builder.java",
+                "src/main/java/app/generated/Parser.java",
+                "src/test/java/app/AppTest.java",
+                "src/test/java/app/TestApp.java",
+                "tmp/Scratch.java"), find(finder));
+    }
+
+    @Test
+    public void dropsDefaultExcludesWhenReplaced() {
+        JavaFilesFinder finder = new JavaFilesFinder(root.toString());
+        finder.setExcludes(List.of("src/"));
+
+        Assertions.assertEquals(List.of(
+                "build/generated/Stub.java",
+                "tmp/Scratch.java",
+                "web/node_modules/lib/Lib.java"), find(finder));
+    }
+
+    @Test
+    public void ignoresTestsByPathAndImports() {
+        JavaFilesFinder finder = new JavaFilesFinder(root.toString());
+        finder.setIgnoreTests(true);
+
+        Assertions.assertEquals(List.of(
+                "src/main/java/app/App.java",
+                "src/main/java/app/Helper.java",
+                "src/main/java/app/Testimonial.java",
+                "src/main/java/app/Util.java",
+                "src/main/java/app/build/Builder.java",
+                "src/main/java/app/generated/Parser.java",
+                "tmp/Scratch.java"), find(finder));
+    }
+
+    @Test
+    public void ignoresTestsByAnnotations() throws IOException {
+        write("src/main/java/app/Check.java", "class Check { @org.junit.jupiter.api.Test void check() {} }");
+        write("src/main/java/app/Case.java", "class Case { @Test void check() {} }");
+        write("src/main/java/app/Chained.java", "class Chained { @Deprecated @Test void check() {} }");
+        write("src/main/java/app/Asserts.java", "import static org.junit.Assert.*; class Asserts {}");
+        write("src/main/java/app/Marker.java", "@interface Marker { String value() default \"@Test\"; }");
+        JavaFilesFinder finder = new JavaFilesFinder(root.resolve("src/main").toString());
+        finder.setIgnoreTests(true);
+
+        List<String> found = find(finder);
+        Assertions.assertFalse(found.contains("src/main/java/app/Check.java"));
+        Assertions.assertFalse(found.contains("src/main/java/app/Case.java"));
+        Assertions.assertFalse(found.contains("src/main/java/app/Chained.java"));
+        Assertions.assertFalse(found.contains("src/main/java/app/Asserts.java"));
+        Assertions.assertTrue(found.contains("src/main/java/app/Marker.java"));
+        Assertions.assertTrue(found.contains("src/main/java/app/Util.java"));
+    }
+
+    @Test
+    public void appliesIncludesAndExcludes() {
+        JavaFilesFinder finder = new JavaFilesFinder(root.toString());
+        finder.setIncludes(List.of("src/**"));
+        finder.addExcludes(List.of("Helper.java"));
+
+        Assertions.assertEquals(List.of(
+                "src/main/java/app/App.java",
+                "src/main/java/app/Fixture.java",
+                "src/main/java/app/Testimonial.java",
+                "src/main/java/app/Util.java",
+                "src/main/java/app/build/Builder.java",
+                "src/main/java/app/generated/Parser.java",
+                "src/test/java/app/AppTest.java",
+                "src/test/java/app/TestApp.java"), find(finder));
+    }
+
+    @Test
+    public void respectsGitignore() throws IOException {
+        write(".gitignore", "/tmp/\n*.java\n!App.java\n");
+        write("src/main/java/app/.gitignore", "!Helper.java\n");
+        JavaFilesFinder finder = new JavaFilesFinder(root.toString());
+        finder.setRespectGitignore(true);
+
+        Assertions.assertEquals(List.of(
+                "src/main/java/app/App.java",
+                "src/main/java/app/Helper.java"), find(finder));
+    }
+
+    private List<String> find(JavaFilesFinder finder) {
+        return finder.findAll().stream()
+                .map(File::toPath)
+                .map(path -> root.relativize(path).toString().replace(File.separatorChar, '/'))
+                .collect(Collectors.toList());
+    }
+
+    private void write(String name, String contents) throws IOException {
+        Path path = root.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, contents, StandardCharsets.UTF_8);
+    }
+}
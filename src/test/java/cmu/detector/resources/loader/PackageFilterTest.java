@@ -0,0 +1,60 @@
+package cmu.detector.resources.loader;
+
+import cmu.detector.resources.AnalysisContext;
+import cmu.detector.resources.Type;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class PackageFilterTest {
+
+    @TempDir
+    Path root;
+
+    @ParameterizedTest
+    @CsvSource({
+            "com.acme, com.acme.Foo, true",
+            "com.acme, com.acme.util.Bar, true",
+            "com.acme, com.acmex.Foo, false",
+            "com.acme.*, com.acme.Foo, true",
+            "com.acme.Foo, com.acme.Foo.Inner, true",
+            "com.acme.Foo, com.acme.FooBar, false"
+    })
+    public void acceptsPackagesTypesAndWhatIsBelow(String entry, String type, boolean expected) {
+        Assertions.assertEquals(expected, new PackageFilter(List.of(entry)).accepts(type));
+    }
+
+    @Test
+    public void onlyMaterialisesIncludedTypes() throws IOException {
+        write("core/Engine.java", "package core; public class Engine { void start() { new util.Helper().help(); } }");
+        write("util/Helper.java", "package util; public class Helper { public void help() {} }");
+
+        AnalysisContext context = new AnalysisContext(new PackageFilter(List.of("core")));
+        SourceFilesLoader loader = new SourceFilesLoader(new JavaFilesFinder(root.toString()), new String[0], true,
+                0, context);
+
+        List<String> types = loader.getLoadedSourceFiles().stream()
+                .flatMap(sourceFile -> sourceFile.getTypes().stream())
+                .map(Type::getFullyQualifiedName)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(List.of("core.Engine"), types);
+
+        // bindings into excluded files still resolve: the call is in the graph
+        Assertions.assertEquals(1, context.getCallGraph().snapshot().getEdgeCount());
+    }
+
+    private void write(String path, String contents) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package cmu.detector.resources.loader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SourceStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final SourceStore store = new SourceStore();
+
+    @Test
+    public void unchangedFileIsNotReadAgain() throws IOException {
+        File file = write("A.java", "class A {}");
+
+        SourceContent first = store.load(file);
+        SourceContent second = store.load(file);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals("class A {}", new String(first.getContents()));
+    }
+
+    @Test
+    public void identicalFilesShareContents() throws IOException {
+        SourceContent first = store.load(write("A.java", "class A {}"));
+        SourceContent second = store.load(write("B.java", "class A {}"));
+
+        Assertions.assertEquals(first.getHash(), second.getHash());
+        Assertions.assertSame(first.getContents(), second.getContents());
+    }
+
+    @Test
+    public void hashesTheFileBytes() throws IOException {
+        SourceContent content = store.load(write("Empty.java", ""));
+
+        Assertions.assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", content.getHash());
+        Assertions.assertEquals(0, content.getContents().length);
+    }
+
+    @Test
+    public void dropsByteOrderMark() throws IOException {
+        SourceContent content = store.load(write("Bom.java", "\uFEFFclass Bom {}"));
+
+        Assertions.assertEquals("class Bom {}", new String(content.getContents()));
+    }
+
+    @Test
+    public void changedFileIsReadAgain() throws IOException {
+        File file = write("A.java", "class A {}");
+        SourceContent first = store.load(file);
+
+        Files.writeString(file.toPath(), "class A { int x; }", StandardCharsets.UTF_8);
+        file.setLastModified(first.getLastModified() + 2000);
+        SourceContent second = store.load(file);
+
+        Assertions.assertNotEquals(first.getHash(), second.getHash());
+        Assertions.assertEquals("class A { int x; }", new String(second.getContents()));
+    }
+
+    @Test
+    public void evictedFileIsReadAgain() throws IOException {
+        File file = write("A.java", "class A {}");
+        SourceContent first = store.load(file);
+
+        store.evict(file);
+        SourceContent second = store.load(file);
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNotSame(first.getContents(), second.getContents());
+    }
+
+    @Test
+    public void sharedContentsOutliveOneOfTheirFiles() throws IOException {
+        store.load(write("A.java", "class A {}"));
+        SourceContent second = store.load(write("B.java", "class A {}"));
+
+        store.evict(directory.resolve("A.java").toFile());
+        SourceContent third = store.load(write("C.java", "class A {}"));
+
+        Assertions.assertSame(second.getContents(), third.getContents());
+    }
+
+    @Test
+    public void changedFileReleasesItsOldContents() throws IOException {
+        File file = write("A.java", "class A {}");
+        SourceContent first = store.load(file);
+        Files.writeString(file.toPath(), "class A { int x; }", StandardCharsets.UTF_8);
+        file.setLastModified(first.getLastModified() + 2000);
+        store.load(file);
+
+        // the old version is not held anymore: another file with it is decoded again
+        SourceContent other = store.load(write("B.java", "class A {}"));
+        Assertions.assertNotSame(first.getContents(), other.getContents());
+    }
+
+    private File write(String name, String contents) throws IOException {
+        Path path = directory.resolve(name);
+        Files.writeString(path, contents, StandardCharsets.UTF_8);
+        return path.toFile();
+    }
+}
@@ -0,0 +1,88 @@
+package cmu.detector.smells;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.TypeMetricValueCollector;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.detectors.ClassDataShouldBePrivateDetector;
+import cmu.detector.smells.detectors.DataClassDetector;
+import cmu.detector.smells.detectors.GodClassDetector;
+import cmu.detector.smells.detectors.LazyClassDetector;
+import cmu.detector.util.TypeLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ClassLevelSmellDetectorTest {
+
+    private ThresholdSnapshot thresholds;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        File dir = new File("src/test/java/cmu/detector/dummy/smells");
+        TypeLoader.loadAllFromDir(dir);
+        for (Type type : TypeLoader.getTypes()) {
+            new TypeMetricValueCollector().collect(type);
+        }
+
+        // a project of simple classes: very high WMC threshold of 6
+        AggregateMetricValues aggregate = new AggregateMetricValues(null);
+        aggregate.addValue(MetricName.WMC, 4.0);
+        aggregate.addValue(MetricName.WMC, 4.0);
+        thresholds = ThresholdSnapshot.freeze(aggregate);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyGodClass, true",
+            "DummyComplexClass, false",
+            "DummyService, false",
+            "DummyLazyClass, false",
+            "DummyRecord, false"
+    })
+    public void detectGodClass(String input, boolean expected) {
+        Assertions.assertEquals(expected, isSmelly(new GodClassDetector(thresholds), input));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyRecord, true",
+            "DummyService, false",
+            "DummyGodClass, false"
+    })
+    public void detectDataClass(String input, boolean expected) {
+        Assertions.assertEquals(expected, isSmelly(new DataClassDetector(thresholds), input));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyLazyClass, true",
+            "DummyService, false",
+            "DummyGodClass, false"
+    })
+    public void detectLazyClass(String input, boolean expected) {
+        Assertions.assertEquals(expected, isSmelly(new LazyClassDetector(thresholds), input));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DummyRecord, true",
+            "DummyService, false",
+            "DummyLazyClass, false"
+    })
+    public void detectClassDataShouldBePrivate(String input, boolean expected) {
+        Assertions.assertEquals(expected, isSmelly(new ClassDataShouldBePrivateDetector(thresholds), input));
+    }
+
+    private static boolean isSmelly(SmellDetector detector, String typeName) {
+        Type type = TypeLoader.findTypeByName(typeName);
+        Assertions.assertNotNull(type, typeName);
+        return !detector.detect(type).isEmpty();
+    }
+}
@@ -0,0 +1,117 @@
+package cmu.detector.smells;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.util.SessionLoader;
+import com.google.gson.JsonObject;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Smells read from the call graph of a whole analysis: Shotgun Surgery (callers)
+ * and Intensive Coupling (callees)
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CouplingSmellDetectorTest {
+
+    @TempDir
+    static Path source;
+
+    private AnalysisSession session;
+
+    @BeforeAll
+    public void setUp() throws IOException, ParseException, URISyntaxException {
+        write("Hub", "public void change() {} public void local() {} public void narrow() {}");
+        write("Worker", "public void w1() {} public void w2() {} public void w3() {} public void w4() {} "
+                + "public void w5() {}");
+
+        // change: 9 callers in 7 classes; local: 3 callers in 1 class; narrow: 9 callers in 1 class
+        write("C1", "void m1(Hub hub) { hub.change(); hub.local(); } void m2(Hub hub) { hub.change(); hub.local(); } "
+                + "void m3(Hub hub) { hub.change(); hub.local(); }");
+        for (int i = 2; i <= 7; i++) {
+            write("C" + i, "void m1(Hub hub) { hub.change(); }");
+        }
+        StringBuilder narrow = new StringBuilder();
+        for (int i = 1; i <= 9; i++) {
+            narrow.append("void n").append(i).append("(Hub hub) { hub.narrow(); } ");
+        }
+        write("D", narrow.toString());
+
+        String workerCalls = "worker.w1(); worker.w2(); worker.w3(); worker.w4(); worker.w5();";
+        write("Coordinator",
+                // 5 methods of a single class, inside nested blocks
+                "void nested(Worker worker, int n) { if (n > 0) { for (int i = 0; i < n; i++) { " + workerCalls + " } } } "
+                        // the same calls, but flat
+                        + "void flat(Worker worker) { " + workerCalls + " } "
+                        // 5 methods spread over 4 classes
+                        + "void spread(Worker worker, C1 c1, C2 c2, C3 c3, int n) { if (n > 0) { for (int i = 0; i < n; i++) { "
+                        + "worker.w1(); worker.w2(); c1.m1(null); c2.m1(null); c3.m1(null); } } } "
+                        // 5 methods of a library class: not part of the model
+                        + "void library(com.google.gson.JsonObject json, int n) { if (n > 0) { for (int i = 0; i < n; i++) { "
+                        + "json.addProperty(\"a\", 1); json.has(\"a\"); json.size(); json.remove(\"a\"); json.keySet(); } } }");
+
+        String gson = Path.of(JsonObject.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        session = SessionLoader.analyze(source.toString(), "-cp", gson);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Hub, change, true",
+            "Hub, local, false",
+            "Hub, narrow, false"
+    })
+    public void detectShotgunSurgery(String type, String method, boolean expected) {
+        Assertions.assertEquals(expected, hasSmell(type, method, SmellName.ShotgunSurgery));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "nested, true",
+            "flat, false",
+            "spread, false",
+            "library, false"
+    })
+    public void detectIntensiveCoupling(String method, boolean expected) {
+        Assertions.assertEquals(expected, hasSmell("Coordinator", method, SmellName.IntensiveCoupling));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "nested, 5",
+            "library, 0"
+    })
+    public void onlyCountsCallsIntoTheModel(String method, double expected) {
+        Assertions.assertEquals(expected, find("Coordinator", method).getMetricValue(MetricName.CINT));
+    }
+
+    private boolean hasSmell(String type, String method, SmellName smell) {
+        return find(type, method).hasSmell(smell);
+    }
+
+    private Method find(String typeName, String methodName) {
+        Type type = session.findType("p." + typeName);
+        Assertions.assertNotNull(type, typeName);
+        Method method = type.findMethodByName(methodName);
+        Assertions.assertNotNull(method, methodName);
+        return method;
+    }
+
+    private void write(String name, String body) throws IOException {
+        Path file = source.resolve("p/" + name + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "package p; public class " + name + " { " + body + " }", StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package cmu.detector.smells;
+
+import cmu.detector.metrics.MethodMetricValueCollector;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.detectors.FeatureEnvyDetector;
+import cmu.detector.smells.detectors.LongMethodDetector;
+import cmu.detector.smells.detectors.LongParameterListDetector;
+import cmu.detector.smells.detectors.MessageChainDetector;
+import cmu.detector.util.TypeLoader;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MethodLevelSmellDetectorTest {
+
+    private Type dummyType;
+
+    private Type dummyMethods;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        TypeLoader.loadAllFromDir(new File("src/test/java/cmu/detector/dummy/kind"));
+        dummyType = TypeLoader.findTypeByName("DummyType");
+        TypeLoader.loadAllFromDir(new File("src/test/java/cmu/detector/dummy/smells"));
+        dummyMethods = TypeLoader.findTypeByName("DummyMethods");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "oneCallChain, false",
+            "twoCallChain, false",
+            "threeCallChain, false",
+            "fourCallChain, true"
+    })
+    public void detectMessageChain(String input, boolean expected) {
+        Method method = findMethod(dummyType, input);
+        new MethodMetricValueCollector().collect(method);
+
+        MessageChainDetector detector = new MessageChainDetector(null);
+        Assertions.assertEquals(expected, !detector.detect(method).isEmpty());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "longMethod, true",
+            "local, false",
+            "envy, false"
+    })
+    public void detectLongMethod(String input, boolean expected) {
+        Method method = findMethod(dummyMethods, input);
+        new MethodMetricValueCollector().collect(method);
+
+        // a project of short methods: high MLOC threshold of 5
+        AggregateMetricValues aggregate = new AggregateMetricValues(null);
+        aggregate.addValue(MetricName.MLOC, 5.0);
+        aggregate.addValue(MetricName.MLOC, 5.0);
+        LongMethodDetector detector = new LongMethodDetector(ThresholdSnapshot.freeze(aggregate));
+        Assertions.assertEquals(expected, !detector.detect(method).isEmpty());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "fiveParameters, true",
+            "fourParameters, false",
+            "longMethod, false"
+    })
+    public void detectLongParameterList(String input, boolean expected) {
+        LongParameterListDetector detector = new LongParameterListDetector(null);
+        Assertions.assertEquals(expected, !detector.detect(findMethod(dummyMethods, input)).isEmpty());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "envy, true",
+            "local, false",
+            "fiveParameters, false"
+    })
+    public void detectFeatureEnvy(String input, boolean expected) {
+        FeatureEnvyDetector detector = new FeatureEnvyDetector(null);
+        Assertions.assertEquals(expected, !detector.detect(findMethod(dummyMethods, input)).isEmpty());
+    }
+
+    private Method findMethod(Type type, String name) {
+        for (Method method : type.getMethods()) {
+            MethodDeclaration declaration = (MethodDeclaration) method.getNode();
+            if (name.equals(declaration.getName().toString())) {
+                return method;
+            }
+        }
+        Assertions.fail("Method not found: " + name);
+        return null;
+    }
+}
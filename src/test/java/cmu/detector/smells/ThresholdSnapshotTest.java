@@ -0,0 +1,51 @@
+package cmu.detector.smells;
+
+import cmu.detector.metrics.MetricName;
+import cmu.detector.metrics.calculators.AggregateMetricValues;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ThresholdSnapshotTest {
+
+    @Test
+    public void derivesThresholdsFromTheAggregate() {
+        AggregateMetricValues aggregate = new AggregateMetricValues(null);
+        for (double value : new double[]{2, 4, 6, 8}) {
+            aggregate.addValue(MetricName.WMC, value);
+        }
+        ThresholdSnapshot thresholds = ThresholdSnapshot.freeze(aggregate);
+
+        double deviation = aggregate.getStandardDeviation(MetricName.WMC);
+        Assertions.assertTrue(thresholds.hasValues(MetricName.WMC));
+        Assertions.assertEquals(5.0, thresholds.getAverageValue(MetricName.WMC));
+        Assertions.assertEquals(deviation, thresholds.getStandardDeviation(MetricName.WMC));
+        Assertions.assertEquals(aggregate.getFirstQuartileValue(MetricName.WMC),
+                thresholds.getFirstQuartileValue(MetricName.WMC));
+        Assertions.assertEquals(5.0 - deviation, thresholds.getLowThreshold(MetricName.WMC));
+        Assertions.assertEquals(5.0 + deviation, thresholds.getHighThreshold(MetricName.WMC));
+        Assertions.assertEquals((5.0 + deviation) * 1.5, thresholds.getVeryHighThreshold(MetricName.WMC));
+    }
+
+    @Test
+    public void ignoresValuesAddedAfterTheFreeze() {
+        AggregateMetricValues aggregate = new AggregateMetricValues(null);
+        aggregate.addValue(MetricName.CLOC, 10.0);
+        ThresholdSnapshot thresholds = ThresholdSnapshot.freeze(aggregate);
+
+        aggregate.addValue(MetricName.CLOC, 30.0);
+
+        Assertions.assertEquals(10.0, thresholds.getAverageValue(MetricName.CLOC));
+        Assertions.assertEquals(0.0, thresholds.getStandardDeviation(MetricName.CLOC));
+        Assertions.assertEquals(20.0, ThresholdSnapshot.freeze(aggregate).getAverageValue(MetricName.CLOC));
+    }
+
+    @Test
+    public void yieldsNaNForMetricsWithoutValues() {
+        ThresholdSnapshot thresholds = ThresholdSnapshot.freeze(new AggregateMetricValues(null));
+
+        Assertions.assertFalse(thresholds.hasValues(MetricName.MLOC));
+        Assertions.assertTrue(Double.isNaN(thresholds.getHighThreshold(MetricName.MLOC)));
+        // every comparison with a NaN threshold fails, so no smell is reported
+        Assertions.assertFalse(10.0 > thresholds.getHighThreshold(MetricName.MLOC));
+    }
+}
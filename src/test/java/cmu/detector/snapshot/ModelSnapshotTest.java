@@ -0,0 +1,118 @@
+package cmu.detector.snapshot;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.metrics.MetricName;
+import cmu.detector.resources.Method;
+import cmu.detector.resources.Resource;
+import cmu.detector.resources.Type;
+import cmu.detector.smells.Smell;
+import cmu.detector.smells.SmellName;
+import cmu.detector.util.SessionLoader;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+public class ModelSnapshotTest {
+
+    @TempDir
+    Path source;
+
+    @Test
+    public void readsBackTheWrittenModel() throws IOException, ParseException {
+        write("p/Alpha.java", "package p; public class Alpha { int x; "
+                + "public int getX() { return x; } void run() { new Beta().work(this); getX(); } }");
+        write("p/Beta.java", "package p; class Beta { void work(Alpha alpha) { if (alpha != null) { alpha.getX(); } } "
+                + "static class Inner { void idle() {} } }");
+        AnalysisSession session = analyze();
+        List<Type> types = session.getTypes();
+        Type alpha = session.findType("p.Alpha");
+        alpha.addAllSmells(List.of(new Smell(SmellName.DataClass, "test reason", 1), new Smell(SmellName.GodClass)));
+
+        File file = source.resolve("model.snapshot").toFile();
+        SnapshotWriter.write(file, types, session.getContext());
+        ModelSnapshot snapshot = ModelSnapshot.open(file);
+
+        List<Method> methods = new ArrayList<>();
+        Assertions.assertEquals(types.size(), snapshot.getTypeCount());
+        for (int t = 0; t < types.size(); t++) {
+            int typeId = t;
+            Type type = types.get(t);
+            Assertions.assertEquals(type.getFullyQualifiedName(), snapshot.getTypeName(t));
+            Assertions.assertEquals(type.getSourceFile().getFileRelativePath(), snapshot.getTypePath(t));
+            Assertions.assertEquals(type.getKind(), snapshot.getTypeKind(t));
+            Assertions.assertEquals(type.isApproximate(), snapshot.isTypeApproximate(t));
+            Assertions.assertEquals(methods.size(), snapshot.getFirstMethod(t));
+            Assertions.assertEquals(methods.size() + type.getMethods().size(), snapshot.getEndMethod(t));
+            assertSameMetricsAndSmells(type, snapshot.getTypeSmells(t), metric -> snapshot.getTypeMetric(typeId, metric));
+            for (Method method : type.getMethods()) {
+                int m = methods.size();
+                Assertions.assertEquals(method.getFullyQualifiedName(), snapshot.getMethodName(m));
+                Assertions.assertEquals(method.getKind(), snapshot.getMethodKind(m));
+                Assertions.assertEquals(t, snapshot.getMethodType(m));
+                assertSameMetricsAndSmells(method, snapshot.getMethodSmells(m), metric -> snapshot.getMethodMetric(m, metric));
+                methods.add(method);
+            }
+        }
+        Assertions.assertEquals(methods.size(), snapshot.getMethodCount());
+        Assertions.assertEquals(2, snapshot.getSmellCount());
+
+        // run calls Beta.work and getX; the call to the Beta constructor leaves the model
+        int run = methods.indexOf(alpha.findMethodByName("run"));
+        List<String> callees = new ArrayList<>();
+        for (int callee : snapshot.getCallees(run)) {
+            callees.add(snapshot.getMethodName(callee));
+        }
+        callees.sort(null);
+        Assertions.assertEquals(List.of("p.Alpha.getX", "p.Beta.work"), callees);
+        Assertions.assertEquals(3, snapshot.getCallCount());
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        File file = write("NotASnapshot.java", "class NotASnapshot {}");
+        Assertions.assertThrows(IOException.class, () -> ModelSnapshot.open(file));
+    }
+
+    private static void assertSameMetricsAndSmells(Resource resource, List<Smell> smells,
+                                                   ToDoubleFunction<MetricName> metrics) {
+        for (MetricName metric : MetricName.values()) {
+            double expected = resource.hasMetricValue(metric) ? resource.getMetricValue(metric) : Double.NaN;
+            Assertions.assertEquals(expected, metrics.applyAsDouble(metric), resource + " " + metric);
+        }
+        Assertions.assertEquals(resource.getSmells().size(), smells.size());
+        for (int i = 0; i < smells.size(); i++) {
+            Smell expected = resource.getSmells().get(i);
+            Assertions.assertEquals(expected.getName(), smells.get(i).getName());
+            Assertions.assertEquals(expected.getReason(), smells.get(i).getReason());
+            Assertions.assertEquals(expected.getStartingLine(), smells.get(i).getStartingLine());
+            Assertions.assertEquals(expected.getEndingLine(), smells.get(i).getEndingLine());
+        }
+    }
+
+    private AnalysisSession analyze() throws IOException, ParseException {
+        AnalysisSession session = SessionLoader.analyze(source.toString());
+        // detected smells depend on thresholds; only the ones added by the test are checked
+        for (Type type : session.getTypes()) {
+            type.clearSmells();
+            type.getMethods().forEach(Resource::clearSmells);
+        }
+        return session;
+    }
+
+    private File write(String name, String contents) throws IOException {
+        Path file = source.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents, StandardCharsets.UTF_8);
+        return file.toFile();
+    }
+}
@@ -0,0 +1,37 @@
+package cmu.detector.util;
+
+import cmu.detector.AnalysisSession;
+import cmu.detector.console.ToolParameters;
+import org.apache.commons.cli.ParseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SessionLoader {
+
+	/**
+	 * Creates a session over the source folder, as the command line would. The options are
+	 * parsed into the shared {@link ToolParameters} after "-out unused.json -src sourcePath"
+	 *
+	 * @param options further command-line options, e.g. "-fs"
+	 */
+	public static AnalysisSession create(String sourcePath, String... options) throws ParseException {
+		List<String> args = new ArrayList<>(List.of("-out", "unused.json", "-src", sourcePath));
+		args.addAll(Arrays.asList(options));
+
+		ToolParameters parameters = ToolParameters.getInstance();
+		parameters.parse(args.toArray(new String[0]));
+		return new AnalysisSession(parameters);
+	}
+
+	/**
+	 * Creates a session over the source folder and analyses it
+	 */
+	public static AnalysisSession analyze(String sourcePath, String... options) throws IOException, ParseException {
+		AnalysisSession session = create(sourcePath, options);
+		session.analyze();
+		return session;
+	}
+}
@@ -21,10 +21,14 @@ public class TypeLoader {
 	 * @throws IOException
 	 */
 	public static void loadAllFromDir(File sourcePath) throws IOException {
+		loadAllFromDir(sourcePath, true);
+	}
+
+	public static void loadAllFromDir(File sourcePath, boolean resolveBindings) throws IOException {
 		types = new HashMap<>();
 
 		JavaFilesFinder finder = new JavaFilesFinder(sourcePath.getAbsolutePath());
-		SourceFilesLoader loader = new SourceFilesLoader(finder);
+		SourceFilesLoader loader = new SourceFilesLoader(finder, resolveBindings);
 
 		for (SourceFile sourceFile : loader.getLoadedSourceFiles()) {
 			for (Type type : sourceFile.getTypes()) {